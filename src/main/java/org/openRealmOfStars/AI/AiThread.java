@@ -78,6 +78,7 @@ public class AiThread extends Thread {
     synchronized (this) {
       running = true;
     }
+    view.takeRequestedAutosave();
     boolean turnEnd = false;
     do {
       turnEnd = view.handleAiTurn();
@@ -78,6 +78,13 @@ public class Mission {
    */
   private int missionTime;
 
+  /**
+   * Mission list where mission belongs. This is notified when
+   * type, phase, fleet name or planet building changes so that
+   * list's indexes stay valid.
+   */
+  private MissionList missionList;
+
   /**
    * Ship type trooper
    */
@@ -142,7 +149,13 @@ public class Mission {
    * @param missionType the mission type to set
    */
   public void setType(final MissionType missionType) {
+    if (missionList != null) {
+      missionList.missionChanging(this);
+    }
     this.type = missionType;
+    if (missionList != null) {
+      missionList.missionChanged(this);
+    }
   }
 
   /**
@@ -158,7 +171,13 @@ public class Mission {
    * @param missionPhase Set phase for mission
    */
   public void setPhase(final MissionPhase missionPhase) {
+    if (missionList != null) {
+      missionList.missionChanging(this);
+    }
     this.phase = missionPhase;
+    if (missionList != null) {
+      missionList.missionChanged(this);
+    }
   }
 
   /**
@@ -174,7 +193,21 @@ public class Mission {
    * @param name Fleet name
    */
   public void setFleetName(final String name) {
+    if (missionList != null) {
+      missionList.missionChanging(this);
+    }
     this.fleetName = name;
+    if (missionList != null) {
+      missionList.missionChanged(this);
+    }
+  }
+
+  /**
+   * Set mission list where mission belongs.
+   * @param list Mission list or null if mission is not in any list
+   */
+  void setMissionList(final MissionList list) {
+    missionList = list;
   }
 
   /**
@@ -190,7 +223,13 @@ public class Mission {
    * @param building Planet name which is building the fleet
    */
   public void setPlanetBuilding(final String building) {
+    if (missionList != null) {
+      missionList.missionChanging(this);
+    }
     this.planetBuilding = building;
+    if (missionList != null) {
+      missionList.missionChanged(this);
+    }
   }
 
   /**
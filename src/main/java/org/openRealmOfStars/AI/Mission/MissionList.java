@@ -10,6 +10,8 @@ import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 
 /**
  *
@@ -33,26 +35,68 @@ import java.util.ArrayList;
  * Mission  list for AI
  *
  */
-
 public class MissionList {
 
+  /**
+   * Gap between order keys of missions added into end or beginning of
+   * the list.
+   */
+  private static final long ORDER_GAP = 1 << 16;
+
   /**
    * AI missions only for AI player
    */
   private ArrayList<Mission> missions;
 
+  /**
+   * Order key for each mission. Keys grow in the same order as missions
+   * are in the list so indexes can keep their buckets in list order.
+   */
+  private IdentityHashMap<Mission, Long> order;
+
+  /**
+   * Missions by type and phase
+   */
+  private ArrayList<ArrayList<Mission>> typePhaseIndex;
+
+  /**
+   * Missions by fleet name. Missions for same fleet are in the same bucket.
+   */
+  private HashMap<String, ArrayList<Mission>> fleetIndex;
+
+  /**
+   * Missions by name of the planet which is building fleet for mission.
+   */
+  private HashMap<String, ArrayList<Mission>> planetIndex;
+
+  /**
+   * Number of list entries which are same mission as earlier entry.
+   * Each mission is indexed only once.
+   */
+  private int duplicates;
+
+  /**
+   * Is index invalid after mission change which could not be tracked
+   */
+  private boolean invalidIndex;
+
   /**
    * Constructor for MissionList.
    */
   public MissionList() {
     missions = new ArrayList<>();
+    clearIndexes();
   }
 
   /**
    * Clear all missions from the list.
    */
   public void clearMissions() {
+    for (Mission mission : missions) {
+      mission.setMissionList(null);
+    }
     missions = new ArrayList<>();
+    clearIndexes();
   }
   /**
    * Read MissionList from DataInputStream
@@ -61,11 +105,355 @@ public class MissionList {
    */
   public MissionList(final DataInputStream dis) throws IOException {
     missions = new ArrayList<>();
+    clearIndexes();
     int count = dis.readInt();
     for (int i = 0; i < count; i++) {
       Mission mission = new MissionRepository().restoreMission(dis);
-      missions.add(mission);
+      insertMission(missions.size(), mission);
+    }
+  }
+
+  /**
+   * Create empty indexes.
+   */
+  private void clearIndexes() {
+    order = new IdentityHashMap<>();
+    int size = (MissionType.values().length + 1)
+        * (MissionPhase.values().length + 1);
+    typePhaseIndex = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      typePhaseIndex.add(new ArrayList<Mission>());
+    }
+    fleetIndex = new HashMap<>();
+    planetIndex = new HashMap<>();
+    duplicates = 0;
+    invalidIndex = false;
+  }
+
+  /**
+   * Build all indexes from the mission list.
+   */
+  private void rebuildIndexes() {
+    clearIndexes();
+    renumber();
+    for (Mission mission : missions) {
+      if (order.get(mission) == null) {
+        continue;
+      }
+      if (!addToBucket(getTypePhaseBucket(mission.getType(),
+          mission.getPhase()), mission)) {
+        // Already indexed
+        duplicates++;
+        continue;
+      }
+      addToIndexes(mission, false);
+    }
+  }
+
+  /**
+   * Give order keys for all missions in list order. If mission is
+   * several times in the list, first entry is used.
+   */
+  private void renumber() {
+    IdentityHashMap<Mission, Long> newOrder = new IdentityHashMap<>();
+    for (int i = 0; i < missions.size(); i++) {
+      Mission mission = missions.get(i);
+      if (!newOrder.containsKey(mission)) {
+        newOrder.put(mission, i * ORDER_GAP);
+      }
+    }
+    order = newOrder;
+  }
+
+  /**
+   * Get order key for mission in list position. Neighbour missions must
+   * have order keys.
+   * @param position Position in mission list
+   * @return Order key or null if there is no room between neighbours
+   */
+  private Long getOrderKey(final int position) {
+    if (missions.size() == 1) {
+      return Long.valueOf(0);
+    }
+    if (position == 0) {
+      return order.get(missions.get(1)) - ORDER_GAP;
+    }
+    long prev = order.get(missions.get(position - 1));
+    if (position == missions.size() - 1) {
+      return prev + ORDER_GAP;
+    }
+    long next = order.get(missions.get(position + 1));
+    if (next - prev > 1) {
+      return prev + (next - prev) / 2;
+    }
+    return null;
+  }
+
+  /**
+   * Insert mission into list and indexes.
+   * @param position Position in mission list
+   * @param mission Mission to insert
+   */
+  private void insertMission(final int position, final Mission mission) {
+    missions.add(position, mission);
+    mission.setMissionList(this);
+    if (order.containsKey(mission)) {
+      // Same mission is twice in the list
+      rebuildIndexes();
+      return;
+    }
+    Long key = getOrderKey(position);
+    if (key == null) {
+      renumber();
+    } else {
+      order.put(mission, key);
+    }
+    addToIndexes(mission, true);
+  }
+
+  /**
+   * Find position where mission belongs in bucket.
+   * @param bucket Bucket sorted by order keys
+   * @param key Order key of mission
+   * @return First position which has equal or greater order key
+   */
+  private int findPosition(final ArrayList<Mission> bucket, final long key) {
+    int low = 0;
+    int high = bucket.size();
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (order.get(bucket.get(mid)) < key) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Add mission into bucket in list order.
+   * @param bucket Bucket sorted by order keys
+   * @param mission Mission to add
+   * @return False if mission was already in bucket
+   */
+  private boolean addToBucket(final ArrayList<Mission> bucket,
+      final Mission mission) {
+    int position = findPosition(bucket, order.get(mission));
+    if (position < bucket.size() && bucket.get(position) == mission) {
+      return false;
+    }
+    bucket.add(position, mission);
+    return true;
+  }
+
+  /**
+   * Remove mission from bucket.
+   * @param bucket Bucket sorted by order keys, may be null
+   * @param mission Mission to remove
+   * @return True if mission was found from bucket
+   */
+  private boolean removeFromBucket(final ArrayList<Mission> bucket,
+      final Mission mission) {
+    if (bucket == null) {
+      return false;
+    }
+    int position = findPosition(bucket, order.get(mission));
+    if (position < bucket.size() && bucket.get(position) == mission) {
+      bucket.remove(position);
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Get bucket for mission type and phase.
+   * @param type Mission type, may be null
+   * @param phase Mission phase, may be null
+   * @return Bucket
+   */
+  private ArrayList<Mission> getTypePhaseBucket(final MissionType type,
+      final MissionPhase phase) {
+    int typeIndex = MissionType.values().length;
+    if (type != null) {
+      typeIndex = type.ordinal();
+    }
+    int phaseIndex = MissionPhase.values().length;
+    if (phase != null) {
+      phaseIndex = phase.ordinal();
+    }
+    return typePhaseIndex.get(typeIndex * (MissionPhase.values().length + 1)
+        + phaseIndex);
+  }
+
+  /**
+   * Get buckets for mission type for every phase.
+   * @param type Mission type
+   * @return Buckets
+   */
+  private ArrayList<ArrayList<Mission>> getTypeBuckets(
+      final MissionType type) {
+    ArrayList<ArrayList<Mission>> buckets = new ArrayList<>();
+    for (MissionPhase phase : MissionPhase.values()) {
+      buckets.add(getTypePhaseBucket(type, phase));
+    }
+    buckets.add(getTypePhaseBucket(type, null));
+    return buckets;
+  }
+
+  /**
+   * Add mission into named bucket.
+   * @param index Index where to add
+   * @param name Bucket name, if null mission is not added
+   * @param mission Mission to add
+   */
+  private void addToNamedBucket(final HashMap<String, ArrayList<Mission>> index,
+      final String name, final Mission mission) {
+    if (name == null) {
+      return;
+    }
+    ArrayList<Mission> bucket = index.get(name);
+    if (bucket == null) {
+      bucket = new ArrayList<>(1);
+      index.put(name, bucket);
+    }
+    addToBucket(bucket, mission);
+  }
+
+  /**
+   * Remove mission from named bucket.
+   * @param index Index where to remove
+   * @param name Bucket name, if null mission is not in index
+   * @param mission Mission to remove
+   * @return True if mission was found or name is null
+   */
+  private boolean removeFromNamedBucket(
+      final HashMap<String, ArrayList<Mission>> index, final String name,
+      final Mission mission) {
+    if (name == null) {
+      return true;
+    }
+    ArrayList<Mission> bucket = index.get(name);
+    if (removeFromBucket(bucket, mission)) {
+      if (bucket.isEmpty()) {
+        index.remove(name);
+      }
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Add mission into indexes. Mission must have order key.
+   * @param mission Mission to add
+   * @param typePhase True to add into type and phase index too
+   */
+  private void addToIndexes(final Mission mission, final boolean typePhase) {
+    if (typePhase) {
+      addToBucket(getTypePhaseBucket(mission.getType(), mission.getPhase()),
+          mission);
+    }
+    addToNamedBucket(fleetIndex, mission.getFleetName(), mission);
+    addToNamedBucket(planetIndex, mission.getPlanetBuilding(), mission);
+  }
+
+  /**
+   * Remove mission from indexes.
+   * @param mission Mission to remove
+   * @return True if mission was found from all indexes
+   */
+  private boolean removeFromIndexes(final Mission mission) {
+    boolean found = removeFromBucket(getTypePhaseBucket(mission.getType(),
+        mission.getPhase()), mission);
+    found = removeFromNamedBucket(fleetIndex, mission.getFleetName(),
+        mission) && found;
+    found = removeFromNamedBucket(planetIndex, mission.getPlanetBuilding(),
+        mission) && found;
+    return found;
+  }
+
+  /**
+   * Mission in this list is about to change indexed value.
+   * @param mission Mission which is going to change
+   */
+  void missionChanging(final Mission mission) {
+    if (!order.containsKey(mission) || !removeFromIndexes(mission)) {
+      invalidIndex = true;
+    }
+  }
+
+  /**
+   * Mission in this list has changed indexed value.
+   * @param mission Mission which was changed
+   */
+  void missionChanged(final Mission mission) {
+    if (invalidIndex) {
+      rebuildIndexes();
+    } else {
+      addToIndexes(mission, true);
+    }
+  }
+
+  /**
+   * Update indexes after mission has been removed from the list.
+   * @param mission Removed mission
+   */
+  private void missionRemoved(final Mission mission) {
+    for (Mission ite : missions) {
+      if (ite == mission) {
+        // Mission is still in the list
+        rebuildIndexes();
+        return;
+      }
+    }
+    if (!removeFromIndexes(mission)) {
+      rebuildIndexes();
+    }
+    order.remove(mission);
+    mission.setMissionList(null);
+  }
+
+  /**
+   * Return mission which is earlier in the list.
+   * @param first Mission or null
+   * @param second Mission or null
+   * @return Earlier mission or null if both are null
+   */
+  private Mission getEarlier(final Mission first, final Mission second) {
+    if (first == null) {
+      return second;
+    }
+    if (second == null) {
+      return first;
+    }
+    if (order.get(second) < order.get(first)) {
+      return second;
+    }
+    return first;
+  }
+
+  /**
+   * Get missions for certain fleet name.
+   * @param fleetName Fleet name
+   * @return Missions in list order or null if there are no such missions
+   */
+  private ArrayList<Mission> getFleetBucket(final String fleetName) {
+    if (fleetName == null) {
+      return null;
+    }
+    return fleetIndex.get(fleetName);
+  }
+
+  /**
+   * Get missions for certain planet building fleet.
+   * @param planetName Planet name
+   * @return Missions in list order or null if there are no such missions
+   */
+  private ArrayList<Mission> getPlanetBucket(final String planetName) {
+    if (planetName == null) {
+      return null;
     }
+    return planetIndex.get(planetName);
   }
 
   /**
@@ -88,11 +476,12 @@ public class MissionList {
    */
   public Mission getMissionForFleet(final String fleetName,
       final MissionType type) {
-    for (Mission mission : missions) {
-      if (mission.getFleetName() != null
-          && mission.getFleetName().equals(fleetName)
-          && mission.getType() == type) {
-        return mission;
+    ArrayList<Mission> bucket = getFleetBucket(fleetName);
+    if (bucket != null) {
+      for (Mission mission : bucket) {
+        if (mission.getType() == type) {
+          return mission;
+        }
       }
     }
     return null;
@@ -104,11 +493,14 @@ public class MissionList {
    * @param newName New name where to change
    */
   public void changeFleetName(final String oldName, final String newName) {
-    for (Mission mission : missions) {
-      if (mission.getFleetName() != null
-          && mission.getFleetName().equals(oldName)) {
-        mission.setFleetName(newName);
-      }
+    ArrayList<Mission> bucket = getFleetBucket(oldName);
+    if (bucket == null) {
+      return;
+    }
+    // Renaming moves missions out of the bucket
+    Mission[] toRename = bucket.toArray(new Mission[bucket.size()]);
+    for (Mission mission : toRename) {
+      mission.setFleetName(newName);
     }
   }
   /**
@@ -117,15 +509,14 @@ public class MissionList {
    * @return Mission or null if not found
    */
   public Mission getMissionForFleet(final String fleetName) {
-    Mission first = null;
-    for (Mission mission : missions) {
-      if (mission.getFleetName() != null
-          && mission.getFleetName().equals(fleetName) && first == null) {
-        first = mission;
-      }
-      if (mission.getFleetName() != null
-          && mission.getFleetName().equals(fleetName)
-          && mission.getType() == MissionType.ESPIONAGE_MISSION) {
+    ArrayList<Mission> bucket = getFleetBucket(fleetName);
+    if (bucket == null) {
+      return null;
+    }
+    // Espionage mission is preferred, otherwise first one
+    Mission first = bucket.get(0);
+    for (Mission mission : bucket) {
+      if (mission.getType() == MissionType.ESPIONAGE_MISSION) {
         first = mission;
       }
     }
@@ -139,14 +530,7 @@ public class MissionList {
    * @return Mission or null if not found
    */
   public Mission getColonizeMission(final int x, final int y) {
-    for (Mission mission : missions) {
-      if (mission.getX() == x && mission.getY() == y
-          && mission.getType() == MissionType.COLONIZE) {
-        return mission;
-      }
-    }
-    return null;
-
+    return getMissionByCoordinate(MissionType.COLONIZE, x, y);
   }
 
   /**
@@ -156,30 +540,58 @@ public class MissionList {
    * @return Mission or null if not found
    */
   public Mission getDeployStarbaseMission(final int x, final int y) {
-    for (Mission mission : missions) {
-      if (mission.getX() == x && mission.getY() == y
-          && mission.getType() == MissionType.DEPLOY_STARBASE) {
-        return mission;
+    return getMissionByCoordinate(MissionType.DEPLOY_STARBASE, x, y);
+  }
+
+  /**
+   * Find first mission of certain type for coordinate
+   * @param type Mission type
+   * @param x Target X coordinate
+   * @param y Target Y coordinate
+   * @return Mission or null if not found
+   */
+  private Mission getMissionByCoordinate(final MissionType type,
+      final int x, final int y) {
+    Mission result = null;
+    for (ArrayList<Mission> bucket : getTypeBuckets(type)) {
+      for (Mission mission : bucket) {
+        if (mission.getX() == x && mission.getY() == y) {
+          result = getEarlier(result, mission);
+          break;
+        }
       }
     }
-    return null;
+    return result;
   }
 
   /**
-   * Find a Attack mission for certain planet
-   * @param name Planet where to attack
+   * Find first mission of certain type for target planet
+   * @param type Mission type
+   * @param name Target planet name
    * @return Mission or null if not found
    */
-  public Mission getAttackMission(final String name) {
-    for (Mission mission : missions) {
-      if (mission.getTargetPlanet() != null
-          && mission.getTargetPlanet().equals(name)
-          && mission.getType() == MissionType.ATTACK) {
-        return mission;
+  private Mission getMissionByTarget(final MissionType type,
+      final String name) {
+    Mission result = null;
+    for (ArrayList<Mission> bucket : getTypeBuckets(type)) {
+      for (Mission mission : bucket) {
+        if (mission.getTargetPlanet() != null
+            && mission.getTargetPlanet().equals(name)) {
+          result = getEarlier(result, mission);
+          break;
+        }
       }
     }
-    return null;
+    return result;
+  }
 
+  /**
+   * Find a Attack mission for certain planet
+   * @param name Planet where to attack
+   * @return Mission or null if not found
+   */
+  public Mission getAttackMission(final String name) {
+    return getMissionByTarget(MissionType.ATTACK, name);
   }
 
   /**
@@ -188,15 +600,7 @@ public class MissionList {
    * @return Mission or null if not found
    */
   public Mission getTradeMission(final String name) {
-    for (Mission mission : missions) {
-      if (mission.getTargetPlanet() != null
-          && mission.getTargetPlanet().equals(name)
-          && mission.getType() == MissionType.TRADE_FLEET) {
-        return mission;
-      }
-    }
-    return null;
-
+    return getMissionByTarget(MissionType.TRADE_FLEET, name);
   }
 
   /**
@@ -206,15 +610,7 @@ public class MissionList {
    * @return Mission or null if not found
    */
   public Mission getDestroyStarbaseMission(final String name) {
-    for (Mission mission : missions) {
-      if (mission.getTargetPlanet() != null
-          && mission.getTargetPlanet().equals(name)
-          && mission.getType() == MissionType.DESTROY_STARBASE) {
-        return mission;
-      }
-    }
-    return null;
-
+    return getMissionByTarget(MissionType.DESTROY_STARBASE, name);
   }
 
   /**
@@ -223,17 +619,14 @@ public class MissionList {
    * @return true if no gather mission found
    */
   public boolean noMoreGatherMissions(final String planetName) {
-    int count = 0;
-    for (Mission mission : missions) {
-      if (mission.getType() == MissionType.GATHER
-          && mission.getTargetPlanet().equals(planetName)) {
-        count++;
+    for (ArrayList<Mission> bucket : getTypeBuckets(MissionType.GATHER)) {
+      for (Mission mission : bucket) {
+        if (mission.getTargetPlanet().equals(planetName)) {
+          return false;
+        }
       }
     }
-    if (count == 0) {
-      return true;
-    }
-    return false;
+    return true;
   }
 
   /**
@@ -243,10 +636,16 @@ public class MissionList {
    */
   public int getNumberOfMissionTypes(final MissionType type) {
     int count = 0;
-    for (Mission mission : missions) {
-      if (mission.getType() == type) {
-        count++;
+    if (duplicates > 0) {
+      for (Mission mission : missions) {
+        if (mission.getType() == type) {
+          count++;
+        }
       }
+      return count;
+    }
+    for (ArrayList<Mission> bucket : getTypeBuckets(type)) {
+      count = count + bucket.size();
     }
     return count;
   }
@@ -258,13 +657,23 @@ public class MissionList {
    * @return Mission or null if not found
    */
   public Mission getMission(final MissionType type, final MissionPhase phase) {
-    for (Mission mission : missions) {
-      if (mission.getType() == type
-          && mission.getPhase() == phase) {
-        return mission;
-      }
+    ArrayList<Mission> bucket = getTypePhaseBucket(type, phase);
+    if (bucket.isEmpty()) {
+      return null;
     }
-    return null;
+    return bucket.get(0);
+  }
+
+  /**
+   * Get all missions where type is certain and phase is certain.
+   * @param type Mission type
+   * @param phase Mission phase
+   * @return Missions in list order
+   */
+  public Mission[] getMissions(final MissionType type,
+      final MissionPhase phase) {
+    ArrayList<Mission> bucket = getTypePhaseBucket(type, phase);
+    return bucket.toArray(new Mission[bucket.size()]);
   }
 
   /**
@@ -273,10 +682,9 @@ public class MissionList {
    * @return Gather mission or null
    */
   public Mission getGatherMission(final String shipType) {
-    for (Mission mission : missions) {
-      if (mission.getType() == MissionType.GATHER
-          && mission.getPhase() == MissionPhase.PLANNING
-          && mission.getShipType().equals(shipType)) {
+    for (Mission mission : getTypePhaseBucket(MissionType.GATHER,
+        MissionPhase.PLANNING)) {
+      if (mission.getShipType().equals(shipType)) {
         return mission;
       }
     }
@@ -291,11 +699,12 @@ public class MissionList {
    */
   public Mission getMissionForPlanet(final String planetName,
       final MissionType type) {
-    for (Mission mission : missions) {
-      if (mission.getPlanetBuilding() != null
-          && mission.getPlanetBuilding().equals(planetName)
-          && mission.getType() == type) {
-        return mission;
+    ArrayList<Mission> bucket = getPlanetBucket(planetName);
+    if (bucket != null) {
+      for (Mission mission : bucket) {
+        if (mission.getType() == type) {
+          return mission;
+        }
       }
     }
     return null;
@@ -309,11 +718,12 @@ public class MissionList {
    */
   public Mission getMissionForPlanet(final String planetName,
       final MissionPhase phase) {
-    for (Mission mission : missions) {
-      if (mission.getPlanetBuilding() != null
-          && mission.getPlanetBuilding().equals(planetName)
-          && mission.getPhase() == phase) {
-        return mission;
+    ArrayList<Mission> bucket = getPlanetBucket(planetName);
+    if (bucket != null) {
+      for (Mission mission : bucket) {
+        if (mission.getPhase() == phase) {
+          return mission;
+        }
       }
     }
     return null;
@@ -324,7 +734,9 @@ public class MissionList {
    * @param mission Mission to remove
    */
   public void remove(final Mission mission) {
-    missions.remove(mission);
+    if (missions.remove(mission)) {
+      missionRemoved(mission);
+    }
   }
 
   /**
@@ -332,14 +744,14 @@ public class MissionList {
    * @param fleetName Fleet name to delete
    */
   public void deleteMissionForFleet(final String fleetName) {
-    ArrayList<Mission> deletableMissions = new ArrayList<>();
-    for (Mission mission : missions) {
-      if (fleetName.equals(mission.getFleetName())) {
-        deletableMissions.add(mission);
-      }
+    ArrayList<Mission> bucket = getFleetBucket(fleetName);
+    if (bucket == null) {
+      return;
     }
+    Mission[] deletableMissions = bucket.toArray(
+        new Mission[bucket.size()]);
     for (Mission mission : deletableMissions) {
-      missions.remove(mission);
+      remove(mission);
     }
   }
 
@@ -384,7 +796,7 @@ public class MissionList {
    * @param mission The mission to add to the list
    */
   public void add(final Mission mission) {
-    missions.add(mission);
+    insertMission(missions.size(), mission);
   }
 
   /**
@@ -392,7 +804,7 @@ public class MissionList {
    * @param mission The mission to add to the list
    */
   public void addHighestPriority(final Mission mission) {
-    missions.add(0, mission);
+    insertMission(0, mission);
   }
 
   /**
@@ -413,7 +825,7 @@ public class MissionList {
         break;
       }
     }
-    missions.add(priority, mission);
+    insertMission(priority, mission);
   }
 
   /**
@@ -7,12 +7,13 @@ import org.openRealmOfStars.mapTiles.FleetTileInfo;
 import org.openRealmOfStars.player.combat.Combat;
 import org.openRealmOfStars.player.combat.CombatShip;
 import org.openRealmOfStars.starMap.Coordinate;
+import org.openRealmOfStars.starMap.PassabilityLayer;
 import org.openRealmOfStars.starMap.StarMap;
 
 /**
  *
  * Open Realm of Stars game project
- * Copyright (C) 2016, 2018  Tuomo Untinen
+ * Copyright (C) 2016, 2018, 2020  Tuomo Untinen
  *
  * This program is free software; you can redistribute it and/or
  * modify it under the terms of the GNU General Public License
@@ -29,11 +30,25 @@ import org.openRealmOfStars.starMap.StarMap;
  *
  *
  * A Star path searching algorithm. This works with BattleMap and StarMap.
+ * Each move to any of eight neighbours costs one. Search uses
+ * thread's own PathfindingWorkspace so searching does not allocate
+ * map sized arrays.
  *
  */
 
 public class AStarSearch {
 
+  /**
+   * Workspace for each thread doing path finding.
+   */
+  private static final ThreadLocal<PathfindingWorkspace> WORKSPACE =
+      new ThreadLocal<PathfindingWorkspace>() {
+    @Override
+    protected PathfindingWorkspace initialValue() {
+      return new PathfindingWorkspace();
+    }
+  };
+
   /**
    * Map X size
    */
@@ -44,28 +59,51 @@ public class AStarSearch {
   private int maxY;
 
   /**
-   * Map value for blocked
+   * Combat map where to search or null
+   */
+  private Combat combat;
+
+  /**
+   * Is combat target worm hole, which is never blocked.
+   */
+  private boolean wormHoleTarget;
+
+  /**
+   * Star map where to search or null
+   */
+  private StarMap starMap;
+
+  /**
+   * Passability layer of star map or null
+   */
+  private PassabilityLayer passability;
+
+  /**
+   * Are dangerous tiles considered as blocked in star map
    */
-  private static final int BLOCKED = Integer.MAX_VALUE;
+  private boolean dangerousBlocked;
 
   /**
-   * Map value for unblocked
+   * Fleet tiles in star map, fleets of other realms are blocked.
    */
-  private static final int UNBLOCKED = 200000;
+  private FleetTileInfo[][] fleetTiles;
 
   /**
-   * Start distance for PathPoint. This number just needs to bigger
-   * than it ever can be calculated from map.
+   * Realm index owning the searching fleet or -1
    */
-  private static final int START_DISTANCE = 999999;
+  private int ownerIndex;
 
   /**
-   * Map containing the block information
+   * Starting X coordinate
+   */
+  private int sx;
+  /**
+   * Starting Y coordinate
    */
-  private int[][] blockMap;
+  private int sy;
 
   /**
-   * Points to still to check
+   * Route points from target to first move
    */
   private List<PathPoint> points;
 
@@ -104,29 +142,10 @@ public class AStarSearch {
       final CombatShip target, final int targetDistance) {
     maxX = Combat.MAX_X;
     maxY = Combat.MAX_Y;
-    blockMap = new int[maxX][maxY];
-    this.targetDistance = targetDistance;
-    for (int y = 0; y < maxY; y++) {
-      for (int x = 0; x < maxX; x++) {
-        if (combat.isBlocked(x, y, true)) {
-          blockMap[x][y] = BLOCKED;
-        } else {
-          blockMap[x][y] = UNBLOCKED;
-        }
-      }
-    }
-    points = new ArrayList<>();
-    tx = target.getX();
-    ty = target.getY();
-    this.targetDistance = targetDistance;
-    Coordinate startCoordinate = new Coordinate(start.getX(), start.getY());
-    Coordinate targetCoordinate = new Coordinate(target.getX(), target.getY());
-    PathPoint point1 = new PathPoint(start.getX(), start.getY(),
-            startCoordinate.calculateDistance(targetCoordinate));
-    points.add(point1);
-    blockMap[point1.getX()][point1.getY()] = 0;
-    targetPoint = null;
-    routeIndex = -1;
+    this.combat = combat;
+    wormHoleTarget = false;
+    init(start.getX(), start.getY(), target.getX(), target.getY(),
+        targetDistance);
   }
 
   /**
@@ -140,34 +159,11 @@ public class AStarSearch {
       final Coordinate target, final int targetDistance) {
     maxX = Combat.MAX_X;
     maxY = Combat.MAX_Y;
-    blockMap = new int[maxX][maxY];
-    this.targetDistance = targetDistance;
-    for (int y = 0; y < maxY; y++) {
-      for (int x = 0; x < maxX; x++) {
-        if (combat.isBlocked(x, y, true)) {
-          blockMap[x][y] = BLOCKED;
-        } else {
-          blockMap[x][y] = UNBLOCKED;
-        }
-        if (combat.getWormHoleCoordinate() != null
-            && combat.getWormHoleCoordinate().sameAs(target)
-            && x == target.getX() && y == target.getY()) {
-          blockMap[x][y] = UNBLOCKED;
-        }
-      }
-    }
-    points = new ArrayList<>();
-    tx = target.getX();
-    ty = target.getY();
-    this.targetDistance = targetDistance;
-    Coordinate startCoordinate = new Coordinate(start.getX(), start.getY());
-    Coordinate targetCoordinate = new Coordinate(target.getX(), target.getY());
-    PathPoint point1 = new PathPoint(start.getX(), start.getY(),
-            startCoordinate.calculateDistance(targetCoordinate));
-    points.add(point1);
-    blockMap[point1.getX()][point1.getY()] = 0;
-    targetPoint = null;
-    routeIndex = -1;
+    this.combat = combat;
+    wormHoleTarget = combat.getWormHoleCoordinate() != null
+        && combat.getWormHoleCoordinate().sameAs(target);
+    init(start.getX(), start.getY(), target.getX(), target.getY(),
+        targetDistance);
   }
 
   /**
@@ -186,44 +182,26 @@ public class AStarSearch {
       final boolean dangerousBlocked) {
     maxX = map.getMaxX();
     maxY = map.getMaxY();
-    blockMap = new int[maxX][maxY];
-    FleetTileInfo[][] fleetTiles = map.getFleetTiles();
-    int ownerIndex = -1;
-    if (fleetTiles != null && fleetTiles[sx][sy] != null) {
+    starMap = map;
+    this.dangerousBlocked = dangerousBlocked;
+    fleetTiles = map.getFleetTiles();
+    passability = map.getPassability();
+    if (passability != null) {
+      ownerIndex = passability.getFleetRealm(sx, sy);
+    } else if (fleetTiles != null && fleetTiles[sx][sy] != null) {
       ownerIndex = fleetTiles[sx][sy].getPlayerIndex();
+    } else {
+      ownerIndex = -1;
     }
-    for (int y = 0; y < maxY; y++) {
-      for (int x = 0; x < maxX; x++) {
-        if (map.isBlocked(x, y) || dangerousBlocked && map.isDangerous(x, y)) {
-          blockMap[x][y] = BLOCKED;
-        } else {
-          blockMap[x][y] = UNBLOCKED;
-        }
-        if (ownerIndex != -1) {
-          FleetTileInfo fleetTile = fleetTiles[x][y];
-          if (fleetTile != null && fleetTile.getPlayerIndex() != ownerIndex) {
-            blockMap[x][y] = BLOCKED;
-          }
-        }
-      }
-    }
-    points = new ArrayList<>();
-    this.tx = tx;
-    this.ty = ty;
     Coordinate startCoordinate = new Coordinate(sx, sy);
     Coordinate targetCoordinate = new Coordinate(tx, ty);
-    this.targetDistance = (int) Math
+    int distance = (int) Math
         .round(startCoordinate.calculateDistance(targetCoordinate)) - radius;
-    if (this.targetDistance < 0) {
+    if (distance < 0) {
       // Target is actually in reroute area
-      this.targetDistance = 0;
+      distance = 0;
     }
-    PathPoint point1 = new PathPoint(sx, sy,
-            startCoordinate.calculateDistance(targetCoordinate));
-    points.add(point1);
-    blockMap[point1.getX()][point1.getY()] = 0;
-    targetPoint = null;
-    routeIndex = -1;
+    init(sx, sy, tx, ty, distance);
   }
 
   /**
@@ -239,26 +217,30 @@ public class AStarSearch {
       final int tx, final int ty, final boolean dangerousBlocked) {
     maxX = map.getMaxX();
     maxY = map.getMaxY();
-    blockMap = new int[maxX][maxY];
-    for (int y = 0; y < maxY; y++) {
-      for (int x = 0; x < maxX; x++) {
-        if (map.isBlocked(x, y) || dangerousBlocked && map.isDangerous(x, y)) {
-          blockMap[x][y] = BLOCKED;
-        } else {
-          blockMap[x][y] = UNBLOCKED;
-        }
-      }
-    }
+    starMap = map;
+    passability = map.getPassability();
+    this.dangerousBlocked = dangerousBlocked;
+    fleetTiles = null;
+    ownerIndex = -1;
+    init(sx, sy, tx, ty, 0);
+  }
+
+  /**
+   * Initialize start and target for the search.
+   * @param startX Starting point X coordinate
+   * @param startY Starting point Y coordinate
+   * @param targetX Target X coordinate
+   * @param targetY Target Y coordinate
+   * @param distance How near is enough
+   */
+  private void init(final int startX, final int startY, final int targetX,
+      final int targetY, final int distance) {
+    sx = startX;
+    sy = startY;
+    tx = targetX;
+    ty = targetY;
+    targetDistance = distance;
     points = new ArrayList<>();
-    this.tx = tx;
-    this.ty = ty;
-    this.targetDistance = 0;
-    Coordinate startCoordinate = new Coordinate(sx, sy);
-    Coordinate targetCoordinate = new Coordinate(tx, ty);
-    PathPoint point1 = new PathPoint(sx, sy,
-        startCoordinate.calculateDistance(targetCoordinate));
-    points.add(point1);
-    blockMap[point1.getX()][point1.getY()] = 0;
     targetPoint = null;
     routeIndex = -1;
   }
@@ -276,112 +258,165 @@ public class AStarSearch {
     return false;
   }
 
+  /**
+   * Is coordinate blocked on searched map.
+   * @param x X Coordinate
+   * @param y Y Coordinate
+   * @return true if blocked
+   */
+  private boolean isBlocked(final int x, final int y) {
+    if (combat != null) {
+      if (wormHoleTarget && x == tx && y == ty) {
+        return false;
+      }
+      return combat.isBlocked(x, y, true);
+    }
+    if (passability != null) {
+      return passability.isBlocked(x, y)
+          || dangerousBlocked && passability.isDangerous(x, y)
+          || ownerIndex != -1
+          && passability.isOccupiedByOtherRealm(x, y, ownerIndex);
+    }
+    if (starMap.isBlocked(x, y)
+        || dangerousBlocked && starMap.isDangerous(x, y)) {
+      return true;
+    }
+    if (ownerIndex != -1) {
+      FleetTileInfo fleetTile = fleetTiles[x][y];
+      if (fleetTile != null && fleetTile.getPlayerIndex() != ownerIndex) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Is node blocked. Block information is checked only once
+   * per search.
+   * @param workspace PathfindingWorkspace
+   * @param node Packed coordinate
+   * @return true if blocked
+   */
+  private boolean isBlocked(final PathfindingWorkspace workspace,
+      final int node) {
+    if (!workspace.isBlockChecked(node)) {
+      workspace.setBlocked(node, isBlocked(node % maxX, node / maxX));
+    }
+    return workspace.isBlocked(node);
+  }
+
+  /**
+   * Estimate how many moves are needed from coordinate to reach
+   * target distance. Single move changes x and y at most by one,
+   * so estimate is never too high.
+   * @param x X Coordinate
+   * @param y Y Coordinate
+   * @return Estimated number of moves
+   */
+  private int estimate(final int x, final int y) {
+    int moves = Math.max(Math.abs(tx - x), Math.abs(ty - y)) - targetDistance;
+    if (moves < 0) {
+      moves = 0;
+    }
+    return moves;
+  }
+
+  /**
+   * Calculate distance from coordinate to target
+   * @param x X Coordinate
+   * @param y Y Coordinate
+   * @return Distance
+   */
+  private double distanceToTarget(final int x, final int y) {
+    int xDistance = tx - x;
+    int yDistance = ty - y;
+    return Math.sqrt(xDistance * xDistance + yDistance * yDistance);
+  }
+
   /**
    * Do actual A Star search with initialized values
    * @return True if successful and false if not
    */
   public boolean doSearch() {
-    boolean noMorePoints = false;
-    int count = 0;
-    if (isValidPos(tx, ty) && blockMap[tx][ty] == BLOCKED
-        && targetDistance == 0) {
+    targetPoint = null;
+    if (!isValidPos(sx, sy)) {
+      return false;
+    }
+    PathfindingWorkspace workspace = WORKSPACE.get();
+    workspace.startSearch(maxX * maxY);
+    if (isValidPos(tx, ty) && targetDistance == 0
+        && isBlocked(workspace, ty * maxX + tx)) {
       targetDistance = 1;
     }
-    while (!noMorePoints) {
-      count++;
-      if (points.size() > 0) {
-        PathPoint point = points.get(0);
-        points.remove(0);
-        for (int y = -1; y < 2; y++) {
-          for (int x = -1; x < 2; x++) {
-            if (y == 0 && x == 0) {
-              continue;
-            }
-            int mx = x + point.getX();
-            int my = y + point.getY();
-            if (isValidPos(mx, my) && blockMap[mx][my] > count
-                && blockMap[mx][my] != BLOCKED) {
-              blockMap[mx][my] = count;
-              Coordinate coordinate = new Coordinate(mx, my);
-              Coordinate targetCoordinate = new Coordinate(tx, ty);
-              double distance = coordinate.calculateDistance(targetCoordinate);
-              PathPoint newPoint = new PathPoint(mx, my, distance);
-              if (distance < point.getDistance()) {
-                if (points.size() > 0) {
-                  PathPoint first = points.get(0);
-                  if (first != null && distance < first.getDistance()) {
-                    // Seems to be closer, so adding it to first one
-                    points.add(0, newPoint);
-                  } else {
-                    // Seems to be closer, but not close as first one in list
-                    points.add(1, newPoint);
-                  }
-                } else {
-                  // Seems to be closer, so adding it to first one
-                  points.add(0, newPoint);
-
-                }
-              } else {
-                // Seems to be more far away so adding it to end
-                points.add(newPoint);
-              }
-              if ((int) Math.ceil(distance) == targetDistance) {
-                // Target found and acquired
-                targetPoint = newPoint;
-                return true;
-              }
-            }
+    int startNode = sy * maxX + sx;
+    workspace.setReached(startNode, 0, -1);
+    // Start is never blocked, since searching unit is there.
+    workspace.setBlocked(startNode, false);
+    workspace.push(startNode, estimate(sx, sy), estimate(sx, sy));
+    while (!workspace.isEmpty()) {
+      int node = workspace.pop();
+      if (workspace.isClosed(node)) {
+        continue;
+      }
+      workspace.setClosed(node);
+      int px = node % maxX;
+      int py = node / maxX;
+      if (node != startNode
+          && (int) Math.ceil(distanceToTarget(px, py)) == targetDistance) {
+        // Target found and acquired
+        makeRoute(workspace, node);
+        return true;
+      }
+      int cost = workspace.getCost(node) + 1;
+      for (int y = -1; y < 2; y++) {
+        for (int x = -1; x < 2; x++) {
+          if (y == 0 && x == 0) {
+            continue;
           }
+          int mx = x + px;
+          int my = y + py;
+          if (!isValidPos(mx, my)) {
+            continue;
+          }
+          int next = my * maxX + mx;
+          if (workspace.isReached(next)
+              && workspace.getCost(next) <= cost
+              || isBlocked(workspace, next)) {
+            continue;
+          }
+          workspace.setReached(next, cost, node);
+          int h = estimate(mx, my);
+          workspace.push(next, cost + h, h);
         }
-      } else {
-        noMorePoints = true;
       }
     }
     // Target is not found, no path available
     return false;
   }
 
+  /**
+   * Make route from found target back to start
+   * @param workspace PathfindingWorkspace containing the search
+   * @param target Target node
+   */
+  private void makeRoute(final PathfindingWorkspace workspace,
+      final int target) {
+    points = new ArrayList<>(workspace.getCost(target));
+    int node = target;
+    while (workspace.getParent(node) != -1) {
+      int x = node % maxX;
+      int y = node / maxX;
+      points.add(new PathPoint(x, y, distanceToTarget(x, y)));
+      node = workspace.getParent(node);
+    }
+    targetPoint = points.get(0);
+  }
+
   /**
    * Calculate Route
    */
   public void doRoute() {
-    boolean targetReached = false;
     if (targetPoint != null) {
-      points = new ArrayList<>();
-      points.add(targetPoint);
-      int count = UNBLOCKED;
-      while (!targetReached) {
-        PathPoint point = points.get(points.size() - 1);
-        int bx = 0;
-        int by = 0;
-        double bestDistance = START_DISTANCE;
-        for (int y = -1; y < 2; y++) {
-          for (int x = -1; x < 2; x++) {
-            if (y == 0 && x == 0) {
-              continue;
-            }
-            int mx = x + point.getX();
-            int my = y + point.getY();
-            Coordinate coordinate = new Coordinate(mx, my);
-            Coordinate targetCoordinate = new Coordinate(tx, ty);
-            double distance = coordinate.calculateDistance(targetCoordinate);
-            if (isValidPos(mx, my) && blockMap[mx][my] < count
-                && distance <= bestDistance) {
-              bx = mx;
-              by = my;
-              bestDistance = distance;
-              count = blockMap[bx][by];
-            }
-          }
-        }
-        PathPoint newPoint = new PathPoint(bx, by, bestDistance);
-        if (blockMap[bx][by] != 0) {
-          points.add(newPoint);
-        } else {
-          targetReached = true;
-        }
-
-      }
       routeIndex = points.size() - 1;
     }
   }
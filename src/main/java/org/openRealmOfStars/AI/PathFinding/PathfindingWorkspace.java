@@ -0,0 +1,301 @@
+package org.openRealmOfStars.AI.PathFinding;
+
+import java.util.Arrays;
+
+/**
+ *
+ * Open Realm of Stars game project
+ * Copyright (C) 2020  Tuomo Untinen
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses/
+ *
+ *
+ * Reusable working memory for A Star search. Nodes are packed
+ * coordinates. Node information is valid only when its generation
+ * matches the current search, so arrays do not need to be cleared
+ * between searches. Open set is binary heap ordered by f = g + h,
+ * then by h and then by insertion order.
+ *
+ */
+public class PathfindingWorkspace {
+
+  /**
+   * Initial heap capacity.
+   */
+  private static final int INITIAL_HEAP_SIZE = 256;
+
+  /**
+   * Number of bits reserved for h and insertion order in heap key.
+   */
+  private static final int KEY_BITS = 21;
+
+  /**
+   * Mask for single part of heap key.
+   */
+  private static final long KEY_MASK = (1L << KEY_BITS) - 1;
+
+  /**
+   * Current search generation.
+   */
+  private int generation;
+
+  /**
+   * Generation when node was reached.
+   */
+  private int[] reached;
+
+  /**
+   * Generation when node was closed.
+   */
+  private int[] closed;
+
+  /**
+   * Generation when node's block information was checked.
+   */
+  private int[] blockChecked;
+
+  /**
+   * Is node blocked. Valid only if block has been checked
+   * in current generation.
+   */
+  private boolean[] blocked;
+
+  /**
+   * Cost from start to node.
+   */
+  private int[] cost;
+
+  /**
+   * Previous node on the route.
+   */
+  private int[] parent;
+
+  /**
+   * Nodes in binary heap.
+   */
+  private int[] heapNodes;
+
+  /**
+   * Keys of nodes in binary heap.
+   */
+  private long[] heapKeys;
+
+  /**
+   * Number of nodes in the heap.
+   */
+  private int heapSize;
+
+  /**
+   * Insertion counter for the heap.
+   */
+  private int sequence;
+
+  /**
+   * Constructor for pathfinding workspace.
+   */
+  public PathfindingWorkspace() {
+    generation = 0;
+    reached = new int[0];
+    closed = new int[0];
+    blockChecked = new int[0];
+    blocked = new boolean[0];
+    cost = new int[0];
+    parent = new int[0];
+    heapNodes = new int[INITIAL_HEAP_SIZE];
+    heapKeys = new long[INITIAL_HEAP_SIZE];
+    heapSize = 0;
+    sequence = 0;
+  }
+
+  /**
+   * Start new search. Arrays are only reallocated if
+   * there are more nodes than ever before.
+   * @param numberOfNodes Number of nodes in the map
+   */
+  public void startSearch(final int numberOfNodes) {
+    if (reached.length < numberOfNodes) {
+      reached = new int[numberOfNodes];
+      closed = new int[numberOfNodes];
+      blockChecked = new int[numberOfNodes];
+      blocked = new boolean[numberOfNodes];
+      cost = new int[numberOfNodes];
+      parent = new int[numberOfNodes];
+      generation = 0;
+    }
+    generation++;
+    if (generation == Integer.MAX_VALUE) {
+      Arrays.fill(reached, 0);
+      Arrays.fill(closed, 0);
+      Arrays.fill(blockChecked, 0);
+      generation = 1;
+    }
+    heapSize = 0;
+    sequence = 0;
+  }
+
+  /**
+   * Is node reached in current search.
+   * @param node Node
+   * @return True if reached
+   */
+  public boolean isReached(final int node) {
+    return reached[node] == generation;
+  }
+
+  /**
+   * Mark node reached with cost and previous node.
+   * @param node Node
+   * @param nodeCost Cost from start to node
+   * @param previous Previous node on the route, -1 for start
+   */
+  public void setReached(final int node, final int nodeCost,
+      final int previous) {
+    reached[node] = generation;
+    cost[node] = nodeCost;
+    parent[node] = previous;
+  }
+
+  /**
+   * Get cost from start to node. Valid only if node is reached.
+   * @param node Node
+   * @return Cost
+   */
+  public int getCost(final int node) {
+    return cost[node];
+  }
+
+  /**
+   * Get previous node on the route. Valid only if node is reached.
+   * @param node Node
+   * @return Previous node or -1 for start node
+   */
+  public int getParent(final int node) {
+    return parent[node];
+  }
+
+  /**
+   * Is node closed in current search.
+   * @param node Node
+   * @return True if closed
+   */
+  public boolean isClosed(final int node) {
+    return closed[node] == generation;
+  }
+
+  /**
+   * Mark node closed.
+   * @param node Node
+   */
+  public void setClosed(final int node) {
+    closed[node] = generation;
+  }
+
+  /**
+   * Is block information checked for node in current search.
+   * @param node Node
+   * @return True if checked
+   */
+  public boolean isBlockChecked(final int node) {
+    return blockChecked[node] == generation;
+  }
+
+  /**
+   * Is node blocked. Valid only if block has been checked.
+   * @param node Node
+   * @return True if blocked
+   */
+  public boolean isBlocked(final int node) {
+    return blocked[node];
+  }
+
+  /**
+   * Set block information for node.
+   * @param node Node
+   * @param value True if blocked
+   */
+  public void setBlocked(final int node, final boolean value) {
+    blockChecked[node] = generation;
+    blocked[node] = value;
+  }
+
+  /**
+   * Is open set empty.
+   * @return True if empty
+   */
+  public boolean isEmpty() {
+    return heapSize == 0;
+  }
+
+  /**
+   * Add node into open set.
+   * @param node Node
+   * @param f Estimated total cost via node
+   * @param h Estimated cost from node to target
+   */
+  public void push(final int node, final int f, final int h) {
+    if (heapSize == heapNodes.length) {
+      heapNodes = Arrays.copyOf(heapNodes, heapSize * 2);
+      heapKeys = Arrays.copyOf(heapKeys, heapSize * 2);
+    }
+    long key = (long) f << (KEY_BITS * 2) | (h & KEY_MASK) << KEY_BITS
+        | sequence & KEY_MASK;
+    sequence++;
+    int index = heapSize;
+    heapSize++;
+    while (index > 0) {
+      int parentIndex = (index - 1) / 2;
+      if (heapKeys[parentIndex] <= key) {
+        break;
+      }
+      heapNodes[index] = heapNodes[parentIndex];
+      heapKeys[index] = heapKeys[parentIndex];
+      index = parentIndex;
+    }
+    heapNodes[index] = node;
+    heapKeys[index] = key;
+  }
+
+  /**
+   * Remove node with smallest key from open set.
+   * @return Node or -1 if open set is empty
+   */
+  public int pop() {
+    if (heapSize == 0) {
+      return -1;
+    }
+    int result = heapNodes[0];
+    heapSize--;
+    int lastNode = heapNodes[heapSize];
+    long lastKey = heapKeys[heapSize];
+    int index = 0;
+    while (true) {
+      int child = index * 2 + 1;
+      if (child >= heapSize) {
+        break;
+      }
+      if (child + 1 < heapSize && heapKeys[child + 1] < heapKeys[child]) {
+        child++;
+      }
+      if (lastKey <= heapKeys[child]) {
+        break;
+      }
+      heapNodes[index] = heapNodes[child];
+      heapKeys[index] = heapKeys[child];
+      index = child;
+    }
+    heapNodes[index] = lastNode;
+    heapKeys[index] = lastKey;
+    return result;
+  }
+}
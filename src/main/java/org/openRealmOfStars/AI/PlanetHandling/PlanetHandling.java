@@ -19,6 +19,7 @@ import org.openRealmOfStars.player.ship.Ship;
 import org.openRealmOfStars.player.ship.ShipHullType;
 import org.openRealmOfStars.player.tech.TechType;
 import org.openRealmOfStars.starMap.StarMap;
+import org.openRealmOfStars.starMap.planet.BuildingFactory;
 import org.openRealmOfStars.starMap.planet.GameLengthState;
 import org.openRealmOfStars.starMap.planet.Planet;
 import org.openRealmOfStars.starMap.planet.construction.Building;
@@ -52,6 +53,50 @@ import org.openRealmOfStars.utilities.DiceGenerator;
 
 public final class PlanetHandling {
 
+  /**
+   * Factory buildings, least significant first
+   */
+  private static final int[] FACTORY_BUILDINGS = {
+      BuildingFactory.COMPONENT_BASIC_FACTORY,
+      BuildingFactory.COMPONENT_ADVANCED_FACTORY,
+      BuildingFactory.COMPONENT_MANUFACTURING_CENTER,
+      BuildingFactory.COMPONENT_NANOBOT_MANUFACTURING_CENTER,
+      BuildingFactory.COMPONENT_ANCIENT_FACTORY};
+
+  /**
+   * Laboratory buildings, least significant first
+   */
+  private static final int[] LAB_BUILDINGS = {
+      BuildingFactory.COMPONENT_BASIC_LAB,
+      BuildingFactory.COMPONENT_ADVANCED_LABORATORY,
+      BuildingFactory.COMPONENT_RESEARCH_CENTER,
+      BuildingFactory.COMPONENT_NEURAL_RESEARCH_CENTER,
+      BuildingFactory.COMPONENT_ANCIENT_LAB};
+
+  /**
+   * Farm buildings, least significant first
+   */
+  private static final int[] FARM_BUILDINGS = {
+      BuildingFactory.COMPONENT_BASIC_FARM,
+      BuildingFactory.COMPONENT_ADVANCED_FARM,
+      BuildingFactory.COMPONENT_FARMING_CENTER,
+      BuildingFactory.COMPONENT_HYDROPODIC_FARMING_CENTER};
+
+  /**
+   * Mine buildings, least significant first
+   */
+  private static final int[] MINE_BUILDINGS = {
+      BuildingFactory.COMPONENT_BASIC_MINE,
+      BuildingFactory.COMPONENT_ADVANCED_MINE,
+      BuildingFactory.COMPONENT_MINING_CENTER,
+      BuildingFactory.COMPONENT_NANOBOT_MINING_CENTER};
+
+  /**
+   * Space port buildings
+   */
+  private static final int[] SPACE_PORT_BUILDINGS = {
+      BuildingFactory.COMPONENT_SPACE_PORT};
+
   /**
    * Just hiding the planetHandling constructor.
    */
@@ -148,25 +193,13 @@ public final class PlanetHandling {
         }
       }
       if (changeConstruction || planet.getUnderConstruction() == null) {
-        Building[] buildings = planet.getBuildingList();
         Construction[] constructions = planet.getProductionList();
         boolean constructionSelected = false;
-        int gotFactory = gotBuildings(
-            new String[] {"Basic factory", "Advanced factory",
-                "Manufacturing center", "Nanobot manufacturing center",
-                "Ancient factory"}, buildings);
-        int gotLabs = gotBuildings(
-            new String[] {"Basic lab", "Advanced laboratory",
-                "Research center", "Neural research center",
-                "Ancient lab"}, buildings);
-        int gotFarms = gotBuildings(
-            new String[] {"Basic farm", "Advanced farm",
-                "Farming center", "Hydropodic farming center"}, buildings);
-        int gotMines = gotBuildings(
-            new String[] {"Basic mine", "Advanced mine",
-                "Mining center", "Nanobot mining center"}, buildings);
-        int gotSpacePort = gotBuildings(new String[] {"Space port"},
-            buildings);
+        int gotFactory = gotBuildings(FACTORY_BUILDINGS, planet);
+        int gotLabs = gotBuildings(LAB_BUILDINGS, planet);
+        int gotFarms = gotBuildings(FARM_BUILDINGS, planet);
+        int gotMines = gotBuildings(MINE_BUILDINGS, planet);
+        int gotSpacePort = gotBuildings(SPACE_PORT_BUILDINGS, planet);
         if (gotFactory == -1) {
           // No factories at all
           int i = getConstruction("Advanced factory", constructions);
@@ -1729,23 +1762,19 @@ public final class PlanetHandling {
 
   /**
    * Check if planet buildings contain following buildings
-   * @param names List of building to check. First must be least significant
-   * building and so on. For example first could be "Basic lab", second one
-   * could be "Advanced lab"
-   * @param buildings Buildings array to check
-   * @return Which was the biggest index found from the name array. -1 if none
-   * was found
+   * @param indexes List of building indexes to check. First must be least
+   * significant building and so on. For example first could be "Basic lab",
+   * second one could be "Advanced lab"
+   * @param planet Planet to check
+   * @return Which was the biggest index found from the index array.
+   * -1 if none was found
    */
-  private static int gotBuildings(final String[] names,
-      final Building[] buildings) {
-    int result = -1;
-    for (int i = 0; i < buildings.length; i++) {
-      for (int j = 0; j < names.length; j++) {
-        if (buildings[i].getName().equals(names[j]) && result < j) {
-          result = j;
-        }
+  private static int gotBuildings(final int[] indexes, final Planet planet) {
+    for (int j = indexes.length - 1; j >= 0; j--) {
+      if (planet.hasCertainBuilding(indexes[j])) {
+        return j;
       }
     }
-    return result;
+    return -1;
   }
 }
@@ -110,8 +110,11 @@ import org.openRealmOfStars.starMap.newsCorp.NewsFactory;
 import org.openRealmOfStars.starMap.planet.BuildingFactory;
 import org.openRealmOfStars.starMap.planet.Planet;
 import org.openRealmOfStars.starMap.planet.construction.Building;
+import org.openRealmOfStars.utilities.DiceGenerator;
 import org.openRealmOfStars.utilities.ErrorLogger;
 import org.openRealmOfStars.utilities.GenericFileFilter;
+import org.openRealmOfStars.utilities.RandomContext;
+import org.openRealmOfStars.utilities.repository.AutosaveService;
 import org.openRealmOfStars.utilities.repository.ConfigFileRepository;
 import org.openRealmOfStars.utilities.repository.GameRepository;
 
@@ -353,11 +356,27 @@ public class Game implements ActionListener {
    */
   private boolean showMiniMapFlag;
 
+  /**
+   * Is game running without any user interface. Headless game
+   * does not create any views, it is used for simulating AI only games.
+   */
+  private boolean headless;
+
   /**
    * Save filename.
    */
   private String saveFilename;
 
+  /**
+   * Autosave service writing autosaves on background.
+   */
+  private volatile AutosaveService autosaveService;
+
+  /**
+   * Is autosave requested at end of turn and not yet taken.
+   */
+  private volatile boolean autosaveRequested;
+
   /**
    * Tutorial list of helps.
    */
@@ -516,6 +535,25 @@ public class Game implements ActionListener {
     changeGameState(GameState.MAIN_MENU);
   }
 
+  /**
+   * Constructor of headless Game class. Headless game does not read
+   * config file, tutorial nor create any views. It is meant only for
+   * running AI only games.
+   */
+  Game() {
+    headless = true;
+    configFile = new ConfigFile();
+    gameState = GameState.MAIN_MENU;
+  }
+
+  /**
+   * Is game running without any user interface.
+   * @return True if game is headless
+   */
+  public boolean isHeadless() {
+    return headless;
+  }
+
   /**
    * Read Tutorial information to list.
    * @param filename Filename to tutorial, null to read default tutorial.
@@ -1313,6 +1351,10 @@ public class Game implements ActionListener {
       previousState = gameState;
       gameState = newState;
     }
+    if (headless) {
+      // Headless game has no views to show
+      return;
+    }
     if (animationTimer != null
         && animationTimer.getDelay() != ANIMATION_TIMER_DELAY) {
       animationTimer.setDelay(ANIMATION_TIMER_DELAY);
@@ -1576,8 +1618,18 @@ public class Game implements ActionListener {
    *  ancient too.
    */
   public void makeNewGame(final boolean allowHumanAncientRealm) {
+    RandomContext randomContext;
+    if (galaxyConfig.hasSeed()) {
+      randomContext = new RandomContext(galaxyConfig.getSeed());
+    } else {
+      randomContext = new RandomContext();
+    }
+    DiceGenerator.setContext(randomContext);
     setPlayerInfo();
     starMap = new StarMap(galaxyConfig, players);
+    if (autosaveService != null) {
+      autosaveService.startNewGame();
+    }
     starMap.updateStarMapOnStartGame();
     NewsCorpData corpData = starMap.getNewsCorpData();
     calculateCorpData(corpData);
@@ -1625,6 +1677,8 @@ public class Game implements ActionListener {
       starMap.updateStarMapOnStartGame();
     }
     players.setCurrentPlayer(0);
+    // Game's random context is used only while handling AI turns
+    DiceGenerator.setContext(null);
     setNullView();
     changeGameState(GameState.STARMAP);
 
@@ -1662,7 +1716,7 @@ public class Game implements ActionListener {
       info.setGovernment(galaxyConfig.getPlayerGovernment(i));
       info.setEmpireName(galaxyConfig.getPlayerName(i));
       info.setAncientRealm(galaxyConfig.getPlayerAncientRealm(i));
-      if (i == 0) {
+      if (i == 0 && !headless) {
         info.setHuman(true);
       }
       players.addPlayer(info);
@@ -1925,6 +1979,18 @@ public class Game implements ActionListener {
       System.out.println(printTechWiki());
     } else if (args.length > 0 && args[0].equals("--save-update")) {
       saveGameUpdate();
+    } else if (args.length > 0 && args[0].equals("--simulate")) {
+      System.setProperty("java.awt.headless", "true");
+      MusicPlayer.setMusicEnabled(false);
+      SoundPlayer.setSoundEnabled(false);
+      System.out.println(HeadlessGame.simulate(args));
+    } else if (args.length > 0 && (args[0].equals("--tournament")
+        || args[0].equals("--tournament-csv"))) {
+      System.setProperty("java.awt.headless", "true");
+      MusicPlayer.setMusicEnabled(false);
+      SoundPlayer.setSoundEnabled(false);
+      TournamentRunner.tournament(args, System.out,
+          args[0].equals("--tournament-csv"));
     } else {
       if (args.length > 0 && args[0].equals("--no-music")) {
         System.out.println("Disabling the music...");
@@ -2185,7 +2251,7 @@ public class Game implements ActionListener {
           && loadSavedGame(loadGameView.getSelectedSaveFile())) {
         saveFilename = loadGameView.getSelectedSaveFile();
         SoundPlayer.playMenuSound();
-        if (saveFilename.equals("autosave.save")) {
+        if (AutosaveService.isAutosave(saveFilename)) {
           saveFilename = starMap.getPlayerByIndex(0).getEmpireName();
           changeGameState(GameState.SAVE_GAME_NAME_VIEW, saveFilename);
         } else {
@@ -2281,6 +2347,35 @@ public class Game implements ActionListener {
 
   }
 
+  /**
+   * Request autosave at end of human turn. Snapshot is not taken here on
+   * event dispatch thread but on AI thread before AI turn starts.
+   */
+  private void requestAutosave() {
+    starMap.setShownTutorial(getTutorial().getShownIndexes());
+    autosaveRequested = true;
+  }
+
+  /**
+   * Take autosave snapshot if it has been requested. This is called on
+   * AI thread before AI changes the star map. Event dispatch thread only
+   * shows AI turn view meanwhile, so star map is not changed while it is
+   * being serialized. Compressing and writing are done on background.
+   */
+  public void takeRequestedAutosave() {
+    if (!autosaveRequested) {
+      return;
+    }
+    autosaveRequested = false;
+    AutosaveService service = autosaveService;
+    if (service == null) {
+      service = new AutosaveService(GameRepository.DEFAULT_SAVE_FOLDER,
+          AutosaveService.DEFAULT_ROTATIONS);
+      autosaveService = service;
+    }
+    service.autosave(starMap);
+  }
+
   /**
    * Actions performed when state is star map
    * @param arg0 ActionEvent which has occured
@@ -2309,8 +2404,7 @@ public class Game implements ActionListener {
       if (arg0.getActionCommand()
           .equalsIgnoreCase(GameCommands.COMMAND_END_TURN)) {
         SoundPlayer.playMenuSound();
-        new GameRepository()
-        .saveGame(GameRepository.DEFAULT_SAVE_FOLDER, "autosave.save", starMap);
+        requestAutosave();
         changeGameState(GameState.AITURN);
       } else if (arg0.getActionCommand()
           .equals(GameCommands.COMMAND_FOCUS_MSG)) {
@@ -2886,6 +2980,9 @@ public class Game implements ActionListener {
   public boolean setLoadedGame(final StarMap map) {
     if (map != null) {
       starMap = map;
+      if (autosaveService != null) {
+        autosaveService.startNewGame();
+      }
       players = starMap.getPlayerList();
       if (tutorialList != null) {
         tutorialList.updateShownTutorial(starMap.getShownTutorialIndexes());
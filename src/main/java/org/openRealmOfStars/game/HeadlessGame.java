@@ -0,0 +1,293 @@
+package org.openRealmOfStars.game;
+
+import java.util.Locale;
+
+import org.openRealmOfStars.game.States.AITurnView;
+import org.openRealmOfStars.player.PlayerInfo;
+import org.openRealmOfStars.starMap.GalaxyConfig;
+import org.openRealmOfStars.starMap.StarMap;
+import org.openRealmOfStars.utilities.DiceGenerator;
+import org.openRealmOfStars.utilities.RandomContext;
+import org.openRealmOfStars.utilities.TextUtilities;
+
+/**
+*
+* Open Realm of Stars game project
+* Copyright (C) 2020 Tuomo Untinen
+*
+* This program is free software; you can redistribute it and/or
+* modify it under the terms of the GNU General Public License
+* as published by the Free Software Foundation; either version 2
+* of the License, or (at your option) any later version.
+*
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program; if not, see http://www.gnu.org/licenses/
+*
+*
+* Headless game for running AI only games without any user interface.
+* Game is played by AITurnView which is never shown.
+*
+*/
+public class HeadlessGame {
+
+  /**
+   * Nano seconds in one milli second.
+   */
+  private static final long NANOS_IN_MILLI = 1000000L;
+
+  /**
+   * Milli seconds in one second.
+   */
+  private static final double MILLIS_IN_SECOND = 1000.0;
+
+  /**
+   * Galaxy config used for creating the game.
+   */
+  private GalaxyConfig config;
+
+  /**
+   * Actual game which is run without views.
+   */
+  private Game game;
+
+  /**
+   * Time spent on playing turns in nano seconds.
+   */
+  private long elapsedTime;
+
+  /**
+   * Number of turns played.
+   */
+  private int turnsPlayed;
+
+  /**
+   * Constructor for headless game.
+   * @param config Galaxy config used for creating the game.
+   */
+  public HeadlessGame(final GalaxyConfig config) {
+    this.config = config;
+    elapsedTime = 0;
+    turnsPlayed = 0;
+  }
+
+  /**
+   * Make new game with all realms controlled by AI.
+   */
+  public void makeNewGame() {
+    game = new Game();
+    game.setGalaxyConfig(config);
+    game.makeNewGame(false);
+    game.setAITurnView(new AITurnView(game));
+    game.changeGameState(GameState.AITURN);
+  }
+
+  /**
+   * Play single turn for all realms.
+   * @return True if game has ended.
+   */
+  public boolean playTurn() {
+    StarMap map = game.getStarMap();
+    AITurnView aiTurnView = game.getAITurnView();
+    long start = System.nanoTime();
+    do {
+      aiTurnView.handleAiTurn();
+    } while (map.getAiTurnNumber() != 0 || map.getAIFleet() != null);
+    elapsedTime = elapsedTime + System.nanoTime() - start;
+    turnsPlayed++;
+    return map.isGameEnded();
+  }
+
+  /**
+   * Play the game until it has ended.
+   */
+  public void playGame() {
+    boolean ended = game.getStarMap().isGameEnded();
+    while (!ended) {
+      ended = playTurn();
+    }
+  }
+
+  /**
+   * Get Star map of the game
+   * @return StarMap
+   */
+  public StarMap getStarMap() {
+    return game.getStarMap();
+  }
+
+  /**
+   * Get the game which is run headless.
+   * @return Game
+   */
+  public Game getGame() {
+    return game;
+  }
+
+  /**
+   * Get galaxy config used for creating the game.
+   * @return GalaxyConfig
+   */
+  public GalaxyConfig getConfig() {
+    return config;
+  }
+
+  /**
+   * Get number of turns played.
+   * @return Number of turns played
+   */
+  public int getTurnsPlayed() {
+    return turnsPlayed;
+  }
+
+  /**
+   * Get time spent on playing turns in milli seconds.
+   * @return Elapsed time in milli seconds
+   */
+  public long getElapsedTime() {
+    return elapsedTime / NANOS_IN_MILLI;
+  }
+
+  /**
+   * Get number of turns played in one second.
+   * @return Turns per second
+   */
+  public double getTurnsPerSecond() {
+    long millis = getElapsedTime();
+    if (millis == 0) {
+      return 0;
+    }
+    return turnsPlayed * MILLIS_IN_SECOND / millis;
+  }
+
+  /**
+   * Get the winner of the game. Winner is recorded into star map when
+   * victory news is made. With alliance victory this is the leading
+   * realm of the alliance.
+   * @return PlayerInfo or null if winner is not known.
+   */
+  public PlayerInfo getWinner() {
+    StarMap map = game.getStarMap();
+    if (!map.isGameEnded() || map.getWinnerIndex() == -1) {
+      return null;
+    }
+    return map.getPlayerByIndex(map.getWinnerIndex());
+  }
+
+  /**
+   * Get game result as single line of JSON.
+   * @return JSON as a String
+   */
+  public String toJson() {
+    StarMap map = game.getStarMap();
+    StringBuilder sb = new StringBuilder();
+    sb.append("{\"turns\":");
+    sb.append(map.getTurn());
+    sb.append(",\"realms\":");
+    sb.append(map.getPlayerList().getCurrentMaxRealms());
+    sb.append(",\"size\":");
+    sb.append(map.getMaxX());
+    sb.append(",\"seed\":");
+    if (config.hasSeed()) {
+      sb.append(config.getSeed());
+    } else {
+      sb.append("null");
+    }
+    sb.append(",\"elapsedMs\":");
+    sb.append(getElapsedTime());
+    sb.append(",\"turnsPerSecond\":");
+    sb.append(String.format(Locale.ROOT, "%.2f", getTurnsPerSecond()));
+    sb.append(",\"winner\":");
+    PlayerInfo winner = getWinner();
+    if (winner == null) {
+      sb.append("null");
+    } else {
+      sb.append("{\"index\":");
+      sb.append(map.getPlayerList().getIndex(winner));
+      sb.append(",\"empire\":\"");
+      sb.append(TextUtilities.escapeJson(winner.getEmpireName()));
+      sb.append("\",\"race\":\"");
+      sb.append(TextUtilities.escapeJson(winner.getRace().getName()));
+      sb.append("\",\"government\":\"");
+      sb.append(TextUtilities.escapeJson(winner.getGovernment().getName()));
+      sb.append("\"}");
+    }
+    sb.append("}");
+    return sb.toString();
+  }
+
+  /**
+   * Create galaxy config from command line arguments. Arguments are
+   * --simulate [realms] [galaxy size] [scoring victory turns] [seed].
+   * Missing arguments use default values.
+   * @param args Command line arguments
+   * @return GalaxyConfig
+   * @throws NumberFormatException If argument is not a number
+   */
+  public static GalaxyConfig parseConfig(final String[] args)
+      throws NumberFormatException {
+    GalaxyConfig config;
+    if (args.length > 4) {
+      config = createConfig(Long.parseLong(args[4]));
+    } else {
+      config = createConfig();
+    }
+    if (args.length > 1) {
+      config.setMaxPlayers(Integer.parseInt(args[1]));
+    }
+    if (args.length > 2) {
+      config.setSize(Integer.parseInt(args[2]), 1);
+    }
+    if (args.length > 3) {
+      config.setScoringVictoryTurns(Integer.parseInt(args[3]));
+    }
+    return config;
+  }
+
+  /**
+   * Create galaxy config with random realms and without seed.
+   * @return GalaxyConfig
+   */
+  public static GalaxyConfig createConfig() {
+    GalaxyConfig config = new GalaxyConfig();
+    config.setStartingPosition(GalaxyConfig.START_POSITION_RANDOM);
+    return config;
+  }
+
+  /**
+   * Create galaxy config with random realms. Realms are selected
+   * with the seed so same seed gives always same realms.
+   * @param seed Seed for the game
+   * @return GalaxyConfig
+   */
+  public static GalaxyConfig createConfig(final long seed) {
+    DiceGenerator.setContext(new RandomContext(seed));
+    GalaxyConfig config = createConfig();
+    config.setSeed(seed);
+    DiceGenerator.setContext(null);
+    return config;
+  }
+
+  /**
+   * Simulate single AI only game from command line.
+   * @param args Command line arguments
+   * @return Game result as JSON
+   */
+  public static String simulate(final String[] args) {
+    GalaxyConfig config;
+    try {
+      config = parseConfig(args);
+    } catch (NumberFormatException e) {
+      return "Usage: --simulate [realms] [galaxy size] [scoring turns]"
+          + " [seed]";
+    }
+    HeadlessGame headlessGame = new HeadlessGame(config);
+    headlessGame.makeNewGame();
+    headlessGame.playGame();
+    return headlessGame.toJson();
+  }
+}
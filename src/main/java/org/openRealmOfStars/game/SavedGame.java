@@ -9,6 +9,7 @@ import java.text.SimpleDateFormat;
 import org.openRealmOfStars.player.SpaceRace.SpaceRace;
 import org.openRealmOfStars.starMap.StarMap;
 import org.openRealmOfStars.utilities.repository.GameRepository;
+import org.openRealmOfStars.utilities.repository.SaveGameHeader;
 
 /**
  *
@@ -69,8 +70,8 @@ public class SavedGame implements Comparable<SavedGame> {
   private long creationTimeMillis;
 
   /**
-   * Load game from certain file name and get all information from saved
-   * game
+   * Read saved game information from certain file name. Sectioned save
+   * files are read only from header, older save files are fully loaded.
    * @param folderName Folder name where to load saved games
    * @param filename File name
    * @throws IOException if reading fails
@@ -83,12 +84,23 @@ public class SavedGame implements Comparable<SavedGame> {
     SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm");
     creationTimeMillis = attr.creationTime().toMillis();
     creationTime = dateFormat.format(creationTimeMillis);
-    StarMap starMap = new GameRepository().loadGame(folderName, filename);
+    this.filename = filename;
+    GameRepository repository = new GameRepository();
+    SaveGameHeader header = repository.loadHeader(folderName, filename);
+    if (header != null) {
+      turnNumber = header.getTurn();
+      galaxySize = header.getMaxX() + " X " + header.getMaxY();
+      playerRace = header.getRace();
+      empireName = header.getEmpireName();
+      creationTimeMillis = header.getSaveTime();
+      creationTime = dateFormat.format(creationTimeMillis);
+      return;
+    }
+    StarMap starMap = repository.loadGame(folderName, filename);
     if (starMap == null) {
       throw new IOException("Error while reading the saved game: "
           + folderName + "/" + filename);
     }
-    this.filename = filename;
     turnNumber = starMap.getTurn();
     galaxySize = starMap.getMaxX() + " X " + starMap.getMaxY();
     playerRace = starMap.getPlayerList().getPlayerInfoByIndex(0).getRace();
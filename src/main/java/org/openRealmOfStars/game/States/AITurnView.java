@@ -71,6 +71,7 @@ import org.openRealmOfStars.starMap.newsCorp.NewsData;
 import org.openRealmOfStars.starMap.newsCorp.NewsFactory;
 import org.openRealmOfStars.starMap.newsCorp.scoreBoard.Row;
 import org.openRealmOfStars.starMap.newsCorp.scoreBoard.ScoreBoard;
+import org.openRealmOfStars.starMap.planet.BuildingFactory;
 import org.openRealmOfStars.starMap.planet.GameLengthState;
 import org.openRealmOfStars.starMap.planet.Planet;
 import org.openRealmOfStars.starMap.planet.PlanetTypes;
@@ -179,6 +180,13 @@ public class AITurnView extends BlackPanel {
    */
   public AITurnView(final Game game) {
     this.game = game;
+    aiThread = new AiThread(this);
+    readyToMove = false;
+    textAnim = 0;
+    if (game.isHeadless()) {
+      // Headless game only handles the AI, no need for background
+      return;
+    }
     Planet planet = new Planet(new Coordinate(1, 1), "Random Planet", 1, false);
     planet.setPlanetType(PlanetTypes.getRandomPlanetType(true, true, true));
     if (planet.getPlanetType().isGasGiant()) {
@@ -198,9 +206,6 @@ public class AITurnView extends BlackPanel {
     invisible.add(label);
     imgBase.add(invisible);
     this.add(imgBase, BorderLayout.CENTER);
-    textAnim = 0;
-    aiThread = new AiThread(this);
-    readyToMove = false;
   }
 
   /**
@@ -208,7 +213,9 @@ public class AITurnView extends BlackPanel {
    * @param text Text to set
    */
   public void setText(final String text) {
-    label.setText(text);
+    if (label != null) {
+      label.setText(text);
+    }
   }
 
   /**
@@ -782,7 +789,7 @@ public class AITurnView extends BlackPanel {
         Tile tile = map.getTile(x, y);
         if ((tile.getName().equals(TileNames.DEEP_SPACE_ANCHOR1)
             || tile.getName().equals(TileNames.DEEP_SPACE_ANCHOR2))
-            && info.getSectorVisibility(new Coordinate(x, y))
+            && info.getSectorVisibility(x, y)
             > PlayerInfo.UNCHARTED) {
           if (fleetTiles[x][y] == null) {
             Mission mission = new Mission(MissionType.DEPLOY_STARBASE,
@@ -799,7 +806,7 @@ public class AITurnView extends BlackPanel {
             Fleet fleet = infoAt.getFleets().getByIndex(
                 fleetTiles[x][y].getFleetIndex());
             if (!fleet.isStarBaseDeployed()
-                && info.getSectorVisibility(new Coordinate(x, y))
+                && info.getSectorVisibility(x, y)
                 == PlayerInfo.VISIBLE && infoAt != info) {
               Mission mission = new Mission(MissionType.DEPLOY_STARBASE,
                   MissionPhase.PLANNING, new Coordinate(x, y));
@@ -810,7 +817,7 @@ public class AITurnView extends BlackPanel {
                 info.getMissions().add(mission);
               }
             } else if (fleet.isStarBaseDeployed()
-                  && info.getSectorVisibility(new Coordinate(x, y))
+                  && info.getSectorVisibility(x, y)
                   == PlayerInfo.VISIBLE && infoAt != info) {
                 int index = fleetTiles[x][y].getPlayerIndex();
                 DiplomacyBonusList list = info.getDiplomacy().getDiplomacyList(
@@ -820,7 +827,7 @@ public class AITurnView extends BlackPanel {
                   addDestroyStarbaseMission(new Coordinate(x, y), info);
                 }
             } else if (fleet.isStarBaseDeployed()
-                && info.getSectorVisibility(new Coordinate(x, y))
+                && info.getSectorVisibility(x, y)
                 == PlayerInfo.VISIBLE && infoAt == info) {
               Mission mission = new Mission(MissionType.DEPLOY_STARBASE,
                   MissionPhase.PLANNING, new Coordinate(x, y));
@@ -832,7 +839,7 @@ public class AITurnView extends BlackPanel {
                 info.getMissions().add(mission);
               }
             } else if (fleet.isStarBaseDeployed()
-                && info.getSectorVisibility(new Coordinate(x, y))
+                && info.getSectorVisibility(x, y)
                 == PlayerInfo.FOG_OF_WAR && infoAt != info) {
               // Anchor is under Fog of war, but Maybe espionage
               // Will detect that is already occupied.
@@ -1680,7 +1687,8 @@ public class AITurnView extends BlackPanel {
           Planet planet = map.getPlanetByName(vote.getPlanetName());
           if (planet != null) {
             NewsData newsData = null;
-            if (planet.howManyBuildings("Galactic sports center") == 0) {
+            if (!planet.hasCertainBuilding(
+                BuildingFactory.COMPONENT_GALACTIC_SPORTS_CENTER)) {
               newsData = NewsFactory.makeNoGalacticSportsNews(planet, true);
             }
             if (planet.getTotalPopulation() == 0) {
@@ -2205,7 +2213,7 @@ public class AITurnView extends BlackPanel {
    * Update whole star map to next turn
    */
   public void updateStarMapToNextTurn() {
-    game.getStarMap().resetCulture();
+    game.getStarMap().startCultureUpdate();
     int richest = game.getStarMap().getNewsCorpData().getCredit().getBiggest();
     int poorest = game.getStarMap().getNewsCorpData().getCredit().getSmallest();
     for (int i = 0; i < game.getPlayers().getCurrentMaxPlayers(); i++) {
@@ -2355,8 +2363,8 @@ public class AITurnView extends BlackPanel {
           game.getStarMap().doFleetScanUpdate(info, fleet, null);
           if (fleet.getCulturalValue() > 0 && fleet.isStarBaseDeployed()) {
          // Recalculate culture for the map for each player
-            game.getStarMap().calculateCulture(fleet.getX(), fleet.getY(),
-                fleet.getCulturalValue(), i);
+            game.getStarMap().updateCultureSource(fleet, fleet.getX(),
+                fleet.getY(), fleet.getCulturalValue(), i);
           }
         }
       }
@@ -2405,13 +2413,14 @@ public class AITurnView extends BlackPanel {
         int index = game.getPlayers().getIndex(info);
         if (index > -1) {
           // Recalculate culture for the map for each player
-          game.getStarMap().calculateCulture(planet.getX(), planet.getY(),
-              planet.getCulture(), index);
+          game.getStarMap().updateCultureSource(planet, planet.getX(),
+              planet.getY(), planet.getCulture(), index);
         }
         // Fleets and planets do the scan
         game.getStarMap().doFleetScanUpdate(info, null, planet);
       }
     }
+    game.getStarMap().finishCultureUpdate();
     if (game.getStarMap().getTurn() > 0) {
       handleDiplomaticVotes(towers);
     }
@@ -2678,11 +2687,21 @@ public class AITurnView extends BlackPanel {
       }
     }
   }
+  /**
+   * Take autosave requested at end of human turn. This is called on AI
+   * thread before AI turn changes the star map.
+   */
+  public void takeRequestedAutosave() {
+    game.takeRequestedAutosave();
+  }
+
   /**
    * Handle Ai Turn
    * @return True when turn has finished or need to change state
    */
   public boolean handleAiTurn() {
+    // AI is handled with game's own random context
+    DiceGenerator.setContext(game.getStarMap().getRandomContext());
     if (game.getStarMap().getAIFleet() == null) {
       game.getStarMap().handleAIResearchAndPlanets();
       game.getStarMap().handleFakingMilitarySize();
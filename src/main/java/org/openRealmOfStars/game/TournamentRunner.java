@@ -0,0 +1,525 @@
+package org.openRealmOfStars.game;
+
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.openRealmOfStars.gui.icons.Icons;
+import org.openRealmOfStars.mapTiles.Tiles;
+import org.openRealmOfStars.player.PlayerInfo;
+import org.openRealmOfStars.player.SpaceRace.SpaceRace;
+import org.openRealmOfStars.player.government.GovernmentType;
+import org.openRealmOfStars.starMap.GalaxyConfig;
+import org.openRealmOfStars.utilities.TextUtilities;
+
+/**
+*
+* Open Realm of Stars game project
+* Copyright (C) 2020 Tuomo Untinen
+*
+* This program is free software; you can redistribute it and/or
+* modify it under the terms of the GNU General Public License
+* as published by the Free Software Foundation; either version 2
+* of the License, or (at your option) any later version.
+*
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program; if not, see http://www.gnu.org/licenses/
+*
+*
+* Tournament runner plays multiple seeded AI only games in parallel.
+* Each game is played in single worker thread. Results are written
+* one line per game as soon as game has finished.
+*
+*/
+public class TournamentRunner {
+
+  /**
+   * CSV header line.
+   */
+  public static final String CSV_HEADER = "game,seed,turns,realms,size,"
+      + "elapsedMs,winnerEmpire,winnerRace,winnerGovernment,error";
+
+  /**
+   * Number of games to play.
+   */
+  private int numberOfGames;
+
+  /**
+   * Number of worker threads.
+   */
+  private int numberOfThreads;
+
+  /**
+   * Number of realms in each game.
+   */
+  private int maxPlayers;
+
+  /**
+   * Galaxy size in each game.
+   */
+  private int galaxySize;
+
+  /**
+   * Scoring victory turns in each game.
+   */
+  private int scoringVictoryTurns;
+
+  /**
+   * Seed for the first game. Next games use following seeds.
+   */
+  private long firstSeed;
+
+  /**
+   * Output where results are written.
+   */
+  private PrintStream output;
+
+  /**
+   * Are results written as CSV or JSON lines.
+   */
+  private boolean csv;
+
+  /**
+   * Wins for each space race.
+   */
+  private int[] raceWins;
+
+  /**
+   * Wins for each government.
+   */
+  private int[] govWins;
+
+  /**
+   * Number of games which ended without known winner.
+   */
+  private int noWinner;
+
+  /**
+   * Number of games which failed.
+   */
+  private int failedGames;
+
+  /**
+   * Constructor for tournament runner.
+   * Default tournament has single game with default galaxy config,
+   * played with all available processors.
+   * @param output Output where results are written, null for no output
+   */
+  public TournamentRunner(final PrintStream output) {
+    this.output = output;
+    GalaxyConfig config = new GalaxyConfig();
+    setNumberOfGames(1);
+    setNumberOfThreads(Runtime.getRuntime().availableProcessors());
+    setMaxPlayers(config.getMaxPlayers());
+    setGalaxySize(config.getSizeX());
+    setScoringVictoryTurns(config.getScoringVictoryTurns());
+    setFirstSeed(System.currentTimeMillis());
+    setCsv(false);
+    raceWins = new int[SpaceRace.values().length];
+    govWins = new int[GovernmentType.values().length];
+  }
+
+  /**
+   * Get number of games to play.
+   * @return Number of games
+   */
+  public int getNumberOfGames() {
+    return numberOfGames;
+  }
+
+  /**
+   * Set number of games to play.
+   * @param numberOfGames Number of games
+   */
+  public void setNumberOfGames(final int numberOfGames) {
+    this.numberOfGames = numberOfGames;
+  }
+
+  /**
+   * Get number of worker threads.
+   * @return Number of worker threads
+   */
+  public int getNumberOfThreads() {
+    return numberOfThreads;
+  }
+
+  /**
+   * Set number of worker threads. There is always at least one thread.
+   * @param numberOfThreads Number of worker threads
+   */
+  public void setNumberOfThreads(final int numberOfThreads) {
+    if (numberOfThreads < 1) {
+      this.numberOfThreads = 1;
+    } else {
+      this.numberOfThreads = numberOfThreads;
+    }
+  }
+
+  /**
+   * Get number of realms in each game.
+   * @return Number of realms
+   */
+  public int getMaxPlayers() {
+    return maxPlayers;
+  }
+
+  /**
+   * Set number of realms in each game.
+   * @param maxPlayers Number of realms
+   */
+  public void setMaxPlayers(final int maxPlayers) {
+    this.maxPlayers = maxPlayers;
+  }
+
+  /**
+   * Get galaxy size in each game.
+   * @return Galaxy size
+   */
+  public int getGalaxySize() {
+    return galaxySize;
+  }
+
+  /**
+   * Set galaxy size in each game.
+   * @param galaxySize Galaxy size
+   */
+  public void setGalaxySize(final int galaxySize) {
+    this.galaxySize = galaxySize;
+  }
+
+  /**
+   * Get scoring victory turns in each game.
+   * @return Scoring victory turns
+   */
+  public int getScoringVictoryTurns() {
+    return scoringVictoryTurns;
+  }
+
+  /**
+   * Set scoring victory turns in each game.
+   * @param scoringVictoryTurns Scoring victory turns
+   */
+  public void setScoringVictoryTurns(final int scoringVictoryTurns) {
+    this.scoringVictoryTurns = scoringVictoryTurns;
+  }
+
+  /**
+   * Get seed of the first game.
+   * @return Seed of the first game
+   */
+  public long getFirstSeed() {
+    return firstSeed;
+  }
+
+  /**
+   * Set seed of the first game. Next games use following seeds.
+   * @param firstSeed Seed of the first game
+   */
+  public void setFirstSeed(final long firstSeed) {
+    this.firstSeed = firstSeed;
+  }
+
+  /**
+   * Are results written as CSV.
+   * @return True if CSV, false if JSON lines
+   */
+  public boolean isCsv() {
+    return csv;
+  }
+
+  /**
+   * Set results to be written as CSV or JSON lines.
+   * @param csv True for CSV, false for JSON lines
+   */
+  public void setCsv(final boolean csv) {
+    this.csv = csv;
+  }
+
+  /**
+   * Get wins for space race.
+   * @param race SpaceRace
+   * @return Number of wins
+   */
+  public int getRaceWins(final SpaceRace race) {
+    return raceWins[race.getIndex()];
+  }
+
+  /**
+   * Get wins for government.
+   * @param government GovernmentType
+   * @return Number of wins
+   */
+  public int getGovernmentWins(final GovernmentType government) {
+    return govWins[government.getIndex()];
+  }
+
+  /**
+   * Get number of games which ended without known winner.
+   * @return Number of games without winner
+   */
+  public int getNoWinner() {
+    return noWinner;
+  }
+
+  /**
+   * Get number of games which failed.
+   * @return Number of failed games
+   */
+  public int getFailedGames() {
+    return failedGames;
+  }
+
+  /**
+   * Get seed for the game.
+   * @param gameIndex Game index
+   * @return Seed
+   */
+  private long getSeed(final int gameIndex) {
+    return firstSeed + gameIndex;
+  }
+
+  /**
+   * Create single game for the tournament.
+   * @param gameIndex Game index
+   * @return HeadlessGame which is not yet started
+   */
+  protected HeadlessGame createGame(final int gameIndex) {
+    GalaxyConfig config = HeadlessGame.createConfig(getSeed(gameIndex));
+    config.setMaxPlayers(maxPlayers);
+    config.setSize(galaxySize, 1);
+    config.setScoringVictoryTurns(scoringVictoryTurns);
+    return new HeadlessGame(config);
+  }
+
+  /**
+   * Run all the games in the tournament. Results are written
+   * as soon as each game has finished. Failing game is written
+   * as error and does not stop the other games.
+   */
+  public void run() {
+    // Tiles and icons are lazily initialized without locking,
+    // so they must be ready before workers start.
+    Tiles.getMaxTiles();
+    Icons.getMaxIcons();
+    if (csv) {
+      writeLine(CSV_HEADER);
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+    CompletionService<HeadlessGame> completion =
+        new ExecutorCompletionService<>(executor);
+    HashMap<Future<HeadlessGame>, Integer> gameIndexes = new HashMap<>();
+    try {
+      for (int i = 0; i < numberOfGames; i++) {
+        final int gameIndex = i;
+        Future<HeadlessGame> submitted = completion.submit(
+            new Callable<HeadlessGame>() {
+          @Override
+          public HeadlessGame call() {
+            Thread.currentThread().setName("Tournament game " + gameIndex);
+            HeadlessGame game = createGame(gameIndex);
+            game.makeNewGame();
+            game.playGame();
+            return game;
+          }
+        });
+        gameIndexes.put(submitted, gameIndex);
+      }
+      for (int i = 0; i < numberOfGames; i++) {
+        Future<HeadlessGame> future = completion.take();
+        int gameIndex = gameIndexes.remove(future);
+        try {
+          handleResult(gameIndex, future.get());
+        } catch (ExecutionException e) {
+          failedGames++;
+          handleFailure(gameIndex, e.getCause());
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Write result line for finished game and update win counts.
+   * @param gameIndex Game index
+   * @param game HeadlessGame which has ended
+   */
+  private void handleResult(final int gameIndex, final HeadlessGame game) {
+    PlayerInfo winner = game.getWinner();
+    if (winner == null) {
+      noWinner++;
+    } else {
+      raceWins[winner.getRace().getIndex()]++;
+      govWins[winner.getGovernment().getIndex()]++;
+    }
+    if (csv) {
+      StringBuilder sb = new StringBuilder();
+      sb.append(gameIndex);
+      sb.append(",");
+      sb.append(getSeed(gameIndex));
+      sb.append(",");
+      sb.append(game.getStarMap().getTurn());
+      sb.append(",");
+      sb.append(game.getStarMap().getPlayerList().getCurrentMaxRealms());
+      sb.append(",");
+      sb.append(game.getStarMap().getMaxX());
+      sb.append(",");
+      sb.append(game.getElapsedTime());
+      sb.append(",");
+      if (winner != null) {
+        sb.append(winner.getEmpireName().replace(',', ' '));
+        sb.append(",");
+        sb.append(winner.getRace().getName());
+        sb.append(",");
+        sb.append(winner.getGovernment().getName());
+      } else {
+        sb.append(",,");
+      }
+      sb.append(",");
+      writeLine(sb.toString());
+    } else {
+      writeLine("{\"game\":" + gameIndex + "," + game.toJson().substring(1));
+    }
+  }
+
+  /**
+   * Write result line for failed game. Line has game index and seed
+   * in same columns as result line so failed game can be replayed.
+   * @param gameIndex Game index
+   * @param cause Reason why game failed
+   */
+  private void handleFailure(final int gameIndex, final Throwable cause) {
+    String message = cause.getClass().getSimpleName();
+    if (cause.getMessage() != null) {
+      message = message + ": " + cause.getMessage();
+    }
+    if (csv) {
+      writeLine(gameIndex + "," + getSeed(gameIndex) + ",,,,,,,,"
+          + message.replace(',', ' ').replace('\n', ' '));
+    } else {
+      writeLine("{\"game\":" + gameIndex + ",\"seed\":"
+          + getSeed(gameIndex) + ",\"error\":\""
+          + TextUtilities.escapeJson(message) + "\"}");
+    }
+  }
+
+  /**
+   * Write single line into output.
+   * @param line Line to write
+   */
+  private void writeLine(final String line) {
+    if (output != null) {
+      output.println(line);
+      output.flush();
+    }
+  }
+
+  /**
+   * Get summary of wins as single line of JSON.
+   * @return JSON as a String
+   */
+  public String getSummary() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("{\"games\":");
+    sb.append(numberOfGames);
+    sb.append(",\"failed\":");
+    sb.append(failedGames);
+    sb.append(",\"noWinner\":");
+    sb.append(noWinner);
+    sb.append(",\"raceWins\":{");
+    for (SpaceRace race : SpaceRace.values()) {
+      if (race.getIndex() > 0) {
+        sb.append(",");
+      }
+      sb.append("\"");
+      sb.append(race.name());
+      sb.append("\":");
+      sb.append(raceWins[race.getIndex()]);
+    }
+    sb.append("},\"governmentWins\":{");
+    for (GovernmentType government : GovernmentType.values()) {
+      if (government.getIndex() > 0) {
+        sb.append(",");
+      }
+      sb.append("\"");
+      sb.append(government.name());
+      sb.append("\":");
+      sb.append(govWins[government.getIndex()]);
+    }
+    sb.append("}}");
+    return sb.toString();
+  }
+
+  /**
+   * Run tournament from command line. Arguments are
+   * --tournament [games] [threads] [realms] [galaxy size]
+   * [scoring victory turns] [first seed].
+   * Missing arguments use default values.
+   * @param args Command line arguments
+   * @param output Output where results are written
+   * @param csv True for CSV output, false for JSON lines
+   */
+  public static void tournament(final String[] args,
+      final PrintStream output, final boolean csv) {
+    TournamentRunner runner = new TournamentRunner(output);
+    runner.setCsv(csv);
+    try {
+      parseArguments(runner, args);
+    } catch (NumberFormatException e) {
+      output.println("Usage: " + args[0] + " [games] [threads] [realms]"
+          + " [galaxy size] [scoring turns] [first seed]");
+      return;
+    }
+    runner.run();
+    if (!csv) {
+      output.println(runner.getSummary());
+    }
+  }
+
+  /**
+   * Parse command line arguments into tournament runner.
+   * @param runner TournamentRunner
+   * @param args Command line arguments
+   * @throws NumberFormatException If argument is not a number
+   */
+  private static void parseArguments(final TournamentRunner runner,
+      final String[] args) throws NumberFormatException {
+    int index = 1;
+    if (args.length > index) {
+      runner.setNumberOfGames(Integer.parseInt(args[index]));
+    }
+    index++;
+    if (args.length > index) {
+      runner.setNumberOfThreads(Integer.parseInt(args[index]));
+    }
+    index++;
+    if (args.length > index) {
+      runner.setMaxPlayers(Integer.parseInt(args[index]));
+    }
+    index++;
+    if (args.length > index) {
+      runner.setGalaxySize(Integer.parseInt(args[index]));
+    }
+    index++;
+    if (args.length > index) {
+      runner.setScoringVictoryTurns(Integer.parseInt(args[index]));
+    }
+    index++;
+    if (args.length > index) {
+      runner.setFirstSeed(Long.parseLong(args[index]));
+    }
+  }
+}
@@ -37,7 +37,6 @@ import org.openRealmOfStars.player.ship.ShipComponent;
 import org.openRealmOfStars.player.ship.ShipImage;
 import org.openRealmOfStars.player.ship.ShipImages;
 import org.openRealmOfStars.starMap.Coordinate;
-import org.openRealmOfStars.starMap.CulturePower;
 import org.openRealmOfStars.starMap.Route;
 import org.openRealmOfStars.starMap.SquareInfo;
 import org.openRealmOfStars.starMap.StarMap;
@@ -575,16 +574,13 @@ public class MapPanel extends JPanel {
           gr.drawLine(pixelX, pixelY + Tile.MAX_HEIGHT - 1,
               pixelX + Tile.MAX_WIDTH - 1, pixelY + Tile.MAX_HEIGHT - 1);
         }
-        if (info != null && info.getSectorVisibility(new Coordinate(i + cx,
-            j + cy)) != PlayerInfo.UNCHARTED) {
-          CulturePower culture = starMap.getSectorCulture(i + cx, j + cy);
-          if (culture != null) {
-            int index = culture.getHighestCulture();
-            if (index != -1) {
-              Tile tile = Tiles.getTileByName("Player_" + index);
-              if (tile != null) {
-                tile.draw(gr, pixelX, pixelY);
-              }
+        if (info != null && info.getSectorVisibility(i + cx, j + cy)
+            != PlayerInfo.UNCHARTED) {
+          int index = starMap.getSectorCultureOwner(i + cx, j + cy);
+          if (index != -1) {
+            Tile tile = Tiles.getTileByName("Player_" + index);
+            if (tile != null) {
+              tile.draw(gr, pixelX, pixelY);
             }
           }
         }
@@ -599,8 +595,7 @@ public class MapPanel extends JPanel {
         }
         // Draw only non empty tiles
         if (info != null && !tile.getName().equals(TileNames.EMPTY)
-            && info.getSectorVisibility(new Coordinate(i + cx,
-                j + cy)) != PlayerInfo.UNCHARTED
+            && info.getSectorVisibility(i + cx, j + cy) != PlayerInfo.UNCHARTED
             || starMap.getTileInfo(i + cx, j + cy)
                 .getType() == SquareInfo.TYPE_SUN
             || starMap.getTileInfo(i + cx, j + cy)
@@ -611,8 +606,7 @@ public class MapPanel extends JPanel {
         // Draw home world marker
         Planet planet = starMap.getPlanetByCoordinate(i + cx, j + cy);
         if (planet != null && !planet.isGasGiant() && info != null
-            && info.getSectorVisibility(new Coordinate(i + cx,
-                j + cy)) != PlayerInfo.UNCHARTED
+            && info.getSectorVisibility(i + cx, j + cy) != PlayerInfo.UNCHARTED
             && planet.getHomeWorldIndex() != -1) {
           Icon16x16 icon = Icons.getIconByName(Icons.ICON_CULTURE);
           icon.draw(gr, pixelX + Icon16x16.MAX_WIDTH,
@@ -622,8 +616,8 @@ public class MapPanel extends JPanel {
         // Draw deep space anchor marker
         if ((tile.getName().equals(TileNames.DEEP_SPACE_ANCHOR1)
             || tile.getName().equals(TileNames.DEEP_SPACE_ANCHOR2))
-            && info != null && info.getSectorVisibility(new Coordinate(i + cx,
-                j + cy)) != PlayerInfo.UNCHARTED) {
+            && info != null && info.getSectorVisibility(i + cx, j + cy)
+                != PlayerInfo.UNCHARTED) {
           Icon16x16 icon = Icons.getIconByName(Icons.ICON_STARBASE);
           icon.draw(gr, pixelX + Icon16x16.MAX_WIDTH,
               pixelY + Icon16x16.MAX_HEIGHT);
@@ -686,8 +680,7 @@ public class MapPanel extends JPanel {
 
         // Draw fog of war and uncharted tiles
         if (info != null) {
-          switch (info.getSectorVisibility(new Coordinate(i + cx,
-              j + cy))) {
+          switch (info.getSectorVisibility(i + cx, j + cy)) {
           case PlayerInfo.UNCHARTED: {
             if (starMap.getTileInfo(i + cx, j + cy)
                 .getType() != SquareInfo.TYPE_SUN) {
@@ -757,8 +750,7 @@ public class MapPanel extends JPanel {
             || tile.getName().equals(TileNames.GAS_GIANT_3_SE)
                 && i > -viewPointX)
             && planet != null && info != null && info
-                .getSectorVisibility(new Coordinate(i + cx,
-                    j + cy)) != PlayerInfo.UNCHARTED) {
+                .getSectorVisibility(i + cx, j + cy) != PlayerInfo.UNCHARTED) {
           int textWidth = (int) GuiStatics.getFontCubellanSC()
               .getStringBounds(RandomSystemNameGenerator.numberToRoman(
                   planet.getOrderNumber()), gr.getFontRenderContext())
@@ -777,8 +769,7 @@ public class MapPanel extends JPanel {
         // Draw planet text
         if (planet != null && !planet.isGasGiant()
             && planet.getOrderNumber() != 0 && info != null && info
-            .getSectorVisibility(new Coordinate(i + cx,
-                j + cy)) != PlayerInfo.UNCHARTED) {
+            .getSectorVisibility(i + cx, j + cy) != PlayerInfo.UNCHARTED) {
           int textWidth = (int) GuiStatics.getFontCubellanSC()
               .getStringBounds(RandomSystemNameGenerator.numberToRoman(
                   planet.getOrderNumber()), gr.getFontRenderContext())
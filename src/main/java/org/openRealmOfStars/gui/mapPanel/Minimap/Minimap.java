@@ -9,8 +9,6 @@ import org.openRealmOfStars.mapTiles.Tile;
 import org.openRealmOfStars.mapTiles.TileNames;
 import org.openRealmOfStars.mapTiles.Tiles;
 import org.openRealmOfStars.player.PlayerInfo;
-import org.openRealmOfStars.starMap.Coordinate;
-import org.openRealmOfStars.starMap.CulturePower;
 import org.openRealmOfStars.starMap.SquareInfo;
 import org.openRealmOfStars.starMap.StarMap;
 
@@ -259,17 +257,14 @@ public class Minimap {
       for (int x = 0; x < sectorsToShow; x++) {
         if (map.isValidCoordinate(x + topX, y + topY)
             && info != null
-            && info.getSectorVisibility(new Coordinate(x + topX,
-            y + topY)) != PlayerInfo.UNCHARTED) {
-          CulturePower culture = map.getSectorCulture(x + topX, y + topY);
-          if (culture != null) {
-            int index = culture.getHighestCulture();
-            if (index != -1) {
-              Tile tile = Tiles.getTileByName("Player_" + index);
-              if (tile != null) {
-                tile.drawMiniSector(img, x * sectorSize, y * sectorSize,
-                    sectorSize);
-              }
+            && info.getSectorVisibility(x + topX, y + topY)
+            != PlayerInfo.UNCHARTED) {
+          int index = map.getSectorCultureOwner(x + topX, y + topY);
+          if (index != -1) {
+            Tile tile = Tiles.getTileByName("Player_" + index);
+            if (tile != null) {
+              tile.drawMiniSector(img, x * sectorSize, y * sectorSize,
+                  sectorSize);
             }
           }
           Tile tile = map.getTile(x + topX, y + topY);
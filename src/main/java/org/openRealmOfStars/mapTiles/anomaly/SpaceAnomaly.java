@@ -203,6 +203,7 @@ public class SpaceAnomaly {
               }
             }
           }
+          map.handleRevealedSectors(info);
           break;
         }
         case TileNames.SPACE_ANOMALY_DSA: {
@@ -116,13 +116,9 @@ public class PlayerInfo {
    * 0: Uncharted only suns are drawn
    * 1: Fog of war, no fleets are drawn
    * 2: Visible everything is drawn
+   * Also contains cloaking detection per sector.
    */
-  private byte[][] mapData;
-
-  /**
-   * Cloaking detection per sector
-   */
-  private int[][] mapCloakDetection;
+  private VisibilityMap mapData;
 
   /**
    * Map size
@@ -603,9 +599,12 @@ public class PlayerInfo {
   /**
    * Read PlayerInfo from DataInputStream
    * @param dis DataInputStream
+   * @param packedMapData True if map data is packed four sectors per byte,
+   *        false for older saves with one sector per byte.
    * @throws IOException if there is any problem with DataInputStream
    */
-  public PlayerInfo(final DataInputStream dis) throws IOException {
+  public PlayerInfo(final DataInputStream dis, final boolean packedMapData)
+      throws IOException {
     setRandomEventOccured(null);
     strategy = WinningStrategy.GENERIC;
     empireName = IOUtilities.readString(dis);
@@ -653,16 +652,22 @@ public class PlayerInfo {
     initMapData(xSize, ySize);
     int mapOffset = 0;
     try {
-      for (int y = 0; y < maxCoordinate.getY(); y++) {
-        for (int x = 0; x < maxCoordinate.getX(); x++) {
-          mapData[x][y] = dis.readByte();
-          mapOffset++;
+      if (packedMapData) {
+        mapData.readPacked(dis);
+      } else {
+        for (int y = 0; y < maxCoordinate.getY(); y++) {
+          for (int x = 0; x < maxCoordinate.getX(); x++) {
+            mapData.setVisibility(x, y, dis.readByte());
+            mapOffset++;
+          }
         }
       }
     } catch (IOException e) {
       throw new IOException("Reading failed at player mapdata! MapOffset:"
           + mapOffset + " " + e.getMessage());
     }
+    // Loaded visible sectors were revealed before saving
+    mapData.clearRevealedSectors();
     diplomacy = DiplomacyRepository.loadDiplomacy(dis);
     espionage = new Espionage(diplomacy.getDiplomacySize());
 
@@ -749,11 +754,7 @@ public class PlayerInfo {
     if (mapData == null) {
       throw new IOException("Map data is not initialized yet!");
     }
-    for (int y = 0; y < maxCoordinate.getY(); y++) {
-      for (int x = 0; x < maxCoordinate.getX(); x++) {
-        dos.writeByte(mapData[x][y]);
-      }
-    }
+    mapData.writePacked(dos);
     DiplomacyRepository.saveDiplomacy(dos, diplomacy);
     dos.writeByte(espionage.getSize());
     for (int i = 0; i < espionage.getSize(); i++) {
@@ -1003,7 +1004,7 @@ public class PlayerInfo {
       int nx = (int) Math.round(startX);
       int ny = (int) Math.round(startY);
       if (new Coordinate(nx, ny).isValidCoordinate(maxCoordinate)
-          && mapData[nx][ny] == UNCHARTED) {
+          && mapData.getVisibility(nx, ny) == UNCHARTED) {
         result++;
       }
     }
@@ -1027,8 +1028,8 @@ public class PlayerInfo {
             sun.getCenterY() + y);
         if (coordinate.isValidCoordinate(maxCoordinate)
             && (x > 1 || x < -1 || y > 1 || y < -1)) {
-          if (mapData[sun.getCenterX() + x][sun.getCenterY()
-              + y] == UNCHARTED) {
+          if (mapData.getVisibility(sun.getCenterX() + x,
+              sun.getCenterY() + y) == UNCHARTED) {
             unCharted++;
           } else {
             charted++;
@@ -1058,8 +1059,8 @@ public class PlayerInfo {
             sun.getCenterY() + y);
         if (coordinate.isValidCoordinate(maxCoordinate)
             && (x > 1 || x < -1 || y > 1 || y < -1)
-            && mapData[sun.getCenterX() + x][sun.getCenterY()
-              + y] == UNCHARTED) {
+            && mapData.getVisibility(sun.getCenterX() + x,
+              sun.getCenterY() + y) == UNCHARTED) {
           double dist = coordinate.calculateDistance(fleet.getCoordinate());
           if (dist < distance) {
             distance = dist;
@@ -1106,8 +1107,8 @@ public class PlayerInfo {
             new Coordinate(sun.getCenterX() + x, sun.getCenterY() + y);
         if (sectorCoordinate.isValidCoordinate(maxCoordinate)
             && (x > 1 || x < -1 || y > 1 || y < -1)) {
-          if (mapData[sun.getCenterX() + x][sun.getCenterY()
-              + y] == UNCHARTED) {
+          if (mapData.getVisibility(sun.getCenterX() + x,
+              sun.getCenterY() + y) == UNCHARTED) {
             unCharted[sector]++;
             Coordinate fleetCoordinate =
                 new Coordinate(fleet.getX(), fleet.getY());
@@ -1181,7 +1182,8 @@ public class PlayerInfo {
           Coordinate coordinate = new Coordinate(nx, ny);
           double distance = fleetCoordinate.calculateDistance(coordinate);
           if (coordinate.isValidCoordinate(maxCoordinate) && i >= scan
-              && distance > 1 && mapData[nx][ny] == UNCHARTED) {
+              && distance > 1
+              && mapData.getVisibility(nx, ny) == UNCHARTED) {
             temp = new PathPoint(nx, ny, distance);
             pathValue = calculateUnchartedLine(fleet.getX(), fleet.getY(), nx,
                 ny);
@@ -1191,7 +1193,7 @@ public class PlayerInfo {
           distance = fleetCoordinate.calculateDistance(coordinate);
           if (temp == null && coordinate.isValidCoordinate(maxCoordinate)
               && i >= scan && distance > 1
-              && mapData[sun.getCenterX()][ny] == UNCHARTED) {
+              && mapData.getVisibility(sun.getCenterX(), ny) == UNCHARTED) {
             temp = new PathPoint(sun.getCenterX(), ny, distance);
             pathValue = calculateUnchartedLine(fleet.getX(), fleet.getY(),
                 sun.getCenterX(), ny);
@@ -1201,7 +1203,7 @@ public class PlayerInfo {
           distance = fleetCoordinate.calculateDistance(coordinate);
           if (temp == null && coordinate.isValidCoordinate(maxCoordinate)
               && i >= scan && distance > 1
-              && mapData[nx][sun.getCenterY()] == UNCHARTED) {
+              && mapData.getVisibility(nx, sun.getCenterY()) == UNCHARTED) {
             temp = new PathPoint(nx, sun.getCenterY(), distance);
             pathValue = calculateUnchartedLine(fleet.getX(), fleet.getY(), nx,
                 sun.getCenterY());
@@ -1233,8 +1235,7 @@ public class PlayerInfo {
    */
   public void initMapData(final int maximumX, final int maximumY) {
     maxCoordinate = new Coordinate(maximumX, maximumY);
-    mapData = new byte[maximumX][maximumY];
-    mapCloakDetection = new int[maximumX][maximumY];
+    mapData = new VisibilityMap(maximumX, maximumY);
   }
 
   /**
@@ -1243,13 +1244,18 @@ public class PlayerInfo {
    * @return UNCHARTED, FOG_OF_WAR or VISIBLE
    */
   public byte getSectorVisibility(final Coordinate coordinate) {
-    byte result = UNCHARTED;
-    try {
-      result = mapData[coordinate.getX()][coordinate.getY()];
-    } catch (ArrayIndexOutOfBoundsException e) {
-      ErrorLogger.log(e);
-    }
-    return result;
+    return getSectorVisibility(coordinate.getX(), coordinate.getY());
+  }
+
+  /**
+   * Get sector visibility
+   * @param x X coordinate
+   * @param y Y coordinate
+   * @return UNCHARTED, FOG_OF_WAR or VISIBLE. Sectors outside of map
+   *         are UNCHARTED.
+   */
+  public byte getSectorVisibility(final int x, final int y) {
+    return mapData.getVisibility(x, y);
   }
 
   /**
@@ -1260,13 +1266,71 @@ public class PlayerInfo {
    */
   public void setSectorVisibility(final int x, final int y,
       final byte visibility) {
-    if (visibility >= 0 && visibility <= VISIBLE) {
-      try {
-        mapData[x][y] = visibility;
-      } catch (ArrayIndexOutOfBoundsException e) {
-        ErrorLogger.log(e);
-      }
-    }
+    mapData.setVisibility(x, y, visibility);
+  }
+
+  /**
+   * Get number of sectors which have become visible during this turn.
+   * Revealed sectors keep their index until visibility data is reset
+   * after turn, so caller can remember how many it has already handled.
+   * @return Number of revealed sectors
+   */
+  public int getNumberOfRevealedSectors() {
+    return mapData.getNumberOfRevealedSectors();
+  }
+
+  /**
+   * Get X coordinate of sector revealed during this turn.
+   * @param index Index of revealed sector
+   * @return X coordinate
+   */
+  public int getRevealedSectorX(final int index) {
+    return mapData.getRevealedX(index);
+  }
+
+  /**
+   * Get Y coordinate of sector revealed during this turn.
+   * @param index Index of revealed sector
+   * @return Y coordinate
+   */
+  public int getRevealedSectorY(final int index) {
+    return mapData.getRevealedY(index);
+  }
+
+  /**
+   * Get number of revealed sectors whose tile events have been handled
+   * during this turn. Sectors from this index onwards are still waiting.
+   * @return Number of handled revealed sectors
+   */
+  public int getHandledRevealedSectors() {
+    return mapData.getHandledCount();
+  }
+
+  /**
+   * Set number of revealed sectors whose tile events have been handled.
+   * @param count Number of handled revealed sectors
+   */
+  public void setHandledRevealedSectors(final int count) {
+    mapData.setHandledCount(count);
+  }
+
+  /**
+   * Get map trade value. This is number of sectors which are
+   * uncharted for this realm but explored by map giver.
+   * @param mapGiver Realm giving the map
+   * @return Number of sectors
+   */
+  public int getMapTradeValue(final PlayerInfo mapGiver) {
+    return mapData.countUnchartedExploredBy(mapGiver.mapData);
+  }
+
+  /**
+   * Receive map from other realm. All sectors explored by map giver but
+   * uncharted for this realm are changed to FOG_OF_WAR.
+   * @param mapGiver Realm giving the map
+   */
+  public void receiveMap(final PlayerInfo mapGiver) {
+    mapData.chartExploredBy(mapGiver.mapData);
   }
 
   /**
@@ -1276,14 +1340,7 @@ public class PlayerInfo {
    * @return cloaking detection value
    */
   public int getSectorCloakDetection(final int x, final int y) {
-    int result = 0;
-    try {
-      result = mapCloakDetection[x][y];
-
-    } catch (ArrayIndexOutOfBoundsException e) {
-      ErrorLogger.log(e);
-    }
-    return result;
+    return mapData.getCloakDetection(x, y);
   }
 
   /**
@@ -1294,11 +1351,7 @@ public class PlayerInfo {
    */
   public void setSectorCloakingDetection(final int x, final int y,
       final int value) {
-    try {
-      mapCloakDetection[x][y] = value;
-    } catch (ArrayIndexOutOfBoundsException e) {
-      ErrorLogger.log(e);
-    }
+    mapData.setCloakDetection(x, y, value);
   }
 
   /**
@@ -1306,14 +1359,7 @@ public class PlayerInfo {
    * each turn.
    */
   public void resetVisibilityDataAfterTurn() {
-    for (int y = 0; y < maxCoordinate.getY(); y++) {
-      for (int x = 0; x < maxCoordinate.getX(); x++) {
-        mapCloakDetection[x][y] = 0;
-        if (mapData[x][y] == VISIBLE) {
-          mapData[x][y] = FOG_OF_WAR;
-        }
-      }
-    }
+    mapData.resetAfterTurn();
   }
 
   /**
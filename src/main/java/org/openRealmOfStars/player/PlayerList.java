@@ -64,14 +64,17 @@ public class PlayerList {
   /**
    * Read PlayerList from DataInputStream
    * @param dis DataInputStream
+   * @param packedMapData True if player map data is packed four sectors
+   *        per byte, false for older saves with one sector per byte.
    * @throws IOException if there is any problem with DataInputStream
    */
-  public PlayerList(final DataInputStream dis) throws IOException {
+  public PlayerList(final DataInputStream dis, final boolean packedMapData)
+      throws IOException {
     currentPlayer = dis.readInt();
     int count = dis.readInt();
     list = new ArrayList<>();
     for (int i = 0; i < count; i++) {
-      list.add(new PlayerInfo(dis));
+      list.add(new PlayerInfo(dis, packedMapData));
     }
   }
 
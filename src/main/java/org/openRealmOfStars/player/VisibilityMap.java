@@ -0,0 +1,510 @@
+package org.openRealmOfStars.player;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+*
+* Open Realm of Stars game project
+* Copyright (C) 2020 Tuomo Untinen
+*
+* This program is free software; you can redistribute it and/or
+* modify it under the terms of the GNU General Public License
+* as published by the Free Software Foundation; either version 2
+* of the License, or (at your option) any later version.
+*
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program; if not, see http://www.gnu.org/licenses/
+*
+*
+* Visibility and cloaking detection map for single realm. Visibility
+* is packed two bits per sector in long rows. Each sector has turn
+* stamp telling when it was last written. Visible sectors and cloaking
+* detection values are valid only during the stamped turn, so resetting
+* them after turn only advances the turn counter.
+*
+*/
+public class VisibilityMap {
+
+  /**
+   * Number of bits for single sector visibility.
+   */
+  private static final int BITS_PER_SECTOR = 2;
+
+  /**
+   * Number of sectors in single long.
+   */
+  private static final int SECTORS_IN_LONG = 32;
+
+  /**
+   * Shift for getting long index from X coordinate.
+   */
+  private static final int LONG_SHIFT = 5;
+
+  /**
+   * Mask for getting sector position inside long.
+   */
+  private static final int SECTOR_MASK = SECTORS_IN_LONG - 1;
+
+  /**
+   * Mask for single sector visibility.
+   */
+  private static final long VISIBILITY_MASK = 3L;
+
+  /**
+   * Mask with lowest bit of each sector set.
+   */
+  private static final long LOW_BITS = 0x5555555555555555L;
+
+  /**
+   * Number of sectors packed into single byte on save.
+   */
+  private static final int SECTORS_IN_BYTE = 4;
+
+  /**
+   * Initial size for revealed sector list.
+   */
+  private static final int INITIAL_REVEALED_SIZE = 64;
+
+  /**
+   * Maximum value for cloaking detection and turn stamp.
+   */
+  private static final int MAX_BYTE_VALUE = 255;
+
+  /**
+   * Mask for reading unsigned byte.
+   */
+  private static final int BYTE_MASK = 0xFF;
+
+  /**
+   * Map X size
+   */
+  private int maxX;
+
+  /**
+   * Map Y size
+   */
+  private int maxY;
+
+  /**
+   * Number of longs in single row
+   */
+  private int rowLength;
+
+  /**
+   * Visibility for each sector, two bits per sector
+   */
+  private long[] visibility;
+
+  /**
+   * Turn stamp for each sector
+   */
+  private byte[] stamps;
+
+  /**
+   * Cloaking detection for each sector. Valid only if sector stamp
+   * is current stamp.
+   */
+  private byte[] cloakDetection;
+
+  /**
+   * Current turn stamp
+   */
+  private int stamp;
+
+  /**
+   * Sectors which have become visible during this turn. Sectors are
+   * stored as y * maxX + x in the order they were revealed.
+   */
+  private int[] revealed;
+
+  /**
+   * Number of revealed sectors during this turn.
+   */
+  private int revealedCount;
+
+  /**
+   * Number of revealed sectors whose tile events have been handled.
+   */
+  private int handledCount;
+
+  /**
+   * Constructor for visibility map. All sectors are uncharted.
+   * @param maxX Map X size
+   * @param maxY Map Y size
+   */
+  public VisibilityMap(final int maxX, final int maxY) {
+    this.maxX = maxX;
+    this.maxY = maxY;
+    rowLength = (maxX + SECTORS_IN_LONG - 1) / SECTORS_IN_LONG;
+    visibility = new long[rowLength * maxY];
+    stamps = new byte[maxX * maxY];
+    cloakDetection = new byte[maxX * maxY];
+    stamp = 1;
+    revealed = new int[INITIAL_REVEALED_SIZE];
+    revealedCount = 0;
+    handledCount = 0;
+  }
+
+  /**
+   * Is coordinate valid position on map
+   * @param x X Coordinate
+   * @param y Y Coordinate
+   * @return true if valid otherwise false
+   */
+  public boolean isValidPos(final int x, final int y) {
+    return x >= 0 && y >= 0 && x < maxX && y < maxY;
+  }
+
+  /**
+   * Get map X size
+   * @return Map X size
+   */
+  public int getMaxX() {
+    return maxX;
+  }
+
+  /**
+   * Get map Y size
+   * @return Map Y size
+   */
+  public int getMaxY() {
+    return maxY;
+  }
+
+  /**
+   * Get stored visibility bits for sector. Coordinate must be valid.
+   * @param x X coordinate
+   * @param y Y coordinate
+   * @return Stored visibility
+   */
+  private int getBits(final int x, final int y) {
+    long word = visibility[y * rowLength + (x >> LONG_SHIFT)];
+    int shift = (x & SECTOR_MASK) * BITS_PER_SECTOR;
+    return (int) (word >>> shift & VISIBILITY_MASK);
+  }
+
+  /**
+   * Set stored visibility bits for sector. Coordinate must be valid.
+   * @param x X coordinate
+   * @param y Y coordinate
+   * @param value Visibility
+   */
+  private void setBits(final int x, final int y, final int value) {
+    int index = y * rowLength + (x >> LONG_SHIFT);
+    int shift = (x & SECTOR_MASK) * BITS_PER_SECTOR;
+    visibility[index] = visibility[index] & ~(VISIBILITY_MASK << shift)
+        | (value & VISIBILITY_MASK) << shift;
+  }
+
+  /**
+   * Is sector stamped on current turn. Coordinate must be valid.
+   * @param index Sector index
+   * @return True if stamped on current turn
+   */
+  private boolean isCurrent(final int index) {
+    return (stamps[index] & BYTE_MASK) == stamp;
+  }
+
+  /**
+   * Stamp sector for current turn. If sector was stamped on earlier
+   * turn then its visible state and cloaking detection are cleared.
+   * @param x X coordinate, must be valid
+   * @param y Y coordinate, must be valid
+   */
+  private void stampSector(final int x, final int y) {
+    int index = y * maxX + x;
+    if (!isCurrent(index)) {
+      if (getBits(x, y) == PlayerInfo.VISIBLE) {
+        setBits(x, y, PlayerInfo.FOG_OF_WAR);
+      }
+      cloakDetection[index] = 0;
+      stamps[index] = (byte) stamp;
+    }
+  }
+
+  /**
+   * Get sector visibility
+   * @param x X coordinate
+   * @param y Y coordinate
+   * @return UNCHARTED, FOG_OF_WAR or VISIBLE. Invalid coordinates
+   *         are always UNCHARTED.
+   */
+  public byte getVisibility(final int x, final int y) {
+    if (!isValidPos(x, y)) {
+      return PlayerInfo.UNCHARTED;
+    }
+    int value = getBits(x, y);
+    if (value == PlayerInfo.VISIBLE && !isCurrent(y * maxX + x)) {
+      return PlayerInfo.FOG_OF_WAR;
+    }
+    return (byte) value;
+  }
+
+  /**
+   * Set sector visibility. Invalid coordinates and visibility values
+   * are ignored. If sector changes to VISIBLE it is added to
+   * revealed sectors.
+   * @param x X coordinate
+   * @param y Y coordinate
+   * @param value UNCHARTED, FOG_OF_WAR or VISIBLE
+   */
+  public void setVisibility(final int x, final int y, final byte value) {
+    if (isValidPos(x, y) && value >= PlayerInfo.UNCHARTED
+        && value <= PlayerInfo.VISIBLE) {
+      stampSector(x, y);
+      if (value == PlayerInfo.VISIBLE
+          && getBits(x, y) != PlayerInfo.VISIBLE) {
+        if (revealedCount == revealed.length) {
+          revealed = Arrays.copyOf(revealed, revealedCount * 2);
+        }
+        revealed[revealedCount] = y * maxX + x;
+        revealedCount++;
+      }
+      setBits(x, y, value);
+    }
+  }
+
+  /**
+   * Get number of sectors revealed during this turn. Sectors which
+   * were revealed earlier stay in same index until turn ends.
+   * @return Number of revealed sectors
+   */
+  public int getNumberOfRevealedSectors() {
+    return revealedCount;
+  }
+
+  /**
+   * Get X coordinate of revealed sector
+   * @param index Index in revealed sectors
+   * @return X coordinate
+   */
+  public int getRevealedX(final int index) {
+    return revealed[index] % maxX;
+  }
+
+  /**
+   * Get Y coordinate of revealed sector
+   * @param index Index in revealed sectors
+   * @return Y coordinate
+   */
+  public int getRevealedY(final int index) {
+    return revealed[index] / maxX;
+  }
+
+  /**
+   * Get number of revealed sectors whose tile events have been handled.
+   * @return Number of handled sectors
+   */
+  public int getHandledCount() {
+    return handledCount;
+  }
+
+  /**
+   * Set number of revealed sectors whose tile events have been handled.
+   * @param count Number of handled sectors
+   */
+  public void setHandledCount(final int count) {
+    handledCount = count;
+  }
+
+  /**
+   * Forget sectors revealed during this turn.
+   */
+  public void clearRevealedSectors() {
+    revealedCount = 0;
+    handledCount = 0;
+  }
+
+  /**
+   * Get sector cloaking detection
+   * @param x X coordinate
+   * @param y Y coordinate
+   * @return Cloaking detection value, invalid coordinates are always 0.
+   */
+  public int getCloakDetection(final int x, final int y) {
+    if (isValidPos(x, y)) {
+      int index = y * maxX + x;
+      if (isCurrent(index)) {
+        return cloakDetection[index] & BYTE_MASK;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Set sector cloaking detection. Value is limited between 0 and 255.
+   * Invalid coordinates are ignored.
+   * @param x X coordinate
+   * @param y Y coordinate
+   * @param value Cloaking detection value
+   */
+  public void setCloakDetection(final int x, final int y, final int value) {
+    if (isValidPos(x, y)) {
+      stampSector(x, y);
+      int limited = Math.max(0, Math.min(MAX_BYTE_VALUE, value));
+      cloakDetection[y * maxX + x] = (byte) limited;
+    }
+  }
+
+  /**
+   * Clear visible sectors, revealed sectors and cloaking detection
+   * after turn. Normally this only advances turn stamp. When turn stamp
+   * runs out of values whole map is cleared once and stamps start again.
+   */
+  public void resetAfterTurn() {
+    revealedCount = 0;
+    handledCount = 0;
+    if (stamp < MAX_BYTE_VALUE) {
+      stamp++;
+      return;
+    }
+    for (int y = 0; y < maxY; y++) {
+      for (int x = 0; x < maxX; x++) {
+        if (getBits(x, y) == PlayerInfo.VISIBLE) {
+          setBits(x, y, PlayerInfo.FOG_OF_WAR);
+        }
+      }
+    }
+    Arrays.fill(stamps, (byte) 0);
+    Arrays.fill(cloakDetection, (byte) 0);
+    stamp = 1;
+  }
+
+  /**
+   * Get explored sectors from packed visibility word. Lowest bit of
+   * each sector is set if sector is FOG_OF_WAR or VISIBLE.
+   * @param word Packed visibility word
+   * @return Explored sectors
+   */
+  private static long getExplored(final long word) {
+    return (word | word >>> 1) & LOW_BITS;
+  }
+
+  /**
+   * Does other map have same size as this map.
+   * @param other Other visibility map
+   * @return True if same size
+   */
+  private boolean isSameSize(final VisibilityMap other) {
+    return maxX == other.maxX && maxY == other.maxY;
+  }
+
+  /**
+   * Count sectors which are explored in other map
+   * but uncharted in this map.
+   * @param other Other visibility map
+   * @return Number of sectors
+   */
+  public int countUnchartedExploredBy(final VisibilityMap other) {
+    int result = 0;
+    if (isSameSize(other)) {
+      for (int i = 0; i < visibility.length; i++) {
+        result = result + Long.bitCount(getExplored(other.visibility[i])
+            & ~getExplored(visibility[i]));
+      }
+      return result;
+    }
+    for (int y = 0; y < maxY; y++) {
+      for (int x = 0; x < maxX; x++) {
+        if (getBits(x, y) == PlayerInfo.UNCHARTED
+            && other.getVisibility(x, y) != PlayerInfo.UNCHARTED) {
+          result++;
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Change sectors which are explored in other map but uncharted in
+   * this map to FOG_OF_WAR.
+   * @param other Other visibility map
+   */
+  public void chartExploredBy(final VisibilityMap other) {
+    if (isSameSize(other)) {
+      // FOG_OF_WAR is the lowest bit so missing sectors can be ORed in
+      for (int i = 0; i < visibility.length; i++) {
+        visibility[i] = visibility[i] | getExplored(other.visibility[i])
+            & ~getExplored(visibility[i]);
+      }
+      return;
+    }
+    for (int y = 0; y < maxY; y++) {
+      for (int x = 0; x < maxX; x++) {
+        if (getBits(x, y) == PlayerInfo.UNCHARTED
+            && other.getVisibility(x, y) != PlayerInfo.UNCHARTED) {
+          setBits(x, y, PlayerInfo.FOG_OF_WAR);
+        }
+      }
+    }
+  }
+
+  /**
+   * Write visibility packed four sectors per byte.
+   * @param dos DataOutputStream
+   * @throws IOException if there is any problem with DataOutputStream
+   */
+  public void writePacked(final DataOutputStream dos) throws IOException {
+    byte[] packed = new byte[getPackedSize()];
+    int value = 0;
+    int count = 0;
+    int index = 0;
+    for (int y = 0; y < maxY; y++) {
+      for (int x = 0; x < maxX; x++) {
+        value = value | getVisibility(x, y) << count * BITS_PER_SECTOR;
+        count++;
+        if (count == SECTORS_IN_BYTE) {
+          packed[index] = (byte) value;
+          index++;
+          value = 0;
+          count = 0;
+        }
+      }
+    }
+    if (count > 0) {
+      packed[index] = (byte) value;
+    }
+    dos.write(packed);
+  }
+
+  /**
+   * Get number of bytes needed for packed visibility.
+   * @return Number of bytes
+   */
+  private int getPackedSize() {
+    return (maxX * maxY + SECTORS_IN_BYTE - 1) / SECTORS_IN_BYTE;
+  }
+
+  /**
+   * Read visibility packed four sectors per byte.
+   * @param dis DataInputStream
+   * @throws IOException if there is any problem with DataInputStream
+   */
+  public void readPacked(final DataInputStream dis) throws IOException {
+    byte[] packed = new byte[getPackedSize()];
+    dis.readFully(packed);
+    int value = 0;
+    int count = SECTORS_IN_BYTE;
+    int index = 0;
+    for (int y = 0; y < maxY; y++) {
+      for (int x = 0; x < maxX; x++) {
+        if (count == SECTORS_IN_BYTE) {
+          value = packed[index] & BYTE_MASK;
+          index++;
+          count = 0;
+        }
+        setVisibility(x, y, (byte) (value >> count * BITS_PER_SECTOR
+            & VISIBILITY_MASK));
+        count++;
+      }
+    }
+  }
+}
@@ -17,7 +17,6 @@ import org.openRealmOfStars.player.leader.Perk;
 import org.openRealmOfStars.player.tech.Tech;
 import org.openRealmOfStars.player.tech.TechList;
 import org.openRealmOfStars.player.tech.TechType;
-import org.openRealmOfStars.starMap.Coordinate;
 import org.openRealmOfStars.starMap.StarMap;
 import org.openRealmOfStars.starMap.StarMapUtilities;
 import org.openRealmOfStars.starMap.planet.Planet;
@@ -2236,19 +2235,7 @@ public class DiplomaticTrade {
   private void doMapTrade(final PlayerInfo mapReceiver,
       final PlayerInfo mapGiver, final boolean fullMap) {
     if (fullMap) {
-      for (int y = 0; y < starMap.getMaxY(); y++) {
-        for (int x = 0; x < starMap.getMaxX(); x++) {
-          Coordinate coord = new Coordinate(x, y);
-          byte visibility = mapGiver.getSectorVisibility(coord);
-          if (visibility == PlayerInfo.FOG_OF_WAR
-              || visibility == PlayerInfo.VISIBLE) {
-            byte origVisiblity = mapReceiver.getSectorVisibility(coord);
-            if (origVisiblity == PlayerInfo.UNCHARTED) {
-              mapReceiver.setSectorVisibility(x, y, PlayerInfo.FOG_OF_WAR);
-            }
-         }
-        }
-      }
+      mapReceiver.receiveMap(mapGiver);
     } else {
       for (Planet planet : starMap.getPlanetList()) {
         if (planet.getPlanetPlayerInfo() == mapGiver) {
@@ -2290,19 +2277,7 @@ public class DiplomaticTrade {
       final boolean fullMap) {
     int value = 0;
     if (fullMap) {
-      for (int y = 0; y < starMap.getMaxY(); y++) {
-        for (int x = 0; x < starMap.getMaxX(); x++) {
-          Coordinate coord = new Coordinate(x, y);
-          byte visibility = mapGiver.getSectorVisibility(coord);
-          if (visibility == PlayerInfo.FOG_OF_WAR
-              || visibility == PlayerInfo.VISIBLE) {
-            byte origVisiblity = mapReceiver.getSectorVisibility(coord);
-            if (origVisiblity == PlayerInfo.UNCHARTED) {
-              value = value + 1;
-            }
-         }
-        }
-      }
+      value = mapReceiver.getMapTradeValue(mapGiver);
     } else {
       for (Planet planet : starMap.getPlanetList()) {
         if (planet.getPlanetPlayerInfo() == mapGiver) {
@@ -8,6 +8,7 @@ import org.openRealmOfStars.player.leader.EspionageMission;
 import org.openRealmOfStars.player.tech.Tech;
 import org.openRealmOfStars.player.tech.TechList;
 import org.openRealmOfStars.player.tech.TechType;
+import org.openRealmOfStars.starMap.planet.BuildingFactory;
 import org.openRealmOfStars.starMap.planet.Planet;
 
 /**
@@ -73,13 +74,14 @@ public final class EspionageUtility {
       final Fleet fleet, final EspionageMission mission) {
     int result = mission.getBaseChance();
     result = result + fleet.getEspionageBonus() * 10;
-    if (planet.hasCertainBuilding("Barracks")) {
+    if (planet.hasCertainBuilding(BuildingFactory.COMPONENT_BARRACKS)) {
       result = result - 10;
     }
-    if (planet.hasCertainBuilding("Space academy")) {
+    if (planet.hasCertainBuilding(
+        BuildingFactory.COMPONENT_SPACE_ACADEMY)) {
       result = result - 10;
     }
-    if (planet.hasCertainBuilding("United Galaxy Tower")) {
+    if (planet.hasTower()) {
       result = result - 10;
     }
     if (result > 95) {
@@ -90,6 +90,92 @@ public class Fleet {
    */
   private Leader commander;
 
+  /**
+   * Fleet list where fleet belongs. This is notified when fleet
+   * is renamed so that list's name index stays valid.
+   */
+  private FleetList fleetList;
+
+  /**
+   * Cached stat index for fleet speed
+   */
+  private static final int STAT_SPEED = 0;
+
+  /**
+   * Cached stat index for fleet FTL speed
+   */
+  private static final int STAT_FTL_SPEED = 1;
+
+  /**
+   * Cached stat index for fleet scanner level
+   */
+  private static final int STAT_SCANNER_LVL = 2;
+
+  /**
+   * Cached stat index for fleet cloak detection
+   */
+  private static final int STAT_CLOAK_DETECTION = 3;
+
+  /**
+   * Cached stat index for fleet cloaking value
+   */
+  private static final int STAT_CLOAKING_VALUE = 4;
+
+  /**
+   * Cached stat index for fleet military value
+   */
+  private static final int STAT_MILITARY_VALUE = 5;
+
+  /**
+   * Cached stat index for biggest ship. Ship itself is stored separately.
+   */
+  private static final int STAT_BIGGEST_SHIP = 6;
+
+  /**
+   * Number of cached stats
+   */
+  private static final int NUMBER_OF_STATS = 7;
+
+  /**
+   * Ships version. This is increased when ship is added or removed.
+   */
+  private int shipsVersion;
+
+  /**
+   * Cached stat values
+   */
+  private int[] cachedStats;
+
+  /**
+   * Bit mask of stats which have been calculated
+   */
+  private int calculatedStats;
+
+  /**
+   * Cached biggest ship
+   */
+  private Ship cachedBiggestShip;
+
+  /**
+   * Ships version used for cached stats
+   */
+  private int cachedShipsVersion;
+
+  /**
+   * Sum of ships' stats versions used for cached stats
+   */
+  private int cachedShipStatsVersion;
+
+  /**
+   * Commander used for cached stats
+   */
+  private Leader cachedCommander;
+
+  /**
+   * Commander's perks as bit mask used for cached stats
+   */
+  private long cachedCommanderPerks;
+
   /**
    * Constructor for fleet
    * @param firstShip The first ship in the fleet
@@ -103,6 +189,7 @@ public class Fleet {
     setName("Fleet #0");
     setRoute(null);
     commander = null;
+    cachedStats = new int[NUMBER_OF_STATS];
   }
 
   /**
@@ -113,6 +200,7 @@ public class Fleet {
    */
   public Fleet(final DataInputStream dis,
       final PlayerInfo info) throws IOException {
+    cachedStats = new int[NUMBER_OF_STATS];
     name = IOUtilities.readString(dis);
     int commanderIndex = dis.readInt();
     if (commanderIndex != -1) {
@@ -170,6 +258,7 @@ public class Fleet {
   public void addShip(final Ship ship) {
     if (ship != null) {
       ships.add(ship);
+      shipsVersion++;
     }
   }
 
@@ -180,6 +269,7 @@ public class Fleet {
   public void removeShip(final Ship ship) {
     if (ship != null) {
       ships.remove(ship);
+      shipsVersion++;
     }
   }
 
@@ -263,11 +353,70 @@ public class Fleet {
     return null;
   }
 
+  /**
+   * Drop cached stats if ships, their stats, commander or commander's
+   * perks have changed since stats were calculated.
+   */
+  private void validateCachedStats() {
+    int shipStatsVersion = 0;
+    for (Ship ship : ships) {
+      shipStatsVersion = shipStatsVersion + ship.getStatsVersion();
+    }
+    long perks = 0;
+    if (commander != null) {
+      perks = commander.getPerkMask();
+    }
+    if (shipsVersion != cachedShipsVersion
+        || shipStatsVersion != cachedShipStatsVersion
+        || commander != cachedCommander || perks != cachedCommanderPerks) {
+      calculatedStats = 0;
+      cachedBiggestShip = null;
+      cachedShipsVersion = shipsVersion;
+      cachedShipStatsVersion = shipStatsVersion;
+      cachedCommander = commander;
+      cachedCommanderPerks = perks;
+    }
+  }
+
+  /**
+   * Is stat cached. Cached stats must be validated before calling this.
+   * @param stat Stat index, see STAT_*
+   * @return True if stat has been calculated
+   */
+  private boolean hasCachedStat(final int stat) {
+    return (calculatedStats & 1 << stat) != 0;
+  }
+
+  /**
+   * Store calculated stat into cache.
+   * @param stat Stat index, see STAT_*
+   * @param value Stat value
+   * @return Stat value
+   */
+  private int setCachedStat(final int stat, final int value) {
+    cachedStats[stat] = value;
+    calculatedStats = calculatedStats | 1 << stat;
+    return value;
+  }
+
   /**
    * Get ship with greatest military value
    * @return Ship or null if no ships in fleet
    */
   public Ship getBiggestShip() {
+    validateCachedStats();
+    if (!hasCachedStat(STAT_BIGGEST_SHIP)) {
+      cachedBiggestShip = calculateBiggestShip();
+      setCachedStat(STAT_BIGGEST_SHIP, 0);
+    }
+    return cachedBiggestShip;
+  }
+
+  /**
+   * Find ship with greatest military value
+   * @return Ship or null if no ships in fleet
+   */
+  private Ship calculateBiggestShip() {
     Ship result = null;
     for (Ship ship : ships) {
       if (result == null) {
@@ -294,7 +443,27 @@ public class Fleet {
    * @param name Fleet name
    */
   public void setName(final String name) {
+    String oldName = this.name;
     this.name = name;
+    if (fleetList != null) {
+      fleetList.fleetRenamed(this, oldName);
+    }
+  }
+
+  /**
+   * Set fleet list where fleet belongs.
+   * @param list Fleet list or null if fleet is not in any list
+   */
+  void setFleetList(final FleetList list) {
+    fleetList = list;
+  }
+
+  /**
+   * Get fleet list where fleet belongs.
+   * @return Fleet list or null if fleet is not in any list
+   */
+  FleetList getFleetList() {
+    return fleetList;
   }
 
   /**
@@ -367,7 +536,11 @@ public class Fleet {
    * @return Speed
    */
   public int getFleetSpeed() {
-    return getFleetSpeed(false);
+    validateCachedStats();
+    if (hasCachedStat(STAT_SPEED)) {
+      return cachedStats[STAT_SPEED];
+    }
+    return setCachedStat(STAT_SPEED, getFleetSpeed(false));
   }
 
   /**
@@ -375,7 +548,11 @@ public class Fleet {
    * @return Speed
    */
   public int getFleetFtlSpeed() {
-    return getFleetSpeed(true);
+    validateCachedStats();
+    if (hasCachedStat(STAT_FTL_SPEED)) {
+      return cachedStats[STAT_FTL_SPEED];
+    }
+    return setCachedStat(STAT_FTL_SPEED, getFleetSpeed(true));
   }
 
   /**
@@ -383,6 +560,10 @@ public class Fleet {
    * @return scanner level
    */
   public int getFleetScannerLvl() {
+    validateCachedStats();
+    if (hasCachedStat(STAT_SCANNER_LVL)) {
+      return cachedStats[STAT_SCANNER_LVL];
+    }
     int lvl = 1;
     for (Ship ship : ships) {
       int shipLvl = ship.getScannerLvl();
@@ -393,7 +574,7 @@ public class Fleet {
     if (commander != null && commander.hasPerk(Perk.SCANNER_EXPERT)) {
       lvl++;
     }
-    return lvl;
+    return setCachedStat(STAT_SCANNER_LVL, lvl);
   }
 
   /**
@@ -401,6 +582,10 @@ public class Fleet {
    * @return cloak detection
    */
   public int getFleetCloakDetection() {
+    validateCachedStats();
+    if (hasCachedStat(STAT_CLOAK_DETECTION)) {
+      return cachedStats[STAT_CLOAK_DETECTION];
+    }
     int lvl = 0;
     for (Ship ship : ships) {
       int shipLvl = ship.getScannerDetectionLvl();
@@ -411,7 +596,7 @@ public class Fleet {
     if (commander != null && commander.hasPerk(Perk.COUNTER_AGENT)) {
       lvl++;
     }
-    return lvl;
+    return setCachedStat(STAT_CLOAK_DETECTION, lvl);
   }
 
   /**
@@ -420,6 +605,10 @@ public class Fleet {
    * @return cloak Value
    */
   public int getFleetCloackingValue() {
+    validateCachedStats();
+    if (hasCachedStat(STAT_CLOAKING_VALUE)) {
+      return cachedStats[STAT_CLOAKING_VALUE];
+    }
     int lvl = 0;
     int totalMass = 0;
     for (Ship ship : ships) {
@@ -434,10 +623,10 @@ public class Fleet {
       totalMass = totalMass + mass;
     }
     if (totalMass == 0) {
-      return 0;
+      return setCachedStat(STAT_CLOAKING_VALUE, 0);
     }
    lvl = lvl / totalMass;
-    return lvl;
+    return setCachedStat(STAT_CLOAKING_VALUE, lvl);
   }
 
 
@@ -834,13 +1023,17 @@ public class Fleet {
    * @return Total military value for fleet
    */
   public int getMilitaryValue() {
+    validateCachedStats();
+    if (hasCachedStat(STAT_MILITARY_VALUE)) {
+      return cachedStats[STAT_MILITARY_VALUE];
+    }
     int result = 0;
     for (Ship ship : ships) {
       if (!ship.isStarBase() || ship.getFlag(Ship.FLAG_STARBASE_DEPLOYED)) {
         result = result + ship.getTotalMilitaryPower();
       }
     }
-    return result;
+    return setCachedStat(STAT_MILITARY_VALUE, result);
   }
 
   /**
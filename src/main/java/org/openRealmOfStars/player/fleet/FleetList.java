@@ -4,6 +4,7 @@ import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 
 import org.openRealmOfStars.player.PlayerInfo;
 import org.openRealmOfStars.starMap.Coordinate;
@@ -43,11 +44,17 @@ public class FleetList {
    */
   private int index;
 
+  /**
+   * Fleets by name. Fleets which have same name are in the same bucket.
+   */
+  private HashMap<String, ArrayList<Fleet>> nameIndex;
+
   /**
    * Constructor for FleetList. Empty fleet list is created.
    */
   public FleetList() {
     fleetList = new ArrayList<>();
+    nameIndex = new HashMap<>();
     index = -1;
   }
 
@@ -61,13 +68,119 @@ public class FleetList {
       final PlayerInfo info) throws IOException {
     int count = dis.readInt();
     fleetList = new ArrayList<>();
+    nameIndex = new HashMap<>();
     for (int i = 0; i < count; i++) {
       Fleet fleet = new Fleet(dis, info);
       fleetList.add(fleet);
+      addToIndex(fleet, fleet.getName());
     }
     index = 0;
   }
 
+  /**
+   * Add fleet into name index.
+   * @param fleet Fleet to add
+   * @param name Fleet's name
+   */
+  private void addToIndex(final Fleet fleet, final String name) {
+    fleet.setFleetList(this);
+    addToBucket(fleet, name);
+  }
+
+  /**
+   * Add fleet into name index bucket without changing fleet's list.
+   * @param fleet Fleet to add
+   * @param name Fleet's name
+   */
+  private void addToBucket(final Fleet fleet, final String name) {
+    if (name == null) {
+      return;
+    }
+    ArrayList<Fleet> bucket = nameIndex.get(name);
+    if (bucket == null) {
+      bucket = new ArrayList<>(1);
+      nameIndex.put(name, bucket);
+    }
+    bucket.add(fleet);
+  }
+
+  /**
+   * Remove fleet from name index.
+   * @param fleet Fleet to remove
+   * @param name Fleet's name when it was added to index
+   * @return True if fleet was found from index
+   */
+  private boolean removeFromIndex(final Fleet fleet, final String name) {
+    if (name == null) {
+      return true;
+    }
+    ArrayList<Fleet> bucket = nameIndex.get(name);
+    if (bucket != null) {
+      for (int i = 0; i < bucket.size(); i++) {
+        if (bucket.get(i) == fleet) {
+          bucket.remove(i);
+          if (bucket.isEmpty()) {
+            nameIndex.remove(name);
+          }
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Update name index after fleet has been removed from the list.
+   * @param fleet Removed fleet
+   */
+  private void fleetRemoved(final Fleet fleet) {
+    if (!removeFromIndex(fleet, fleet.getName())) {
+      // Fleet has been renamed without notification, so index is
+      // built again from the list.
+      rebuildIndex();
+    }
+    if (fleet.getFleetList() == this && !isFleetOnList(fleet)) {
+      // Fleet may already belong to another list, for example when
+      // fleet is traded to another realm.
+      fleet.setFleetList(null);
+    }
+  }
+
+  /**
+   * Build name index from the fleet list.
+   */
+  private void rebuildIndex() {
+    nameIndex = new HashMap<>();
+    for (Fleet fleet : fleetList) {
+      addToBucket(fleet, fleet.getName());
+    }
+  }
+
+  /**
+   * Update name index after fleet in this list has been renamed.
+   * @param fleet Renamed fleet
+   * @param oldName Fleet's name before renaming
+   */
+  void fleetRenamed(final Fleet fleet, final String oldName) {
+    if (removeFromIndex(fleet, oldName)) {
+      addToBucket(fleet, fleet.getName());
+    } else {
+      rebuildIndex();
+    }
+  }
+
+  /**
+   * Get fleets which have certain name.
+   * @param name Fleet name
+   * @return Fleets in bucket or null if there are no such fleets
+   */
+  private ArrayList<Fleet> getBucket(final String name) {
+    if (name == null) {
+      return null;
+    }
+    return nameIndex.get(name);
+  }
+
   /**
    * Save Fleet List to DataOutputStream
    * @param dos DataOutputStream
@@ -94,6 +207,7 @@ public class FleetList {
       fleet.setName(generateUniqueName());
     }
     fleetList.add(fleet);
+    addToIndex(fleet, fleet.getName());
   }
 
   /**
@@ -171,7 +285,8 @@ public class FleetList {
         index = 0;
       }
     }
-    fleetList.remove(indexToRemove);
+    Fleet fleet = fleetList.remove(indexToRemove);
+    fleetRemoved(fleet);
   }
 
   /**
@@ -259,6 +374,14 @@ public class FleetList {
    * @return Fleet or null if list contains no fleets
    */
   public Fleet getByName(final String name) {
+    ArrayList<Fleet> bucket = getBucket(name);
+    if (bucket == null) {
+      return null;
+    }
+    if (bucket.size() == 1) {
+      return bucket.get(0);
+    }
+    // Several fleets with same name, last one in the list is returned
       Fleet getFleetByName = null;
     if (fleetList.size() > 0) {
       for (Fleet fleet : fleetList) {
@@ -276,6 +399,18 @@ public class FleetList {
    * @return index number or -1 if not found
    */
   public int getIndexByName(final String name) {
+    ArrayList<Fleet> bucket = getBucket(name);
+    if (bucket == null) {
+      return -1;
+    }
+    if (bucket.size() == 1) {
+      Fleet fleet = bucket.get(0);
+      for (int i = fleetList.size() - 1; i >= 0; i--) {
+        if (fleetList.get(i) == fleet) {
+          return i;
+        }
+      }
+    }
       int fleetIndex = -1;
     if (fleetList.size() > 0) {
       for (int i = 0; i < fleetList.size(); i++) {
@@ -304,6 +439,7 @@ public class FleetList {
       Fleet fleet = fleetList.get(i);
       if (fleet.getNumberOfShip() == 0) {
         fleetList.remove(i);
+        fleetRemoved(fleet);
         break;
       }
     }
@@ -314,10 +450,21 @@ public class FleetList {
    * @param toRemove Fleet to remove
    */
   public void removeFleet(final Fleet toRemove) {
+    ArrayList<Fleet> bucket = getBucket(toRemove.getName());
+    if (bucket == null) {
+      return;
+    }
+    if (bucket.size() == 1) {
+      Fleet fleet = bucket.get(0);
+      fleetList.remove(fleet);
+      fleetRemoved(fleet);
+      return;
+    }
     for (int i = 0; i < fleetList.size(); i++) {
       Fleet fleet = fleetList.get(i);
       if (fleet.getName().equals(toRemove.getName())) {
         fleetList.remove(i);
+        fleetRemoved(fleet);
         break;
       }
     }
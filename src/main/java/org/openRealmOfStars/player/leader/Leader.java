@@ -508,6 +508,21 @@ public class Leader {
     }
     return false;
   }
+
+  /**
+   * Get leader's perks as bit mask. Mask changes whenever perk is
+   * added or removed, so it can be used to check if cached values
+   * depending on perks are still valid.
+   * @return Bit mask of perk indexes
+   */
+  public long getPerkMask() {
+    long mask = 0;
+    for (Perk perk : perkList) {
+      mask = mask | 1L << perk.getIndex();
+    }
+    return mask;
+  }
+
   /**
    * Get parent index for leader.
    * This is avaiable only if leader is created from reading saved game.
@@ -111,6 +111,47 @@ public class Ship extends Construction {
    */
   private Coordinate tradeCoordinates;
 
+  /**
+   * Stats version. This is increased when hull points or flags change.
+   */
+  private int statsVersion;
+
+  /**
+   * Stats version which cached stats were calculated for.
+   * Negative if stats have not been calculated.
+   */
+  private int cachedVersion;
+
+  /**
+   * Does component have energy for each component
+   */
+  private boolean[] componentEnergy;
+
+  /**
+   * Cached military power
+   */
+  private int cachedMilitaryPower;
+
+  /**
+   * Cached speed
+   */
+  private int cachedSpeed;
+
+  /**
+   * Cached scanner level
+   */
+  private int cachedScannerLvl;
+
+  /**
+   * Cached scanner cloak detection level
+   */
+  private int cachedScannerDetectionLvl;
+
+  /**
+   * Cached cloaking value
+   */
+  private int cachedCloakingValue;
+
   /**
    * Starbase has been deployed
    */
@@ -191,6 +232,7 @@ public class Ship extends Construction {
     setCulture(0);
     specialFlags = 0;
     tradeCoordinates = null;
+    cachedVersion = -1;
   }
 
   /**
@@ -239,6 +281,7 @@ public class Ship extends Construction {
     } else {
       tradeCoordinates = null;
     }
+    cachedVersion = -1;
   }
 
   /**
@@ -563,9 +606,12 @@ private boolean isIndexValid(final int index) {
    * @return true if has energy
    */
   public boolean hasComponentEnergy(final int index) {
-      return hasComponent()
-              && (hasRemainingEnergy(index)
-                      || !isComponentRequireEnergy(index));
+    if (index < 0 || index >= components.size()) {
+      // Remaining energy is never negative outside of component list
+      return hasComponent();
+    }
+    updateCachedStats();
+    return componentEnergy[index];
   }
 
 /**
@@ -575,40 +621,51 @@ private boolean hasComponent() {
     return components.size() > 0;
 }
 
-/**
- * @param index Component index
- * @return true if component require energy
- */
-private boolean isComponentRequireEnergy(final int index) {
-    return components.get(index).getEnergyRequirement() > 0;
-}
+  /**
+   * Mark that hull points or flags have changed so cached stats
+   * need to be calculated again.
+   */
+  private void statsChanged() {
+    statsVersion++;
+  }
 
-/**
- * @param index Component index
- * @return true if remaining energy >= 0
- */
-private boolean hasRemainingEnergy(final int index) {
-    return getRemainingEnergy(index) >= 0;
-}
+  /**
+   * Get stats version. Version changes whenever something which affects
+   * ship's stats changes.
+   * @return Stats version
+   */
+  public int getStatsVersion() {
+    return statsVersion;
+  }
 
-/**
- * @param index Component index
- * @return remaining energy
- */
-private int getRemainingEnergy(final int index) {
+  /**
+   * Calculate energy state for each component and cached stats if
+   * they are not calculated for current stats version.
+   */
+  private void updateCachedStats() {
+    if (cachedVersion == statsVersion) {
+      return;
+    }
+    int size = components.size();
+    if (componentEnergy == null || componentEnergy.length != size) {
+      componentEnergy = new boolean[size];
+    }
     int energy = getTotalEnergy();
-    if (index < components.size()) {
-        for (int i = 0; i <= index; i++) {
-          ShipComponent comp = components.get(i);
-          if (hullPoints[i] > 0 && comp.getEnergyRequirement() > 0) {
-            energy = energy - comp.getEnergyRequirement();
-          }
-        }
-    } else {
-        energy = 0;
+    for (int i = 0; i < size; i++) {
+      ShipComponent comp = components.get(i);
+      if (hullPoints[i] > 0 && comp.getEnergyRequirement() > 0) {
+        energy = energy - comp.getEnergyRequirement();
+      }
+      componentEnergy[i] = energy >= 0 || comp.getEnergyRequirement() <= 0;
     }
-    return energy;
-}
+    // Energy state must be valid before other stats are calculated
+    cachedVersion = statsVersion;
+    cachedMilitaryPower = calculateMilitaryPower();
+    cachedSpeed = calculateSpeed();
+    cachedScannerLvl = calculateScannerLvl();
+    cachedScannerDetectionLvl = calculateScannerDetectionLvl();
+    cachedCloakingValue = calculateCloakingValue();
+  }
 
   /**
    * Check if certain component has energy and hull points so it is functioning.
@@ -656,6 +713,15 @@ private int getRemainingEnergy(final int index) {
    * @return Speed
    */
   public int getSpeed() {
+    updateCachedStats();
+    return cachedSpeed;
+  }
+
+  /**
+   * Calculate speed depending on hull points and energy level
+   * @return Speed
+   */
+  private int calculateSpeed() {
     int speed = 0;
     for (int i = 0; i < components.size(); i++) {
       ShipComponent comp = components.get(i);
@@ -862,6 +928,15 @@ private int getRemainingEnergy(final int index) {
    * @return scanner Lvl
    */
   public int getScannerLvl() {
+    updateCachedStats();
+    return cachedScannerLvl;
+  }
+
+  /**
+   * Calculate scanner level
+   * @return scanner Lvl
+   */
+  private int calculateScannerLvl() {
     int scannerLvl = 0;
     for (int i = 0; i < components.size(); i++) {
       ShipComponent comp = components.get(i);
@@ -878,6 +953,15 @@ private int getRemainingEnergy(final int index) {
    * @return scanner detection level
    */
   public int getScannerDetectionLvl() {
+    updateCachedStats();
+    return cachedScannerDetectionLvl;
+  }
+
+  /**
+   * Calculate scanner cloak detection level
+   * @return scanner detection level
+   */
+  private int calculateScannerDetectionLvl() {
     int scannerDetectionLvl = 0;
     for (int i = 0; i < components.size(); i++) {
       ShipComponent comp = components.get(i);
@@ -896,6 +980,15 @@ private int getRemainingEnergy(final int index) {
    * @return cloaking value
    */
   public int getCloakingValue() {
+    updateCachedStats();
+    return cachedCloakingValue;
+  }
+
+  /**
+   * Calculate cloaking value
+   * @return cloaking value
+   */
+  private int calculateCloakingValue() {
     int cloak = 0;
     for (int i = 0; i < components.size(); i++) {
       ShipComponent comp = components.get(i);
@@ -972,6 +1065,7 @@ private int increaseHitChanceByComponent() {
     int hp = hullPoints[componentPos[target]];
     hullPoints[componentPos[target]] = hullPoints[componentPos[target]]
         - damage;
+    statsChanged();
     if (hullPoints[componentPos[target]] < 0) {
       // No negative hull points to components
       hullPoints[componentPos[target]] = 0;
@@ -997,6 +1091,7 @@ private int increaseHitChanceByComponent() {
    */
   public void fixShip(final boolean fullFix) {
     int maxHPperSlot = getHull().getSlotHull();
+    statsChanged();
     if (fullFix) {
       for (int i = 0; i < hullPoints.length; i++) {
         hullPoints[i] = maxHPperSlot;
@@ -1171,6 +1266,7 @@ private int increaseHitChanceByComponent() {
   public void oneDamage(final int index) {
     if (index >= 0 && index < hullPoints.length && hullPoints[index] > 0) {
       hullPoints[index]--;
+      statsChanged();
     }
   }
   /**
@@ -1707,6 +1803,15 @@ private int increaseHitChanceByComponent() {
    * @return Military power
    */
   public int getTotalMilitaryPower() {
+    updateCachedStats();
+    return cachedMilitaryPower;
+  }
+
+  /**
+   * Calculate military power of the ship without cache.
+   * @return Military power
+   */
+  private int calculateMilitaryPower() {
     double power = 0;
     boolean militaryShip = false;
     power = getHull().getSlotHull() * getHull().getMaxSlot();
@@ -1815,6 +1920,7 @@ private int increaseHitChanceByComponent() {
       int bitmask = ~flag;
       specialFlags = specialFlags & bitmask;
     }
+    statsChanged();
   }
 
   /**
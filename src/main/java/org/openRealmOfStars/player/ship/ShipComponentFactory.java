@@ -1,6 +1,7 @@
 package org.openRealmOfStars.player.ship;
 
 import org.openRealmOfStars.utilities.ErrorLogger;
+import org.openRealmOfStars.utilities.NameRegistry;
 
 /**
  *
@@ -898,24 +899,54 @@ public final class ShipComponentFactory {
    */
   public static final int COMPONENT_ION_CANNON_MK4 = 175;
 
-/**
+  /**
+   * Ship component name registry. Holder class is initialized on first use,
+   * which also makes it safe between threads.
+   */
+  private static final class Registry {
+    /**
+     * Hiding the constructor.
+     */
+    private Registry() {
+      // Nothing to do
+    }
+
+    /**
+     * Registry of all ship component names
+     */
+    private static final NameRegistry NAMES = createRegistry();
+
+    /**
+     * Create name registry for all ship components.
+     * @return Name registry
+     */
+    private static NameRegistry createRegistry() {
+      String[] names = new String[MAX_SHIPCOMPONENT];
+      for (int i = 0; i < MAX_SHIPCOMPONENT; i++) {
+        ShipComponent tmp = create(i);
+        if (tmp != null) {
+          names[i] = tmp.getName();
+        }
+      }
+      return new NameRegistry(names);
+    }
+  }
+
+  /**
    * Create ShipComponent with matching name
    * @param name Ship component name
    * @return ShipComponent or null if not found
    */
   public static ShipComponent createByName(final String name) {
-    ShipComponent tmp = null;
     if (name == null) {
       return null;
     }
-    for (int i = 0; i < MAX_SHIPCOMPONENT; i++) {
-      tmp = create(i);
-      if (tmp != null && tmp.getName().equalsIgnoreCase(name)) {
-        return tmp;
-      }
+    int index = Registry.NAMES.getIndex(name);
+    if (index == -1) {
+      ErrorLogger.log("Could not find component called '" + name + "'");
+      return null;
     }
-    ErrorLogger.log("Could not find component called '" + name + "'");
-    return null;
+    return create(index);
   }
 
   /**
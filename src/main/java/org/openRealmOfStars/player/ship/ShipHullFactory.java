@@ -1,6 +1,7 @@
 package org.openRealmOfStars.player.ship;
 
 import org.openRealmOfStars.player.SpaceRace.SpaceRace;
+import org.openRealmOfStars.utilities.NameRegistry;
 
 /**
  *
@@ -39,6 +40,39 @@ public final class ShipHullFactory {
    */
   private static final int MAX_SHIPHULL = 33;
 
+  /**
+   * Ship hull name registry. Holder class is initialized on first use,
+   * which also makes it safe between threads.
+   */
+  private static final class Registry {
+    /**
+     * Hiding the constructor.
+     */
+    private Registry() {
+      // Nothing to do
+    }
+
+    /**
+     * Registry of all ship hull names
+     */
+    private static final NameRegistry NAMES = createRegistry();
+
+    /**
+     * Create name registry for all ship hulls.
+     * @return Name registry
+     */
+    private static NameRegistry createRegistry() {
+      String[] names = new String[MAX_SHIPHULL];
+      for (int i = 0; i < MAX_SHIPHULL; i++) {
+        ShipHull tmp = createShipHull(i, SpaceRace.HUMAN);
+        if (tmp != null) {
+          names[i] = tmp.getName();
+        }
+      }
+      return new NameRegistry(names);
+    }
+  }
+
   /**
    * Create ShipHull with matching name
    * @param name Ship hull name
@@ -46,14 +80,11 @@ public final class ShipHullFactory {
    * @return ShipHull or null if not found
    */
   public static ShipHull createByName(final String name, final SpaceRace race) {
-    ShipHull tmp = null;
-    for (int i = 0; i < MAX_SHIPHULL; i++) {
-      tmp = createShipHull(i, race);
-      if (tmp != null && tmp.getName().equalsIgnoreCase(name)) {
-        return tmp;
-      }
+    int index = Registry.NAMES.getIndex(name);
+    if (index == -1) {
+      return null;
     }
-    return null;
+    return createShipHull(index, race);
   }
 
   /**
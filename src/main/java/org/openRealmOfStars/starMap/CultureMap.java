@@ -0,0 +1,293 @@
+package org.openRealmOfStars.starMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+*
+* Open Realm of Stars game project
+* Copyright (C) 2020 Tuomo Untinen
+*
+* This program is free software; you can redistribute it and/or
+* modify it under the terms of the GNU General Public License
+* as published by the Free Software Foundation; either version 2
+* of the License, or (at your option) any later version.
+*
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program; if not, see http://www.gnu.org/licenses/
+*
+*
+* Culture map contains culture power for each sector. Culture is stored
+* in one flat plane per player and owner of each sector is kept in
+* byte plane. Culture sources like planets and starbases are remembered
+* with their last contribution so on update only changed sources are
+* applied again.
+*
+*/
+public class CultureMap {
+
+  /**
+   * Map X size
+   */
+  private int maxX;
+
+  /**
+   * Map Y size
+   */
+  private int maxY;
+
+  /**
+   * Number of players
+   */
+  private int players;
+
+  /**
+   * Number of sectors in single plane
+   */
+  private int planeSize;
+
+  /**
+   * Culture for each player and sector. Culture for player is
+   * at index player * planeSize + y * maxX + x.
+   */
+  private int[] culture;
+
+  /**
+   * Player index with highest culture for each sector
+   */
+  private byte[] owners;
+
+  /**
+   * Culture sources and their last contribution
+   */
+  private IdentityHashMap<Object, CultureSource> sources;
+
+  /**
+   * Current update round. Sources which are not updated on this
+   * round are removed when update is finished.
+   */
+  private int updateRound;
+
+  /**
+   * Last contribution of single culture source.
+   */
+  private static class CultureSource {
+    /**
+     * X coordinate
+     */
+    private int x;
+    /**
+     * Y coordinate
+     */
+    private int y;
+    /**
+     * Culture value
+     */
+    private int value;
+    /**
+     * Player index
+     */
+    private int index;
+    /**
+     * Update round when source was last seen
+     */
+    private int round;
+  }
+
+  /**
+   * Constructor for culture map.
+   * @param maxX Map X size
+   * @param maxY Map Y size
+   * @param players Number of players
+   */
+  public CultureMap(final int maxX, final int maxY, final int players) {
+    this.maxX = maxX;
+    this.maxY = maxY;
+    this.players = players;
+    planeSize = maxX * maxY;
+    culture = new int[planeSize * players];
+    owners = new byte[planeSize];
+    Arrays.fill(owners, (byte) -1);
+    sources = new IdentityHashMap<>();
+    updateRound = 0;
+  }
+
+  /**
+   * Is coordinate valid position on map
+   * @param x X Coordinate
+   * @param y Y Coordinate
+   * @return true if valid otherwise false
+   */
+  private boolean isValidPos(final int x, final int y) {
+    return x >= 0 && y >= 0 && x < maxX && y < maxY;
+  }
+
+  /**
+   * Get culture power
+   * @param x The X coordinate
+   * @param y The Y coordinate
+   * @return Culture power or null
+   */
+  public CulturePower getSectorCulture(final int x, final int y) {
+    if (isValidPos(x, y)) {
+      return new CulturePower(culture, owners, y * maxX + x, planeSize,
+          players);
+    }
+    return null;
+  }
+
+  /**
+   * Get player index with highest culture in sector.
+   * @param x The X coordinate
+   * @param y The Y coordinate
+   * @return Player index or -1 if no culture or coordinate is invalid
+   */
+  public int getSectorOwner(final int x, final int y) {
+    if (isValidPos(x, y)) {
+      return CulturePower.getHighestCulture(culture, owners, y * maxX + x,
+          planeSize, players);
+    }
+    return -1;
+  }
+
+  /**
+   * Add culture power
+   * @param x X coordinate
+   * @param y Y Coordinate
+   * @param index Player index from player list
+   * @param value Culture value to add
+   */
+  public void addSectorCulture(final int x, final int y, final int index,
+      final int value) {
+    if (isValidPos(x, y)) {
+      CulturePower.addCulture(culture, owners, y * maxX + x, planeSize,
+          players, index, value);
+    }
+  }
+
+  /**
+   * Add culture around culture source. Negative sign removes
+   * culture which was earlier added with same parameters.
+   * @param cx Center of culture X coordinate
+   * @param cy Center of culture Y coordinate
+   * @param value Culture value
+   * @param index Player index
+   * @param sign 1 for adding and -1 for removing
+   */
+  private void applyCulture(final int cx, final int cy, final int value,
+      final int index, final int sign) {
+    CultureStencil stencil = CultureStencil.getStencil(value);
+    for (int i = 0; i < stencil.getNumberOfSectors(); i++) {
+      addSectorCulture(cx + stencil.getOffsetX(i), cy + stencil.getOffsetY(i),
+          index, sign * stencil.getCulture(i, value));
+    }
+  }
+
+  /**
+   * Add culture around culture source without remembering the source.
+   * @param cx Center of culture X coordinate
+   * @param cy Center of culture Y coordinate
+   * @param value Culture value
+   * @param index Player index
+   */
+  public void addCulture(final int cx, final int cy, final int value,
+      final int index) {
+    applyCulture(cx, cy, value, index, 1);
+  }
+
+  /**
+   * Reset culture for whole map and forget all culture sources.
+   */
+  public void reset() {
+    Arrays.fill(culture, 0);
+    Arrays.fill(owners, (byte) -1);
+    sources.clear();
+  }
+
+  /**
+   * Start updating culture sources. All sources which still exist
+   * should be updated with updateSource before calling finishUpdate.
+   */
+  public void startUpdate() {
+    updateRound++;
+  }
+
+  /**
+   * Update culture source. If source contributes same culture as
+   * last time then nothing is done.
+   * @param source Culture source, for example planet or fleet
+   * @param x Source X coordinate
+   * @param y Source Y coordinate
+   * @param value Culture value
+   * @param index Player index
+   */
+  public void updateSource(final Object source, final int x, final int y,
+      final int value, final int index) {
+    CultureSource last = sources.get(source);
+    if (last == null) {
+      last = new CultureSource();
+      sources.put(source, last);
+    } else if (last.x == x && last.y == y && last.value == value
+        && last.index == index) {
+      last.round = updateRound;
+      return;
+    } else if (last.x == x && last.y == y && last.index == index
+        && CultureStencil.getLevel(last.value)
+        == CultureStencil.getLevel(value)) {
+      // Same stencil, only difference needs to be applied
+      CultureStencil stencil = CultureStencil.getStencil(value);
+      for (int i = 0; i < stencil.getNumberOfSectors(); i++) {
+        addSectorCulture(x + stencil.getOffsetX(i), y + stencil.getOffsetY(i),
+            index, stencil.getCulture(i, value)
+            - stencil.getCulture(i, last.value));
+      }
+      last.value = value;
+      last.round = updateRound;
+      return;
+    } else {
+      applyCulture(last.x, last.y, last.value, last.index, -1);
+    }
+    applyCulture(x, y, value, index, 1);
+    last.x = x;
+    last.y = y;
+    last.value = value;
+    last.index = index;
+    last.round = updateRound;
+  }
+
+  /**
+   * Finish updating culture sources. Culture of sources which were
+   * not updated since startUpdate is removed from the map.
+   */
+  public void finishUpdate() {
+    ArrayList<CultureSource> removed = new ArrayList<>();
+    Iterator<Map.Entry<Object, CultureSource>> iterator =
+        sources.entrySet().iterator();
+    while (iterator.hasNext()) {
+      CultureSource source = iterator.next().getValue();
+      if (source.round != updateRound) {
+        removed.add(source);
+        iterator.remove();
+      }
+    }
+    for (CultureSource source : removed) {
+      applyCulture(source.x, source.y, source.value, source.index, -1);
+    }
+  }
+
+  /**
+   * Get number of culture sources
+   * @return Number of culture sources
+   */
+  public int getNumberOfSources() {
+    return sources.size();
+  }
+}
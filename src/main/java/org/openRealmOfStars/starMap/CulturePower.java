@@ -26,25 +26,69 @@ package org.openRealmOfStars.starMap;
 public class CulturePower {
 
   /**
-   * Culture value for each player
+   * Owner value when highest culture needs to be calculated again
+   */
+  private static final byte OWNER_UNKNOWN = -2;
+
+  /**
+   * Culture values. Value for player is at sector + player * stride.
    */
   private int[] culture;
 
+  /**
+   * Player index for highest culture for each sector or -1 if no culture
+   * at all. OWNER_UNKNOWN if it needs to be calculated again.
+   */
+  private byte[] owners;
+
+  /**
+   * Sector index in culture and owner arrays
+   */
+  private int sector;
+
+  /**
+   * Distance between culture values of two players
+   */
+  private int stride;
+
+  /**
+   * Number of players
+   */
+  private int players;
+
   /**
    * Constructor for culture power
    * @param playersNumber The number of players
    */
   public CulturePower(final int playersNumber) {
-    culture = new int[playersNumber];
+    this(new int[playersNumber], new byte[] {-1}, 0, 1, playersNumber);
+  }
+
+  /**
+   * Constructor for culture power which is view to culture planes.
+   * @param culture Culture values for each player and sector
+   * @param owners Owner of each sector
+   * @param sector Sector index
+   * @param stride Distance between culture values of two players
+   * @param players Number of players
+   */
+  CulturePower(final int[] culture, final byte[] owners, final int sector,
+      final int stride, final int players) {
+    this.culture = culture;
+    this.owners = owners;
+    this.sector = sector;
+    this.stride = stride;
+    this.players = players;
   }
 
   /**
    * Reset culture for sector
    */
   public void reset() {
-    for (int i = 0; i < culture.length; i++) {
-      culture[i] = 0;
+    for (int i = 0; i < players; i++) {
+      culture[sector + i * stride] = 0;
     }
+    owners[sector] = -1;
   }
 
   /**
@@ -53,9 +97,7 @@ public class CulturePower {
    * @param value Culture value
    */
   public void addCulture(final int playerIndex, final int value) {
-    if (playerIndex >= 0 && playerIndex < culture.length) {
-      culture[playerIndex] = culture[playerIndex] + value;
-    }
+    addCulture(culture, owners, sector, stride, players, playerIndex, value);
   }
 
   /**
@@ -63,15 +105,65 @@ public class CulturePower {
    * @return Player index or -1 if no culture at all
    */
   public int getHighestCulture() {
-    int value = 0;
-    int index = -1;
-    for (int i = 0; i < culture.length; i++) {
-      if (culture[i] > value) {
-        index = i;
-        value = culture[i];
+    return getHighestCulture(culture, owners, sector, stride, players);
+  }
+
+  /**
+   * Add culture for certain player in sector. Owner of the sector is
+   * updated if it is known.
+   * @param culture Culture values for each player and sector
+   * @param owners Owner of each sector
+   * @param sector Sector index
+   * @param stride Distance between culture values of two players
+   * @param players Number of players
+   * @param playerIndex PlayerIndex
+   * @param value Culture value
+   */
+  static void addCulture(final int[] culture, final byte[] owners,
+      final int sector, final int stride, final int players,
+      final int playerIndex, final int value) {
+    if (playerIndex >= 0 && playerIndex < players) {
+      int index = sector + playerIndex * stride;
+      culture[index] = culture[index] + value;
+      int owner = owners[sector];
+      if (value < 0) {
+        if (playerIndex == owner) {
+          owners[sector] = OWNER_UNKNOWN;
+        }
+      } else if (owner != OWNER_UNKNOWN && playerIndex != owner
+          && culture[index] > 0) {
+        if (owner == -1 || culture[index] > culture[sector + owner * stride]
+            || culture[index] == culture[sector + owner * stride]
+            && playerIndex < owner) {
+          owners[sector] = (byte) playerIndex;
+        }
+      }
+    }
+  }
+
+  /**
+   * Get player index for highest culture in sector.
+   * @param culture Culture values for each player and sector
+   * @param owners Owner of each sector
+   * @param sector Sector index
+   * @param stride Distance between culture values of two players
+   * @param players Number of players
+   * @return Player index or -1 if no culture at all
+   */
+  static int getHighestCulture(final int[] culture, final byte[] owners,
+      final int sector, final int stride, final int players) {
+    if (owners[sector] == OWNER_UNKNOWN) {
+      int value = 0;
+      int highest = -1;
+      for (int i = 0; i < players; i++) {
+        if (culture[sector + i * stride] > value) {
+          highest = i;
+          value = culture[sector + i * stride];
+        }
       }
+      owners[sector] = (byte) highest;
     }
-    return index;
+    return owners[sector];
   }
 
 }
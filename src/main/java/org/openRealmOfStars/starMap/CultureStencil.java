@@ -0,0 +1,465 @@
+package org.openRealmOfStars.starMap;
+
+/**
+*
+* Open Realm of Stars game project
+* Copyright (C) 2020 Tuomo Untinen
+*
+* This program is free software; you can redistribute it and/or
+* modify it under the terms of the GNU General Public License
+* as published by the Free Software Foundation; either version 2
+* of the License, or (at your option) any later version.
+*
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program; if not, see http://www.gnu.org/licenses/
+*
+*
+* Culture stencil tells which sectors around culture source get culture
+* and how much. Masks are compiled once into offset and weight tables.
+* In masks X gets full culture, 1 gets half, 2 gets two thirds
+* and 3 gets three quarters of culture.
+*
+*/
+public final class CultureStencil {
+
+  /**
+   * Culture level 0
+   */
+  private static final int CULTURE_LEVEL_0 = 1;
+  /**
+   * Culture level 1
+   */
+  private static final int CULTURE_LEVEL_1 = 5;
+  /**
+   * Culture level 2
+   */
+  private static final int CULTURE_LEVEL_2 = 10;
+  /**
+   * Culture level 3
+   */
+  private static final int CULTURE_LEVEL_3 = 20;
+  /**
+   * Culture level 4
+   */
+  private static final int CULTURE_LEVEL_4 = 40;
+  /**
+   * Culture level 5
+   */
+  private static final int CULTURE_LEVEL_5 = 80;
+  /**
+   * Culture level 6
+   */
+  private static final int CULTURE_LEVEL_6 = 160;
+  /**
+   * Culture level 7
+   */
+  private static final int CULTURE_LEVEL_7 = 320;
+  /**
+   * Culture level 8
+   */
+  private static final int CULTURE_LEVEL_8 = 640;
+  /**
+   * Culture level 9
+   */
+  private static final int CULTURE_LEVEL_9 = 1280;
+
+  /**
+   * Culture limits for levels from 1 to 9. Culture value
+   * under the limit belongs to that level.
+   */
+  private static final int[] CULTURE_LIMITS = {CULTURE_LEVEL_1,
+      CULTURE_LEVEL_2, CULTURE_LEVEL_3, CULTURE_LEVEL_4, CULTURE_LEVEL_5,
+      CULTURE_LEVEL_6, CULTURE_LEVEL_7, CULTURE_LEVEL_8, CULTURE_LEVEL_9};
+
+  /**
+   * Maximum culture radius
+   */
+  public static final int MAX_CULTURE_RADIUS = 7;
+
+  /**
+   * Weight for full culture
+   */
+  public static final int WEIGHT_FULL = 0;
+
+  /**
+   * Weight for half of the culture
+   */
+  public static final int WEIGHT_HALF = 1;
+
+  /**
+   * Weight for two thirds of the culture
+   */
+  public static final int WEIGHT_TWO_THIRDS = 2;
+
+  /**
+   * Weight for three quarters of the culture
+   */
+  public static final int WEIGHT_THREE_QUARTERS = 3;
+
+  /**
+   * Numerators for weights
+   */
+  private static final int[] NUMERATORS = {1, 1, 2, 3};
+
+  /**
+   * Denominators for weights
+   */
+  private static final int[] DENOMINATORS = {1, 2, 3, 4};
+
+  /**
+   * Culture masks for each level. Center of the mask is culture source.
+   */
+  private static final String[][] MASKS = {
+    // Level 0
+    //        765432101234567
+    {
+      /* 7 */"...............",
+      /* 6 */"...............",
+      /* 5 */"...............",
+      /* 4 */"...............",
+      /* 3 */"...............",
+      /* 2 */"...............",
+      /* 1 */"...............",
+      /* 0 */".......X.......",
+      /* 1 */"...............",
+      /* 2 */"...............",
+      /* 3 */"...............",
+      /* 4 */"...............",
+      /* 5 */"...............",
+      /* 6 */"...............",
+      /* 7 */"..............."
+    },
+    // Level 1
+    //        765432101234567
+    {
+      /* 7 */"...............",
+      /* 6 */"...............",
+      /* 5 */"...............",
+      /* 4 */"...............",
+      /* 3 */"...............",
+      /* 2 */"...............",
+      /* 1 */".......X.......",
+      /* 0 */"......XXX......",
+      /* 1 */".......X.......",
+      /* 2 */"...............",
+      /* 3 */"...............",
+      /* 4 */"...............",
+      /* 5 */"...............",
+      /* 6 */"...............",
+      /* 7 */"..............."
+    },
+    // Level 2
+    //        765432101234567
+    {
+      /* 7 */"...............",
+      /* 6 */"...............",
+      /* 5 */"...............",
+      /* 4 */"...............",
+      /* 3 */"...............",
+      /* 2 */"...............",
+      /* 1 */"......1X1......",
+      /* 0 */"......XXX......",
+      /* 1 */"......1X1......",
+      /* 2 */"...............",
+      /* 3 */"...............",
+      /* 4 */"...............",
+      /* 5 */"...............",
+      /* 6 */"...............",
+      /* 7 */"..............."
+    },
+    // Level 3
+    //        765432101234567
+    {
+      /* 7 */"...............",
+      /* 6 */"...............",
+      /* 5 */"...............",
+      /* 4 */"...............",
+      /* 3 */"...............",
+      /* 2 */".......1.......",
+      /* 1 */"......1X1......",
+      /* 0 */".....1XXX1.....",
+      /* 1 */"......1X1......",
+      /* 2 */".......1.......",
+      /* 3 */"...............",
+      /* 4 */"...............",
+      /* 5 */"...............",
+      /* 6 */"...............",
+      /* 7 */"..............."
+    },
+    // Level 4
+    //        765432101234567
+    {
+      /* 7 */"...............",
+      /* 6 */"...............",
+      /* 5 */"...............",
+      /* 4 */"...............",
+      /* 3 */".......1.......",
+      /* 2 */"......1X1......",
+      /* 1 */".....1XXX1.....",
+      /* 0 */"....1XXXXX1....",
+      /* 1 */".....1XXX1.....",
+      /* 2 */"......1X1......",
+      /* 3 */".......1.......",
+      /* 4 */"...............",
+      /* 5 */"...............",
+      /* 6 */"...............",
+      /* 7 */"..............."
+    },
+    // Level 5
+    //        765432101234567
+    {
+      /* 7 */"...............",
+      /* 6 */"...............",
+      /* 5 */"...............",
+      /* 4 */".......1.......",
+      /* 3 */"......121......",
+      /* 2 */".....12X21.....",
+      /* 1 */"....12XXX21....",
+      /* 0 */"...12XXXXX21...",
+      /* 1 */"....12XXX21....",
+      /* 2 */".....12X21.....",
+      /* 3 */"......121......",
+      /* 4 */".......1.......",
+      /* 5 */"...............",
+      /* 6 */"...............",
+      /* 7 */"..............."
+    },
+    // Level 6
+    //        765432101234567
+    {
+      /* 7 */"...............",
+      /* 6 */"...............",
+      /* 5 */"...............",
+      /* 4 */"......121......",
+      /* 3 */".....12X21.....",
+      /* 2 */"....12XXX21....",
+      /* 1 */"...12XXXXX21...",
+      /* 0 */"...2XXXXXXX2...",
+      /* 1 */"...12XXXXX21...",
+      /* 2 */"....12XXX21....",
+      /* 3 */".....12X21.....",
+      /* 4 */"......121......",
+      /* 5 */"...............",
+      /* 6 */"...............",
+      /* 7 */"..............."
+    },
+    // Level 7
+    //        765432101234567
+    {
+      /* 7 */"...............",
+      /* 6 */"...............",
+      /* 5 */"......121......",
+      /* 4 */".....12X21.....",
+      /* 3 */"....12XXX21....",
+      /* 2 */"...12XXXXX21...",
+      /* 1 */"..12XXXXXXX21..",
+      /* 0 */"..2XXXXXXXXX2..",
+      /* 1 */"..12XXXXXXX21..",
+      /* 2 */"...12XXXXX21...",
+      /* 3 */"....12XXX21....",
+      /* 4 */".....12X21.....",
+      /* 5 */"......121......",
+      /* 6 */"...............",
+      /* 7 */"..............."
+    },
+    // Level 8
+    //        765432101234567
+    {
+      /* 7 */"...............",
+      /* 6 */"......121......",
+      /* 5 */".....12321.....",
+      /* 4 */"....123X321....",
+      /* 3 */"...123XXX321...",
+      /* 2 */"..123XXXXX321..",
+      /* 1 */".123XXXXXXX321.",
+      /* 0 */".23XXXXXXXXX32.",
+      /* 1 */".123XXXXXXX321.",
+      /* 2 */"..123XXXXX321..",
+      /* 3 */"...123XXX321...",
+      /* 4 */"....123X321....",
+      /* 5 */".....12321.....",
+      /* 6 */"......121......",
+      /* 7 */"..............."
+    },
+    // Level 9
+    //        765432101234567
+    {
+      /* 7 */".......1.......",
+      /* 6 */"......121......",
+      /* 5 */"....123X321....",
+      /* 4 */"....2XXXXX2....",
+      /* 3 */"..123XXXXX321..",
+      /* 2 */"..23XXXXXXX32..",
+      /* 1 */".12XXXXXXXXX21.",
+      /* 0 */"123XXXXXXXXX321",
+      /* 1 */".12XXXXXXXXX21.",
+      /* 2 */"..23XXXXXXX32..",
+      /* 3 */"..123XXXXX321..",
+      /* 4 */"....2XXXXX2....",
+      /* 5 */"....123X321....",
+      /* 6 */"......121......",
+      /* 7 */".......1......."
+    },
+    // Level 10
+    //        765432101234567
+    {
+      /* 7 */"......121......",
+      /* 6 */".....12321.....",
+      /* 5 */"...123XXX321...",
+      /* 4 */"...123XXX321...",
+      /* 3 */".123XXXXXXX321.",
+      /* 2 */".123XXXXXXX321.",
+      /* 1 */"123XXXXXXXXX321",
+      /* 0 */"23XXXXXXXXXXX32",
+      /* 1 */"123XXXXXXXXX321",
+      /* 2 */".123XXXXXXX321.",
+      /* 3 */".123XXXXXXX321.",
+      /* 4 */"...123XXX321...",
+      /* 5 */"...123XXX321...",
+      /* 6 */".....12321.....",
+      /* 7 */"......121......"
+    }
+  };
+
+  /**
+   * Compiled stencils for each level
+   */
+  private static final CultureStencil[] STENCILS;
+
+  static {
+    STENCILS = new CultureStencil[MASKS.length];
+    for (int i = 0; i < MASKS.length; i++) {
+      STENCILS[i] = new CultureStencil(MASKS[i]);
+    }
+  }
+
+  /**
+   * X offsets of sectors
+   */
+  private final int[] offsetX;
+
+  /**
+   * Y offsets of sectors
+   */
+  private final int[] offsetY;
+
+  /**
+   * Weights of sectors
+   */
+  private final int[] weights;
+
+  /**
+   * Compile culture stencil from mask.
+   * @param mask Mask rows from top to bottom
+   */
+  private CultureStencil(final String[] mask) {
+    int count = 0;
+    for (String row : mask) {
+      for (int col = 0; col < row.length(); col++) {
+        if (row.charAt(col) != '.') {
+          count++;
+        }
+      }
+    }
+    offsetX = new int[count];
+    offsetY = new int[count];
+    weights = new int[count];
+    int i = 0;
+    for (int line = 0; line < mask.length; line++) {
+      for (int col = 0; col < mask[line].length(); col++) {
+        char ch = mask[line].charAt(col);
+        if (ch != '.') {
+          offsetX[i] = col - MAX_CULTURE_RADIUS;
+          offsetY[i] = line - MAX_CULTURE_RADIUS;
+          if (ch == '1') {
+            weights[i] = WEIGHT_HALF;
+          } else if (ch == '2') {
+            weights[i] = WEIGHT_TWO_THIRDS;
+          } else if (ch == '3') {
+            weights[i] = WEIGHT_THREE_QUARTERS;
+          } else {
+            weights[i] = WEIGHT_FULL;
+          }
+          i++;
+        }
+      }
+    }
+  }
+
+  /**
+   * Get culture level for culture value.
+   * @param value Culture value
+   * @return Culture level between 0 and 10
+   */
+  public static int getLevel(final int value) {
+    if (value == CULTURE_LEVEL_0) {
+      return 0;
+    }
+    for (int i = 0; i < CULTURE_LIMITS.length; i++) {
+      if (value < CULTURE_LIMITS[i]) {
+        return i + 1;
+      }
+    }
+    return CULTURE_LIMITS.length + 1;
+  }
+
+  /**
+   * Get culture stencil for culture value.
+   * @param value Culture value
+   * @return CultureStencil
+   */
+  public static CultureStencil getStencil(final int value) {
+    return STENCILS[getLevel(value)];
+  }
+
+  /**
+   * Get number of sectors in stencil.
+   * @return Number of sectors
+   */
+  public int getNumberOfSectors() {
+    return offsetX.length;
+  }
+
+  /**
+   * Get X offset of sector from culture source
+   * @param i Sector index
+   * @return X offset
+   */
+  public int getOffsetX(final int i) {
+    return offsetX[i];
+  }
+
+  /**
+   * Get Y offset of sector from culture source
+   * @param i Sector index
+   * @return Y offset
+   */
+  public int getOffsetY(final int i) {
+    return offsetY[i];
+  }
+
+  /**
+   * Get weight of sector.
+   * @param i Sector index
+   * @return Weight
+   */
+  public int getWeight(final int i) {
+    return weights[i];
+  }
+
+  /**
+   * Get culture value which sector gets.
+   * @param i Sector index
+   * @param value Culture value of source
+   * @return Culture value for sector
+   */
+  public int getCulture(final int i, final int value) {
+    int weight = weights[i];
+    return value * NUMERATORS[weight] / DENOMINATORS[weight];
+  }
+}
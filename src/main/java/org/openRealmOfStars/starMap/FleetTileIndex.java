@@ -0,0 +1,421 @@
+package org.openRealmOfStars.starMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import org.openRealmOfStars.mapTiles.FleetTileInfo;
+import org.openRealmOfStars.player.PlayerInfo;
+import org.openRealmOfStars.player.PlayerList;
+import org.openRealmOfStars.player.fleet.Fleet;
+import org.openRealmOfStars.player.fleet.FleetList;
+import org.openRealmOfStars.player.ship.Ship;
+
+/**
+*
+* Open Realm of Stars game project
+* Copyright (C) 2020 Tuomo Untinen
+*
+* This program is free software; you can redistribute it and/or
+* modify it under the terms of the GNU General Public License
+* as published by the Free Software Foundation; either version 2
+* of the License, or (at your option) any later version.
+*
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program; if not, see http://www.gnu.org/licenses/
+*
+*
+* Fleet tile index keeps FleetTileInfo for each sector. On update
+* fleets are compared against what index saw last time. Only sectors
+* where fleets were moved, added, removed or changed are resolved
+* again. Sectors with multiple fleets are always resolved again,
+* since cloaking and military value may have changed.
+*
+*/
+public class FleetTileIndex {
+
+  /**
+   * Initial number of fleets per realm in the index.
+   */
+  private static final int INITIAL_FLEETS = 16;
+
+  /**
+   * Map X size
+   */
+  private int maxX;
+
+  /**
+   * Map Y size
+   */
+  private int maxY;
+
+  /**
+   * Fleet tile info for each sector.
+   */
+  private FleetTileInfo[][] tiles;
+
+  /**
+   * Number of fleets in each sector.
+   */
+  private int[][] fleetCount;
+
+  /**
+   * Fleets seen on last update for each realm.
+   */
+  private Fleet[][] fleets;
+
+  /**
+   * Number of fleets seen on last update for each realm.
+   */
+  private int[] numberOfFleets;
+
+  /**
+   * Fleet X coordinates on last update.
+   */
+  private int[][] fleetX;
+
+  /**
+   * Fleet Y coordinates on last update.
+   */
+  private int[][] fleetY;
+
+  /**
+   * Number of ships in fleet on last update.
+   */
+  private int[][] fleetShips;
+
+  /**
+   * Biggest ship of the fleet on last update.
+   */
+  private Ship[][] fleetBiggest;
+
+  /**
+   * Was starbase deployed on last update.
+   */
+  private boolean[][] fleetStarbase;
+
+  /**
+   * Sectors which need to be resolved again. Key is packed coordinate.
+   */
+  private HashMap<Integer, List<int[]>> dirtySectors;
+
+  /**
+   * Passability layer which gets fleet realms or null
+   */
+  private PassabilityLayer passability;
+
+  /**
+   * Constructor for fleet tile index.
+   * @param maxX Map X size
+   * @param maxY Map Y size
+   */
+  public FleetTileIndex(final int maxX, final int maxY) {
+    this.maxX = maxX;
+    this.maxY = maxY;
+    tiles = new FleetTileInfo[maxX][maxY];
+    fleetCount = new int[maxX][maxY];
+    fleets = new Fleet[0][];
+    numberOfFleets = new int[0];
+    fleetX = new int[0][];
+    fleetY = new int[0][];
+    fleetShips = new int[0][];
+    fleetBiggest = new Ship[0][];
+    fleetStarbase = new boolean[0][];
+    dirtySectors = new HashMap<>();
+  }
+
+  /**
+   * Set passability layer which gets realm index of each sector.
+   * @param layer PassabilityLayer or null
+   */
+  public void setPassability(final PassabilityLayer layer) {
+    passability = layer;
+  }
+
+  /**
+   * Get current fleet tiles. This does not check any changes.
+   * @return FleetTileInfo for each sector
+   */
+  public FleetTileInfo[][] getTiles() {
+    return tiles;
+  }
+
+  /**
+   * Is coordinate valid position on map
+   * @param x X Coordinate
+   * @param y Y Coordinate
+   * @return true if valid otherwise false
+   */
+  private boolean isValidPos(final int x, final int y) {
+    return x >= 0 && y >= 0 && x < maxX && y < maxY;
+  }
+
+  /**
+   * Mark sector to be resolved again.
+   * @param x X coordinate
+   * @param y Y coordinate
+   */
+  private void markDirty(final int x, final int y) {
+    if (isValidPos(x, y)) {
+      Integer key = Integer.valueOf(y * maxX + x);
+      if (!dirtySectors.containsKey(key)) {
+        dirtySectors.put(key, new ArrayList<int[]>());
+      }
+    }
+  }
+
+  /**
+   * Make sure that there is room for realms.
+   * @param realms Number of realms
+   */
+  private void ensureRealms(final int realms) {
+    if (fleets.length < realms) {
+      int oldLength = fleets.length;
+      fleets = Arrays.copyOf(fleets, realms);
+      numberOfFleets = Arrays.copyOf(numberOfFleets, realms);
+      fleetX = Arrays.copyOf(fleetX, realms);
+      fleetY = Arrays.copyOf(fleetY, realms);
+      fleetShips = Arrays.copyOf(fleetShips, realms);
+      fleetBiggest = Arrays.copyOf(fleetBiggest, realms);
+      fleetStarbase = Arrays.copyOf(fleetStarbase, realms);
+      for (int i = oldLength; i < realms; i++) {
+        fleets[i] = new Fleet[INITIAL_FLEETS];
+        fleetX[i] = new int[INITIAL_FLEETS];
+        fleetY[i] = new int[INITIAL_FLEETS];
+        fleetShips[i] = new int[INITIAL_FLEETS];
+        fleetBiggest[i] = new Ship[INITIAL_FLEETS];
+        fleetStarbase[i] = new boolean[INITIAL_FLEETS];
+      }
+    }
+  }
+
+  /**
+   * Make sure that there is room for realm's fleets.
+   * @param realm Realm index
+   * @param size Number of fleets for realm
+   */
+  private void ensureFleets(final int realm, final int size) {
+    if (fleets[realm].length < size) {
+      int newSize = Math.max(size, fleets[realm].length * 2);
+      fleets[realm] = Arrays.copyOf(fleets[realm], newSize);
+      fleetX[realm] = Arrays.copyOf(fleetX[realm], newSize);
+      fleetY[realm] = Arrays.copyOf(fleetY[realm], newSize);
+      fleetShips[realm] = Arrays.copyOf(fleetShips[realm], newSize);
+      fleetBiggest[realm] = Arrays.copyOf(fleetBiggest[realm], newSize);
+      fleetStarbase[realm] = Arrays.copyOf(fleetStarbase[realm], newSize);
+    }
+  }
+
+  /**
+   * Update index to match current fleets.
+   * @param players PlayerList containing all the fleets
+   * @return Fleet tile info for each sector
+   */
+  public FleetTileInfo[][] update(final PlayerList players) {
+    dirtySectors.clear();
+    int realms = players.getCurrentMaxPlayers();
+    ensureRealms(realms);
+    for (int i = realms; i < fleets.length; i++) {
+      // Realms which no longer exist
+      updateRealm(i, null);
+    }
+    for (int i = 0; i < realms; i++) {
+      PlayerInfo player = players.getPlayerInfoByIndex(i);
+      updateRealm(i, player.getFleets());
+    }
+    // Sectors with multiple fleets are always resolved again
+    for (int i = 0; i < realms; i++) {
+      for (int j = 0; j < numberOfFleets[i]; j++) {
+        int x = fleetX[i][j];
+        int y = fleetY[i][j];
+        if (fleets[i][j] != null && isValidPos(x, y)
+            && fleetCount[x][y] > 1) {
+          markDirty(x, y);
+        }
+      }
+    }
+    if (!dirtySectors.isEmpty()) {
+      for (int i = 0; i < realms; i++) {
+        for (int j = 0; j < numberOfFleets[i]; j++) {
+          if (fleets[i][j] != null && isValidPos(fleetX[i][j],
+              fleetY[i][j])) {
+            List<int[]> sector = dirtySectors.get(Integer.valueOf(
+                fleetY[i][j] * maxX + fleetX[i][j]));
+            if (sector != null) {
+              sector.add(new int[] {i, j});
+            }
+          }
+        }
+      }
+      for (Integer key : dirtySectors.keySet()) {
+        resolveSector(key.intValue() % maxX, key.intValue() / maxX,
+            dirtySectors.get(key));
+      }
+    }
+    return tiles;
+  }
+
+  /**
+   * Compare realm's fleets against last update and mark changed
+   * sectors as dirty.
+   * @param realm Realm index
+   * @param fleetList Realm's fleets or null if realm does not exist.
+   */
+  private void updateRealm(final int realm, final FleetList fleetList) {
+    int size = 0;
+    if (fleetList != null) {
+      size = fleetList.getNumberOfFleets();
+    }
+    ensureFleets(realm, size);
+    int oldSize = numberOfFleets[realm];
+    for (int j = 0; j < Math.max(size, oldSize); j++) {
+      Fleet oldFleet = null;
+      if (j < oldSize) {
+        oldFleet = fleets[realm][j];
+      }
+      Fleet fleet = null;
+      if (j < size) {
+        fleet = fleetList.getByIndex(j);
+      }
+      if (oldFleet == null && fleet == null) {
+        continue;
+      }
+      if (fleet != null && oldFleet == fleet
+          && fleetX[realm][j] == fleet.getX()
+          && fleetY[realm][j] == fleet.getY()
+          && fleetShips[realm][j] == fleet.getNumberOfShip()
+          && fleetStarbase[realm][j] == fleet.isStarBaseDeployed()
+          && fleetBiggest[realm][j] == fleet.getBiggestShip()) {
+        continue;
+      }
+      if (oldFleet != null) {
+        int x = fleetX[realm][j];
+        int y = fleetY[realm][j];
+        markDirty(x, y);
+        if (isValidPos(x, y)) {
+          fleetCount[x][y]--;
+        }
+      }
+      fleets[realm][j] = fleet;
+      if (fleet != null) {
+        int x = fleet.getX();
+        int y = fleet.getY();
+        fleetX[realm][j] = x;
+        fleetY[realm][j] = y;
+        fleetShips[realm][j] = fleet.getNumberOfShip();
+        fleetStarbase[realm][j] = fleet.isStarBaseDeployed();
+        fleetBiggest[realm][j] = fleet.getBiggestShip();
+        markDirty(x, y);
+        if (isValidPos(x, y)) {
+          fleetCount[x][y]++;
+        }
+      } else {
+        fleetBiggest[realm][j] = null;
+      }
+    }
+    numberOfFleets[realm] = size;
+  }
+
+  /**
+   * Create fleet tile info from fleet's biggest ship.
+   * @param fleet Fleet
+   * @param realm Realm index
+   * @param fleetIndex Fleet index
+   * @return FleetTileInfo or null if fleet has no ships.
+   */
+  private static FleetTileInfo createInfo(final Fleet fleet, final int realm,
+      final int fleetIndex) {
+    Ship ship = fleet.getBiggestShip();
+    if (ship == null) {
+      return null;
+    }
+    return new FleetTileInfo(ship.getHull().getRace(),
+        ship.getHull().getImageIndex(), realm, fleetIndex);
+  }
+
+  /**
+   * Set Fleet tile for certain position. If position already contains fleet
+   * tile and realm is different then tile is being marked as conflict.
+   * @param x X coordinate
+   * @param y Y Coordinate
+   * @param info FleetTileInfo
+   */
+  private void setFleetTile(final int x, final int y,
+      final FleetTileInfo info) {
+    if (info == null) {
+      return;
+    }
+    if (tiles[x][y] != null) {
+      int oldIndex = tiles[x][y].getConflictIndex();
+      if (oldIndex == -1) {
+        oldIndex = tiles[x][y].getPlayerIndex();
+      }
+      tiles[x][y] = info;
+      if (tiles[x][y].getPlayerIndex() != oldIndex) {
+        tiles[x][y].setConflict(oldIndex);
+      }
+    } else {
+      tiles[x][y] = info;
+    }
+  }
+
+  /**
+   * Resolve fleet tile info for single sector. Fleets are handled
+   * in realm and fleet index order.
+   * @param x X coordinate
+   * @param y Y coordinate
+   * @param sectorFleets Realm and fleet indexes of fleets in sector
+   */
+  private void resolveSector(final int x, final int y,
+      final List<int[]> sectorFleets) {
+    tiles[x][y] = null;
+    for (int[] entry : sectorFleets) {
+      int i = entry[0];
+      int j = entry[1];
+      Fleet fleet = fleets[i][j];
+      if (tiles[x][y] == null && fleet.getFirstShip() != null) {
+        setFleetTile(x, y, createInfo(fleet, i, j));
+        continue;
+      }
+      for (int[] other : sectorFleets) {
+        int k = other[1];
+        if (other[0] != i || k == j) {
+          continue;
+        }
+        Fleet fleet2 = fleets[i][k];
+        if (fleet2.getNumberOfShip() == 0) {
+          continue;
+        }
+        if (fleet2.getFleetCloackingValue()
+            < fleet.getFleetCloackingValue()) {
+          setFleetTile(x, y, createInfo(fleet2, i, k));
+        } else if (fleet2.getFleetCloackingValue()
+            > fleet.getFleetCloackingValue()) {
+          setFleetTile(x, y, createInfo(fleet, i, j));
+        } else if (fleet2.getMilitaryValue() > fleet.getMilitaryValue()) {
+          setFleetTile(x, y, createInfo(fleet2, i, k));
+        } else {
+          setFleetTile(x, y, createInfo(fleet, i, j));
+        }
+        if (fleet2.isStarBaseDeployed()) {
+          setFleetTile(x, y, createInfo(fleet2, i, k));
+        } else if (fleet.isStarBaseDeployed()) {
+          setFleetTile(x, y, createInfo(fleet, i, j));
+        }
+      }
+    }
+    if (passability != null) {
+      if (tiles[x][y] != null) {
+        passability.setFleetRealm(x, y, tiles[x][y].getPlayerIndex());
+      } else {
+        passability.setFleetRealm(x, y, PassabilityLayer.NO_REALM);
+      }
+    }
+  }
+}
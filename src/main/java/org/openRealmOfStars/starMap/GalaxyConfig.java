@@ -209,6 +209,16 @@ public class GalaxyConfig {
    * Flag for enabled tutorial
    */
   private boolean enableTutorial;
+
+  /**
+   * Seed for game's random context.
+   */
+  private long seed;
+
+  /**
+   * Is game seeded. If not, random values are different in each game.
+   */
+  private boolean seeded;
 /**
    * Constructor for galaxy config
    */
@@ -237,6 +247,7 @@ public class GalaxyConfig {
     playerGovernment = new GovernmentType[StarMap.MAX_PLAYERS];
     playerAncientRealm = new boolean[StarMap.MAX_PLAYERS];
     setEnableTutorial(true);
+    clearSeed();
     for (int i = 0; i < StarMap.MAX_PLAYERS; i++) {
 
       setRace(i, SpaceRaceUtility.getRandomRace());
@@ -729,4 +740,38 @@ public class GalaxyConfig {
     this.enableTutorial = enableTutorial;
   }
 
+  /**
+   * Get seed for game's random context.
+   * @return Seed, meaningful only if game is seeded.
+   */
+  public long getSeed() {
+    return seed;
+  }
+
+  /**
+   * Set seed for game's random context. Game with same seed
+   * and same config is played always same way.
+   * @param seed Seed, any value is valid
+   */
+  public void setSeed(final long seed) {
+    this.seed = seed;
+    seeded = true;
+  }
+
+  /**
+   * Clear seed so that random values are different in each game.
+   */
+  public void clearSeed() {
+    seed = 0;
+    seeded = false;
+  }
+
+  /**
+   * Is game seeded with fixed seed.
+   * @return True if seed has been set
+   */
+  public boolean hasSeed() {
+    return seeded;
+  }
+
 }
@@ -0,0 +1,246 @@
+package org.openRealmOfStars.starMap;
+
+import java.util.Arrays;
+
+/**
+*
+* Open Realm of Stars game project
+* Copyright (C) 2020 Tuomo Untinen
+*
+* This program is free software; you can redistribute it and/or
+* modify it under the terms of the GNU General Public License
+* as published by the Free Software Foundation; either version 2
+* of the License, or (at your option) any later version.
+*
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program; if not, see http://www.gnu.org/licenses/
+*
+*
+* Passability layer for star map. Contains bit planes for blocked
+* and dangerous sectors and realm index of fleet in each sector.
+* Layer is kept up to date by StarMap so path finding does not need
+* to check tiles one by one.
+*
+*/
+public class PassabilityLayer {
+
+  /**
+   * Realm index for sector without fleet.
+   */
+  public static final int NO_REALM = -1;
+
+  /**
+   * Number of bits in single long.
+   */
+  private static final int BITS_IN_LONG = 64;
+
+  /**
+   * Shift for getting long index from bit index.
+   */
+  private static final int LONG_SHIFT = 6;
+
+  /**
+   * Map X size
+   */
+  private int maxX;
+
+  /**
+   * Map Y size
+   */
+  private int maxY;
+
+  /**
+   * Bit plane for blocked sectors.
+   */
+  private long[] blocked;
+
+  /**
+   * Bit plane for dangerous sectors.
+   */
+  private long[] dangerous;
+
+  /**
+   * Realm index of fleet in each sector.
+   */
+  private byte[] realms;
+
+  /**
+   * Version of blocked and dangerous planes. This changes
+   * every time when terrain changes.
+   */
+  private int terrainVersion;
+
+  /**
+   * Version of fleet realms. This changes every time
+   * when fleet realms are changed.
+   */
+  private int fleetVersion;
+
+  /**
+   * Constructor for passability layer. Everything is passable
+   * and there are no fleets.
+   * @param maxX Map X size
+   * @param maxY Map Y size
+   */
+  public PassabilityLayer(final int maxX, final int maxY) {
+    this.maxX = maxX;
+    this.maxY = maxY;
+    int size = maxX * maxY;
+    blocked = new long[(size + BITS_IN_LONG - 1) / BITS_IN_LONG];
+    dangerous = new long[blocked.length];
+    realms = new byte[size];
+    Arrays.fill(realms, (byte) NO_REALM);
+    terrainVersion = 0;
+    fleetVersion = 0;
+  }
+
+  /**
+   * Is coordinate valid position on layer
+   * @param x X Coordinate
+   * @param y Y Coordinate
+   * @return true if valid otherwise false
+   */
+  private boolean isValidPos(final int x, final int y) {
+    return x >= 0 && y >= 0 && x < maxX && y < maxY;
+  }
+
+  /**
+   * Get bit from bit plane
+   * @param plane Bit plane
+   * @param index Bit index
+   * @return True if bit is set
+   */
+  private static boolean getBit(final long[] plane, final int index) {
+    return (plane[index >> LONG_SHIFT] & 1L << index) != 0;
+  }
+
+  /**
+   * Set bit in bit plane
+   * @param plane Bit plane
+   * @param index Bit index
+   * @param value Bit value
+   */
+  private static void setBit(final long[] plane, final int index,
+      final boolean value) {
+    if (value) {
+      plane[index >> LONG_SHIFT] |= 1L << index;
+    } else {
+      plane[index >> LONG_SHIFT] &= ~(1L << index);
+    }
+  }
+
+  /**
+   * Set terrain information for sector.
+   * @param x X coordinate
+   * @param y Y coordinate
+   * @param isBlocked Is sector blocked
+   * @param isDangerous Is sector dangerous
+   */
+  public void setTerrain(final int x, final int y, final boolean isBlocked,
+      final boolean isDangerous) {
+    if (isValidPos(x, y)) {
+      int index = y * maxX + x;
+      if (getBit(blocked, index) != isBlocked
+          || getBit(dangerous, index) != isDangerous) {
+        setBit(blocked, index, isBlocked);
+        setBit(dangerous, index, isDangerous);
+        terrainVersion++;
+      }
+    }
+  }
+
+  /**
+   * Is sector blocked. Sectors outside of map are always blocked.
+   * @param x X coordinate
+   * @param y Y coordinate
+   * @return True if blocked
+   */
+  public boolean isBlocked(final int x, final int y) {
+    if (isValidPos(x, y)) {
+      return getBit(blocked, y * maxX + x);
+    }
+    return true;
+  }
+
+  /**
+   * Is sector dangerous. Sectors outside of map are always dangerous.
+   * @param x X coordinate
+   * @param y Y coordinate
+   * @return True if dangerous
+   */
+  public boolean isDangerous(final int x, final int y) {
+    if (isValidPos(x, y)) {
+      return getBit(dangerous, y * maxX + x);
+    }
+    return true;
+  }
+
+  /**
+   * Remove all fleets from the layer.
+   */
+  public void clearFleets() {
+    Arrays.fill(realms, (byte) NO_REALM);
+    fleetVersion++;
+  }
+
+  /**
+   * Set realm index for fleet in sector.
+   * @param x X coordinate
+   * @param y Y coordinate
+   * @param realmIndex Realm index or NO_REALM
+   */
+  public void setFleetRealm(final int x, final int y, final int realmIndex) {
+    if (isValidPos(x, y)) {
+      realms[y * maxX + x] = (byte) realmIndex;
+      fleetVersion++;
+    }
+  }
+
+  /**
+   * Get realm index for fleet in sector.
+   * @param x X coordinate
+   * @param y Y coordinate
+   * @return Realm index or NO_REALM
+   */
+  public int getFleetRealm(final int x, final int y) {
+    if (isValidPos(x, y)) {
+      return realms[y * maxX + x];
+    }
+    return NO_REALM;
+  }
+
+  /**
+   * Is sector occupied by fleet of some other realm.
+   * @param x X coordinate
+   * @param y Y coordinate
+   * @param realmIndex Realm index whose fleets are not counted
+   * @return True if occupied by other realm
+   */
+  public boolean isOccupiedByOtherRealm(final int x, final int y,
+      final int realmIndex) {
+    int realm = getFleetRealm(x, y);
+    return realm != NO_REALM && realm != realmIndex;
+  }
+
+  /**
+   * Get terrain version. This changes when blocked or
+   * dangerous sectors change.
+   * @return Terrain version
+   */
+  public int getTerrainVersion() {
+    return terrainVersion;
+  }
+
+  /**
+   * Get fleet version. This changes when fleet realms change.
+   * @return Fleet version
+   */
+  public int getFleetVersion() {
+    return fleetVersion;
+  }
+}
@@ -0,0 +1,255 @@
+package org.openRealmOfStars.starMap;
+
+/**
+*
+* Open Realm of Stars game project
+* Copyright (C) 2020 Tuomo Untinen
+*
+* This program is free software; you can redistribute it and/or
+* modify it under the terms of the GNU General Public License
+* as published by the Free Software Foundation; either version 2
+* of the License, or (at your option) any later version.
+*
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program; if not, see http://www.gnu.org/licenses/
+*
+*
+* Precomputed scanner rays for single scanner radius. Ray goes from
+* scanner towards each sector in square around the scanner and ends
+* when it leaves the scanner radius. Sector offsets are calculated with
+* exact integer arithmetic. If ray has a step which is exactly between
+* two sectors, floating point walk used by the scanner may round it either
+* way depending on the scanner position. Such rays are marked as not
+* exact and they need to be walked with floating point.
+*
+*/
+public final class ScanRayTable {
+
+  /**
+   * Number of radiuses which tables are cached.
+   */
+  private static final int CACHED_RADIUSES = 64;
+
+  /**
+   * Cached tables for each radius.
+   */
+  private static final ScanRayTable[] TABLES =
+      new ScanRayTable[CACHED_RADIUSES];
+
+  /**
+   * Scanner radius
+   */
+  private final int radius;
+
+  /**
+   * Index of first step for each ray. Last element is number of steps.
+   */
+  private final int[] rayStart;
+
+  /**
+   * Ray end X offset for each ray
+   */
+  private final int[] endX;
+
+  /**
+   * Ray end Y offset for each ray
+   */
+  private final int[] endY;
+
+  /**
+   * Is ray exact for each ray
+   */
+  private final boolean[] exact;
+
+  /**
+   * X offset for each step
+   */
+  private final int[] stepX;
+
+  /**
+   * Y offset for each step
+   */
+  private final int[] stepY;
+
+  /**
+   * Create scan ray table for radius.
+   * @param radius Scanner radius
+   */
+  private ScanRayTable(final int radius) {
+    this.radius = radius;
+    int side = radius * 2 + 1;
+    int rays = side * side - 1;
+    rayStart = new int[rays + 1];
+    endX = new int[rays];
+    endY = new int[rays];
+    exact = new boolean[rays];
+    int[] tmpX = new int[rays * (radius + 1)];
+    int[] tmpY = new int[tmpX.length];
+    int ray = 0;
+    int steps = 0;
+    long maxDistance = (long) radius * radius;
+    for (int y = -radius; y < radius + 1; y++) {
+      for (int x = -radius; x < radius + 1; x++) {
+        int distance = Math.max(Math.abs(x), Math.abs(y));
+        if (distance == 0) {
+          continue;
+        }
+        rayStart[ray] = steps;
+        endX[ray] = x;
+        endY[ray] = y;
+        exact[ray] = true;
+        for (int i = 1; i <= distance; i++) {
+          int nx = roundStep(i, x, distance);
+          int ny = roundStep(i, y, distance);
+          if ((long) nx * nx + (long) ny * ny > maxDistance) {
+            break;
+          }
+          if (isHalfStep(i, x, distance) || isHalfStep(i, y, distance)) {
+            exact[ray] = false;
+          }
+          tmpX[steps] = nx;
+          tmpY[steps] = ny;
+          steps++;
+        }
+        ray++;
+      }
+    }
+    rayStart[ray] = steps;
+    stepX = new int[steps];
+    stepY = new int[steps];
+    System.arraycopy(tmpX, 0, stepX, 0, steps);
+    System.arraycopy(tmpY, 0, stepY, 0, steps);
+  }
+
+  /**
+   * Round step offset to nearest sector, half way rounds up.
+   * @param step Step number
+   * @param end Ray end offset
+   * @param distance Number of steps in ray
+   * @return Sector offset
+   */
+  private static int roundStep(final int step, final int end,
+      final int distance) {
+    int numerator = 2 * step * end + distance;
+    int denominator = 2 * distance;
+    int result = numerator / denominator;
+    if (numerator % denominator != 0 && numerator < 0) {
+      result--;
+    }
+    return result;
+  }
+
+  /**
+   * Is step offset exactly between two sectors.
+   * @param step Step number
+   * @param end Ray end offset
+   * @param distance Number of steps in ray
+   * @return True if half step
+   */
+  private static boolean isHalfStep(final int step, final int end,
+      final int distance) {
+    return 2 * step * end % distance == 0 && step * end % distance != 0;
+  }
+
+  /**
+   * Get scan ray table for radius. Tables for small radiuses are cached.
+   * Tables are immutable so they can be shared between threads.
+   * @param radius Scanner radius, zero or more
+   * @return ScanRayTable
+   */
+  public static ScanRayTable getTable(final int radius) {
+    if (radius >= CACHED_RADIUSES) {
+      return new ScanRayTable(radius);
+    }
+    ScanRayTable table = TABLES[radius];
+    if (table == null) {
+      table = new ScanRayTable(radius);
+      TABLES[radius] = table;
+    }
+    return table;
+  }
+
+  /**
+   * Get scanner radius
+   * @return Scanner radius
+   */
+  public int getRadius() {
+    return radius;
+  }
+
+  /**
+   * Get number of rays
+   * @return Number of rays
+   */
+  public int getNumberOfRays() {
+    return endX.length;
+  }
+
+  /**
+   * Get index of first step for ray
+   * @param ray Ray index
+   * @return Step index
+   */
+  public int getRayStart(final int ray) {
+    return rayStart[ray];
+  }
+
+  /**
+   * Get index after last step for ray
+   * @param ray Ray index
+   * @return Step index
+   */
+  public int getRayEnd(final int ray) {
+    return rayStart[ray + 1];
+  }
+
+  /**
+   * Get ray end X offset
+   * @param ray Ray index
+   * @return X offset
+   */
+  public int getEndX(final int ray) {
+    return endX[ray];
+  }
+
+  /**
+   * Get ray end Y offset
+   * @param ray Ray index
+   * @return Y offset
+   */
+  public int getEndY(final int ray) {
+    return endY[ray];
+  }
+
+  /**
+   * Are ray steps same for all scanner positions.
+   * @param ray Ray index
+   * @return True if exact
+   */
+  public boolean isExact(final int ray) {
+    return exact[ray];
+  }
+
+  /**
+   * Get step X offset
+   * @param step Step index
+   * @return X offset
+   */
+  public int getStepX(final int step) {
+    return stepX[step];
+  }
+
+  /**
+   * Get step Y offset
+   * @param step Step index
+   * @return Y offset
+   */
+  public int getStepY(final int step) {
+    return stepY[step];
+  }
+}
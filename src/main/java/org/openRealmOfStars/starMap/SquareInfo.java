@@ -3,6 +3,7 @@ package org.openRealmOfStars.starMap;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 /**
  *
@@ -68,6 +69,11 @@ public class SquareInfo {
    */
   private short value;
 
+  /**
+   * Number of bytes square info takes in save game
+   */
+  public static final int SAVE_SIZE = 3;
+
   /**
    * Fixed EMPTY_TILE square info
    */
@@ -93,6 +99,30 @@ public class SquareInfo {
     dos.writeShort(value);
   }
 
+  /**
+   * Write Square info to byte buffer
+   * @param buffer ByteBuffer to write
+   */
+  public void writeSquareInfo(final ByteBuffer buffer) {
+    buffer.put(type);
+    buffer.putShort(value);
+  }
+
+  /**
+   * Read square info from byte buffer. Empty squares are read as
+   * shared EMPTY_TILE.
+   * @param buffer ByteBuffer where to read
+   * @return SquareInfo
+   */
+  public static SquareInfo readSquareInfo(final ByteBuffer buffer) {
+    byte type = buffer.get();
+    short value = buffer.getShort();
+    if (type == TYPE_EMPTY && value == 0) {
+      return EMPTY_TILE;
+    }
+    return new SquareInfo(type, value);
+  }
+
   /**
    * Read square info from DataInputStream
    * @param dis DataInputStream where to read
@@ -1,9 +1,13 @@
 package org.openRealmOfStars.starMap;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.HashMap;
 
 
 import org.openRealmOfStars.AI.Mission.Mission;
@@ -56,11 +60,14 @@ import org.openRealmOfStars.starMap.vote.Votes;
 import org.openRealmOfStars.utilities.DiceGenerator;
 import org.openRealmOfStars.utilities.ErrorLogger;
 import org.openRealmOfStars.utilities.IOUtilities;
+import org.openRealmOfStars.utilities.RandomContext;
 import org.openRealmOfStars.utilities.namegenerators.UnrealPlanetNameGenerator;
 import org.openRealmOfStars.utilities.namegenerators.RandomSystemNameGenerator;
 import org.openRealmOfStars.utilities.namegenerators.RoguePlanetNameGenerator;
 import org.openRealmOfStars.utilities.repository.NewsCorpRepository;
 import org.openRealmOfStars.utilities.repository.PlanetRepository;
+import org.openRealmOfStars.utilities.repository.SaveGameHeader;
+import org.openRealmOfStars.utilities.repository.SectionLoader;
 import org.openRealmOfStars.utilities.repository.SunRepository;
 
 /**
@@ -142,7 +149,7 @@ public class StarMap {
   /**
    * Culture level for each sector
    */
-  private CulturePower[][] culture;
+  private CultureMap culture;
 
   /**
    * Cursor X coordinate
@@ -172,6 +179,41 @@ public class StarMap {
    */
   private ArrayList<Planet> planetList;
 
+  /**
+   * Suns by name. Built lazily from sun list.
+   */
+  private HashMap<String, Sun> sunNameIndex;
+
+  /**
+   * Sun list used for sun name index
+   */
+  private ArrayList<Sun> indexedSunList;
+
+  /**
+   * Number of suns in sun list when sun name index was built
+   */
+  private int indexedSunCount;
+
+  /**
+   * Planets by name. Built lazily from planet list.
+   */
+  private HashMap<String, Planet> planetNameIndex;
+
+  /**
+   * Planet list used for planet name index
+   */
+  private ArrayList<Planet> indexedPlanetList;
+
+  /**
+   * Number of planets in planet list when planet name index was built
+   */
+  private int indexedPlanetCount;
+
+  /**
+   * Planet rename count when planet name index was built
+   */
+  private int indexedPlanetRenames;
+
   /**
    * List of players
    */
@@ -187,6 +229,17 @@ public class StarMap {
    */
   private FleetTileInfo[][] fleetTiles;
 
+  /**
+   * Index which keeps fleet tiles up to date.
+   */
+  private FleetTileIndex fleetTileIndex;
+
+  /**
+   * Passability layer for path finding. This is null while galaxy
+   * is being generated or loaded.
+   */
+  private PassabilityLayer passability;
+
   /**
    * AI turn number
    */
@@ -202,6 +255,19 @@ public class StarMap {
    */
   private NewsCorpData newsCorpData;
 
+  /**
+   * News corporation data being read on background or null if
+   * news corporation data is ready.
+   */
+  private volatile SectionLoader<NewsCorpData> newsLoader;
+
+  /**
+   * Original news section which could not be read or null if reading
+   * succeeded. This is saved instead of news corporation data, so
+   * news in save game is not lost.
+   */
+  private byte[] unreadNewsSection;
+
   /**
    * Special debug mode on
    */
@@ -249,6 +315,18 @@ public class StarMap {
    */
   private History history;
 
+  /**
+   * History being read on background or null if history is ready.
+   */
+  private volatile SectionLoader<History> historyLoader;
+
+  /**
+   * Original history section which could not be read or null if reading
+   * succeeded. This is saved instead of history, so history in save
+   * game is not lost.
+   */
+  private byte[] unreadHistorySection;
+
   /**
    * Votes made in the galaxy.
    */
@@ -258,6 +336,12 @@ public class StarMap {
    */
   private boolean gameEnd;
 
+  /**
+   * Index of realm which won the game or -1 if there is no winner yet.
+   * This information is not saved into save game.
+   */
+  private int winnerIndex;
+
   /**
    * Pirate difficulty level.
    */
@@ -294,15 +378,48 @@ public class StarMap {
    * This is place where they are loaded from when reading the save file.
    */
   private ArrayList<Integer> shownTutorialIndexes;
+
+  /**
+   * Random context for this game.
+   */
+  private RandomContext randomContext;
+
+  /**
+   * Is game seeded with fixed seed.
+   */
+  private boolean seeded;
+
+  /**
+   * Seed of the game, meaningful only if game is seeded.
+   */
+  private long seed;
   /**
-   * Magic string to save game files
+   * Magic string for save game files without section table.
+   * Current save game files use SaveGameHeader.MAGIC_STRING.
    */
-  public static final String MAGIC_STRING = "OROS-SAVE-GAME-0.15";
+  public static final String MAGIC_STRING = "OROS-SAVE-GAME-0.16";
+
+  /**
+   * Magic string for older save game files. These differ only by
+   * having player map data stored one sector per byte.
+   */
+  public static final String MAGIC_STRING_0_15 = "OROS-SAVE-GAME-0.15";
+
+  /**
+   * Number of bytes single map tile takes in save game
+   */
+  private static final int TILE_SAVE_SIZE = 4 + SquareInfo.SAVE_SIZE;
 
   /**
    * Maximum amount of looping when finding free solar system spot.
    */
   private static final int MAX_LOOPS = 10000;
+
+  /**
+   * How much cloaking detection decreases on each scanned sector.
+   */
+  private static final int DETECTION_DECREASE_PER_SECTOR = 10;
+
   /**
    * Constructor for StarMap. Generates universe with galaxy config and
    * players
@@ -311,6 +428,10 @@ public class StarMap {
    */
   public StarMap(final GalaxyConfig config, final PlayerList players) {
     setDebug(false);
+    // Galaxy is generated with random context of creating thread
+    randomContext = DiceGenerator.getContext();
+    seeded = config.hasSeed();
+    seed = config.getSeed();
     nameGenerator = new RandomSystemNameGenerator();
     setScoreVictoryTurn(config.getScoringVictoryTurns());
     setScoreCulture(config.getScoreLimitCulture());
@@ -322,6 +443,7 @@ public class StarMap {
     setKarmaSpeed(config.getKarmaSpeed());
     setGoodKarmaCount(0);
     setBadKarmaCount(0);
+    winnerIndex = -1;
     history = new History();
     votes = new Votes();
     shownTutorialIndexes = new ArrayList<>();
@@ -348,7 +470,7 @@ public class StarMap {
     tiles = new int[maxX][maxY];
     int[][] solarSystem = new int[maxX][maxY];
     tileInfo = new SquareInfo[maxX][maxY];
-    culture = new CulturePower[maxX][maxY];
+    culture = new CultureMap(maxX, maxY, players.getCurrentMaxPlayers());
     sunList = new ArrayList<>();
     planetList = new ArrayList<>();
     Tile empty = Tiles.getTileByName(TileNames.EMPTY);
@@ -356,7 +478,6 @@ public class StarMap {
       for (int j = 0; j < maxY; j++) {
         tiles[i][j] = empty.getIndex();
         tileInfo[i][j] = SquareInfo.EMPTY_TILE;
-        culture[i][j] = new CulturePower(players.getCurrentMaxPlayers());
         solarSystem[i][j] = 0;
       }
     }
@@ -454,14 +575,14 @@ public class StarMap {
         drawY = 0;
         tiles = new int[maxX][maxY];
         tileInfo = new SquareInfo[maxX][maxY];
-        culture = new CulturePower[maxX][maxY];
+        culture = new CultureMap(maxX, maxY,
+            players.getCurrentMaxPlayers());
         sunList = new ArrayList<>();
         planetList = new ArrayList<>();
         for (int i = 0; i < maxX; i++) {
           for (int j = 0; j < maxY; j++) {
             tiles[i][j] = empty.getIndex();
             tileInfo[i][j] = SquareInfo.EMPTY_TILE;
-            culture[i][j] = new CulturePower(players.getCurrentMaxPlayers());
             solarSystem[i][j] = 0;
           }
         }
@@ -627,6 +748,7 @@ public class StarMap {
     }
     // No need to have generator after creation
     nameGenerator = null;
+    updatePassability();
   }
 
   /**
@@ -881,7 +1003,50 @@ public class StarMap {
    * @throws IOException if there is any problem with DataInputStream
    */
   public StarMap(final DataInputStream dis) throws IOException {
+    initLoadedGame();
+    String str = IOUtilities.readString(dis);
+    if (str.equals(SaveGameHeader.MAGIC_STRING)) {
+      SaveGameHeader header = SaveGameHeader.readHeader(dis);
+      readSections(header.readSections(dis));
+    } else if (str.equals(MAGIC_STRING) || str.equals(MAGIC_STRING_0_15)) {
+      readMapSection(dis);
+      readGalaxySection(dis);
+      players = new PlayerList(dis, str.equals(MAGIC_STRING));
+      readPlanetsSection(dis);
+      readNewsSection(dis);
+      readVotesSection(dis);
+      readHistorySection(dis);
+    } else {
+      if (str.startsWith("OROS-SAVE-GAME-")) {
+        throw new IOException(
+          "Stream does not contain correct StarMap information.\n"
+              + "Maybe saved game is for older version...");
+      }
+      throw new IOException("Stream does not contain StarMap information!");
+    }
+    updatePassability();
+  }
+
+  /**
+   * Initialize StarMap from uncompressed save game sections.
+   * @param sections Section data for each section,
+   *        see SaveGameHeader.SECTION_*
+   * @throws IOException if section data is not valid
+   */
+  public StarMap(final byte[][] sections) throws IOException {
+    initLoadedGame();
+    readSections(sections);
+    updatePassability();
+  }
+
+  /**
+   * Set default values for game which is being loaded.
+   */
+  private void initLoadedGame() {
     setDebug(false);
+    randomContext = new RandomContext();
+    seeded = false;
+    seed = 0;
     history = new History();
     votes = new Votes();
     shownTutorialIndexes = new ArrayList<>();
@@ -891,97 +1056,349 @@ public class StarMap {
     setKarmaSpeed(1);
     setGoodKarmaCount(0);
     setBadKarmaCount(0);
-    String str = IOUtilities.readString(dis);
-    if (str.equals(MAGIC_STRING)) {
-      turn = dis.readInt();
-      // Just add single turn not to break not having turn
+    winnerIndex = -1;
+  }
+
+  /**
+   * Read all save game sections in section order.
+   * @param sections Section data for each section
+   * @throws IOException if section data is not valid
+   */
+  private void readSections(final byte[][] sections) throws IOException {
+    if (sections.length < SaveGameHeader.NUMBER_OF_SECTIONS) {
+      throw new IOException("Save game is missing sections!");
+    }
+    DataInputStream mapSection = toStream(
+        sections[SaveGameHeader.SECTION_MAP]);
+    readMapSection(mapSection);
+    readSeed(mapSection);
+    // History and news are needed only later so they are read on
+    // background while rest of the game is being read.
+    historyLoader = new SectionLoader<History>(
+        sections[SaveGameHeader.SECTION_HISTORY]) {
+      @Override
+      protected History read(final DataInputStream dis) throws IOException {
+        return History.readFromStream(dis);
+      }
+    }.start("History loader");
+    readGalaxySection(toStream(sections[SaveGameHeader.SECTION_GALAXY]));
+    players = new PlayerList(toStream(
+        sections[SaveGameHeader.SECTION_PLAYERS]), true);
+    final int maxRealms = players.getCurrentMaxRealms();
+    newsLoader = new SectionLoader<NewsCorpData>(
+        sections[SaveGameHeader.SECTION_NEWS]) {
+      @Override
+      protected NewsCorpData read(final DataInputStream dis)
+          throws IOException {
+        return new NewsCorpRepository().restoreNewsCorp(dis, maxRealms);
+      }
+    }.start("News loader");
+    readPlanetsSection(toStream(sections[SaveGameHeader.SECTION_PLANETS]));
+    readVotesSection(toStream(sections[SaveGameHeader.SECTION_VOTES]));
+  }
+
+  /**
+   * Read seed after map section. Seeded game gets new random context
+   * from seed and turn number, so loading same save game always
+   * continues same way. Continued game does not follow the random
+   * values of the game which was saved.
+   * @param dis DataInputStream
+   * @throws IOException if there is any problem with DataInputStream
+   */
+  private void readSeed(final DataInputStream dis) throws IOException {
+    seeded = dis.readBoolean();
+    seed = dis.readLong();
+    if (seeded) {
+      randomContext = new RandomContext(seed + turn);
+    }
+  }
+
+  /**
+   * Wait history to be read on background. If reading fails history
+   * contains only current turn and original history section is saved
+   * unchanged, so that history in save game is not overwritten.
+   */
+  private synchronized void waitHistory() {
+    SectionLoader<History> loader = historyLoader;
+    if (loader == null) {
+      return;
+    }
+    try {
+      history = loader.get();
+    } catch (IOException e) {
+      ErrorLogger.log("Failed reading history data! " + e.getMessage());
+      unreadHistorySection = loader.getData();
+      history = new History();
       history.addTurn(turn);
-      // Victory conditions
-      setScoreVictoryTurn(dis.readInt());
-      setScoreCulture(dis.readInt());
-      setScoreConquer(dis.readInt());
-      setScoreResearch(dis.readInt());
-      setScoreDiplomacy(dis.readInt());
-      setPirateDifficulty(PirateDifficultLevel.getLevelByInt(dis.read()));
-      setKarmaType(KarmaType.getTypeByInt(dis.read()));
-      setKarmaSpeed(dis.read());
-      setGoodKarmaCount(dis.readInt());
-      setBadKarmaCount(dis.readInt());
-      maxX = dis.readInt();
-      maxY = dis.readInt();
-      culture = new CulturePower[maxX][maxY];
-      sunList = new ArrayList<>();
-      planetList = new ArrayList<>();
-      tiles = new int[maxX][maxY];
-      tileInfo = new SquareInfo[maxX][maxY];
-
-      // Map data itself
-      for (int x = 0; x < maxX; x++) {
-        for (int y = 0; y < maxY; y++) {
-          tiles[x][y] = dis.readInt();
-          tileInfo[x][y] = new SquareInfo(dis);
-        }
+    }
+    historyLoader = null;
+  }
+
+  /**
+   * Wait news corporation data to be read on background. If reading
+   * fails news corporation data is cleared and original news section is
+   * saved unchanged, so that news in save game is not overwritten.
+   */
+  private synchronized void waitNewsCorpData() {
+    SectionLoader<NewsCorpData> loader = newsLoader;
+    if (loader == null) {
+      return;
+    }
+    try {
+      newsCorpData = loader.get();
+    } catch (IOException e) {
+      ErrorLogger.log("Failed reading news data! " + e.getMessage());
+      unreadNewsSection = loader.getData();
+      newsCorpData = new NewsCorpData(players.getCurrentMaxRealms());
+    }
+    newsLoader = null;
+  }
+
+  /**
+   * Create DataInputStream for section data.
+   * @param data Section data
+   * @return DataInputStream
+   */
+  private static DataInputStream toStream(final byte[] data) {
+    return new DataInputStream(new ByteArrayInputStream(data));
+  }
+
+  /**
+   * Read turn, victory conditions and map size.
+   * @param dis DataInputStream
+   * @throws IOException if there is any problem with DataInputStream
+   */
+  private void readMapSection(final DataInputStream dis)
+      throws IOException {
+    turn = dis.readInt();
+    // Just add single turn not to break not having turn
+    history.addTurn(turn);
+    // Victory conditions
+    setScoreVictoryTurn(dis.readInt());
+    setScoreCulture(dis.readInt());
+    setScoreConquer(dis.readInt());
+    setScoreResearch(dis.readInt());
+    setScoreDiplomacy(dis.readInt());
+    setPirateDifficulty(PirateDifficultLevel.getLevelByInt(dis.read()));
+    setKarmaType(KarmaType.getTypeByInt(dis.read()));
+    setKarmaSpeed(dis.read());
+    setGoodKarmaCount(dis.readInt());
+    setBadKarmaCount(dis.readInt());
+    maxX = dis.readInt();
+    maxY = dis.readInt();
+    sunList = new ArrayList<>();
+    planetList = new ArrayList<>();
+    tiles = new int[maxX][maxY];
+    tileInfo = new SquareInfo[maxX][maxY];
+  }
+
+  /**
+   * Read map tiles and suns. Map size must be read before these.
+   * @param dis DataInputStream
+   * @throws IOException if there is any problem with DataInputStream
+   */
+  private void readGalaxySection(final DataInputStream dis)
+      throws IOException {
+    // Map data itself
+    byte[] data = new byte[maxX * maxY * TILE_SAVE_SIZE];
+    dis.readFully(data);
+    ByteBuffer buffer = ByteBuffer.wrap(data);
+    for (int x = 0; x < maxX; x++) {
+      for (int y = 0; y < maxY; y++) {
+        tiles[x][y] = buffer.getInt();
+        tileInfo[x][y] = SquareInfo.readSquareInfo(buffer);
       }
-      // Read suns
-      int count = dis.readInt();
-      for (int i = 0; i < count; i++) {
-        sunList.add(new SunRepository().restoreSun(dis));
+    }
+    // Read suns
+    int count = dis.readInt();
+    for (int i = 0; i < count; i++) {
+      sunList.add(new SunRepository().restoreSun(dis));
+    }
+  }
+
+  /**
+   * Read planets. Players must be read before planets.
+   * @param dis DataInputStream
+   * @throws IOException if there is any problem with DataInputStream
+   */
+  private void readPlanetsSection(final DataInputStream dis)
+      throws IOException {
+    culture = new CultureMap(maxX, maxY, players.getCurrentMaxPlayers());
+    int count = dis.readInt();
+    for (int i = 0; i < count; i++) {
+      Planet planet = new PlanetRepository().restorePlanet(dis, players);
+      planetList.add(planet);
+    }
+  }
+
+  /**
+   * Read news corp data.
+   * @param dis DataInputStream
+   * @throws IOException if there is any problem with DataInputStream
+   */
+  private void readNewsSection(final DataInputStream dis)
+      throws IOException {
+    NewsCorpRepository newsCorpRepo = new NewsCorpRepository();
+    newsCorpData = newsCorpRepo.restoreNewsCorp(dis,
+        players.getCurrentMaxRealms());
+  }
+
+  /**
+   * Read votes and tutorial information.
+   * @param dis DataInputStream
+   * @throws IOException if there is any problem with DataInputStream
+   */
+  private void readVotesSection(final DataInputStream dis)
+      throws IOException {
+    votes = new Votes(dis, players.getCurrentMaxRealms());
+    int value = dis.read();
+    if (value == 1) {
+      tutorialEnabled = true;
+    } else {
+      tutorialEnabled = false;
+    }
+    value = dis.readInt();
+    for (int i = 0; i < value; i++) {
+      int index = IOUtilities.read16BitsToInt(dis);
+      Integer intValue = new Integer(index);
+      shownTutorialIndexes.add(intValue);
+    }
+  }
+
+  /**
+   * Read history.
+   * @param dis DataInputStream
+   * @throws IOException if there is any problem with DataInputStream
+   */
+  private void readHistorySection(final DataInputStream dis)
+      throws IOException {
+    try {
+      history = History.readFromStream(dis);
+    } catch (IOException e) {
+      ErrorLogger.log("Failed reading history data,"
+          + " maybe save is missing it.");
+      throw e;
+    }
+  }
+
+  /**
+   * Save Game to DataOutputStream
+   * Before calling this remove to update shown tutorial indexes
+   * from tutorial.
+   * @param dos DataOutputStream
+   * @throws IOException if there is any problem with DataOutputStream
+   */
+  public void saveGame(final DataOutputStream dos) throws IOException {
+    createSaveHeader().writeHeader(dos, saveSections());
+  }
+
+  /**
+   * Create save game header for current state of the game.
+   * @return SaveGameHeader
+   */
+  public SaveGameHeader createSaveHeader() {
+    PlayerInfo firstPlayer = players.getPlayerInfoByIndex(0);
+    return new SaveGameHeader(turn, maxX, maxY, firstPlayer.getRace(),
+        firstPlayer.getEmpireName(), System.currentTimeMillis());
+  }
+
+  /**
+   * Save all save game sections into byte arrays. Sections are snapshot
+   * of the game and can be written to file after game has changed.
+   * Before calling this remove to update shown tutorial indexes
+   * from tutorial.
+   * @return Uncompressed data for each section
+   * @throws IOException if saving section fails
+   */
+  public byte[][] saveSections() throws IOException {
+    byte[][] sections = new byte[SaveGameHeader.NUMBER_OF_SECTIONS][];
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    DataOutputStream section = new DataOutputStream(bos);
+    for (int i = 0; i < sections.length; i++) {
+      bos.reset();
+      saveSection(section, i);
+      section.flush();
+      sections[i] = bos.toByteArray();
+    }
+    return sections;
+  }
+
+  /**
+   * Save single section of save game.
+   * @param dos DataOutputStream
+   * @param section Section to save, see SaveGameHeader.SECTION_*
+   * @throws IOException if there is any problem with DataOutputStream
+   */
+  private void saveSection(final DataOutputStream dos, final int section)
+      throws IOException {
+    switch (section) {
+      case SaveGameHeader.SECTION_MAP: {
+        saveMapSection(dos);
+        dos.writeBoolean(seeded);
+        dos.writeLong(seed);
+        break;
       }
-      // Players first
-      players = new PlayerList(dis);
-      // Map data itself
-      for (int x = 0; x < maxX; x++) {
-        for (int y = 0; y < maxY; y++) {
-          culture[x][y] = new CulturePower(players.getCurrentMaxPlayers());
-        }
+      case SaveGameHeader.SECTION_GALAXY: {
+        saveGalaxySection(dos);
+        break;
       }
-      count = dis.readInt();
-      for (int i = 0; i < count; i++) {
-        Planet planet = new PlanetRepository().restorePlanet(dis, players);
-        planetList.add(planet);
+      case SaveGameHeader.SECTION_PLAYERS: {
+        players.savePlayerList(dos);
+        break;
       }
-      NewsCorpRepository newsCorpRepo = new NewsCorpRepository();
-      newsCorpData = newsCorpRepo.restoreNewsCorp(dis,
-          players.getCurrentMaxRealms());
-      votes = new Votes(dis, players.getCurrentMaxRealms());
-      int value = dis.read();
-      if (value == 1) {
-        tutorialEnabled = true;
-      } else {
-        tutorialEnabled = false;
+      case SaveGameHeader.SECTION_PLANETS: {
+        dos.writeInt(planetList.size());
+        for (int i = 0; i < planetList.size(); i++) {
+          new PlanetRepository().savePlanet(dos, planetList.get(i));
+        }
+        break;
       }
-      value = dis.readInt();
-      for (int i = 0; i < value; i++) {
-        int index = IOUtilities.read16BitsToInt(dis);
-        Integer intValue = new Integer(index);
-        shownTutorialIndexes.add(intValue);
+      case SaveGameHeader.SECTION_NEWS: {
+        NewsCorpData data = getNewsCorpData();
+        if (unreadNewsSection != null) {
+          dos.write(unreadNewsSection);
+        } else {
+          NewsCorpRepository newsCorpRepo = new NewsCorpRepository();
+          newsCorpRepo.saveNewsCorp(dos, data);
+        }
+        break;
       }
-      try {
-        history = History.readFromStream(dis);
-      } catch (IOException e) {
-        ErrorLogger.log("Failed reading history data,"
-            + " maybe save is missing it.");
-        throw e;
+      case SaveGameHeader.SECTION_VOTES: {
+        votes.saveVotes(dos);
+        if (tutorialEnabled) {
+          dos.writeByte(1);
+        } else {
+          dos.writeByte(0);
+        }
+        dos.writeInt(shownTutorialIndexes.size());
+        for (int i = 0; i < shownTutorialIndexes.size(); i++) {
+          Integer value = shownTutorialIndexes.get(i);
+          dos.write(IOUtilities.convertIntTo16BitMsb(value.intValue()));
+        }
+        break;
       }
-    } else {
-      if (str.startsWith("OROS-SAVE-GAME-")) {
-        throw new IOException(
-          "Stream does not contain correct StarMap information.\n"
-              + "Maybe saved game is for older version...");
+      case SaveGameHeader.SECTION_HISTORY: {
+        History data = getHistory();
+        if (unreadHistorySection != null) {
+          dos.write(unreadHistorySection);
+        } else {
+          data.writeToStream(dos);
+        }
+        break;
+      }
+      default: {
+        throw new IOException("Unknown save game section " + section);
       }
-      throw new IOException("Stream does not contain StarMap information!");
     }
   }
 
   /**
-   * Save Game to DataOutputStream
-   * Before calling this remove to update shown tutorial indexes
-   * from tutorial.
+   * Save turn, victory conditions and map size.
    * @param dos DataOutputStream
    * @throws IOException if there is any problem with DataOutputStream
    */
-  public void saveGame(final DataOutputStream dos) throws IOException {
-    IOUtilities.writeString(dos, "OROS-SAVE-GAME-0.15");
+  private void saveMapSection(final DataOutputStream dos)
+      throws IOException {
     // Turn number
     dos.writeInt(turn);
     // Victory conditions
@@ -998,39 +1415,30 @@ public class StarMap {
     // Map size
     dos.writeInt(maxX);
     dos.writeInt(maxY);
+  }
+
+  /**
+   * Save map tiles and suns.
+   * @param dos DataOutputStream
+   * @throws IOException if there is any problem with DataOutputStream
+   */
+  private void saveGalaxySection(final DataOutputStream dos)
+      throws IOException {
     // Map data itself
+    ByteBuffer buffer = ByteBuffer.allocate(maxX * maxY * TILE_SAVE_SIZE);
     for (int x = 0; x < maxX; x++) {
       for (int y = 0; y < maxY; y++) {
-        dos.writeInt(tiles[x][y]);
-        tileInfo[x][y].writeSquareInfo(dos);
+        buffer.putInt(tiles[x][y]);
+        tileInfo[x][y].writeSquareInfo(buffer);
       }
     }
+    dos.write(buffer.array());
     // Write suns
     dos.writeInt(sunList.size());
     for (int i = 0; i < sunList.size(); i++) {
       Sun sun = sunList.get(i);
       new SunRepository().saveSun(dos, sun);
     }
-    // Players first
-    players.savePlayerList(dos);
-    dos.writeInt(planetList.size());
-    for (int i = 0; i < planetList.size(); i++) {
-      new PlanetRepository().savePlanet(dos, planetList.get(i));
-    }
-    NewsCorpRepository newsCorpRepo = new NewsCorpRepository();
-    newsCorpRepo.saveNewsCorp(dos, newsCorpData);
-    votes.saveVotes(dos);
-    if (tutorialEnabled) {
-      dos.writeByte(1);
-    } else {
-      dos.writeByte(0);
-    }
-    dos.writeInt(shownTutorialIndexes.size());
-    for (int i = 0; i < shownTutorialIndexes.size(); i++) {
-      Integer value = shownTutorialIndexes.get(i);
-      dos.write(IOUtilities.convertIntTo16BitMsb(value.intValue()));
-    }
-    history.writeToStream(dos);
   }
 
   /**
@@ -1158,7 +1566,7 @@ public class StarMap {
         Icons.getIconByName(Icons.ICON_CULTURE));
     PlayerStartEvent event = new PlayerStartEvent(planet.getCoordinate(),
         planet.getName(), playerIndex);
-    history.addEvent(event);
+    getHistory().addEvent(event);
     msg.setCoordinate(planet.getCoordinate());
     msg.setMatchByString(planet.getName());
     Leader ruler = LeaderUtility.createLeader(playerInfo, planet,
@@ -1625,6 +2033,51 @@ public class StarMap {
   public void setTile(final int x, final int y, final Tile tile) {
     if (isValidCoordinate(x, y)) {
       tiles[x][y] = tile.getIndex();
+      updatePassability(x, y);
+    }
+  }
+
+  /**
+   * Get passability layer for path finding.
+   * @return PassabilityLayer or null if galaxy is not ready
+   */
+  public PassabilityLayer getPassability() {
+    return passability;
+  }
+
+  /**
+   * Create passability layer for whole map.
+   */
+  private void updatePassability() {
+    passability = new PassabilityLayer(maxX, maxY);
+    for (int x = 0; x < maxX; x++) {
+      for (int y = 0; y < maxY; y++) {
+        updatePassability(x, y);
+      }
+    }
+    if (fleetTileIndex != null) {
+      fleetTileIndex.setPassability(passability);
+      FleetTileInfo[][] indexTiles = fleetTileIndex.getTiles();
+      for (int x = 0; x < maxX; x++) {
+        for (int y = 0; y < maxY; y++) {
+          if (indexTiles[x][y] != null) {
+            passability.setFleetRealm(x, y,
+                indexTiles[x][y].getPlayerIndex());
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Update passability layer for single sector.
+   * @param x X coordinate
+   * @param y Y coordinate
+   */
+  private void updatePassability(final int x, final int y) {
+    if (passability != null) {
+      passability.setTerrain(x, y, tileInfo[x][y].isBlocked(),
+          Tiles.getTileByIndex(tiles[x][y]).isDangerous());
     }
   }
 
@@ -1646,112 +2099,20 @@ public class StarMap {
     fleetTiles = null;
   }
 
-  /**
-   * Set Fleet tile for certain position. If position already contains fleet
-   * tile and realm is different then tile is being marked as conflict.
-   * @param x X coordinate
-   * @param y Y Coordinate
-   * @param info FleetTileInfo
-   */
-  private void setFleetTile(final int x, final int y,
-      final FleetTileInfo info) {
-    if (fleetTiles[x][y] != null) {
-      int oldIndex = fleetTiles[x][y].getConflictIndex();
-      if (oldIndex == -1) {
-        oldIndex = fleetTiles[x][y].getPlayerIndex();
-      }
-      fleetTiles[x][y] = info;
-      if (fleetTiles[x][y].getPlayerIndex() != oldIndex) {
-        fleetTiles[x][y].setConflict(oldIndex);
-      }
-    } else {
-      fleetTiles[x][y] = info;
-    }
-  }
   /**
    * Get the fleet tiles from the map.
-   * These fleet positions are always calculated
-   * @param refresh If true new fleet tiles are always generated
+   * These fleet positions are always calculated. Fleet tiles are
+   * kept in index, so only changed sectors are calculated again.
+   * @param refresh If true fleet tiles are checked for changes
    * @return FleetTiles
    */
   public FleetTileInfo[][] getFleetTiles(final boolean refresh) {
     if (refresh || fleetTiles == null) {
-      fleetTiles = new FleetTileInfo[maxX][maxY];
-      for (int x = 0; x < maxX; x++) {
-        for (int y = 0; y < maxY; y++) {
-          fleetTiles[x][y] = null;
-        }
-      }
-      for (int i = 0; i < players.getCurrentMaxPlayers(); i++) {
-        PlayerInfo player = players.getPlayerInfoByIndex(i);
-        for (int j = 0; j < player.getFleets().getNumberOfFleets(); j++) {
-          Fleet fleet = player.getFleets().getByIndex(j);
-          if (fleet != null && fleetTiles[fleet.getX()][fleet.getY()] == null
-              && fleet.getFirstShip() != null) {
-            Ship ship = fleet.getBiggestShip();
-            FleetTileInfo info = new FleetTileInfo(
-                ship.getHull().getRace(),
-                ship.getHull().getImageIndex(), i, j);
-            setFleetTile(fleet.getX(), fleet.getY(), info);
-          } else {
-            for (int k = 0; k < player.getFleets().getNumberOfFleets(); k++) {
-              if (j != k) {
-                Fleet fleet2 = player.getFleets().getByIndex(k);
-                if (fleet2 != null &&  fleet != null
-                    && fleet2.getX() == fleet.getX()
-                    && fleet2.getY() == fleet.getY()
-                    && fleet2.getNumberOfShip() > 0) {
-                  if (fleet2.getFleetCloackingValue()
-                      < fleet.getFleetCloackingValue()) {
-                    Ship ship = fleet2.getBiggestShip();
-                    FleetTileInfo info = new FleetTileInfo(
-                        ship.getHull().getRace(),
-                        ship.getHull().getImageIndex(), i, k);
-                    setFleetTile(fleet2.getX(), fleet2.getY(), info);
-                  } else if (fleet2.getFleetCloackingValue()
-                      > fleet.getFleetCloackingValue()) {
-                    Ship ship = fleet.getBiggestShip();
-                    if (ship != null) {
-                      FleetTileInfo info = new FleetTileInfo(
-                          ship.getHull().getRace(),
-                          ship.getHull().getImageIndex(), i, j);
-                      setFleetTile(fleet.getX(), fleet.getY(), info);
-                    }
-                  } else if (fleet2.getMilitaryValue()
-                      > fleet.getMilitaryValue()) {
-                    Ship ship = fleet2.getBiggestShip();
-                    FleetTileInfo info = new FleetTileInfo(
-                        ship.getHull().getRace(),
-                        ship.getHull().getImageIndex(), i, k);
-                    setFleetTile(fleet2.getX(), fleet2.getY(), info);
-                  } else {
-                    Ship ship = fleet.getBiggestShip();
-                    if (ship != null) {
-                      FleetTileInfo info = new FleetTileInfo(
-                          ship.getHull().getRace(),
-                          ship.getHull().getImageIndex(), i, j);
-                      setFleetTile(fleet.getX(), fleet.getY(), info);
-                    }
-                  }
-                  if (fleet2.isStarBaseDeployed()) {
-                    Ship ship = fleet2.getBiggestShip();
-                    FleetTileInfo info = new FleetTileInfo(
-                        ship.getHull().getRace(),
-                        ship.getHull().getImageIndex(), i, k);
-                    setFleetTile(fleet2.getX(), fleet2.getY(), info);
-                  } else if (fleet.isStarBaseDeployed()) {
-                    Ship ship = fleet.getBiggestShip();
-                    FleetTileInfo info = new FleetTileInfo(
-                        ship.getHull().getRace(),
-                        ship.getHull().getImageIndex(), i, j);
-                    setFleetTile(fleet.getX(), fleet.getY(), info);
-                  }
-                }
-              }
-            }
-          }
-        }
+      if (fleetTileIndex == null) {
+        fleetTileIndex = new FleetTileIndex(maxX, maxY);
+        fleetTileIndex.setPassability(passability);
       }
+      fleetTiles = fleetTileIndex.update(players);
     }
     return fleetTiles;
   }
@@ -1789,6 +2150,9 @@ public class StarMap {
    * @return the newsCorpData
    */
   public NewsCorpData getNewsCorpData() {
+    if (newsLoader != null) {
+      waitNewsCorpData();
+    }
     return newsCorpData;
   }
 
@@ -1796,6 +2160,8 @@ public class StarMap {
    * Clear news corp data.
    */
   public void clearNewsCorpData() {
+    newsLoader = null;
+    unreadNewsSection = null;
     newsCorpData = new NewsCorpData(players.getCurrentMaxRealms());
   }
   /**
@@ -1848,12 +2214,26 @@ public class StarMap {
    * @return Sun or null
    */
   public Sun getSunByName(final String sunName) {
+    if (sunNameIndex == null || indexedSunList != sunList
+        || indexedSunCount != sunList.size()) {
+      rebuildSunNameIndex();
+    }
+    return sunNameIndex.get(sunName);
+  }
+
+  /**
+   * Build sun name index from sun list. If several suns have same name
+   * the first one is indexed.
+   */
+  private void rebuildSunNameIndex() {
+    sunNameIndex = new HashMap<>();
     for (Sun sun : sunList) {
-      if (sun.getName().equals(sunName)) {
-        return sun;
+      if (!sunNameIndex.containsKey(sun.getName())) {
+        sunNameIndex.put(sun.getName(), sun);
       }
     }
-    return null;
+    indexedSunList = sunList;
+    indexedSunCount = sunList.size();
   }
 
   /**
@@ -1879,12 +2259,28 @@ public class StarMap {
    * @return Planet or null if not found
    */
   public Planet getPlanetByName(final String name) {
+    if (planetNameIndex == null || indexedPlanetList != planetList
+        || indexedPlanetCount != planetList.size()
+        || indexedPlanetRenames != Planet.getRenameCount()) {
+      rebuildPlanetNameIndex();
+    }
+    return planetNameIndex.get(name);
+  }
+
+  /**
+   * Build planet name index from planet list. If several planets have
+   * same name the first one is indexed.
+   */
+  private void rebuildPlanetNameIndex() {
+    indexedPlanetRenames = Planet.getRenameCount();
+    planetNameIndex = new HashMap<>();
     for (Planet planet : planetList) {
-      if (planet.getName().equals(name)) {
-        return planet;
+      if (!planetNameIndex.containsKey(planet.getName())) {
+        planetNameIndex.put(planet.getName(), planet);
       }
     }
-    return null;
+    indexedPlanetList = planetList;
+    indexedPlanetCount = planetList.size();
   }
 
   /**
@@ -2170,18 +2566,13 @@ public class StarMap {
       return;
     }
     if (info != null && !info.isHuman()) {
-      int exploreMissions = 0;
       // Try to locate ships for gather missions
-      for (int i = 0; i < info.getMissions().getSize(); i++) {
-        Mission mission = info.getMissions().getMissionByIndex(i);
-        if (mission.getType() == MissionType.GATHER
-            && mission.getPhase() == MissionPhase.PLANNING) {
-          MissionHandling.findGatheringShip(mission, info);
-        }
-        if (mission.getType() == MissionType.EXPLORE) {
-          exploreMissions++;
-        }
+      for (Mission mission : info.getMissions().getMissions(
+          MissionType.GATHER, MissionPhase.PLANNING)) {
+        MissionHandling.findGatheringShip(mission, info);
       }
+      int exploreMissions = info.getMissions().getNumberOfMissionTypes(
+          MissionType.EXPLORE);
       /*
        * Making sure that there are enough exploration ships
        */
@@ -2363,7 +2754,8 @@ public class StarMap {
       cloakDetection = planet.getCloakingDetectionLvl();
       cx = planet.getX();
       cy = planet.getY();
-      if (planet.howManyBuildings("Deep space scanner") > 0) {
+      if (planet.hasCertainBuilding(
+          BuildingFactory.COMPONENT_DEEP_SPACE_SCANNER)) {
         // Reveal all the planet
         for (Planet iterator : getPlanetList()) {
           if (info.getSectorVisibility(iterator.getCoordinate())
@@ -2374,11 +2766,83 @@ public class StarMap {
         }
       }
     }
-    if (scanRad != -1) {
-      for (int y = -scanRad; y < scanRad + 1; y++) {
-        for (int x = -scanRad; x < scanRad + 1; x++) {
-          drawVisibilityLine(info, cx, cy, cx + x, cy + y, cloakDetection,
-              scanRad);
+    if (scanRad >= 0) {
+      info.setSectorVisibility(cx, cy, PlayerInfo.VISIBLE);
+      if (cloakDetection > 0) {
+        info.setSectorCloakingDetection(cx, cy, cloakDetection);
+      }
+      ScanRayTable table = ScanRayTable.getTable(scanRad);
+      for (int ray = 0; ray < table.getNumberOfRays(); ray++) {
+        if (table.isExact(ray)) {
+          scanRay(info, cx, cy, table, ray, cloakDetection);
+        } else {
+          drawVisibilityLine(info, cx, cy, cx + table.getEndX(ray),
+              cy + table.getEndY(ray), cloakDetection, scanRad);
+        }
+      }
+      handleRevealedSectors(info);
+    }
+  }
+
+  /**
+   * Handle tile events for sectors which have been revealed during this
+   * turn but not yet handled. Sectors which were already visible during
+   * this turn are not revealed again, so tile events are handled only
+   * once per sector and turn. Scanning calls this, and so must anything
+   * else which sets sectors visible.
+   * @param info PlayerInfo
+   */
+  public void handleRevealedSectors(final PlayerInfo info) {
+    int count = info.getNumberOfRevealedSectors();
+    for (int i = info.getHandledRevealedSectors(); i < count; i++) {
+      int x = info.getRevealedSectorX(i);
+      int y = info.getRevealedSectorY(i);
+      tutorialBasedOnTiles(info, x, y);
+      rareTechBasedOnTiles(info, x, y);
+    }
+    info.setHandledRevealedSectors(count);
+  }
+
+  /**
+   * Handle scanned sector. Sector becomes visible and
+   * cloaking detection is raised if it is higher than before.
+   * @param info PlayerInfo
+   * @param x X coordinate, must be valid
+   * @param y Y coordinate, must be valid
+   * @param detectValue Cloaking detection value in sector
+   */
+  private void scanSector(final PlayerInfo info, final int x, final int y,
+      final int detectValue) {
+    info.setSectorVisibility(x, y, PlayerInfo.VISIBLE);
+    if (detectValue > 0
+        && info.getSectorCloakDetection(x, y) < detectValue) {
+      info.setSectorCloakingDetection(x, y, detectValue);
+    }
+  }
+
+  /**
+   * Walk precomputed scanner ray and set visibility info for one player.
+   * @param info PlayerInfo
+   * @param sx Scanner X coordinate
+   * @param sy Scanner Y coordinate
+   * @param table Scan ray table for scanner radius
+   * @param ray Ray index in table
+   * @param cloakDetection Cloaking Detection level
+   */
+  private void scanRay(final PlayerInfo info, final int sx, final int sy,
+      final ScanRayTable table, final int ray, final int cloakDetection) {
+    int detectValue = cloakDetection;
+    for (int i = table.getRayStart(ray); i < table.getRayEnd(ray); i++) {
+      int nx = sx + table.getStepX(i);
+      int ny = sy + table.getStepY(i);
+      if (isValidCoordinate(nx, ny)) {
+        scanSector(info, nx, ny, detectValue);
+        if (tileInfo[nx][ny].isVisibilityBlocked()) {
+          // There is something that blocks the vision
+          break;
+        }
+        if (detectValue > 0) {
+          detectValue = detectValue - DETECTION_DECREASE_PER_SECTOR;
         }
       }
     }
@@ -2388,6 +2852,7 @@ public class StarMap {
    * Update star map when game starts
    */
   public void updateStarMapOnStartGame() {
+    startCultureUpdate();
     for (int i = 0; i < players.getCurrentMaxPlayers(); i++) {
       PlayerInfo info = players.getPlayerInfoByIndex(i);
       if (info != null) {
@@ -2406,12 +2871,13 @@ public class StarMap {
         PlayerInfo info = planet.getPlanetPlayerInfo();
         int index = players.getIndex(info);
         if (index > -1) {
-          calculateCulture(planet.getX(), planet.getY(), planet.getCulture(),
-              index);
+          updateCultureSource(planet, planet.getX(), planet.getY(),
+              planet.getCulture(), index);
         }
         doFleetScanUpdate(info, null, planet);
       }
     }
+    finishCultureUpdate();
     updateEspionage();
   }
 
@@ -2419,6 +2885,7 @@ public class StarMap {
    * Update star map when game has loaded
    */
   public void updateStarMapOnLoadGame() {
+    startCultureUpdate();
     for (int i = 0; i < players.getCurrentMaxPlayers(); i++) {
       PlayerInfo info = players.getPlayerInfoByIndex(i);
       if (info != null) {
@@ -2427,7 +2894,7 @@ public class StarMap {
           doFleetScanUpdate(info, fleet, null);
           if (fleet.getCulturalValue() > 0 && fleet.isStarBaseDeployed()) {
             // Recalculate culture for the map for each player
-            calculateCulture(fleet.getX(), fleet.getY(),
+            updateCultureSource(fleet, fleet.getX(), fleet.getY(),
                 fleet.getCulturalValue(), i);
           }
 
@@ -2440,12 +2907,13 @@ public class StarMap {
         PlayerInfo info = planet.getPlanetPlayerInfo();
         int index = players.getIndex(info);
         if (index > -1) {
-          calculateCulture(planet.getX(), planet.getY(), planet.getCulture(),
-              index);
+          updateCultureSource(planet, planet.getX(), planet.getY(),
+              planet.getCulture(), index);
         }
         doFleetScanUpdate(info, null, planet);
       }
     }
+    finishCultureUpdate();
     updateEspionage();
     updateWinningStrategies();
   }
@@ -2464,8 +2932,8 @@ public class StarMap {
             EspionageBonusType.OWN_REALM, 10, "Own realm");
         for (int j = 0; j < info.getFleets().getNumberOfFleets(); j++) {
           Fleet fleet = info.getFleets().getByIndex(j);
-          int sectorIndex = getSectorCulture(fleet.getX(),
-              fleet.getY()).getHighestCulture();
+          int sectorIndex = getSectorCultureOwner(fleet.getX(),
+              fleet.getY());
           if (sectorIndex != -1 && sectorIndex != i) {
             int espionageBonus = fleet.getEspionageBonus();
             PlayerInfo spiedInfo = players.getPlayerInfoByIndex(sectorIndex);
@@ -2542,7 +3010,7 @@ public class StarMap {
     int estimateSecond = espionageList.estimateMilitaryPower(
         actualMilitarySecond);
     if (estimateSecond == 0) {
-      estimateSecond = newsCorpData.getMilitary().getLatest(second);
+      estimateSecond = getNewsCorpData().getMilitary().getLatest(second);
     }
     return estimateSecond;
   }
@@ -2612,283 +3080,53 @@ public class StarMap {
     return result;
   }
   /**
-   * Culture level 1
-   */
-  private static final int CULTURE_LEVEL_0 = 1;
-  /**
-   * Culture level 1
-   */
-  private static final int CULTURE_LEVEL_1 = 5;
-  /**
-   * Culture level 2
-   */
-  private static final int CULTURE_LEVEL_2 = 10;
-  /**
-   * Culture level 3
-   */
-  private static final int CULTURE_LEVEL_3 = 20;
-  /**
-   * Culture level 4
-   */
-  private static final int CULTURE_LEVEL_4 = 40;
-  /**
-   * Culture level 5
-   */
-  private static final int CULTURE_LEVEL_5 = 80;
-  /**
-   * Culture level 6
-   */
-  private static final int CULTURE_LEVEL_6 = 160;
-  /**
-   * Culture level 7
-   */
-  private static final int CULTURE_LEVEL_7 = 320;
-  /**
-   * Culture level 8
-   */
-  private static final int CULTURE_LEVEL_8 = 640;
-  /**
-   * Culture level 9
+   * Calculate culture on map
+   * @param cx Center of culture X coordinate
+   * @param cy Center of culture Y coordinate
+   * @param value Culture value
+   * @param index Player index
    */
-  private static final int CULTURE_LEVEL_9 = 1280;
+  public void calculateCulture(final int cx, final int cy, final int value,
+      final int index) {
+    culture.addCulture(cx, cy, value, index);
+  }
 
   /**
-   * Maximum culture radius
+   * Start updating culture sources. Planets and starbases which still
+   * give culture should be updated with updateCultureSource before
+   * calling finishCultureUpdate.
    */
-  private static final int MAX_CULTURE_RADIUS = 7;
+  public void startCultureUpdate() {
+    culture.startUpdate();
+  }
+
   /**
-   * Calculate culture on map
+   * Update culture source on map. Only changed culture is applied
+   * to the map.
+   * @param source Culture source, planet or fleet
    * @param cx Center of culture X coordinate
    * @param cy Center of culture Y coordinate
    * @param value Culture value
    * @param index Player index
    */
-  public void calculateCulture(final int cx, final int cy, final int value,
-      final int index) {
-    String mask = null;
-    if (value == CULTURE_LEVEL_0) {
-      //        765432101234567
-      mask = /* 7 */"...............\n"
-      + /* 6 */"...............\n"
-      + /* 5 */"...............\n"
-      + /* 4 */"...............\n"
-      + /* 3 */"...............\n"
-      + /* 2 */"...............\n"
-      + /* 1 */"...............\n"
-      + /* 0 */".......X.......\n"
-      + /* 1 */"...............\n"
-      + /* 2 */"...............\n"
-      + /* 3 */"...............\n"
-      + /* 4 */"...............\n"
-      + /* 5 */"...............\n"
-      + /* 6 */"...............\n"
-      + /* 7 */"...............\n";
-    } else if (value < CULTURE_LEVEL_1) {
-      //        765432101234567
-      mask = /* 7 */"...............\n"
-      + /* 6 */"...............\n"
-      + /* 5 */"...............\n"
-      + /* 4 */"...............\n"
-      + /* 3 */"...............\n"
-      + /* 2 */"...............\n"
-      + /* 1 */".......X.......\n"
-      + /* 0 */"......XXX......\n"
-      + /* 1 */".......X.......\n"
-      + /* 2 */"...............\n"
-      + /* 3 */"...............\n"
-      + /* 4 */"...............\n"
-      + /* 5 */"...............\n"
-      + /* 6 */"...............\n"
-      + /* 7 */"...............\n";
-    } else if (value < CULTURE_LEVEL_2) {
-      //        765432101234567
-      mask = /* 7 */"...............\n"
-      + /* 6 */"...............\n"
-      + /* 5 */"...............\n"
-      + /* 4 */"...............\n"
-      + /* 3 */"...............\n"
-      + /* 2 */"...............\n"
-      + /* 1 */"......1X1......\n"
-      + /* 0 */"......XXX......\n"
-      + /* 1 */"......1X1......\n"
-      + /* 2 */"...............\n"
-      + /* 3 */"...............\n"
-      + /* 4 */"...............\n"
-      + /* 5 */"...............\n"
-      + /* 6 */"...............\n"
-      + /* 7 */"...............\n";
-    } else if (value < CULTURE_LEVEL_3) {
-      //        765432101234567
-      mask = /* 7 */"...............\n"
-      + /* 6 */"...............\n"
-      + /* 5 */"...............\n"
-      + /* 4 */"...............\n"
-      + /* 3 */"...............\n"
-      + /* 2 */".......1.......\n"
-      + /* 1 */"......1X1......\n"
-      + /* 0 */".....1XXX1.....\n"
-      + /* 1 */"......1X1......\n"
-      + /* 2 */".......1.......\n"
-      + /* 3 */"...............\n"
-      + /* 4 */"...............\n"
-      + /* 5 */"...............\n"
-      + /* 6 */"...............\n"
-      + /* 7 */"...............\n";
-    } else if (value < CULTURE_LEVEL_4) {
-      //        765432101234567
-      mask = /* 7 */"...............\n"
-      + /* 6 */"...............\n"
-      + /* 5 */"...............\n"
-      + /* 4 */"...............\n"
-      + /* 3 */".......1.......\n"
-      + /* 2 */"......1X1......\n"
-      + /* 1 */".....1XXX1.....\n"
-      + /* 0 */"....1XXXXX1....\n"
-      + /* 1 */".....1XXX1.....\n"
-      + /* 2 */"......1X1......\n"
-      + /* 3 */".......1.......\n"
-      + /* 4 */"...............\n"
-      + /* 5 */"...............\n"
-      + /* 6 */"...............\n"
-      + /* 7 */"...............\n";
-    } else if (value < CULTURE_LEVEL_5) {
-      //        765432101234567
-      mask = /* 7 */"...............\n"
-      + /* 6 */"...............\n"
-      + /* 5 */"...............\n"
-      + /* 4 */".......1.......\n"
-      + /* 3 */"......121......\n"
-      + /* 2 */".....12X21.....\n"
-      + /* 1 */"....12XXX21....\n"
-      + /* 0 */"...12XXXXX21...\n"
-      + /* 1 */"....12XXX21....\n"
-      + /* 2 */".....12X21.....\n"
-      + /* 3 */"......121......\n"
-      + /* 4 */".......1.......\n"
-      + /* 5 */"...............\n"
-      + /* 6 */"...............\n"
-      + /* 7 */"...............\n";
-    } else if (value < CULTURE_LEVEL_6) {
-      //        765432101234567
-      mask = /* 7 */"...............\n"
-      + /* 6 */"...............\n"
-      + /* 5 */"...............\n"
-      + /* 4 */"......121......\n"
-      + /* 3 */".....12X21.....\n"
-      + /* 2 */"....12XXX21....\n"
-      + /* 1 */"...12XXXXX21...\n"
-      + /* 0 */"...2XXXXXXX2...\n"
-      + /* 1 */"...12XXXXX21...\n"
-      + /* 2 */"....12XXX21....\n"
-      + /* 3 */".....12X21.....\n"
-      + /* 4 */"......121......\n"
-      + /* 5 */"...............\n"
-      + /* 6 */"...............\n"
-      + /* 7 */"...............\n";
-    } else if (value < CULTURE_LEVEL_7) {
-      //        765432101234567
-      mask = /* 7 */"...............\n"
-      + /* 6 */"...............\n"
-      + /* 5 */"......121......\n"
-      + /* 4 */".....12X21.....\n"
-      + /* 3 */"....12XXX21....\n"
-      + /* 2 */"...12XXXXX21...\n"
-      + /* 1 */"..12XXXXXXX21..\n"
-      + /* 0 */"..2XXXXXXXXX2..\n"
-      + /* 1 */"..12XXXXXXX21..\n"
-      + /* 2 */"...12XXXXX21...\n"
-      + /* 3 */"....12XXX21....\n"
-      + /* 4 */".....12X21.....\n"
-      + /* 5 */"......121......\n"
-      + /* 6 */"...............\n"
-      + /* 7 */"...............\n";
-    } else if (value < CULTURE_LEVEL_8) {
-      //        765432101234567
-      mask = /* 7 */"...............\n"
-      + /* 6 */"......121......\n"
-      + /* 5 */".....12321.....\n"
-      + /* 4 */"....123X321....\n"
-      + /* 3 */"...123XXX321...\n"
-      + /* 2 */"..123XXXXX321..\n"
-      + /* 1 */".123XXXXXXX321.\n"
-      + /* 0 */".23XXXXXXXXX32.\n"
-      + /* 1 */".123XXXXXXX321.\n"
-      + /* 2 */"..123XXXXX321..\n"
-      + /* 3 */"...123XXX321...\n"
-      + /* 4 */"....123X321....\n"
-      + /* 5 */".....12321.....\n"
-      + /* 6 */"......121......\n"
-      + /* 7 */"...............\n";
-    } else if (value < CULTURE_LEVEL_9) {
-      //        765432101234567
-      mask = /* 7 */".......1.......\n"
-      + /* 6 */"......121......\n"
-      + /* 5 */"....123X321....\n"
-      + /* 4 */"....2XXXXX2....\n"
-      + /* 3 */"..123XXXXX321..\n"
-      + /* 2 */"..23XXXXXXX32..\n"
-      + /* 1 */".12XXXXXXXXX21.\n"
-      + /* 0 */"123XXXXXXXXX321\n"
-      + /* 1 */".12XXXXXXXXX21.\n"
-      + /* 2 */"..23XXXXXXX32..\n"
-      + /* 3 */"..123XXXXX321..\n"
-      + /* 4 */"....2XXXXX2....\n"
-      + /* 5 */"....123X321....\n"
-      + /* 6 */"......121......\n"
-      + /* 7 */".......1.......\n";
-    } else {
-      //        765432101234567
-      mask = /* 7 */"......121......\n"
-      + /* 6 */".....12321.....\n"
-      + /* 5 */"...123XXX321...\n"
-      + /* 4 */"...123XXX321...\n"
-      + /* 3 */".123XXXXXXX321.\n"
-      + /* 2 */".123XXXXXXX321.\n"
-      + /* 1 */"123XXXXXXXXX321\n"
-      + /* 0 */"23XXXXXXXXXXX32\n"
-      + /* 1 */"123XXXXXXXXX321\n"
-      + /* 2 */".123XXXXXXX321.\n"
-      + /* 3 */".123XXXXXXX321.\n"
-      + /* 4 */"...123XXX321...\n"
-      + /* 5 */"...123XXX321...\n"
-      + /* 6 */".....12321.....\n"
-      + /* 7 */"......121......\n";
-    }
-
-    String[] lines = mask.split("\n");
-    int x = -MAX_CULTURE_RADIUS;
-    int y = -MAX_CULTURE_RADIUS;
-    for (int line = 0; line < lines.length; line++) {
-      for (int col = 0; col < lines[line].length(); col++) {
-        if (lines[line].charAt(col) != '.') {
-          int adjustValue = value;
-          if (lines[line].charAt(col) == '1') {
-            adjustValue = adjustValue / 2;
-          }
-          if (lines[line].charAt(col) == '2') {
-            adjustValue = adjustValue * 2 / 3;
-          }
-          if (lines[line].charAt(col) == '3') {
-            adjustValue = adjustValue * 3 / 4;
-          }
-          addSectorCulture(cx + x, cy + y, index, adjustValue);
-        }
-        x++;
-      }
-      x = -MAX_CULTURE_RADIUS;
-      y++;
-    }
+  public void updateCultureSource(final Object source, final int cx,
+      final int cy, final int value, final int index) {
+    culture.updateSource(source, cx, cy, value, index);
+  }
+
+  /**
+   * Finish updating culture sources. Culture from sources which were
+   * not updated is removed from the map.
+   */
+  public void finishCultureUpdate() {
+    culture.finishUpdate();
   }
 
   /**
    * Reset culture information for whole map
    */
   public void resetCulture() {
-    for (int i = 0; i < maxX; i++) {
-      for (int j = 0; j < maxY; j++) {
-        culture[i][j].reset();
-      }
-    }
+    culture.reset();
   }
 
   /**
@@ -2994,7 +3232,10 @@ public class StarMap {
 
   }
   /**
-   * Draw visibility line and set visibility info for one player
+   * Draw visibility line and set visibility info for one player.
+   * Line is walked with floating point so steps exactly between two
+   * sectors round same way as scanner has always done. Scanner sector
+   * itself must have been handled before calling this.
    * @param info PlayerInfo
    * @param sx Start X
    * @param sy Start Y
@@ -3026,38 +3267,27 @@ public class StarMap {
       my = 0;
     }
     int detectValue = cloakDetection;
-    info.setSectorVisibility(sx, sy, PlayerInfo.VISIBLE);
-    tutorialBasedOnTiles(info, sx, sy);
-    rareTechBasedOnTiles(info, sx, sy);
-    if (detectValue > 0) {
-      info.setSectorCloakingDetection(sx, sy, detectValue);
-    }
+    int maxDistance = maxRad * maxRad;
     // Moving loop
     for (int i = 0; i < distance; i++) {
       startX = startX + mx;
       startY = startY + my;
       int nx = (int) Math.round(startX);
       int ny = (int) Math.round(startY);
-      Coordinate startCoordinate = new Coordinate(sx, sy);
-      Coordinate coordinate = new Coordinate(nx, ny);
-      if (startCoordinate.calculateDistance(coordinate) > maxRad) {
+      int distX = nx - sx;
+      int distY = ny - sy;
+      if (distX * distX + distY * distY > maxDistance) {
         // We have moved to maximum radius
         break;
       }
       if (isValidCoordinate(nx, ny)) {
-        info.setSectorVisibility(nx, ny, PlayerInfo.VISIBLE);
-        tutorialBasedOnTiles(info, nx, ny);
-        rareTechBasedOnTiles(info, nx, ny);
-        if (detectValue > 0
-            && info.getSectorCloakDetection(nx, ny) < detectValue) {
-          info.setSectorCloakingDetection(nx, ny, detectValue);
-        }
+        scanSector(info, nx, ny, detectValue);
         if (tileInfo[nx][ny].isVisibilityBlocked()) {
           // There is something that blocks the vision
           break;
         }
         if (detectValue > 0) {
-          detectValue = detectValue - 10;
+          detectValue = detectValue - DETECTION_DECREASE_PER_SECTOR;
         }
       }
     }
@@ -3215,10 +3445,17 @@ public class StarMap {
    * @return Culture power or null
    */
   public CulturePower getSectorCulture(final int x, final int y) {
-    if (isValidCoordinate(x, y)) {
-      return culture[x][y];
-    }
-    return null;
+    return culture.getSectorCulture(x, y);
+  }
+
+  /**
+   * Get player index with highest culture in sector.
+   * @param x The X coordinate
+   * @param y The Y coordinate
+   * @return Player index or -1 if no culture or coordinate is invalid
+   */
+  public int getSectorCultureOwner(final int x, final int y) {
+    return culture.getSectorOwner(x, y);
   }
 
   /**
@@ -3230,9 +3467,7 @@ public class StarMap {
    */
   public void addSectorCulture(final int x, final int y, final int index,
       final int value) {
-    if (isValidCoordinate(x, y)) {
-      culture[x][y].addCulture(index, value);
-    }
+    culture.addSectorCulture(x, y, index, value);
   }
 
   /**
@@ -3243,6 +3478,9 @@ public class StarMap {
    * coordinate is out of map then true is returned.
    */
   public boolean isDangerous(final int x, final int y) {
+    if (passability != null) {
+      return passability.isDangerous(x, y);
+    }
     Tile tile = getTile(x, y);
     if (tile != null) {
       return tile.isDangerous();
@@ -3258,6 +3496,9 @@ public class StarMap {
    * coordinate is out of map then true is returned.
    */
   public boolean isBlocked(final int x, final int y) {
+    if (passability != null) {
+      return passability.isBlocked(x, y);
+    }
     SquareInfo sector = getTileInfo(x, y);
     if (sector != null) {
       return sector.isBlocked();
@@ -3374,10 +3615,10 @@ public class StarMap {
     if (index >= 0 && index < getPlayerList().getCurrentMaxRealms()
         && compare >= 0 && compare < getPlayerList().getCurrentMaxRealms()
         && compare != index) {
-      int power = newsCorpData.getMilitary().getLatest(index);
-      int powerCompare = newsCorpData.getMilitary().getLatest(compare);
-      power = power + newsCorpData.getPlanets().getLatest(index) * 2;
-      powerCompare = powerCompare + newsCorpData.getPlanets()
+      int power = getNewsCorpData().getMilitary().getLatest(index);
+      int powerCompare = getNewsCorpData().getMilitary().getLatest(compare);
+      power = power + getNewsCorpData().getPlanets().getLatest(index) * 2;
+      powerCompare = powerCompare + getNewsCorpData().getPlanets()
         .getLatest(compare) * 2;
       if (power > powerCompare) {
         return true;
@@ -3569,6 +3810,9 @@ public class StarMap {
    * @return History
    */
   public History getHistory() {
+    if (historyLoader != null) {
+      waitHistory();
+    }
     return history;
   }
 
@@ -3577,6 +3821,8 @@ public class StarMap {
    * @param newHistory History to set
    */
   public void setHistory(final History newHistory) {
+    historyLoader = null;
+    unreadHistorySection = null;
     history = newHistory;
   }
 
@@ -3597,6 +3843,23 @@ public class StarMap {
     gameEnd = end;
   }
 
+  /**
+   * Get index of realm which won the game. With alliance victory this is
+   * the leading realm of the alliance.
+   * @return Realm index or -1 if there is no winner yet
+   */
+  public int getWinnerIndex() {
+    return winnerIndex;
+  }
+
+  /**
+   * Set index of realm which won the game.
+   * @param index Realm index or -1 for no winner
+   */
+  public void setWinnerIndex(final int index) {
+    winnerIndex = index;
+  }
+
   /**
    * Get free random spot from galaxy
    * @return Coordinate where is free or null
@@ -3723,7 +3986,7 @@ public class StarMap {
           EventType.ARTIFICAL_PLANET_CREATED, planet.getCoordinate(),
           planet.getName(), ownerIndex);
       event.setText(newsData.getNewsText());
-      history.addEvent(event);
+      getHistory().addEvent(event);
       planetList.add(planet);
       int planetNumber = planetList.size() - 1;
       SquareInfo info = new SquareInfo(SquareInfo.TYPE_PLANET, planetNumber);
@@ -3731,6 +3994,7 @@ public class StarMap {
       int py = planet.getCoordinate().getY();
       tileInfo[px][py] = info;
       tiles[px][py] = planet.getPlanetType().getTileIndex();
+      updatePassability(px, py);
     }
   }
 
@@ -3752,9 +4016,9 @@ public class StarMap {
     int index = players.getIndex(realm);
     if (index != -1) {
       int biggerValue = 0;
-      int value = newsCorpData.getCredit().getLatest(index);
-      for (int i = 0; i < newsCorpData.getCredit().getMaxPlayers(); i++) {
-        if (i != index && newsCorpData.getCredit().getLatest(i) > value) {
+      int value = getNewsCorpData().getCredit().getLatest(index);
+      for (int i = 0; i < getNewsCorpData().getCredit().getMaxPlayers(); i++) {
+        if (i != index && getNewsCorpData().getCredit().getLatest(i) > value) {
           biggerValue++;
         }
       }
@@ -3770,10 +4034,10 @@ public class StarMap {
   public int getMilitaryHighest() {
     int index = -1;
     int value = -1;
-    for (int i = 0; i < newsCorpData.getMilitary().getMaxPlayers(); i++) {
-      if (newsCorpData.getMilitary().getLatest(i) > value) {
+    for (int i = 0; i < getNewsCorpData().getMilitary().getMaxPlayers(); i++) {
+      if (getNewsCorpData().getMilitary().getLatest(i) > value) {
         index = i;
-        value = newsCorpData.getMilitary().getLatest(i);
+        value = getNewsCorpData().getMilitary().getLatest(i);
       }
     }
     return index;
@@ -3823,14 +4087,14 @@ public class StarMap {
     if (!highest) {
       value = Integer.MAX_VALUE;
     }
-    for (int i = 0; i < newsCorpData.getCredit().getMaxPlayers(); i++) {
-      if (highest && newsCorpData.getCredit().getLatest(i) > value) {
+    for (int i = 0; i < getNewsCorpData().getCredit().getMaxPlayers(); i++) {
+      if (highest && getNewsCorpData().getCredit().getLatest(i) > value) {
         index = i;
-        value = newsCorpData.getCredit().getLatest(i);
+        value = getNewsCorpData().getCredit().getLatest(i);
       }
-      if (!highest && newsCorpData.getCredit().getLatest(i) < value) {
+      if (!highest && getNewsCorpData().getCredit().getLatest(i) < value) {
         index = i;
-        value = newsCorpData.getCredit().getLatest(i);
+        value = getNewsCorpData().getCredit().getLatest(i);
       }
     }
     return index;
@@ -3927,6 +4191,38 @@ public class StarMap {
     }
   }
 
+  /**
+   * Get random context of the game.
+   * @return RandomContext
+   */
+  public RandomContext getRandomContext() {
+    return randomContext;
+  }
+
+  /**
+   * Set random context for the game.
+   * @param randomContext RandomContext
+   */
+  public void setRandomContext(final RandomContext randomContext) {
+    this.randomContext = randomContext;
+  }
+
+  /**
+   * Is game seeded with fixed seed. Seed is kept in save games.
+   * @return True if game is seeded
+   */
+  public boolean hasSeed() {
+    return seeded;
+  }
+
+  /**
+   * Get seed of the game.
+   * @return Seed, meaningful only if game is seeded
+   */
+  public long getSeed() {
+    return seed;
+  }
+
   /**
    * Is tutorial enabled or not
    * @return true if tutorial is enabled
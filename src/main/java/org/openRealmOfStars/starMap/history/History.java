@@ -4,6 +4,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 
 import org.openRealmOfStars.mapTiles.TileNames;
 import org.openRealmOfStars.mapTiles.Tiles;
@@ -35,7 +36,11 @@ import org.openRealmOfStars.utilities.IOUtilities;
 * along with this program; if not, see http://www.gnu.org/licenses/
 *
 *
-* Historical information about game being played
+* Historical information about game being played. Culture owners are
+* replayed incrementally as events are added and keyframes are stored
+* every KEYFRAME_INTERVAL turns, so culture for any turn is calculated
+* from nearest keyframe. History is expected to change only by adding
+* turns and adding events to the latest turn.
 *
 */
 public class History {
@@ -50,11 +55,55 @@ public class History {
    */
   public static final String MAGIC_STRING = "OROS-HISTORY0.1";
 
+  /**
+   * Number of history turns between culture keyframes.
+   */
+  private static final int KEYFRAME_INTERVAL = 16;
+
+  /**
+   * Map X size used for culture replay
+   */
+  private int cultureMaxX;
+
+  /**
+   * Map Y size used for culture replay
+   */
+  private int cultureMaxY;
+
+  /**
+   * Culture owners after all replayed events. Owner is stored as
+   * player index + 1 so no culture is 0.
+   */
+  private byte[] liveCulture;
+
+  /**
+   * Culture keyframes. Keyframe k contains culture owners after
+   * turns before k * KEYFRAME_INTERVAL.
+   */
+  private ArrayList<byte[]> keyframes;
+
+  /**
+   * Artificial planets created. Each entry is turn index, x and y.
+   */
+  private ArrayList<int[]> artificialPlanets;
+
+  /**
+   * Turn index where replay continues.
+   */
+  private int replayTurn;
+
+  /**
+   * Event index in replay turn where replay continues.
+   */
+  private int replayEvent;
+
   /**
    * Constructor for creating history for single game.
    */
   public History() {
     listOfTurns = new ArrayList<>();
+    cultureMaxX = -1;
+    cultureMaxY = -1;
   }
 
   /**
@@ -164,6 +213,67 @@ public class History {
     return result;
   }
 
+  /**
+   * Replay all events which are not yet replayed. If map size
+   * has changed replay is started from the beginning.
+   * @param maxX Map X size
+   * @param maxY Map Y size
+   */
+  private void replayHistory(final int maxX, final int maxY) {
+    if (liveCulture == null || cultureMaxX != maxX || cultureMaxY != maxY) {
+      cultureMaxX = maxX;
+      cultureMaxY = maxY;
+      liveCulture = new byte[maxX * maxY];
+      keyframes = new ArrayList<>();
+      keyframes.add(liveCulture.clone());
+      artificialPlanets = new ArrayList<>();
+      replayTurn = 0;
+      replayEvent = 0;
+    }
+    while (replayTurn < listOfTurns.size()) {
+      HistoryTurn turn = listOfTurns.get(replayTurn);
+      for (int j = replayEvent; j < turn.getNumberOfEvents(); j++) {
+        Event event = turn.getEvent(j);
+        applyCultureEvent(liveCulture, event);
+        if (event instanceof EventOnPlanet) {
+          EventOnPlanet eventOnPlanet = (EventOnPlanet) event;
+          if (eventOnPlanet.getType() == EventType.ARTIFICAL_PLANET_CREATED) {
+            artificialPlanets.add(new int[] {replayTurn,
+                eventOnPlanet.getCoordinate().getX(),
+                eventOnPlanet.getCoordinate().getY()});
+          }
+        }
+      }
+      replayEvent = turn.getNumberOfEvents();
+      if (replayTurn == listOfTurns.size() - 1) {
+        // Latest turn may still get more events
+        break;
+      }
+      replayTurn++;
+      replayEvent = 0;
+      if (replayTurn % KEYFRAME_INTERVAL == 0) {
+        keyframes.add(liveCulture.clone());
+      }
+    }
+  }
+
+  /**
+   * Apply event to culture owners if it is culture event.
+   * @param culture Culture owners
+   * @param event Event to apply
+   */
+  private void applyCultureEvent(final byte[] culture, final Event event) {
+    if (event instanceof CultureEvent) {
+      CultureEvent cultureEvent = (CultureEvent) event;
+      int x = cultureEvent.getCoordinate().getX();
+      int y = cultureEvent.getCoordinate().getY();
+      if (x >= 0 && x < cultureMaxX && y >= 0 && y < cultureMaxY) {
+        culture[y * cultureMaxX + x] = (byte) (cultureEvent.getPlayerIndex()
+            + 1);
+      }
+    }
+  }
+
   /**
    * Calculate culture from history up to certain turn number.
    * @param upToTurn Which turn number to calculate
@@ -173,30 +283,25 @@ public class History {
   public int[][] calculateCulture(final int upToTurn, final StarMap starMap) {
     int maxX = starMap.getMaxX();
     int maxY = starMap.getMaxY();
-    int[][] culture = new int[maxX][maxY];
-    // Clear the culture map
-    for (int i = 0; i < maxY; i++) {
-      for (int j = 0; j < maxX; j++) {
-        culture[j][i] = -1;
+    replayHistory(maxX, maxY);
+    int max = Math.max(0, Math.min(upToTurn, listOfTurns.size()));
+    byte[] owners;
+    if (max == listOfTurns.size()) {
+      owners = liveCulture;
+    } else {
+      int keyframe = max / KEYFRAME_INTERVAL;
+      owners = Arrays.copyOf(keyframes.get(keyframe), liveCulture.length);
+      for (int i = keyframe * KEYFRAME_INTERVAL; i < max; i++) {
+        HistoryTurn turn = listOfTurns.get(i);
+        for (int j = 0; j < turn.getNumberOfEvents(); j++) {
+          applyCultureEvent(owners, turn.getEvent(j));
+        }
       }
     }
-    int max = upToTurn;
-    if (listOfTurns.size() < upToTurn) {
-      max = listOfTurns.size();
-    }
-    // Build culture map according the event
-    for (int i = 0; i < max; i++) {
-      HistoryTurn turn = listOfTurns.get(i);
-      for (int j = 0; j < turn.getNumberOfEvents(); j++) {
-        Event event = turn.getEvent(j);
-        if (event instanceof CultureEvent) {
-          CultureEvent cultureEvent = (CultureEvent) event;
-          int x = cultureEvent.getCoordinate().getX();
-          int y = cultureEvent.getCoordinate().getY();
-          if (x >= 0 && x < maxX && y >= 0 && y < maxY) {
-            culture[x][y] = cultureEvent.getPlayerIndex();
-          }
-        }
+    int[][] culture = new int[maxX][maxY];
+    for (int y = 0; y < maxY; y++) {
+      for (int x = 0; x < maxX; x++) {
+        culture[x][y] = (owners[y * maxX + x] & 0xFF) - 1;
       }
     }
     return culture;
@@ -211,27 +316,15 @@ public class History {
       final StarMap starMap) {
     int maxX = starMap.getMaxX();
     int maxY = starMap.getMaxY();
+    replayHistory(maxX, maxY);
     int[][] tiles = new int[maxX][maxY];
-    int max = upToTurn + 1;
-    if (listOfTurns.size() < upToTurn) {
-      max = listOfTurns.size();
-    }
-    // Build culture map according the event
-    for (int i = 0; i < max; i++) {
-      HistoryTurn turn = listOfTurns.get(i);
-      for (int j = 0; j < turn.getNumberOfEvents(); j++) {
-        Event event = turn.getEvent(j);
-        if (event instanceof EventOnPlanet) {
-          EventOnPlanet eventOnPlanet = (EventOnPlanet) event;
-          if (eventOnPlanet.getType() == EventType.ARTIFICAL_PLANET_CREATED) {
-            int x = eventOnPlanet.getCoordinate().getX();
-            int y = eventOnPlanet.getCoordinate().getY();
-            if (x >= 0 && x < maxX && y >= 0 && y < maxY) {
-              tiles[x][y] = Tiles.getTileByName(
-                  TileNames.ARTIFICIALWORLD1).getIndex();
-            }
-          }
-        }
+    int max = Math.min(upToTurn + 1, listOfTurns.size());
+    for (int[] planet : artificialPlanets) {
+      int x = planet[1];
+      int y = planet[2];
+      if (planet[0] < max && x >= 0 && x < maxX && y >= 0 && y < maxY) {
+        tiles[x][y] = Tiles.getTileByName(
+            TileNames.ARTIFICIALWORLD1).getIndex();
       }
     }
     return tiles;
@@ -245,7 +338,7 @@ public class History {
   public void updateCultureEventMap(final StarMap starMap) {
     int maxX = starMap.getMaxX();
     int maxY = starMap.getMaxY();
-    int[][] culture = calculateCulture(listOfTurns.size(), starMap);
+    replayHistory(maxX, maxY);
     // Compare it to starmap and add missing culture
     for (int y = 0; y < maxY; y++) {
       for (int x = 0; x < maxX; x++) {
@@ -254,7 +347,7 @@ public class History {
         if (culturePower != null) {
           mapValue = culturePower.getHighestCulture();
         }
-        if (culture[x][y] != mapValue) {
+        if ((liveCulture[y * maxX + x] & 0xFF) - 1 != mapValue) {
           Coordinate coord = new Coordinate(x, y);
           CultureEvent event = new CultureEvent(coord, mapValue);
           addEvent(event);
@@ -1898,7 +1898,8 @@ public final class NewsFactory {
   }
   /**
    * Make News when game is ending for culture victory.
-   * Returns null if cultural victory is not achieved
+   * Returns null if cultural victory is not achieved,
+   * otherwise winner is set into star map.
    * @param map StarMap contains NewsCorpData and playerlist
    * @param broadcasters Boolean list of realms which are capable of
    *        broadcasting their culture.
@@ -1926,6 +1927,7 @@ public final class NewsFactory {
       broadcaster = broadcasters[winner.getRealm()];
     }
     if (winner.getScore() >= limit && broadcaster) {
+      map.setWinnerIndex(winner.getRealm());
       news = new NewsData();
       ImageInstruction instructions = new ImageInstruction();
       news.setImageInstructions(instructions.build());
@@ -2008,7 +2010,8 @@ public final class NewsFactory {
 
   /**
    * Make News when game is ending for domination victory.
-   * Returns null if domination victory is not achieved
+   * Returns null if domination victory is not achieved,
+   * otherwise winner is set into star map.
    * @param map StarMap contains Planet and playerlist
    * @return NewsData or null
    */
@@ -2030,6 +2033,7 @@ public final class NewsFactory {
     board.sort();
     Row winner = board.getRow(0);
     if (winner.getScore() >= limit) {
+      map.setWinnerIndex(winner.getRealm());
       news = new NewsData();
       ImageInstruction instructions = new ImageInstruction();
       news.setImageInstructions(instructions.build());
@@ -2067,7 +2071,8 @@ public final class NewsFactory {
 
   /**
    * Make News when game is ending for scientific victory.
-   * Returns null if scientific victory is not achieved
+   * Returns null if scientific victory is not achieved,
+   * otherwise winner is set into star map.
    * @param map StarMap contains Planet and playerlist
    * @return NewsData or null
    */
@@ -2093,6 +2098,7 @@ public final class NewsFactory {
     }
     NewsData news = null;
     if (winner != null) {
+      map.setWinnerIndex(map.getPlayerList().getIndex(winner));
       news = new NewsData();
       ImageInstruction instructions = new ImageInstruction();
       news.setImageInstructions(instructions.build());
@@ -2130,7 +2136,8 @@ public final class NewsFactory {
 
   /**
    * Make News when game is ending for diplomatic victory.
-   * Returns null if diplomatic victory is not achieved
+   * Returns null if diplomatic victory is not achieved,
+   * otherwise winner is set into star map.
    * @param map StarMap contains Planet and playerlist
    * @return NewsData or null
    */
@@ -2164,6 +2171,7 @@ public final class NewsFactory {
     }
     NewsData news = null;
     if (winner != null) {
+      map.setWinnerIndex(map.getPlayerList().getIndex(winner));
       news = new NewsData();
       ImageInstruction instructions = new ImageInstruction();
       news.setImageInstructions(instructions.build());
@@ -2263,7 +2271,7 @@ public final class NewsFactory {
   }
 
   /**
-   * Make News when game is in the end turn
+   * Make News when game is in the end turn. Winner is set into star map.
    * @param map StarMap contains NewsCorpData and playerlist
    * @return NewsData
    */
@@ -2278,6 +2286,7 @@ public final class NewsFactory {
     board.sort();
     Row winner = board.getRow(0);
     Row second = board.getRow(1);
+    map.setWinnerIndex(winner.getRealm());
     if (!winner.isAlliance()) {
       PlayerInfo info = map.getPlayerByIndex(winner.getRealm());
       instructions.addBackground(ImageInstruction.BACKGROUND_STARS);
@@ -3,6 +3,7 @@ package org.openRealmOfStars.starMap.planet;
 import org.openRealmOfStars.gui.icons.Icons;
 import org.openRealmOfStars.starMap.planet.construction.Building;
 import org.openRealmOfStars.starMap.planet.construction.BuildingType;
+import org.openRealmOfStars.utilities.NameRegistry;
 
 /**
  *
@@ -39,7 +40,7 @@ public final class BuildingFactory {
    * Remember to increase this when new building is added to game.
    * It should be one bigger than last index.
    */
-  private static final int MAX_BUILDING = 55;
+  public static final int MAX_BUILDING = 55;
 
   /**
    * Component Basic mine
@@ -489,20 +490,56 @@ public final class BuildingFactory {
     return tmp;
   }
 
+  /**
+   * Building name registry. Holder class is initialized on first use,
+   * which also makes it safe between threads.
+   */
+  private static final class Registry {
+    /**
+     * Hiding the constructor.
+     */
+    private Registry() {
+      // Nothing to do
+    }
+
+    /**
+     * Registry of all building names
+     */
+    private static final NameRegistry NAMES = createRegistry();
+
+    /**
+     * Create name registry for all buildings.
+     * @return Name registry
+     */
+    private static NameRegistry createRegistry() {
+      String[] names = new String[MAX_BUILDING];
+      for (int i = 0; i < MAX_BUILDING; i++) {
+        names[i] = create(i).getName();
+      }
+      return new NameRegistry(names);
+    }
+  }
+
+  /**
+   * Get building index by exact building name.
+   * @param name Building name
+   * @return Building index or -1 if there is no such building
+   */
+  public static int getIndexByName(final String name) {
+    return Registry.NAMES.getExactIndex(name);
+  }
+
   /**
    * Create planetary building with matching name
    * @param name Building name
    * @return Building or null if not found
    */
   public static Building createByName(final String name) {
-    Building tmp = null;
-    for (int i = 0; i < MAX_BUILDING; i++) {
-      tmp = create(i);
-      if (tmp != null && tmp.getName().equalsIgnoreCase(name)) {
-        return tmp;
-      }
+    int index = Registry.NAMES.getIndex(name);
+    if (index == -1) {
+      return null;
     }
-    return null;
+    return create(index);
   }
 
   /**
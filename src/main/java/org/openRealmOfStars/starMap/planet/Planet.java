@@ -2,6 +2,7 @@ package org.openRealmOfStars.starMap.planet;
 
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.openRealmOfStars.AI.Mission.Mission;
 import org.openRealmOfStars.AI.Mission.MissionPhase;
@@ -66,6 +67,12 @@ public class Planet {
    * Number of credits one population is worth when rushing.
    */
   public static final int POPULATION_RUSH_COST = 80;
+
+  /**
+   * Number of planet renames. Name indexes of planets are rebuilt
+   * when this changes.
+   */
+  private static final AtomicInteger RENAME_COUNT = new AtomicInteger();
   /**
    * Planet name
    */
@@ -262,6 +269,26 @@ public class Planet {
    */
   private ArrayList<Building> buildings;
 
+  /**
+   * Buildings version, increased each time building is added or removed
+   */
+  private int buildingsVersion;
+
+  /**
+   * Number of buildings on planet for each building index
+   */
+  private int[] buildingCounts;
+
+  /**
+   * Number of broadcaster buildings on planet
+   */
+  private int broadcasters;
+
+  /**
+   * Cached production values of the planet
+   */
+  private ProductionLedger productionLedger;
+
   /**
    * What building / Planetary improvement is currently under construction
    */
@@ -361,6 +388,10 @@ public class Planet {
     this.workers = new int[MAX_WORKER_TYPE];
     this.extraFood = 0;
     this.buildings = new ArrayList<>();
+    this.buildingsVersion = 0;
+    this.buildingCounts = new int[BuildingFactory.MAX_BUILDING];
+    this.broadcasters = 0;
+    this.productionLedger = new ProductionLedger();
     this.prodResource = 0;
     this.underConstruction = null;
     this.tax = 0;
@@ -383,6 +414,23 @@ public class Planet {
   public void addBuilding(final Building building) {
     if (building != null) {
       this.buildings.add(building);
+      updateInventory(building, 1);
+    }
+  }
+
+  /**
+   * Update building inventory after building has been added or removed.
+   * @param building Added or removed building
+   * @param change 1 for added building and -1 for removed building
+   */
+  private void updateInventory(final Building building, final int change) {
+    buildingsVersion++;
+    int index = BuildingFactory.getIndexByName(building.getName());
+    if (index != -1) {
+      buildingCounts[index] = buildingCounts[index] + change;
+    }
+    if (building.isBroadcaster()) {
+      broadcasters = broadcasters + change;
     }
   }
 
@@ -397,6 +445,7 @@ public class Planet {
         Building temp = buildings.get(i);
         if (temp.getName().equals(building.getName())) {
           buildings.remove(i);
+          updateInventory(temp, -1);
           if (recycleBonus > 0) {
             metal = metal + building.getMetalCost() * recycleBonus / 100;
           }
@@ -674,80 +723,42 @@ public class Planet {
    * @return amount of production in one turn
    */
   public int getTotalProductionFromBuildings(final int prod) {
-    int result = 0;
     if (gasGiant || planetOwnerInfo == null) {
       return 0;
     }
-    switch (prod) {
-    case PRODUCTION_FOOD: {
-      for (Building build : getBuildingList()) {
-        result = result + build.getFarmBonus();
-      }
-      break;
-    }
-    case PRODUCTION_METAL: {
-      for (Building build : getBuildingList()) {
-        result = result + build.getMineBonus();
-      }
-      break;
-    }
-    case PRODUCTION_PRODUCTION: {
-      for (Building build : getBuildingList()) {
-        result = result + build.getFactBonus();
-      }
-      break;
-    }
-    case PRODUCTION_RESEARCH: {
-      for (Building build : getBuildingList()) {
-        result = result + build.getReseBonus();
-      }
-      break;
-    }
-    case PRODUCTION_CULTURE: {
-      for (Building build : getBuildingList()) {
-        result = result + build.getCultBonus();
-      }
-      break;
-    }
-    case PRODUCTION_CREDITS: {
-      for (Building build : getBuildingList()) {
-        result = result + build.getCredBonus();
-        if (planetOwnerInfo.getRace() == SpaceRace.SCAURIANS
-            && build.getCredBonus() > 0) {
-          // Special ability for scaurians to get one extra credit
-          // per trade building
-          result++;
-        }
-      }
-      break;
-    }
-    case PRODUCTION_POPULATION: {
-      result = 0;
-      break;
-    }
-    case PRODUCTION_MATERIAL: {
-      for (Building build : getBuildingList()) {
-        result = result + build.getMaterialBonus();
-      }
-      break;
-    }
-    default: {
+    if (prod < PRODUCTION_FOOD || prod > PRODUCTION_MATERIAL) {
       throw new IllegalArgumentException("Illegal production type!");
     }
+    ProductionLedger ledger = getBuildingLedger();
+    int result = ledger.getBuildingBonus(prod);
+    if (prod == PRODUCTION_CREDITS
+        && planetOwnerInfo.getRace() == SpaceRace.SCAURIANS) {
+      // Special ability for scaurians to get one extra credit
+      // per trade building
+      result = result + ledger.getCreditBuildings();
     }
     return result;
 
   }
 
+  /**
+   * Get production ledger with building bonuses calculated for
+   * current buildings.
+   * @return Production ledger
+   */
+  private ProductionLedger getBuildingLedger() {
+    if (!productionLedger.isBuildingsValid(buildingsVersion)) {
+      productionLedger.setBuildings(buildings, buildingsVersion);
+    }
+    return productionLedger;
+  }
+
   /**
    * Get planet's maintenance cost for full credits.
    * @return int as maintenanceCost
    */
   public int getMaintenanceCost() {
-    double result = 0;
-    for (Building build : getBuildingList()) {
-      result = result + build.getMaintenanceCost();
-    }
+    double result = getBuildingLedger().getMaintenance();
     if (planetOwnerInfo != null
         && planetOwnerInfo.getRace() == SpaceRace.MECHIONS) {
       // Mechions have maintenance cost for each 4th of population
@@ -759,7 +770,8 @@ public class Planet {
 
   /**
    * Get total production from planet. This includes racial, worker, planetary
-   * improvement bonus
+   * improvement bonus. Values are cached in production ledger until
+   * something they depend on changes.
    * @param prod Production to get: See all PRODUCTION_*
    * @return amount of production in one turn
    */
@@ -767,12 +779,31 @@ public class Planet {
     if (happinessEffect == null) {
       happinessEffect = new HappinessEffect(HappinessBonus.NONE, 0);
     }
-    int result = 0;
-    int mult = 100;
-    int div = 100;
     if (gasGiant || planetOwnerInfo == null) {
       return 0;
     }
+    if (prod < PRODUCTION_FOOD || prod > PRODUCTION_POPULATION) {
+      throw new IllegalArgumentException("Illegal production type!");
+    }
+    if (!productionLedger.isValid(this, buildingsVersion)) {
+      productionLedger.reset(this, buildingsVersion);
+    }
+    if (!productionLedger.hasProduction(prod)) {
+      productionLedger.setProduction(prod, calculateTotalProduction(prod));
+    }
+    return productionLedger.getProduction(prod);
+  }
+
+  /**
+   * Calculate total production from planet without production ledger.
+   * Planet must have owner.
+   * @param prod Production to get: See all PRODUCTION_*
+   * @return amount of production in one turn
+   */
+  private int calculateTotalProduction(final int prod) {
+    int result = 0;
+    int mult = 100;
+    int div = 100;
     GovernmentType government = planetOwnerInfo.getGovernment();
     int totalPopulation = getTotalPopulation();
     switch (prod) {
@@ -949,6 +980,16 @@ public class Planet {
    */
   public void setName(final String name) {
     this.name = name;
+    RENAME_COUNT.incrementAndGet();
+  }
+
+  /**
+   * Get number of planet renames. Planet name index is valid as long as
+   * this stays the same.
+   * @return Number of planet renames
+   */
+  public static int getRenameCount() {
+    return RENAME_COUNT.get();
   }
 
   /**
@@ -965,13 +1006,9 @@ public class Planet {
    * @return radiation level
    */
   public int getTotalRadiationLevel() {
-    int value = getRadiationLevel();
-    for (Building building : buildings) {
-      if (building.getName().equals("Radiation dampener")
-        || building.getName().equals("Radiation well")) {
-        value = value - 1;
-      }
-    }
+    int value = getRadiationLevel()
+        - howManyBuildings(BuildingFactory.COMPONENT_RADIATION_DAMPENER)
+        - howManyBuildings(BuildingFactory.COMPONENT_RADIATION_WELL);
     if (value < 1) {
       value = 1;
     }
@@ -1155,7 +1192,7 @@ public class Planet {
     if (tmp2 != null && !exceedRadiation()) {
       result.add(tmp2);
     }
-    Building tmp = BuildingFactory.createByName("Basic mine");
+    Building tmp = BuildingFactory.create(BuildingFactory.COMPONENT_BASIC_MINE);
     if (tmp != null) {
       result.add(tmp);
     }
@@ -1168,16 +1205,16 @@ public class Planet {
         result.add(tmp2);
       }
     } else {
-      tmp = BuildingFactory.createByName("Basic farm");
+      tmp = BuildingFactory.create(BuildingFactory.COMPONENT_BASIC_FARM);
       if (tmp != null && !exceedRadiation()) {
         result.add(tmp);
       }
     }
-    tmp = BuildingFactory.createByName("Basic factory");
+    tmp = BuildingFactory.create(BuildingFactory.COMPONENT_BASIC_FACTORY);
     if (tmp != null) {
       result.add(tmp);
     }
-    tmp = BuildingFactory.createByName("Space port");
+    tmp = BuildingFactory.create(BuildingFactory.COMPONENT_SPACE_PORT);
     if (tmp != null && !exceedRadiation()) {
       if (tmp.isSingleAllowed()) {
         boolean built = false;
@@ -1639,6 +1676,7 @@ public class Planet {
                 + underConstruction.getProdCost() / 2);
           }
           buildings.add((Building) underConstruction);
+          updateInventory((Building) underConstruction, 1);
           msg = new Message(MessageType.CONSTRUCTION,
               getName() + " built " + underConstruction.getName(),
               Icons.getIconByName(Icons.ICON_IMPROVEMENT_TECH));
@@ -2002,20 +2040,23 @@ public class Planet {
    * @return True if found, otherwise false.
    */
   public boolean hasCertainBuilding(final String buildingName) {
-    Building[] buildingsArray = getBuildingList();
-    for (Building building : buildingsArray) {
-      if (building.getName().equals(buildingName)) {
-        return true;
-      }
-    }
-    return false;
+    return howManyBuildings(buildingName) > 0;
+  }
+
+  /**
+   * Does planet has certain building with specific index?
+   * @param index Building index, see BuildingFactory.COMPONENT_*
+   * @return True if found, otherwise false.
+   */
+  public boolean hasCertainBuilding(final int index) {
+    return howManyBuildings(index) > 0;
   }
   /**
    * Check if planet has United Galaxy Tower?
    * @return True if planet has United Galaxy Tower?
    */
   public boolean hasTower() {
-    return hasCertainBuilding("United Galaxy Tower");
+    return hasCertainBuilding(BuildingFactory.COMPONENT_UNITED_GALAXY_TOWER);
   }
 
   /**
@@ -2023,20 +2064,14 @@ public class Planet {
    * @return True if has, false if not.
    */
   public boolean broadcaster() {
-    Building[] buildingsArray = getBuildingList();
-    for (Building building : buildingsArray) {
-      if (building.isBroadcaster()) {
-        return true;
-      }
-    }
-    return false;
+    return broadcasters > 0;
   }
   /**
    * Check if planet has Space port for building ships
    * @return True if planet has space port, otherwise false.
    */
   public boolean hasSpacePort() {
-    return hasCertainBuilding("Space port");
+    return hasCertainBuilding(BuildingFactory.COMPONENT_SPACE_PORT);
   }
 
   /**
@@ -2061,9 +2096,13 @@ public class Planet {
    * @return number of buildings with same name
    */
   public int howManyBuildings(final String buildingName) {
+    int index = BuildingFactory.getIndexByName(buildingName);
+    if (index != -1) {
+      return buildingCounts[index];
+    }
+    // Building which is not made by building factory
     int result = 0;
-    Building[] buildingsArray = getBuildingList();
-    for (Building building : buildingsArray) {
+    for (Building building : buildings) {
       if (building.getName().equals(buildingName)) {
         result = result + 1;
       }
@@ -2071,6 +2110,18 @@ public class Planet {
     return result;
   }
 
+  /**
+   * How many buildings with same index planet has
+   * @param index Building index, see BuildingFactory.COMPONENT_*
+   * @return number of buildings with same index
+   */
+  public int howManyBuildings(final int index) {
+    if (index >= 0 && index < buildingCounts.length) {
+      return buildingCounts[index];
+    }
+    return 0;
+  }
+
   /**
    * Get planet's culture points
    * @return culture points for planet
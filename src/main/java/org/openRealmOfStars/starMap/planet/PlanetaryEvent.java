@@ -143,19 +143,19 @@ public enum PlanetaryEvent {
    */
   public Building getBuilding() {
     if (this == ANCIENT_TEMPLE) {
-      return BuildingFactory.createByName("Ancient temple");
+      return BuildingFactory.create(BuildingFactory.COMPONENT_ANCIENT_TEMPLE);
     }
     if (this == ANCIENT_LAB) {
-      return BuildingFactory.createByName("Ancient lab");
+      return BuildingFactory.create(BuildingFactory.COMPONENT_ANCIENT_LAB);
     }
     if (this == ANCIENT_FACTORY) {
-      return BuildingFactory.createByName("Ancient factory");
+      return BuildingFactory.create(BuildingFactory.COMPONENT_ANCIENT_FACTORY);
     }
     if (this == ANCIENT_PALACE) {
-      return BuildingFactory.createByName("Ancient palace");
+      return BuildingFactory.create(BuildingFactory.COMPONENT_ANCIENT_PALACE);
     }
     if (this == BLACK_MONOLITH) {
-      return BuildingFactory.createByName("Black monolith");
+      return BuildingFactory.create(BuildingFactory.COMPONENT_BLACK_MONOLITH);
     }
     return null;
   }
@@ -0,0 +1,326 @@
+package org.openRealmOfStars.starMap.planet;
+
+import java.util.ArrayList;
+
+import org.openRealmOfStars.player.PlayerInfo;
+import org.openRealmOfStars.player.SpaceRace.SpaceRace;
+import org.openRealmOfStars.player.government.GovernmentType;
+import org.openRealmOfStars.player.leader.Leader;
+import org.openRealmOfStars.starMap.planet.construction.Building;
+
+/**
+*
+* Open Realm of Stars game project
+* Copyright (C) 2020 Tuomo Untinen
+*
+* This program is free software; you can redistribute it and/or
+* modify it under the terms of the GNU General Public License
+* as published by the Free Software Foundation; either version 2
+* of the License, or (at your option) any later version.
+*
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program; if not, see http://www.gnu.org/licenses/
+*
+*
+* Production ledger caches planet's production values. Ledger remembers
+* everything production depends on: workers, buildings, owner, race,
+* government, governor and perks, happiness, planetary event, metal,
+* tax, extra food, home world and radiation. Cached values are dropped
+* when any of these differ from the ones which were used for calculation.
+*
+*/
+public class ProductionLedger {
+
+  /**
+   * Number of production values in ledger
+   */
+  private static final int NUMBER_OF_PRODUCTIONS =
+      Planet.PRODUCTION_POPULATION + 1;
+
+  /**
+   * Number of building bonuses in ledger
+   */
+  private static final int NUMBER_OF_BONUSES = Planet.PRODUCTION_MATERIAL + 1;
+
+  /**
+   * Cached production values
+   */
+  private int[] production;
+
+  /**
+   * Bit mask of production values which have been calculated
+   */
+  private int calculated;
+
+  /**
+   * Workers used for calculation
+   */
+  private int[] workers;
+
+  /**
+   * Buildings version used for calculation
+   */
+  private int buildingsVersion;
+
+  /**
+   * Planet owner used for calculation
+   */
+  private PlayerInfo owner;
+
+  /**
+   * Owner's race used for calculation
+   */
+  private SpaceRace race;
+
+  /**
+   * Owner's government used for calculation
+   */
+  private GovernmentType government;
+
+  /**
+   * Governor used for calculation
+   */
+  private Leader governor;
+
+  /**
+   * Governor's perks as bit mask
+   */
+  private long governorPerks;
+
+  /**
+   * Happiness effect used for calculation
+   */
+  private HappinessEffect happiness;
+
+  /**
+   * Planetary event used for calculation
+   */
+  private PlanetaryEvent event;
+
+  /**
+   * Was planetary event found
+   */
+  private boolean eventFound;
+
+  /**
+   * Amount of metal in ground used for calculation
+   */
+  private int metalInGround;
+
+  /**
+   * Tax used for calculation
+   */
+  private int tax;
+
+  /**
+   * Extra food used for calculation
+   */
+  private int extraFood;
+
+  /**
+   * Home world index used for calculation
+   */
+  private int homeWorldIndex;
+
+  /**
+   * Radiation level used for calculation
+   */
+  private int radiationLevel;
+
+  /**
+   * Building bonuses for each production
+   */
+  private int[] buildingBonus;
+
+  /**
+   * Number of buildings which have credit bonus
+   */
+  private int creditBuildings;
+
+  /**
+   * Total maintenance cost of buildings
+   */
+  private double maintenance;
+
+  /**
+   * Buildings version used for building bonuses. Negative if
+   * bonuses have not been calculated.
+   */
+  private int bonusVersion;
+
+  /**
+   * Constructor for production ledger.
+   */
+  public ProductionLedger() {
+    production = new int[NUMBER_OF_PRODUCTIONS];
+    workers = new int[Planet.MAX_WORKER_TYPE];
+    buildingBonus = new int[NUMBER_OF_BONUSES];
+    calculated = 0;
+    bonusVersion = -1;
+  }
+
+  /**
+   * Get governor's perks as bit mask.
+   * @param leader Governor, may be null
+   * @return Bit mask of perk indexes
+   */
+  private static long getPerkMask(final Leader leader) {
+    if (leader == null) {
+      return 0;
+    }
+    return leader.getPerkMask();
+  }
+
+  /**
+   * Check if ledger was calculated with current state of the planet.
+   * Planet must have owner.
+   * @param planet Planet
+   * @param version Buildings version of the planet
+   * @return True if cached values can be used
+   */
+  public boolean isValid(final Planet planet, final int version) {
+    PlayerInfo info = planet.getPlanetPlayerInfo();
+    if (calculated == 0 || version != buildingsVersion || info != owner
+        || info.getRace() != race || info.getGovernment() != government
+        || planet.getGovernor() != governor
+        || planet.getHappinessEffect() != happiness
+        || planet.getPlanetaryEvent() != event
+        || planet.isEventActivated() != eventFound
+        || planet.getAmountMetalInGround() != metalInGround
+        || planet.getTax() != tax || planet.getExtraFood() != extraFood
+        || planet.getHomeWorldIndex() != homeWorldIndex
+        || planet.getRadiationLevel() != radiationLevel
+        || getPerkMask(governor) != governorPerks) {
+      return false;
+    }
+    for (int i = 0; i < workers.length; i++) {
+      if (planet.getWorkers(i) != workers[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Drop cached production values and remember current state of
+   * the planet. Planet must have owner.
+   * @param planet Planet
+   * @param version Buildings version of the planet
+   */
+  public void reset(final Planet planet, final int version) {
+    calculated = 0;
+    buildingsVersion = version;
+    owner = planet.getPlanetPlayerInfo();
+    race = owner.getRace();
+    government = owner.getGovernment();
+    governor = planet.getGovernor();
+    governorPerks = getPerkMask(governor);
+    happiness = planet.getHappinessEffect();
+    event = planet.getPlanetaryEvent();
+    eventFound = planet.isEventActivated();
+    metalInGround = planet.getAmountMetalInGround();
+    tax = planet.getTax();
+    extraFood = planet.getExtraFood();
+    homeWorldIndex = planet.getHomeWorldIndex();
+    radiationLevel = planet.getRadiationLevel();
+    for (int i = 0; i < workers.length; i++) {
+      workers[i] = planet.getWorkers(i);
+    }
+  }
+
+  /**
+   * Is production value calculated.
+   * @param prod Production type, see Planet.PRODUCTION_*
+   * @return True if value is cached
+   */
+  public boolean hasProduction(final int prod) {
+    return (calculated & 1 << prod) != 0;
+  }
+
+  /**
+   * Get cached production value.
+   * @param prod Production type, see Planet.PRODUCTION_*
+   * @return Production value
+   */
+  public int getProduction(final int prod) {
+    return production[prod];
+  }
+
+  /**
+   * Set calculated production value.
+   * @param prod Production type, see Planet.PRODUCTION_*
+   * @param value Production value
+   */
+  public void setProduction(final int prod, final int value) {
+    production[prod] = value;
+    calculated = calculated | 1 << prod;
+  }
+
+  /**
+   * Are building bonuses calculated for buildings version.
+   * @param version Buildings version of the planet
+   * @return True if building bonuses can be used
+   */
+  public boolean isBuildingsValid(final int version) {
+    return bonusVersion == version;
+  }
+
+  /**
+   * Calculate building bonuses.
+   * @param buildings Buildings on planet
+   * @param version Buildings version of the planet
+   */
+  public void setBuildings(final ArrayList<Building> buildings,
+      final int version) {
+    int[] bonus = new int[NUMBER_OF_BONUSES];
+    int credit = 0;
+    double cost = 0;
+    for (Building build : buildings) {
+      bonus[Planet.PRODUCTION_FOOD] += build.getFarmBonus();
+      bonus[Planet.PRODUCTION_METAL] += build.getMineBonus();
+      bonus[Planet.PRODUCTION_PRODUCTION] += build.getFactBonus();
+      bonus[Planet.PRODUCTION_RESEARCH] += build.getReseBonus();
+      bonus[Planet.PRODUCTION_CULTURE] += build.getCultBonus();
+      bonus[Planet.PRODUCTION_CREDITS] += build.getCredBonus();
+      bonus[Planet.PRODUCTION_MATERIAL] += build.getMaterialBonus();
+      if (build.getCredBonus() > 0) {
+        credit++;
+      }
+      cost = cost + build.getMaintenanceCost();
+    }
+    buildingBonus = bonus;
+    creditBuildings = credit;
+    maintenance = cost;
+    bonusVersion = version;
+  }
+
+  /**
+   * Get total building bonus for production.
+   * @param prod Production type, see Planet.PRODUCTION_*
+   * @return Building bonus
+   */
+  public int getBuildingBonus(final int prod) {
+    return buildingBonus[prod];
+  }
+
+  /**
+   * Get number of buildings which have credit bonus.
+   * @return Number of buildings
+   */
+  public int getCreditBuildings() {
+    return creditBuildings;
+  }
+
+  /**
+   * Get total maintenance cost of buildings.
+   * @return Maintenance cost
+   */
+  public double getMaintenance() {
+    return maintenance;
+  }
+}
@@ -0,0 +1,105 @@
+package org.openRealmOfStars.utilities;
+
+import java.util.HashMap;
+import java.util.Locale;
+
+/**
+*
+* Open Realm of Stars game project
+* Copyright (C) 2020 Tuomo Untinen
+*
+* This program is free software; you can redistribute it and/or
+* modify it under the terms of the GNU General Public License
+* as published by the Free Software Foundation; either version 2
+* of the License, or (at your option) any later version.
+*
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program; if not, see http://www.gnu.org/licenses/
+*
+*
+* Name registry maps names of factory made objects to their factory
+* indexes. Registry is immutable after creation so it can be shared
+* between threads.
+*
+*/
+public final class NameRegistry {
+
+  /**
+   * Name for each index, null if index has no object
+   */
+  private final String[] names;
+
+  /**
+   * Index for each name in lower case
+   */
+  private final HashMap<String, Integer> indexes;
+
+  /**
+   * Create name registry.
+   * @param names Name for each index, null if index has no object.
+   *        If same name is listed many times first index is used.
+   */
+  public NameRegistry(final String[] names) {
+    this.names = names.clone();
+    indexes = new HashMap<>();
+    for (int i = 0; i < names.length; i++) {
+      if (names[i] != null) {
+        String key = toKey(names[i]);
+        if (!indexes.containsKey(key)) {
+          indexes.put(key, i);
+        }
+      }
+    }
+  }
+
+  /**
+   * Get lookup key for name.
+   * @param name Name
+   * @return Name in lower case
+   */
+  private static String toKey(final String name) {
+    return name.toLowerCase(Locale.ENGLISH);
+  }
+
+  /**
+   * Get index by name ignoring case.
+   * @param name Name to look for
+   * @return Index or -1 if not found
+   */
+  public int getIndex(final String name) {
+    if (name == null) {
+      return -1;
+    }
+    Integer index = indexes.get(toKey(name));
+    if (index == null) {
+      return -1;
+    }
+    return index.intValue();
+  }
+
+  /**
+   * Get index by exact name.
+   * @param name Name to look for
+   * @return Index or -1 if not found
+   */
+  public int getExactIndex(final String name) {
+    int index = getIndex(name);
+    if (index != -1 && names[index].equals(name)) {
+      return index;
+    }
+    return -1;
+  }
+
+  /**
+   * Get number of indexes in registry
+   * @return Number of indexes
+   */
+  public int getSize() {
+    return names.length;
+  }
+}
@@ -0,0 +1,368 @@
+package org.openRealmOfStars.utilities;
+
+import java.util.Random;
+
+/**
+ *
+ * Open Realm of Stars game project
+ * Copyright (C) 2016,2018,2020  Tuomo Untinen
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses/
+ *
+ *
+ * Random context for single game. Contains actually three different
+ * Pseudo random functions. Random context is not thread safe, so
+ * it should be used only by one thread at the time.
+ *
+ */
+public class RandomContext {
+
+  /**
+   * Is generator initialized or not
+   */
+  private boolean initialized;
+  /**
+   * Is context seeded with fixed seed.
+   */
+  private boolean seeded;
+  /**
+   * First Java's RNG
+   */
+  private Random generator1;
+  /**
+   * Second Java's RNG
+   */
+  private Random generator2;
+  /**
+   * Seed of MultiplyWithCarry generator
+   */
+  private int mz;
+  /**
+   * Second seed of MultiplyWithCarry generator
+   */
+  private int mw;
+  /**
+   * Seed of XORShift generator
+   */
+  private long x;
+
+  /**
+   * Static numbers to generate
+   */
+  private int[] numbers;
+  /**
+   * Number index
+   */
+  private int numberIndex;
+
+  /**
+   * Constructor for random context which is seeded by time.
+   */
+  public RandomContext() {
+    initialized = false;
+    seeded = false;
+  }
+
+  /**
+   * Constructor for random context which is seeded with fixed seed.
+   * Same seed produces always same random numbers.
+   * @param seed Seed for random context
+   */
+  public RandomContext(final long seed) {
+    setMixedSeed(seed);
+  }
+
+  /**
+   * Golden ratio increment for SplitMix64
+   */
+  private static final long SPLITMIX_GAMMA = 0x9E3779B97F4A7C15L;
+
+  /**
+   * First multiplier for SplitMix64
+   */
+  private static final long SPLITMIX_MULTIPLIER1 = 0xBF58476D1CE4E5B9L;
+
+  /**
+   * Second multiplier for SplitMix64
+   */
+  private static final long SPLITMIX_MULTIPLIER2 = 0x94D049BB133111EBL;
+
+  /**
+   * First shift for SplitMix64
+   */
+  private static final int SPLITMIX_SHIFT1 = 30;
+
+  /**
+   * Second shift for SplitMix64
+   */
+  private static final int SPLITMIX_SHIFT2 = 27;
+
+  /**
+   * Third shift for SplitMix64
+   */
+  private static final int SPLITMIX_SHIFT3 = 31;
+
+  /**
+   * Mix value with SplitMix64 finalizer.
+   * @param value Value to mix
+   * @return Mixed value
+   */
+  private static long mix(final long value) {
+    long z = value;
+    z = (z ^ (z >>> SPLITMIX_SHIFT1)) * SPLITMIX_MULTIPLIER1;
+    z = (z ^ (z >>> SPLITMIX_SHIFT2)) * SPLITMIX_MULTIPLIER2;
+    return z ^ (z >>> SPLITMIX_SHIFT3);
+  }
+
+  /**
+   * Create valid Multiply with carry state from mixed value. Carry is
+   * kept below multiplier - 1 and state is never zero, so generator
+   * cannot get stuck.
+   * @param value Mixed value
+   * @param multiplier Multiplier of the generator
+   * @return Multiply with carry state
+   */
+  private static int toMultiplyWithCarryState(final long value,
+      final int multiplier) {
+    int low = (int) (value & MASK_FOR_LOWER_16BITS);
+    int carry = (int) ((value >>> BIT16) & MASK_FOR_LOWER_16BITS)
+        % (multiplier - 1);
+    if (low == 0 && carry == 0) {
+      low = 1;
+    }
+    return (carry << BIT16) | low;
+  }
+
+  /**
+   * Initialize all generators from single seed. Each generator gets
+   * its own state from successive SplitMix64 values, so near seeds
+   * give unrelated random numbers and no generator starts from zero.
+   * @param seed Seed
+   */
+  private void setMixedSeed(final long seed) {
+    long state = seed;
+    state = state + SPLITMIX_GAMMA;
+    generator1 = new Random(mix(state));
+    state = state + SPLITMIX_GAMMA;
+    generator2 = new Random(mix(state));
+    state = state + SPLITMIX_GAMMA;
+    mz = toMultiplyWithCarryState(mix(state), MC_MULTIPLIER1);
+    state = state + SPLITMIX_GAMMA;
+    mw = toMultiplyWithCarryState(mix(state), MC_MULTIPLIER2);
+    state = state + SPLITMIX_GAMMA;
+    x = mix(state);
+    if (x == 0) {
+      x = SPLITMIX_GAMMA;
+    }
+    initialized = true;
+    seeded = true;
+    numbers = null;
+  }
+
+  /**
+   * Initialize generator. This only needs to be called once.
+   */
+  private void initializeGenerators() {
+    if (!initialized) {
+      generator1 = new Random(System.nanoTime());
+      generator2 = new Random(generator1.nextLong());
+      mz = (int) System.nanoTime();
+      mw = (int) System.currentTimeMillis();
+      mw = mw >> 8;
+      x = System.nanoTime();
+      numbers = null;
+      seeded = false;
+      initialized = true;
+    }
+  }
+
+  /**
+   * Initialize random seed with fixed values.
+   * Initialized multiple generator. Some generators require long
+   * for seed and some for integer.
+   * @param seed Long seed
+   * @param shortSeed seed for integer generators.
+   */
+  public void setSeed(final long seed, final int shortSeed) {
+    generator1 = new Random(seed);
+    generator2 = new Random(seed + 1);
+    mz = shortSeed;
+    mw = shortSeed + 1;
+    mw = mw >> 8;
+    x = seed;
+    initialized = true;
+    seeded = true;
+    numbers = null;
+  }
+
+  /**
+   * Set fixed values for random generators. After all values
+   * have been used context is seeded by time.
+   * @param values Fixed values
+   */
+  public void setFixedValues(final int... values) {
+    numberIndex = 0;
+    numbers = values;
+    initialized = true;
+  }
+
+  /**
+   * Is random context seeded with fixed seed.
+   * @return True if seeded
+   */
+  public boolean isSeeded() {
+    return seeded;
+  }
+
+  /**
+   * Get random number between 0 and maxValue.
+   * This generates random by combining Java RNG, MultiplyWithCarry
+   * and XORShift.
+   * @param maxValue inclusive
+   * @return A random number
+   */
+  public int getRandom(final int maxValue) {
+    initializeGenerators();
+    return getRandomResult(maxValue);
+  }
+
+  /**
+   * Get random value between minValue and maxValue
+   * This generates random by combining Java RNG, MultiplyWithCarry
+   * and XORShift.
+   * @param minValue inclusive
+   * @param maxValue inclusive
+   * @return A random number
+   */
+  public int getRandom(final int minValue, final int maxValue) {
+    initializeGenerators();
+    int sub = 0;
+    if (maxValue >= minValue) {
+      sub = maxValue - minValue;
+    }
+    int result = getRandomResult(sub);
+    result = result + minValue;
+    return result;
+  }
+
+  /**
+   * Get Random result from three different pseudo random functions
+   * @param maxValue inclusive
+   * @return Random value
+   */
+  private int getRandomResult(final int maxValue) {
+    int result = 0;
+    if (numbers == null) {
+      switch (getRandomJava(3)) {
+      case 0:
+        result = getRandomJava(maxValue + 1);
+        break;
+      case 1:
+        result = getRandomMultiplyWithCarry(maxValue + 1);
+        break;
+      case 2:
+        result = getRandomXORShift(maxValue + 1);
+        break;
+      default:
+        throw new IllegalArgumentException("Bad behaving PRF!");
+      }
+    } else {
+      result = numbers[numberIndex] % (maxValue + 1);
+      numberIndex++;
+      if (numberIndex >= numbers.length) {
+        // All fixed numbers have been used
+        initialized = false;
+      }
+    }
+    return result;
+  }
+
+  /** Get random with using java's random
+   * @param maxValue exclusive
+   * @return int
+   */
+  private int getRandomJava(final int maxValue) {
+    int result = generator2.nextInt(maxValue);
+    int result2 = generator1.nextInt();
+    if (result2 % 5 == 0) {
+      if (seeded) {
+        // Seeded context must stay reproducible
+        generator1 = new Random(generator1.nextLong());
+      } else {
+        generator1 = new Random(System.nanoTime());
+      }
+      generator2 = new Random(generator1.nextLong());
+    }
+    return result;
+
+  }
+
+  /**
+   * Multiply carry multiplier 1
+   */
+  private static final int MC_MULTIPLIER1 = 36969;
+
+  /**
+   * Multiply carry multiplier 2
+   */
+  private static final int MC_MULTIPLIER2 = 18000;
+
+  /**
+   * Mask for lower 16 bits.
+   */
+  private static final int MASK_FOR_LOWER_16BITS = 65535;
+
+  /**
+   * 16 bits
+   */
+  private static final int BIT16 = 16;
+
+  /**
+   * Get random with Multiply Carry
+   * @param maxValue exclusive
+   * @return A random number
+   */
+  private int getRandomMultiplyWithCarry(final int maxValue) {
+    mz = MC_MULTIPLIER1 * (mz & MASK_FOR_LOWER_16BITS) + (mz >> BIT16);
+    mw = MC_MULTIPLIER2 * (mw & MASK_FOR_LOWER_16BITS) + (mw >> BIT16);
+    int i = (mz << BIT16) + mw; /* 32-bit result */
+    i = Math.abs(i);
+    return i % maxValue;
+  }
+
+  /**
+   * Magic number 1 for XOR shift
+   */
+  private static final int XOR_SHIFT_MAGIC1 = 21;
+
+  /**
+   * Magic number 2 for XOR shift
+   */
+  private static final int XOR_SHIFT_MAGIC2 = 35;
+  /**
+   * Get random with XORShift function
+   * @param maxValue exclusive
+   * @return int
+   */
+  private int getRandomXORShift(final int maxValue) {
+    x ^= x << XOR_SHIFT_MAGIC1;
+    x ^= x >>> XOR_SHIFT_MAGIC2;
+    x ^= x << 4;
+    int i = (int) x;
+    i = Math.abs(i);
+    i = i % maxValue;
+    return i;
+  }
+
+}
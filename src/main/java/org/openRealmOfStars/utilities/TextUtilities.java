@@ -106,6 +106,50 @@ public final class TextUtilities {
     return sb.toString();
   }
 
+  /**
+   * Escape text so that it can be written as JSON string value.
+   * Quotes are not added around the text.
+   * @param text Text to escape
+   * @return Escaped text
+   */
+  public static String escapeJson(final String text) {
+    StringBuilder sb = new StringBuilder(text.length() + 10);
+    for (int i = 0; i < text.length(); i++) {
+      char ch = text.charAt(i);
+      switch (ch) {
+        case '"': {
+          sb.append("\\\"");
+          break;
+        }
+        case '\\': {
+          sb.append("\\\\");
+          break;
+        }
+        case '\n': {
+          sb.append("\\n");
+          break;
+        }
+        case '\r': {
+          sb.append("\\r");
+          break;
+        }
+        case '\t': {
+          sb.append("\\t");
+          break;
+        }
+        default: {
+          if (ch < ' ') {
+            sb.append(String.format("\\u%04x", (int) ch));
+          } else {
+            sb.append(ch);
+          }
+          break;
+        }
+      }
+    }
+    return sb.toString();
+  }
+
   /**
    * Concanate two string arrays into one string array.
    * @param array1 First String array
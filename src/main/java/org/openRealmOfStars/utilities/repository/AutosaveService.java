@@ -0,0 +1,404 @@
+package org.openRealmOfStars.utilities.repository;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.openRealmOfStars.starMap.StarMap;
+import org.openRealmOfStars.utilities.ErrorLogger;
+
+/**
+*
+* Open Realm of Stars game project
+* Copyright (C) 2020 Tuomo Untinen
+*
+* This program is free software; you can redistribute it and/or
+* modify it under the terms of the GNU General Public License
+* as published by the Free Software Foundation; either version 2
+* of the License, or (at your option) any later version.
+*
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program; if not, see http://www.gnu.org/licenses/
+*
+*
+* Autosave service serializes the game on calling thread and compresses
+* and writes it on background thread. Caller must make sure that star
+* map is not changed while it is serialized, game does this on AI thread
+* before AI turn starts. Checkpoint snapshot is written into
+* temporary file which is renamed over the autosave after it has been
+* synced. Between checkpoints only changed sections are appended into
+* autosave's turn journal. Older autosaves are kept as rotations with
+* their journals. If new snapshot is taken while previous one is still
+* waiting, only the newest one is written.
+*
+*/
+public class AutosaveService {
+
+  /**
+   * Default autosave file name
+   */
+  public static final String DEFAULT_AUTOSAVE = "autosave.save";
+
+  /**
+   * Default number of kept autosaves including the newest one
+   */
+  public static final int DEFAULT_ROTATIONS = 3;
+
+  /**
+   * Default number of journal records written before new checkpoint
+   */
+  public static final int DEFAULT_CHECKPOINT_INTERVAL = 10;
+
+  /**
+   * File name prefix for all autosaves
+   */
+  private static final String AUTOSAVE_PREFIX = "autosave";
+
+  /**
+   * Save game file extension
+   */
+  private static final String SAVE_EXTENSION = ".save";
+
+  /**
+   * Folder where autosaves are written
+   */
+  private final String folderName;
+
+  /**
+   * Number of kept autosaves including the newest one
+   */
+  private final int rotations;
+
+  /**
+   * Snapshot waiting to be written
+   */
+  private final AtomicReference<Snapshot> pending;
+
+  /**
+   * Number of journal records written before new checkpoint
+   */
+  private final int checkpointInterval;
+
+  /**
+   * Number of the game which snapshots belong to. Changed when another
+   * game is started or loaded.
+   */
+  private final AtomicInteger gameNumber;
+
+  /**
+   * Single thread executor for writing. Created on first autosave.
+   */
+  private ExecutorService executor;
+
+  /**
+   * Sections of the last written autosave or null if next autosave must
+   * be checkpoint. Used only by writing thread.
+   */
+  private byte[][] journalBase;
+
+  /**
+   * Turn of the last written autosave. Used only by writing thread.
+   */
+  private int journalTurn;
+
+  /**
+   * Header of the checkpoint which journal belongs to. Used only by
+   * writing thread.
+   */
+  private SaveGameHeader journalHeader;
+
+  /**
+   * Game number of the last written autosave. Used only by writing thread.
+   */
+  private int journalGameNumber;
+
+  /**
+   * Number of journal records after checkpoint. Used only by writing
+   * thread.
+   */
+  private int journalRecords;
+
+  /**
+   * Snapshot of the game
+   */
+  private static class Snapshot {
+    /**
+     * Save game header
+     */
+    private final SaveGameHeader header;
+    /**
+     * Uncompressed section data
+     */
+    private final byte[][] sections;
+    /**
+     * Number of the game snapshot belongs to
+     */
+    private final int gameNumber;
+
+    /**
+     * Create snapshot.
+     * @param header Save game header
+     * @param sections Uncompressed section data
+     * @param gameNumber Number of the game snapshot belongs to
+     */
+    Snapshot(final SaveGameHeader header, final byte[][] sections,
+        final int gameNumber) {
+      this.header = header;
+      this.sections = sections;
+      this.gameNumber = gameNumber;
+    }
+  }
+
+  /**
+   * Create autosave service.
+   * @param folderName Folder where autosaves are written
+   * @param rotations Number of kept autosaves, at least one
+   */
+  public AutosaveService(final String folderName, final int rotations) {
+    this(folderName, rotations, DEFAULT_CHECKPOINT_INTERVAL);
+  }
+
+  /**
+   * Create autosave service.
+   * @param folderName Folder where autosaves are written
+   * @param rotations Number of kept autosaves, at least one
+   * @param checkpointInterval Number of journal records written before
+   *        new checkpoint, zero writes every autosave as checkpoint
+   */
+  public AutosaveService(final String folderName, final int rotations,
+      final int checkpointInterval) {
+    this.folderName = folderName;
+    this.rotations = Math.max(1, rotations);
+    this.checkpointInterval = checkpointInterval;
+    pending = new AtomicReference<>();
+    gameNumber = new AtomicInteger();
+  }
+
+  /**
+   * Get file name for autosave rotation.
+   * @param rotation Rotation index, 0 is the newest
+   * @return File name
+   */
+  public static String getAutosaveName(final int rotation) {
+    if (rotation == 0) {
+      return DEFAULT_AUTOSAVE;
+    }
+    return AUTOSAVE_PREFIX + "-" + rotation + SAVE_EXTENSION;
+  }
+
+  /**
+   * Is file name autosave or one of its rotations.
+   * @param filename File name
+   * @return True if file is autosave
+   */
+  public static boolean isAutosave(final String filename) {
+    return filename != null && filename.matches(AUTOSAVE_PREFIX
+        + "(-[0-9]+)?\\" + SAVE_EXTENSION);
+  }
+
+  /**
+   * Take snapshot of the game and write it on background thread.
+   * Snapshot serializes every save game section on calling thread, only
+   * compression and writing are done on background. Star map must not be
+   * changed by other threads during the call. Before calling this
+   * remove to update shown tutorial indexes from tutorial.
+   * @param starMap StarMap to save
+   */
+  public void autosave(final StarMap starMap) {
+    Snapshot snapshot;
+    try {
+      snapshot = new Snapshot(starMap.createSaveHeader(),
+          starMap.saveSections(), gameNumber.get());
+    } catch (IOException e) {
+      ErrorLogger.log("Autosave snapshot failed! " + e.getMessage());
+      return;
+    }
+    if (pending.getAndSet(snapshot) == null) {
+      getExecutor().submit(new Runnable() {
+        @Override
+        public void run() {
+          Snapshot latest = pending.getAndSet(null);
+          if (latest != null) {
+            write(latest);
+          }
+        }
+      });
+    }
+  }
+
+  /**
+   * Tell that another game has been started or loaded. Next autosave
+   * is written as checkpoint instead of journal record of previous game.
+   */
+  public void startNewGame() {
+    gameNumber.incrementAndGet();
+  }
+
+  /**
+   * Get executor and create it if needed.
+   * @return ExecutorService
+   */
+  private synchronized ExecutorService getExecutor() {
+    if (executor == null) {
+      executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(final Runnable runnable) {
+          Thread thread = new Thread(runnable, "Autosave");
+          thread.setDaemon(true);
+          return thread;
+        }
+      });
+    }
+    return executor;
+  }
+
+  /**
+   * Wait until all autosaves taken so far have been written.
+   * @param timeoutMillis Maximum time to wait in milli seconds
+   * @return True if writing finished in time
+   */
+  public boolean waitForWrites(final long timeoutMillis) {
+    Future<?> future = getExecutor().submit(new Runnable() {
+      @Override
+      public void run() {
+        // Executor runs tasks in order so this finishes after writes
+      }
+    });
+    try {
+      future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException | TimeoutException e) {
+      ErrorLogger.log("Autosave did not finish: " + e.getMessage());
+    }
+    return false;
+  }
+
+  /**
+   * Write snapshot as journal record if possible, otherwise as new
+   * checkpoint.
+   * @param snapshot Snapshot to write
+   */
+  private void write(final Snapshot snapshot) {
+    File folder = new File(folderName);
+    if (!folder.exists()) {
+      folder.mkdirs();
+    }
+    File target = new File(folder, getAutosaveName(0));
+    File journal = SaveGameJournal.getJournalFile(target);
+    try {
+      if (journalBase != null && journalRecords < checkpointInterval
+          && snapshot.gameNumber == journalGameNumber
+          && snapshot.header.getTurn() > journalTurn
+          && snapshot.header.isSameGame(journalHeader)
+          && snapshot.sections.length == journalBase.length
+          && target.exists() && journal.exists()) {
+        SaveGameJournal.append(journal, snapshot.header.getTurn(),
+            snapshot.header.getSaveTime(), journalBase, snapshot.sections);
+        journalRecords++;
+      } else {
+        writeCheckpoint(folder, target, snapshot);
+        SaveGameJournal.create(journal, snapshot.header.getSaveTime());
+        journalHeader = snapshot.header;
+        journalRecords = 0;
+      }
+      journalBase = snapshot.sections;
+      journalTurn = snapshot.header.getTurn();
+      journalGameNumber = snapshot.gameNumber;
+    } catch (IOException e) {
+      // Next autosave writes full checkpoint
+      journalBase = null;
+      ErrorLogger.log("Autosave failed! " + e.getMessage());
+    }
+  }
+
+  /**
+   * Write snapshot into temporary file, rotate older autosaves with their
+   * journals and rename temporary file as the newest autosave. The newest
+   * autosave is copied into rotation, not moved, so it exists until
+   * temporary file has replaced it.
+   * @param folder Autosave folder
+   * @param target The newest autosave file
+   * @param snapshot Snapshot to write
+   * @throws IOException if writing fails
+   */
+  private void writeCheckpoint(final File folder, final File target,
+      final Snapshot snapshot) throws IOException {
+    File temp = new File(folder, getAutosaveName(0)
+        + GameRepository.TEMP_EXTENSION);
+    try (FileOutputStream os = new FileOutputStream(temp)) {
+      DataOutputStream dos = new DataOutputStream(
+          new BufferedOutputStream(os));
+      snapshot.header.writeHeader(dos, snapshot.sections);
+      dos.flush();
+      os.getFD().sync();
+    }
+    for (int i = rotations - 1; i > 0; i--) {
+      File source = new File(folder, getAutosaveName(i - 1));
+      File rotation = new File(folder, getAutosaveName(i));
+      if (i == 1) {
+        copyIfExists(source, rotation);
+        copyIfExists(SaveGameJournal.getJournalFile(source),
+            SaveGameJournal.getJournalFile(rotation));
+      } else {
+        moveIfExists(source, rotation);
+        moveIfExists(SaveGameJournal.getJournalFile(source),
+            SaveGameJournal.getJournalFile(rotation));
+      }
+    }
+    GameRepository.replaceFile(temp, target);
+  }
+
+  /**
+   * Move file over another file. If source does not exist, target is
+   * removed.
+   * @param source Source file
+   * @param target Target file
+   * @throws IOException if moving fails
+   */
+  private static void moveIfExists(final File source, final File target)
+      throws IOException {
+    if (source.exists()) {
+      Files.move(source.toPath(), target.toPath(),
+          StandardCopyOption.REPLACE_EXISTING);
+    } else {
+      Files.deleteIfExists(target.toPath());
+    }
+  }
+
+  /**
+   * Copy file over another file. If source does not exist, target is
+   * removed.
+   * @param source Source file
+   * @param target Target file
+   * @throws IOException if copying fails
+   */
+  private static void copyIfExists(final File source, final File target)
+      throws IOException {
+    if (source.exists()) {
+      Files.copy(source.toPath(), target.toPath(),
+          StandardCopyOption.REPLACE_EXISTING);
+    } else {
+      Files.deleteIfExists(target.toPath());
+    }
+  }
+}
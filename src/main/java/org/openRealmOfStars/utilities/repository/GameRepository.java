@@ -6,13 +6,16 @@ import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 
 import org.openRealmOfStars.game.Game;
 import org.openRealmOfStars.starMap.StarMap;
 import org.openRealmOfStars.utilities.ErrorLogger;
+import org.openRealmOfStars.utilities.IOUtilities;
 
 /**
 *
@@ -44,7 +47,19 @@ public class GameRepository {
   public static final String DEFAULT_SAVE_FOLDER = "saves";
 
   /**
-   * Save game for certain file name
+   * Extension for temporary file written before replacing save game
+   */
+  public static final String TEMP_EXTENSION = ".tmp";
+
+  /**
+   * How many bytes magic string can take when checking save game format
+   */
+  private static final int MAGIC_READ_LIMIT = 256;
+
+  /**
+   * Save game for certain file name. Game is first written into
+   * temporary file which then replaces the save game, so failed save
+   * does not destroy existing save game.
    * @param folderName Folder name where to save game
    * @param filename File name
    * @param starMap StarMap to save to file
@@ -57,16 +72,21 @@ public class GameRepository {
         folder.mkdirs();
       }
       File file = new File(folderName + "/" + filename);
+      File temp = new File(folderName + "/" + filename + TEMP_EXTENSION);
       try {
-        FileOutputStream os = new FileOutputStream(file);
-        BufferedOutputStream bos = new BufferedOutputStream(os);
-        try (DataOutputStream dos = new DataOutputStream(bos)) {
-          starMap.setShownTutorial(Game.getTutorial().getShownIndexes());
+        try (FileOutputStream os = new FileOutputStream(temp)) {
+          DataOutputStream dos = new DataOutputStream(
+              new BufferedOutputStream(os));
+          if (Game.getTutorial() != null) {
+            starMap.setShownTutorial(Game.getTutorial().getShownIndexes());
+          }
           starMap.saveGame(dos);
-        } catch (IOException e) {
-          System.out.println(e.getMessage());
+          dos.flush();
+          os.getFD().sync();
         }
-      } catch (FileNotFoundException e) {
+        replaceFile(temp, file);
+      } catch (IOException e) {
+        temp.delete();
         ErrorLogger.log("File could not be write: " + folderName + "/"
             + filename + "! " + e.getMessage());
       }
@@ -74,18 +94,63 @@ public class GameRepository {
   }
 
   /**
-   * Load game from certain file name
+   * Replace target file with source file. Replace is atomic if file
+   * system supports it.
+   * @param source Source file
+   * @param target Target file
+   * @throws IOException if replacing fails
+   */
+  static void replaceFile(final File source, final File target)
+      throws IOException {
+    try {
+      Files.move(source.toPath(), target.toPath(),
+          StandardCopyOption.ATOMIC_MOVE,
+          StandardCopyOption.REPLACE_EXISTING);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(source.toPath(), target.toPath(),
+          StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  /**
+   * Load game from certain file name. If sectioned save game has turn
+   * journal it is replayed onto save game.
    * @param folderName Folder name where to load saved games
    * @param filename File name
    * @return StarMap if successful, null if loading failed
    */
   public StarMap loadGame(final String folderName, final String filename) {
+    return loadGame(folderName, filename, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Load game from certain file name rewound to certain turn. Turn journal
+   * is replayed only up to that turn. Game cannot be rewound before
+   * the turn stored in save game file itself.
+   * @param folderName Folder name where to load saved games
+   * @param filename File name
+   * @param turn Last turn to replay from journal
+   * @return StarMap if successful, null if loading failed
+   */
+  public StarMap loadGame(final String folderName, final String filename,
+      final int turn) {
     File file = new File(folderName + "/" + filename);
     StarMap starMap = null;
     try (FileInputStream is = new FileInputStream(file)) {
       BufferedInputStream bis = new BufferedInputStream(is);
       DataInputStream dis = new DataInputStream(bis);
-      starMap = new StarMap(dis);
+      bis.mark(MAGIC_READ_LIMIT);
+      String str = IOUtilities.readString(dis);
+      if (str.equals(SaveGameHeader.MAGIC_STRING)) {
+        SaveGameHeader header = SaveGameHeader.readHeader(dis);
+        byte[][] sections = header.readSections(dis);
+        SaveGameJournal.replay(SaveGameJournal.getJournalFile(file), header,
+            sections, turn);
+        starMap = new StarMap(sections);
+      } else {
+        bis.reset();
+        starMap = new StarMap(dis);
+      }
     } catch (IOException e) {
       System.out.println("Error while reading save file '"
           + filename + "': " + e.getMessage());
@@ -94,4 +159,32 @@ public class GameRepository {
     return starMap;
   }
 
+  /**
+   * Load only save game header from certain file name. Header is
+   * available only in sectioned save game files. If save game has turn
+   * journal header has turn and save time of the last journal record.
+   * @param folderName Folder name where to load saved games
+   * @param filename File name
+   * @return SaveGameHeader or null if file does not have header
+   * @throws IOException if reading fails
+   */
+  public SaveGameHeader loadHeader(final String folderName,
+      final String filename) throws IOException {
+    File file = new File(folderName + "/" + filename);
+    SaveGameHeader header = null;
+    try (FileInputStream is = new FileInputStream(file)) {
+      BufferedInputStream bis = new BufferedInputStream(is);
+      DataInputStream dis = new DataInputStream(bis);
+      String str = IOUtilities.readString(dis);
+      if (str.equals(SaveGameHeader.MAGIC_STRING)) {
+        header = SaveGameHeader.readHeader(dis);
+      }
+    }
+    if (header != null) {
+      SaveGameJournal.readLastTurn(SaveGameJournal.getJournalFile(file),
+          header);
+    }
+    return header;
+  }
+
 }
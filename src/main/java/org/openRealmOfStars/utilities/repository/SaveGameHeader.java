@@ -0,0 +1,452 @@
+package org.openRealmOfStars.utilities.repository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.openRealmOfStars.player.SpaceRace.SpaceRace;
+import org.openRealmOfStars.player.SpaceRace.SpaceRaceUtility;
+import org.openRealmOfStars.utilities.IOUtilities;
+
+/**
+*
+* Open Realm of Stars game project
+* Copyright (C) 2020 Tuomo Untinen
+*
+* This program is free software; you can redistribute it and/or
+* modify it under the terms of the GNU General Public License
+* as published by the Free Software Foundation; either version 2
+* of the License, or (at your option) any later version.
+*
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program; if not, see http://www.gnu.org/licenses/
+*
+*
+* Header of sectioned save game file. Header has magic string, turn,
+* map size, first player's race and empire name, save time and section
+* table. Section table has offset from beginning of the file and length
+* for each section. Sections follow the header in section order.
+* Each section is stored as chunk which has compression method,
+* uncompressed length and stored length before section data. Section
+* data is deflate compressed when it makes section smaller.
+*
+*/
+public class SaveGameHeader {
+
+  /**
+   * Magic string for sectioned save game files
+   */
+  public static final String MAGIC_STRING = "OROS-SAVE-GAME-0.17";
+
+  /**
+   * Section for turn, victory conditions and map size
+   */
+  public static final int SECTION_MAP = 0;
+
+  /**
+   * Section for map tiles and suns
+   */
+  public static final int SECTION_GALAXY = 1;
+
+  /**
+   * Section for player list
+   */
+  public static final int SECTION_PLAYERS = 2;
+
+  /**
+   * Section for planets
+   */
+  public static final int SECTION_PLANETS = 3;
+
+  /**
+   * Section for news corp data
+   */
+  public static final int SECTION_NEWS = 4;
+
+  /**
+   * Section for votes and tutorial
+   */
+  public static final int SECTION_VOTES = 5;
+
+  /**
+   * Section for history
+   */
+  public static final int SECTION_HISTORY = 6;
+
+  /**
+   * Number of sections in save game file
+   */
+  public static final int NUMBER_OF_SECTIONS = 7;
+
+  /**
+   * Size of single section table entry in bytes: id, offset and length
+   */
+  private static final int TABLE_ENTRY_SIZE = 4 + 8 + 8;
+
+  /**
+   * Section data is stored as is
+   */
+  public static final byte COMPRESSION_NONE = 0;
+
+  /**
+   * Section data is deflate compressed
+   */
+  public static final byte COMPRESSION_DEFLATE = 1;
+
+  /**
+   * Size of chunk header in bytes: method, uncompressed and stored length
+   */
+  private static final int CHUNK_HEADER_SIZE = 1 + 4 + 4;
+
+  /**
+   * Sections smaller than this are not compressed
+   */
+  private static final int MIN_COMPRESS_SIZE = 64;
+
+  /**
+   * Buffer size for compressing section data
+   */
+  private static final int BUFFER_SIZE = 8192;
+
+  /**
+   * Turn number
+   */
+  private int turn;
+
+  /**
+   * Map width
+   */
+  private int maxX;
+
+  /**
+   * Map height
+   */
+  private int maxY;
+
+  /**
+   * First player's race
+   */
+  private SpaceRace race;
+
+  /**
+   * First player's empire name
+   */
+  private String empireName;
+
+  /**
+   * Time when game was saved in milli seconds
+   */
+  private long saveTime;
+
+  /**
+   * Section offsets from beginning of the file
+   */
+  private long[] offsets;
+
+  /**
+   * Section lengths in bytes
+   */
+  private long[] lengths;
+
+  /**
+   * Create header for saving game.
+   * @param turn Turn number
+   * @param maxX Map width
+   * @param maxY Map height
+   * @param race First player's race
+   * @param empireName First player's empire name
+   * @param saveTime Save time in milli seconds
+   */
+  public SaveGameHeader(final int turn, final int maxX, final int maxY,
+      final SpaceRace race, final String empireName, final long saveTime) {
+    this.turn = turn;
+    this.maxX = maxX;
+    this.maxY = maxY;
+    this.race = race;
+    this.empireName = empireName;
+    this.saveTime = saveTime;
+    offsets = new long[NUMBER_OF_SECTIONS];
+    lengths = new long[NUMBER_OF_SECTIONS];
+  }
+
+  /**
+   * Read header after magic string has been read.
+   * @param dis DataInputStream
+   * @return SaveGameHeader
+   * @throws IOException if there is any problem with DataInputStream
+   */
+  public static SaveGameHeader readHeader(final DataInputStream dis)
+      throws IOException {
+    int turn = dis.readInt();
+    int maxX = dis.readInt();
+    int maxY = dis.readInt();
+    SpaceRace race = SpaceRaceUtility.getRaceByIndex(dis.readInt());
+    String empireName = IOUtilities.readString(dis);
+    long saveTime = dis.readLong();
+    SaveGameHeader header = new SaveGameHeader(turn, maxX, maxY, race,
+        empireName, saveTime);
+    int count = dis.readInt();
+    if (count < NUMBER_OF_SECTIONS) {
+      throw new IOException("Save game file is missing sections!");
+    }
+    for (int i = 0; i < count; i++) {
+      int id = dis.readInt();
+      long offset = dis.readLong();
+      long length = dis.readLong();
+      if (id >= 0 && id < NUMBER_OF_SECTIONS) {
+        header.offsets[id] = offset;
+        header.lengths[id] = length;
+      }
+    }
+    return header;
+  }
+
+  /**
+   * Write header, section table and sections. Sections are given in
+   * section order as uncompressed data.
+   * @param dos DataOutputStream
+   * @param sections Section data for each section
+   * @throws IOException if there is any problem with DataOutputStream
+   */
+  public void writeHeader(final DataOutputStream dos,
+      final byte[][] sections) throws IOException {
+    int start = dos.size();
+    IOUtilities.writeString(dos, MAGIC_STRING);
+    dos.writeInt(turn);
+    dos.writeInt(maxX);
+    dos.writeInt(maxY);
+    dos.writeInt(race.getIndex());
+    IOUtilities.writeString(dos, empireName);
+    dos.writeLong(saveTime);
+    dos.writeInt(sections.length);
+    byte[][] chunks = new byte[sections.length][];
+    for (int i = 0; i < sections.length; i++) {
+      chunks[i] = createChunk(sections[i]);
+    }
+    long offset = dos.size() - start + sections.length * TABLE_ENTRY_SIZE;
+    for (int i = 0; i < chunks.length; i++) {
+      offsets[i] = offset;
+      lengths[i] = chunks[i].length;
+      dos.writeInt(i);
+      dos.writeLong(offset);
+      dos.writeLong(lengths[i]);
+      offset = offset + chunks[i].length;
+    }
+    for (int i = 0; i < chunks.length; i++) {
+      dos.write(chunks[i]);
+    }
+  }
+
+  /**
+   * Create chunk from section data. Data is compressed if it makes
+   * chunk smaller.
+   * @param data Uncompressed section data
+   * @return Chunk with chunk header
+   */
+  static byte[] createChunk(final byte[] data) {
+    byte method = COMPRESSION_NONE;
+    byte[] stored = data;
+    if (data.length >= MIN_COMPRESS_SIZE) {
+      byte[] compressed = deflate(data);
+      if (compressed.length < data.length) {
+        method = COMPRESSION_DEFLATE;
+        stored = compressed;
+      }
+    }
+    ByteBuffer buffer = ByteBuffer.allocate(CHUNK_HEADER_SIZE
+        + stored.length);
+    buffer.put(method);
+    buffer.putInt(data.length);
+    buffer.putInt(stored.length);
+    buffer.put(stored);
+    return buffer.array();
+  }
+
+  /**
+   * Deflate compress data.
+   * @param data Data to compress
+   * @return Compressed data
+   */
+  private static byte[] deflate(final byte[] data) {
+    Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    ByteArrayOutputStream bos = new ByteArrayOutputStream(BUFFER_SIZE);
+    byte[] buffer = new byte[BUFFER_SIZE];
+    try {
+      deflater.setInput(data);
+      deflater.finish();
+      while (!deflater.finished()) {
+        int len = deflater.deflate(buffer);
+        bos.write(buffer, 0, len);
+      }
+    } finally {
+      deflater.end();
+    }
+    return bos.toByteArray();
+  }
+
+  /**
+   * Read section data from chunk.
+   * @param chunk Chunk with chunk header
+   * @return Uncompressed section data
+   * @throws IOException if chunk is corrupted
+   */
+  static byte[] readChunk(final byte[] chunk) throws IOException {
+    if (chunk.length < CHUNK_HEADER_SIZE) {
+      throw new IOException("Save game section is too short!");
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(chunk);
+    byte method = buffer.get();
+    int length = buffer.getInt();
+    int storedLength = buffer.getInt();
+    if (storedLength != buffer.remaining() || length < 0) {
+      throw new IOException("Save game section has invalid length!");
+    }
+    if (method == COMPRESSION_NONE) {
+      byte[] data = new byte[length];
+      buffer.get(data);
+      return data;
+    }
+    if (method != COMPRESSION_DEFLATE) {
+      throw new IOException("Unknown save game compression " + method);
+    }
+    byte[] data = new byte[length];
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(chunk, CHUNK_HEADER_SIZE, storedLength);
+      int pos = 0;
+      while (pos < length) {
+        int len = inflater.inflate(data, pos, length - pos);
+        if (len == 0 && (inflater.needsInput() || inflater.finished())) {
+          throw new IOException("Save game section ends too early!");
+        }
+        pos = pos + len;
+      }
+    } catch (DataFormatException e) {
+      throw new IOException("Save game section is corrupted! "
+          + e.getMessage());
+    } finally {
+      inflater.end();
+    }
+    return data;
+  }
+
+  /**
+   * Read all sections from stream. Stream must be right after the header.
+   * @param dis DataInputStream
+   * @return Uncompressed data for each section
+   * @throws IOException if sections are corrupted or stream ends
+   */
+  public byte[][] readSections(final DataInputStream dis)
+      throws IOException {
+    byte[][] sections = new byte[NUMBER_OF_SECTIONS][];
+    for (int i = 0; i < NUMBER_OF_SECTIONS; i++) {
+      byte[] chunk = new byte[(int) lengths[i]];
+      dis.readFully(chunk);
+      sections[i] = readChunk(chunk);
+    }
+    return sections;
+  }
+
+  /**
+   * Is header from same game as other header. Game is same if map size
+   * and first player's race and empire name are same.
+   * @param other Other header
+   * @return True if same game
+   */
+  public boolean isSameGame(final SaveGameHeader other) {
+    return other != null && maxX == other.maxX && maxY == other.maxY
+        && race == other.race && empireName.equals(other.empireName);
+  }
+
+  /**
+   * Get turn number
+   * @return Turn number
+   */
+  public int getTurn() {
+    return turn;
+  }
+
+  /**
+   * Set turn number
+   * @param turn Turn number
+   */
+  void setTurn(final int turn) {
+    this.turn = turn;
+  }
+
+  /**
+   * Get map width
+   * @return Map width
+   */
+  public int getMaxX() {
+    return maxX;
+  }
+
+  /**
+   * Get map height
+   * @return Map height
+   */
+  public int getMaxY() {
+    return maxY;
+  }
+
+  /**
+   * Get first player's race
+   * @return Space race
+   */
+  public SpaceRace getRace() {
+    return race;
+  }
+
+  /**
+   * Get first player's empire name
+   * @return Empire name
+   */
+  public String getEmpireName() {
+    return empireName;
+  }
+
+  /**
+   * Get time when game was saved
+   * @return Save time in milli seconds
+   */
+  public long getSaveTime() {
+    return saveTime;
+  }
+
+  /**
+   * Set time when game was saved
+   * @param saveTime Save time in milli seconds
+   */
+  void setSaveTime(final long saveTime) {
+    this.saveTime = saveTime;
+  }
+
+  /**
+   * Get section offset from beginning of the file
+   * @param section Section, see SECTION_*
+   * @return Offset in bytes
+   */
+  public long getSectionOffset(final int section) {
+    return offsets[section];
+  }
+
+  /**
+   * Get section length as stored in file
+   * @param section Section, see SECTION_*
+   * @return Length in bytes
+   */
+  public long getSectionLength(final int section) {
+    return lengths[section];
+  }
+}
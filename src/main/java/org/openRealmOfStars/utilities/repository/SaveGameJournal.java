@@ -0,0 +1,307 @@
+package org.openRealmOfStars.utilities.repository;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.openRealmOfStars.utilities.ErrorLogger;
+import org.openRealmOfStars.utilities.IOUtilities;
+
+/**
+*
+* Open Realm of Stars game project
+* Copyright (C) 2020 Tuomo Untinen
+*
+* This program is free software; you can redistribute it and/or
+* modify it under the terms of the GNU General Public License
+* as published by the Free Software Foundation; either version 2
+* of the License, or (at your option) any later version.
+*
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program; if not, see http://www.gnu.org/licenses/
+*
+*
+* Append only turn journal for sectioned save game. Journal belongs to
+* checkpoint save game file with same name and ".journal" extension.
+* Journal starts with magic string and checkpoint's save time. Each
+* record has turn, save time and deltas of those sections which changed
+* since previous record. Loading replays records onto checkpoint
+* sections.
+* Record which was not completely written is ignored.
+*
+*/
+public final class SaveGameJournal {
+
+  /**
+   * Magic string for journal files
+   */
+  public static final String MAGIC_STRING = "OROS-SAVE-JOURNAL-0.2";
+
+  /**
+   * Journal file extension added after save game file name
+   */
+  public static final String JOURNAL_EXTENSION = ".journal";
+
+  /**
+   * Hidden constructor.
+   */
+  private SaveGameJournal() {
+    // Nothing to do
+  }
+
+  /**
+   * Get journal file for save game file.
+   * @param saveFile Save game file
+   * @return Journal file
+   */
+  public static File getJournalFile(final File saveFile) {
+    return new File(saveFile.getPath() + JOURNAL_EXTENSION);
+  }
+
+  /**
+   * Create empty journal for checkpoint. Existing journal is replaced.
+   * @param journal Journal file
+   * @param checkpointTime Save time of the checkpoint
+   * @throws IOException if writing fails
+   */
+  public static void create(final File journal, final long checkpointTime)
+      throws IOException {
+    try (FileOutputStream os = new FileOutputStream(journal)) {
+      DataOutputStream dos = new DataOutputStream(
+          new BufferedOutputStream(os));
+      IOUtilities.writeString(dos, MAGIC_STRING);
+      dos.writeLong(checkpointTime);
+      dos.flush();
+      os.getFD().sync();
+    }
+  }
+
+  /**
+   * Append record with deltas of changed sections to journal.
+   * @param journal Journal file
+   * @param turn Turn number
+   * @param saveTime Save time in milli seconds
+   * @param previous Section data in previous record or checkpoint
+   * @param current Current section data
+   * @return Number of changed sections
+   * @throws IOException if writing fails
+   */
+  public static int append(final File journal, final int turn,
+      final long saveTime, final byte[][] previous, final byte[][] current)
+      throws IOException {
+    int changed = 0;
+    for (int i = 0; i < current.length; i++) {
+      if (!Arrays.equals(previous[i], current[i])) {
+        changed++;
+      }
+    }
+    try (FileOutputStream os = new FileOutputStream(journal, true)) {
+      DataOutputStream dos = new DataOutputStream(
+          new BufferedOutputStream(os));
+      dos.writeInt(turn);
+      dos.writeLong(saveTime);
+      dos.writeInt(changed);
+      for (int i = 0; i < current.length; i++) {
+        if (!Arrays.equals(previous[i], current[i])) {
+          byte[] chunk = SaveGameHeader.createChunk(
+              SectionDelta.create(previous[i], current[i]));
+          dos.writeInt(i);
+          dos.writeInt(chunk.length);
+          dos.write(chunk);
+        }
+      }
+      dos.flush();
+      os.getFD().sync();
+    }
+    return changed;
+  }
+
+  /**
+   * Open journal and check that it belongs to the checkpoint.
+   * @param journal Journal file
+   * @param checkpointTime Save time of the checkpoint
+   * @return DataInputStream positioned at first record or null if
+   *         journal does not exist or belongs to other checkpoint
+   * @throws IOException if reading fails
+   */
+  private static DataInputStream open(final File journal,
+      final long checkpointTime) throws IOException {
+    if (!journal.exists()) {
+      return null;
+    }
+    DataInputStream dis = new DataInputStream(new BufferedInputStream(
+        new FileInputStream(journal)));
+    try {
+      if (IOUtilities.readString(dis).equals(MAGIC_STRING)
+          && dis.readLong() == checkpointTime) {
+        return dis;
+      }
+    } catch (IOException e) {
+      // Journal header is incomplete or corrupted
+    }
+    dis.close();
+    return null;
+  }
+
+  /**
+   * Replay journal records onto checkpoint sections. Header's turn and
+   * save time are updated to match last replayed record. Replay stops
+   * at first record which is incomplete or corrupted, so checkpoint
+   * and records before it are still loaded.
+   * @param journal Journal file
+   * @param header Checkpoint header
+   * @param sections Checkpoint section data, updated by records
+   * @param maxTurn Last turn to replay
+   * @return Number of replayed records
+   * @throws IOException if opening journal fails
+   */
+  public static int replay(final File journal, final SaveGameHeader header,
+      final byte[][] sections, final int maxTurn) throws IOException {
+    DataInputStream dis = open(journal, header.getSaveTime());
+    if (dis == null) {
+      return 0;
+    }
+    int records = 0;
+    try {
+      while (true) {
+        int turn = dis.readInt();
+        long saveTime = dis.readLong();
+        if (turn > maxTurn) {
+          break;
+        }
+        int count = readCount(dis, sections.length);
+        int[] ids = new int[count];
+        byte[][] chunks = new byte[count][];
+        for (int i = 0; i < count; i++) {
+          ids[i] = dis.readInt();
+          chunks[i] = new byte[readLength(dis, journal)];
+          dis.readFully(chunks[i]);
+        }
+        // Record is applied only after it has been completely read
+        byte[][] applied = new byte[count][];
+        for (int i = 0; i < count; i++) {
+          if (ids[i] >= 0 && ids[i] < sections.length) {
+            applied[i] = SectionDelta.apply(sections[ids[i]],
+                SaveGameHeader.readChunk(chunks[i]));
+          }
+        }
+        for (int i = 0; i < count; i++) {
+          if (applied[i] != null) {
+            sections[ids[i]] = applied[i];
+          }
+        }
+        header.setTurn(turn);
+        header.setSaveTime(saveTime);
+        records++;
+      }
+    } catch (EOFException e) {
+      // End of journal or last record was not completely written
+    } catch (IOException e) {
+      ErrorLogger.log("Journal record after turn " + header.getTurn()
+          + " is corrupted, loading stops there! " + e.getMessage());
+    } finally {
+      dis.close();
+    }
+    return records;
+  }
+
+  /**
+   * Read number of sections in record.
+   * @param dis DataInputStream
+   * @param maxCount Maximum number of sections
+   * @return Number of sections
+   * @throws IOException if number of sections is not valid
+   */
+  private static int readCount(final DataInputStream dis,
+      final int maxCount) throws IOException {
+    int count = dis.readInt();
+    if (count < 0 || count > maxCount) {
+      throw new IOException("Invalid number of sections " + count);
+    }
+    return count;
+  }
+
+  /**
+   * Read length of section chunk in record.
+   * @param dis DataInputStream
+   * @param journal Journal file
+   * @return Chunk length
+   * @throws IOException if chunk length is not valid
+   */
+  private static int readLength(final DataInputStream dis,
+      final File journal) throws IOException {
+    int length = dis.readInt();
+    if (length < 0 || length > journal.length()) {
+      throw new IOException("Invalid section length " + length);
+    }
+    return length;
+  }
+
+  /**
+   * Read only turn and save time of the last complete record into
+   * header without reading section data.
+   * @param journal Journal file
+   * @param header Checkpoint header
+   * @return Number of records in journal
+   * @throws IOException if opening journal fails
+   */
+  public static int readLastTurn(final File journal,
+      final SaveGameHeader header) throws IOException {
+    DataInputStream dis = open(journal, header.getSaveTime());
+    if (dis == null) {
+      return 0;
+    }
+    int records = 0;
+    try {
+      while (true) {
+        int turn = dis.readInt();
+        long saveTime = dis.readLong();
+        int count = readCount(dis, SaveGameHeader.NUMBER_OF_SECTIONS);
+        for (int i = 0; i < count; i++) {
+          dis.readInt();
+          skipFully(dis, readLength(dis, journal));
+        }
+        header.setTurn(turn);
+        header.setSaveTime(saveTime);
+        records++;
+      }
+    } catch (EOFException e) {
+      // End of journal or last record was not completely written
+    } catch (IOException e) {
+      // Loading stops at corrupted record
+    } finally {
+      dis.close();
+    }
+    return records;
+  }
+
+  /**
+   * Skip bytes from stream.
+   * @param dis DataInputStream
+   * @param length Number of bytes to skip
+   * @throws IOException if stream ends before all bytes are skipped
+   */
+  private static void skipFully(final DataInputStream dis, final int length)
+      throws IOException {
+    int left = length;
+    while (left > 0) {
+      int skipped = dis.skipBytes(left);
+      if (skipped <= 0) {
+        throw new EOFException("Journal ends in middle of record");
+      }
+      left = left - skipped;
+    }
+  }
+}
@@ -0,0 +1,229 @@
+package org.openRealmOfStars.utilities.repository;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+
+/**
+*
+* Open Realm of Stars game project
+* Copyright (C) 2020 Tuomo Untinen
+*
+* This program is free software; you can redistribute it and/or
+* modify it under the terms of the GNU General Public License
+* as published by the Free Software Foundation; either version 2
+* of the License, or (at your option) any later version.
+*
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program; if not, see http://www.gnu.org/licenses/
+*
+*
+* Byte level delta between two versions of save game section.
+* Delta starts with target length and continues with operations which
+* either copy bytes from base section or insert new bytes. Unchanged
+* parts of section are found by hashing fixed size blocks of base.
+*
+*/
+public final class SectionDelta {
+
+  /**
+   * Block size used for finding matching bytes
+   */
+  private static final int BLOCK_SIZE = 32;
+
+  /**
+   * Operation which copies bytes from base section
+   */
+  private static final byte OPERATION_COPY = 0;
+
+  /**
+   * Operation which inserts bytes from delta
+   */
+  private static final byte OPERATION_INSERT = 1;
+
+  /**
+   * Multiplier for rolling hash
+   */
+  private static final int HASH_MULTIPLIER = 31;
+
+  /**
+   * Hidden constructor.
+   */
+  private SectionDelta() {
+    // Nothing to do
+  }
+
+  /**
+   * Calculate hash for block.
+   * @param data Byte array
+   * @param offset Start of block
+   * @return Hash value
+   */
+  private static int hashBlock(final byte[] data, final int offset) {
+    int hash = 0;
+    for (int i = 0; i < BLOCK_SIZE; i++) {
+      hash = hash * HASH_MULTIPLIER + (data[offset + i] & 0xff);
+    }
+    return hash;
+  }
+
+  /**
+   * Check if blocks are equal.
+   * @param base Base data
+   * @param baseOffset Start of base block
+   * @param target Target data
+   * @param targetOffset Start of target block
+   * @return True if blocks are equal
+   */
+  private static boolean blockEquals(final byte[] base, final int baseOffset,
+      final byte[] target, final int targetOffset) {
+    for (int i = 0; i < BLOCK_SIZE; i++) {
+      if (base[baseOffset + i] != target[targetOffset + i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Write insert operation if there are bytes to insert.
+   * @param dos DataOutputStream
+   * @param target Target data
+   * @param start Start of inserted bytes
+   * @param end End of inserted bytes, exclusive
+   * @throws IOException if writing fails
+   */
+  private static void writeInsert(final DataOutputStream dos,
+      final byte[] target, final int start, final int end)
+      throws IOException {
+    if (end > start) {
+      dos.writeByte(OPERATION_INSERT);
+      dos.writeInt(end - start);
+      dos.write(target, start, end - start);
+    }
+  }
+
+  /**
+   * Create delta which turns base section into target section.
+   * @param base Base section data
+   * @param target Target section data
+   * @return Delta
+   */
+  public static byte[] create(final byte[] base, final byte[] target) {
+    HashMap<Integer, Integer> blocks = new HashMap<>();
+    for (int i = 0; i + BLOCK_SIZE <= base.length; i = i + BLOCK_SIZE) {
+      Integer hash = Integer.valueOf(hashBlock(base, i));
+      if (!blocks.containsKey(hash)) {
+        blocks.put(hash, Integer.valueOf(i));
+      }
+    }
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    DataOutputStream dos = new DataOutputStream(bos);
+    try {
+      dos.writeInt(target.length);
+      int power = 1;
+      for (int i = 1; i < BLOCK_SIZE; i++) {
+        power = power * HASH_MULTIPLIER;
+      }
+      int insertStart = 0;
+      int pos = 0;
+      int hash = 0;
+      if (target.length >= BLOCK_SIZE) {
+        hash = hashBlock(target, 0);
+      }
+      while (pos + BLOCK_SIZE <= target.length) {
+        Integer match = blocks.get(Integer.valueOf(hash));
+        if (match != null
+            && blockEquals(base, match.intValue(), target, pos)) {
+          int baseStart = match.intValue();
+          int targetStart = pos;
+          // Extend match backwards over pending insert
+          while (targetStart > insertStart && baseStart > 0
+              && base[baseStart - 1] == target[targetStart - 1]) {
+            baseStart--;
+            targetStart--;
+          }
+          int length = pos - targetStart + BLOCK_SIZE;
+          // Extend match forwards
+          while (targetStart + length < target.length
+              && baseStart + length < base.length
+              && base[baseStart + length] == target[targetStart + length]) {
+            length++;
+          }
+          writeInsert(dos, target, insertStart, targetStart);
+          dos.writeByte(OPERATION_COPY);
+          dos.writeInt(baseStart);
+          dos.writeInt(length);
+          pos = targetStart + length;
+          insertStart = pos;
+          if (pos + BLOCK_SIZE <= target.length) {
+            hash = hashBlock(target, pos);
+          }
+        } else {
+          if (pos + BLOCK_SIZE < target.length) {
+            hash = (hash - (target[pos] & 0xff) * power) * HASH_MULTIPLIER
+                + (target[pos + BLOCK_SIZE] & 0xff);
+          }
+          pos++;
+        }
+      }
+      writeInsert(dos, target, insertStart, target.length);
+      dos.flush();
+    } catch (IOException e) {
+      // Writing into byte array does not fail
+      throw new IllegalStateException(e);
+    }
+    return bos.toByteArray();
+  }
+
+  /**
+   * Apply delta into base section.
+   * @param base Base section data
+   * @param delta Delta created against base
+   * @return Target section data
+   * @throws IOException if delta does not match base
+   */
+  public static byte[] apply(final byte[] base, final byte[] delta)
+      throws IOException {
+    DataInputStream dis = new DataInputStream(
+        new ByteArrayInputStream(delta));
+    int length = dis.readInt();
+    if (length < 0) {
+      throw new IOException("Invalid section delta length " + length);
+    }
+    byte[] target = new byte[length];
+    int pos = 0;
+    while (pos < length) {
+      byte operation = dis.readByte();
+      if (operation == OPERATION_COPY) {
+        int offset = dis.readInt();
+        int count = dis.readInt();
+        if (offset < 0 || count < 0 || offset > base.length - count
+            || count > length - pos) {
+          throw new IOException("Section delta copies outside of section");
+        }
+        System.arraycopy(base, offset, target, pos, count);
+        pos = pos + count;
+      } else if (operation == OPERATION_INSERT) {
+        int count = dis.readInt();
+        if (count < 0 || count > length - pos) {
+          throw new IOException("Section delta inserts outside of section");
+        }
+        dis.readFully(target, pos, count);
+        pos = pos + count;
+      } else {
+        throw new IOException("Unknown section delta operation "
+            + operation);
+      }
+    }
+    return target;
+  }
+}
@@ -0,0 +1,116 @@
+package org.openRealmOfStars.utilities.repository;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+*
+* Open Realm of Stars game project
+* Copyright (C) 2020 Tuomo Untinen
+*
+* This program is free software; you can redistribute it and/or
+* modify it under the terms of the GNU General Public License
+* as published by the Free Software Foundation; either version 2
+* of the License, or (at your option) any later version.
+*
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program; if not, see http://www.gnu.org/licenses/
+*
+*
+* Section loader parses single save game section on background thread.
+* Caller gets parsed object when it is needed and waits only if parsing
+* has not yet finished.
+*
+* @param <T> Type of parsed object
+*/
+public abstract class SectionLoader<T> implements Callable<T> {
+
+  /**
+   * Uncompressed section data
+   */
+  private final byte[] data;
+
+  /**
+   * Task parsing the section
+   */
+  private final FutureTask<T> task;
+
+  /**
+   * Create section loader. Call start() to begin parsing.
+   * @param data Uncompressed section data
+   */
+  public SectionLoader(final byte[] data) {
+    this.data = data;
+    task = new FutureTask<>(this);
+  }
+
+  /**
+   * Start parsing on background thread.
+   * @param name Name for the thread
+   * @return This section loader
+   */
+  public SectionLoader<T> start(final String name) {
+    Thread thread = new Thread(task, name);
+    thread.setDaemon(true);
+    thread.start();
+    return this;
+  }
+
+  /**
+   * Parse section data.
+   * @param dis DataInputStream for section data
+   * @return Parsed object
+   * @throws IOException if section data is not valid
+   */
+  protected abstract T read(DataInputStream dis) throws IOException;
+
+  @Override
+  public T call() throws IOException {
+    return read(new DataInputStream(new ByteArrayInputStream(data)));
+  }
+
+  /**
+   * Get uncompressed section data which is parsed.
+   * @return Uncompressed section data
+   */
+  public byte[] getData() {
+    return data;
+  }
+
+  /**
+   * Get parsed object. Waits until parsing has finished.
+   * @return Parsed object
+   * @throws IOException if parsing failed
+   */
+  public T get() throws IOException {
+    boolean interrupted = false;
+    try {
+      while (true) {
+        try {
+          return task.get();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException("Reading save game section failed!",
+          e.getCause());
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
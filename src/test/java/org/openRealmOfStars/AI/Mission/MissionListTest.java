@@ -249,4 +249,102 @@ public class MissionListTest {
     assertEquals(1, list.getNumberOfMissionTypes(MissionType.TRADE_FLEET));
   }
 
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testFleetIndex() {
+    MissionList list = new MissionList();
+    Coordinate coord = new Coordinate(1, 1);
+    Mission colonize = new Mission(MissionType.COLONIZE,
+        MissionPhase.LOADING, coord);
+    colonize.setFleetName("Fleet #1");
+    list.add(colonize);
+    Mission espionage = new Mission(MissionType.ESPIONAGE_MISSION,
+        MissionPhase.TREKKING, coord);
+    espionage.setFleetName("Fleet #2");
+    list.addHighestPriority(espionage);
+    assertEquals(colonize, list.getMissionForFleet("Fleet #1"));
+    assertEquals(colonize, list.getMissionForFleet("Fleet #1",
+        MissionType.COLONIZE));
+    assertEquals(null, list.getMissionForFleet("Fleet #1",
+        MissionType.ATTACK));
+    assertEquals(null, list.getMissionForFleet(null));
+    espionage.setFleetName("Fleet #1");
+    assertEquals(null, list.getMissionForFleet("Fleet #2"));
+    assertEquals(espionage, list.getMissionForFleet("Fleet #1"));
+    assertEquals(colonize, list.getMissionForFleet("Fleet #1",
+        MissionType.COLONIZE));
+    list.changeFleetName("Fleet #1", "Fleet #3");
+    assertEquals(null, list.getMissionForFleet("Fleet #1"));
+    assertEquals(espionage, list.getMissionForFleet("Fleet #3"));
+    list.remove(espionage);
+    assertEquals(colonize, list.getMissionForFleet("Fleet #3"));
+    // Removed mission does not affect the list anymore
+    espionage.setFleetName("Fleet #4");
+    assertEquals(null, list.getMissionForFleet("Fleet #4"));
+    list.deleteMissionForFleet("Fleet #3");
+    assertEquals(0, list.getSize());
+    assertEquals(null, list.getMissionForFleet("Fleet #3"));
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testTypePhaseAndPlanetIndex() {
+    MissionList list = new MissionList();
+    Coordinate coord = new Coordinate(2, 3);
+    Mission explore = new Mission(MissionType.EXPLORE,
+        MissionPhase.PLANNING, null);
+    list.add(explore);
+    Mission gather = new Mission(MissionType.GATHER,
+        MissionPhase.PLANNING, coord);
+    gather.setShipType(Mission.TROOPER_TYPE);
+    gather.setTargetPlanet("Target I");
+    list.add(gather);
+    Mission colonize = new Mission(MissionType.COLONIZE,
+        MissionPhase.PLANNING, coord);
+    colonize.setPlanetBuilding("Home I");
+    list.addHighestPriority(colonize);
+    Mission gather2 = new Mission(MissionType.GATHER,
+        MissionPhase.PLANNING, coord);
+    gather2.setShipType(Mission.BOMBER_TYPE);
+    gather2.setTargetPlanet("Target I");
+    list.addPriorityAfter(gather2, colonize);
+    assertEquals(gather2, list.getMission(MissionType.GATHER,
+        MissionPhase.PLANNING));
+    assertEquals(2, list.getMissions(MissionType.GATHER,
+        MissionPhase.PLANNING).length);
+    assertEquals(gather2, list.getMissions(MissionType.GATHER,
+        MissionPhase.PLANNING)[0]);
+    assertEquals(gather, list.getGatherMission(Mission.TROOPER_TYPE));
+    assertEquals(colonize, list.getColonizeMission(2, 3));
+    assertEquals(colonize, list.getMissionForPlanet("Home I",
+        MissionType.COLONIZE));
+    assertEquals(colonize, list.getMissionForPlanet("Home I",
+        MissionPhase.PLANNING));
+    assertEquals(1, list.getNumberOfMissionTypes(MissionType.EXPLORE));
+    assertEquals(2, list.getNumberOfMissionTypes(MissionType.GATHER));
+    gather2.setPhase(MissionPhase.TREKKING);
+    assertEquals(gather, list.getMission(MissionType.GATHER,
+        MissionPhase.PLANNING));
+    assertEquals(null, list.getGatherMission(Mission.BOMBER_TYPE));
+    assertEquals(2, list.getNumberOfMissionTypes(MissionType.GATHER));
+    colonize.setPhase(MissionPhase.BUILDING);
+    assertEquals(null, list.getMissionForPlanet("Home I",
+        MissionPhase.PLANNING));
+    assertEquals(colonize, list.getMissionForPlanet("Home I",
+        MissionPhase.BUILDING));
+    colonize.setPlanetBuilding("Home II");
+    assertEquals(null, list.getMissionForPlanet("Home I",
+        MissionType.COLONIZE));
+    assertEquals(colonize, list.getMissionForPlanet("Home II",
+        MissionType.COLONIZE));
+    explore.setType(MissionType.COLONY_EXPLORE);
+    assertEquals(0, list.getNumberOfMissionTypes(MissionType.EXPLORE));
+    assertEquals(false, list.noMoreGatherMissions("Target I"));
+    list.remove(gather);
+    list.remove(gather2);
+    assertEquals(true, list.noMoreGatherMissions("Target I"));
+    assertEquals(null, list.getMission(MissionType.GATHER,
+        MissionPhase.TREKKING));
+  }
+
 }
@@ -64,7 +64,8 @@ public class AStarTest {
       test.nextMove();
     }
     assertEquals(1,test.getTargetDistance());
-    assertEquals(5,steps);
+    // Shortest route has five moves, the loop does not count the last one
+    assertEquals(4,steps);
   }
 
   @Test
@@ -0,0 +1,89 @@
+package org.openRealmOfStars.AI.PathFinding;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ *
+ * Open Realm of Stars game project
+ * Copyright (C) 2020  Tuomo Untinen
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses/
+ *
+ *
+ * Test for PathfindingWorkspace class
+ */
+
+public class PathfindingWorkspaceTest {
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testHeapOrder() {
+    PathfindingWorkspace workspace = new PathfindingWorkspace();
+    workspace.startSearch(1000);
+    assertTrue(workspace.isEmpty());
+    for (int i = 0; i < 1000; i++) {
+      workspace.push(i, (i * 7919) % 100, 0);
+    }
+    int previousKey = -1;
+    for (int i = 0; i < 1000; i++) {
+      int node = workspace.pop();
+      int key = (node * 7919) % 100;
+      assertTrue(key >= previousKey);
+      previousKey = key;
+    }
+    assertTrue(workspace.isEmpty());
+    assertEquals(-1, workspace.pop());
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testHeapTieBreak() {
+    PathfindingWorkspace workspace = new PathfindingWorkspace();
+    workspace.startSearch(10);
+    workspace.push(1, 5, 2);
+    workspace.push(2, 5, 1);
+    workspace.push(3, 5, 1);
+    workspace.push(4, 4, 3);
+    assertEquals(4, workspace.pop());
+    assertEquals(2, workspace.pop());
+    assertEquals(3, workspace.pop());
+    assertEquals(1, workspace.pop());
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testNewSearchForgetsNodes() {
+    PathfindingWorkspace workspace = new PathfindingWorkspace();
+    workspace.startSearch(10);
+    workspace.setReached(3, 2, 1);
+    workspace.setClosed(3);
+    workspace.setBlocked(4, true);
+    workspace.push(3, 1, 1);
+    assertTrue(workspace.isReached(3));
+    assertEquals(2, workspace.getCost(3));
+    assertEquals(1, workspace.getParent(3));
+    assertTrue(workspace.isClosed(3));
+    assertTrue(workspace.isBlockChecked(4));
+    assertTrue(workspace.isBlocked(4));
+    workspace.startSearch(10);
+    assertTrue(workspace.isEmpty());
+    assertFalse(workspace.isReached(3));
+    assertFalse(workspace.isClosed(3));
+    assertFalse(workspace.isBlockChecked(4));
+  }
+
+}
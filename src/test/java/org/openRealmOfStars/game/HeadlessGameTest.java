@@ -0,0 +1,201 @@
+package org.openRealmOfStars.game;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.openRealmOfStars.starMap.GalaxyConfig;
+import org.openRealmOfStars.starMap.StarMap;
+
+/**
+*
+* Open Realm of Stars game project
+* Copyright (C) 2020 Tuomo Untinen
+*
+* This program is free software; you can redistribute it and/or
+* modify it under the terms of the GNU General Public License
+* as published by the Free Software Foundation; either version 2
+* of the License, or (at your option) any later version.
+*
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program; if not, see http://www.gnu.org/licenses/
+*
+* Test for HeadlessGame class
+*
+*/
+public class HeadlessGameTest {
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testParseConfig() {
+    String[] args = {"--simulate", "6", "75", "300"};
+    GalaxyConfig config = HeadlessGame.parseConfig(args);
+    assertEquals(6, config.getMaxPlayers());
+    assertEquals(75, config.getSizeX());
+    assertEquals(75, config.getSizeY());
+    assertEquals(300, config.getScoringVictoryTurns());
+    assertEquals(GalaxyConfig.START_POSITION_RANDOM,
+        config.getStartingPosition());
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testParseConfigDefaults() {
+    String[] args = {"--simulate"};
+    GalaxyConfig config = HeadlessGame.parseConfig(args);
+    GalaxyConfig defaultConfig = new GalaxyConfig();
+    assertEquals(defaultConfig.getMaxPlayers(), config.getMaxPlayers());
+    assertEquals(defaultConfig.getSizeX(), config.getSizeX());
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testParseConfigSeed() {
+    String[] args = {"--simulate", "4", "50", "200", "1234"};
+    GalaxyConfig config = HeadlessGame.parseConfig(args);
+    GalaxyConfig config2 = HeadlessGame.parseConfig(args);
+    assertTrue(config.hasSeed());
+    assertEquals(1234, config.getSeed());
+    for (int i = 0; i < config.getMaxPlayers(); i++) {
+      assertEquals(config.getRace(i), config2.getRace(i));
+      assertEquals(config.getPlayerGovernment(i),
+          config2.getPlayerGovernment(i));
+    }
+    args = new String[] {"--simulate"};
+    config = HeadlessGame.parseConfig(args);
+    assertFalse(config.hasSeed());
+    args = new String[] {"--simulate", "4", "50", "200", "0"};
+    config = HeadlessGame.parseConfig(args);
+    assertTrue(config.hasSeed());
+    assertEquals(0, config.getSeed());
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.BehaviourTest.class)
+  public void testSeedIsSaved() throws IOException {
+    GalaxyConfig config = HeadlessGame.createConfig(0);
+    config.setMaxPlayers(4);
+    config.setSize(50, 1);
+    HeadlessGame headlessGame = new HeadlessGame(config);
+    headlessGame.makeNewGame();
+    headlessGame.playTurn();
+    StarMap map = headlessGame.getStarMap();
+    assertTrue(map.hasSeed());
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    DataOutputStream dos = new DataOutputStream(bos);
+    map.saveGame(dos);
+    dos.flush();
+    StarMap loaded = new StarMap(new DataInputStream(
+        new ByteArrayInputStream(bos.toByteArray())));
+    StarMap loaded2 = new StarMap(new DataInputStream(
+        new ByteArrayInputStream(bos.toByteArray())));
+    assertTrue(loaded.hasSeed());
+    assertEquals(0, loaded.getSeed());
+    for (int i = 0; i < 100; i++) {
+      assertEquals(loaded.getRandomContext().getRandom(1000),
+          loaded2.getRandomContext().getRandom(1000));
+    }
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testSimulateBadArguments() {
+    String[] args = {"--simulate", "eight"};
+    assertTrue(HeadlessGame.simulate(args).startsWith("Usage:"));
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.BehaviourTest.class)
+  public void testHeadlessGameHasNoViews() {
+    GalaxyConfig config = new GalaxyConfig();
+    config.setMaxPlayers(4);
+    config.setStartingPosition(GalaxyConfig.START_POSITION_RANDOM);
+    HeadlessGame headlessGame = new HeadlessGame(config);
+    headlessGame.makeNewGame();
+    Game game = headlessGame.getGame();
+    assertTrue(game.isHeadless());
+    assertFalse(game.getPlayers().getPlayerInfoByIndex(0).isHuman());
+    assertFalse(headlessGame.playTurn());
+    assertEquals(1, headlessGame.getTurnsPlayed());
+    assertEquals(1, headlessGame.getStarMap().getTurn());
+    assertEquals(GameState.AITURN, game.getGameState());
+    assertEquals(null, game.getStarMapView());
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.BehaviourTest.class)
+  public void testWinnerFromStarMap() {
+    GalaxyConfig config = new GalaxyConfig();
+    config.setMaxPlayers(4);
+    config.setStartingPosition(GalaxyConfig.START_POSITION_RANDOM);
+    HeadlessGame headlessGame = new HeadlessGame(config);
+    headlessGame.makeNewGame();
+    StarMap map = headlessGame.getStarMap();
+    assertEquals(-1, map.getWinnerIndex());
+    assertNull(headlessGame.getWinner());
+    map.setGameEnded(true);
+    assertNull(headlessGame.getWinner());
+    map.setWinnerIndex(1);
+    assertEquals(map.getPlayerByIndex(1), headlessGame.getWinner());
+    assertTrue(headlessGame.toJson().contains("\"winner\":{\"index\":1,"));
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.BehaviourTest.class)
+  public void testRunFullHeadlessGame() {
+    GalaxyConfig config = new GalaxyConfig();
+    config.setMaxPlayers(4);
+    config.setScoringVictoryTurns(200);
+    config.setStartingPosition(GalaxyConfig.START_POSITION_RANDOM);
+    HeadlessGame headlessGame = new HeadlessGame(config);
+    headlessGame.makeNewGame();
+    headlessGame.playGame();
+    assertTrue(headlessGame.getStarMap().isGameEnded());
+    assertFalse(headlessGame.getStarMap().getTurn()
+        > config.getScoringVictoryTurns());
+    assertNotNull(headlessGame.getWinner());
+    String json = headlessGame.toJson();
+    assertTrue(json.startsWith("{\"turns\":"));
+    assertTrue(json.contains("\"winner\":{"));
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.BehaviourTest.class)
+  public void testSeededGamesAreEqual() {
+    GalaxyConfig config = HeadlessGame.createConfig(2020);
+    config.setMaxPlayers(4);
+    HeadlessGame first = new HeadlessGame(config);
+    first.makeNewGame();
+    config = HeadlessGame.createConfig(2020);
+    config.setMaxPlayers(4);
+    HeadlessGame second = new HeadlessGame(config);
+    second.makeNewGame();
+    for (int i = 0; i < 20; i++) {
+      first.playTurn();
+      second.playTurn();
+    }
+    for (int i = 0; i < 4; i++) {
+      assertEquals(first.getStarMap().getPlayerByIndex(i).getTotalCredits(),
+          second.getStarMap().getPlayerByIndex(i).getTotalCredits());
+      assertEquals(first.getStarMap().getPlayerByIndex(i).getFleets()
+          .getNumberOfFleets(), second.getStarMap().getPlayerByIndex(i)
+          .getFleets().getNumberOfFleets());
+    }
+  }
+
+}
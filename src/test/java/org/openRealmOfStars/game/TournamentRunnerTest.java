@@ -0,0 +1,131 @@
+package org.openRealmOfStars.game;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.openRealmOfStars.player.SpaceRace.SpaceRace;
+import org.openRealmOfStars.player.government.GovernmentType;
+
+/**
+*
+* Open Realm of Stars game project
+* Copyright (C) 2020 Tuomo Untinen
+*
+* This program is free software; you can redistribute it and/or
+* modify it under the terms of the GNU General Public License
+* as published by the Free Software Foundation; either version 2
+* of the License, or (at your option) any later version.
+*
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program; if not, see http://www.gnu.org/licenses/
+*
+* Test for TournamentRunner class
+*
+*/
+public class TournamentRunnerTest {
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testDefaults() {
+    TournamentRunner runner = new TournamentRunner(null);
+    assertEquals(1, runner.getNumberOfGames());
+    assertTrue(runner.getNumberOfThreads() >= 1);
+    runner.setNumberOfThreads(0);
+    assertEquals(1, runner.getNumberOfThreads());
+    runner.setCsv(true);
+    assertTrue(runner.isCsv());
+    assertEquals(0, runner.getRaceWins(SpaceRace.HUMAN));
+    assertEquals(0, runner.getGovernmentWins(GovernmentType.EMPIRE));
+    assertTrue(runner.getSummary().startsWith("{\"games\":1,"));
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testFailingGamesDoNotStopBatch() {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    TournamentRunner runner = new TournamentRunner(new PrintStream(bytes)) {
+      @Override
+      protected HeadlessGame createGame(final int gameIndex) {
+        throw new IllegalStateException("Broken game " + gameIndex);
+      }
+    };
+    runner.setNumberOfGames(3);
+    runner.setNumberOfThreads(2);
+    runner.setFirstSeed(-1);
+    runner.run();
+    assertEquals(3, runner.getFailedGames());
+    String output = bytes.toString();
+    assertTrue(output.contains("{\"game\":0,\"seed\":-1,\"error\":"
+        + "\"IllegalStateException: Broken game 0\"}"));
+    assertTrue(output.contains("{\"game\":1,\"seed\":0,"));
+    assertTrue(output.contains("{\"game\":2,\"seed\":1,"));
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testFailingGameCsvLine() {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    TournamentRunner runner = new TournamentRunner(new PrintStream(bytes)) {
+      @Override
+      protected HeadlessGame createGame(final int gameIndex) {
+        throw new IllegalStateException("Broken, game");
+      }
+    };
+    runner.setFirstSeed(42);
+    runner.setCsv(true);
+    runner.run();
+    String[] lines = bytes.toString().split("\n");
+    assertEquals(TournamentRunner.CSV_HEADER, lines[0].trim());
+    String[] columns = lines[1].trim().split(",", -1);
+    assertEquals(TournamentRunner.CSV_HEADER.split(",").length,
+        columns.length);
+    assertEquals("0", columns[0]);
+    assertEquals("42", columns[1]);
+    assertEquals("IllegalStateException: Broken  game",
+        columns[columns.length - 1]);
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testBadArguments() {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    String[] args = {"--tournament", "many"};
+    TournamentRunner.tournament(args, new PrintStream(bytes), false);
+    assertTrue(bytes.toString().startsWith("Usage: --tournament"));
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.BehaviourTest.class)
+  public void testRunTournament() {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    TournamentRunner runner = new TournamentRunner(new PrintStream(bytes));
+    runner.setNumberOfGames(2);
+    runner.setNumberOfThreads(2);
+    runner.setMaxPlayers(4);
+    runner.setGalaxySize(50);
+    runner.setScoringVictoryTurns(200);
+    runner.setFirstSeed(100);
+    runner.setCsv(true);
+    runner.run();
+    assertEquals(0, runner.getFailedGames());
+    int wins = runner.getNoWinner();
+    for (SpaceRace race : SpaceRace.values()) {
+      wins = wins + runner.getRaceWins(race);
+    }
+    assertEquals(2, wins);
+    String[] lines = bytes.toString().split("\n");
+    assertEquals(3, lines.length);
+    assertEquals(TournamentRunner.CSV_HEADER, lines[0].trim());
+  }
+
+}
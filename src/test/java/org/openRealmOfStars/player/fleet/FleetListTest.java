@@ -173,5 +173,65 @@ public class FleetListTest {
     assertEquals("Fleet #6", fleets.generateUniqueName());
   }
 
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testNameIndexAfterRename() {
+    Ship ship = Mockito.mock(Ship.class);
+    Fleet fleet1 = new Fleet(ship, 1, 1);
+    fleet1.setName("Fleet #1");
+    Fleet fleet2 = new Fleet(ship, 2, 2);
+    fleet2.setName("Fleet #2");
+    FleetList fleets = new FleetList();
+    fleets.add(fleet1);
+    fleets.add(fleet2);
+    assertEquals(fleet2, fleets.getByName("Fleet #2"));
+    assertEquals(1, fleets.getIndexByName("Fleet #2"));
+    fleet2.setName("Scout #1");
+    assertEquals(null, fleets.getByName("Fleet #2"));
+    assertEquals(-1, fleets.getIndexByName("Fleet #2"));
+    assertEquals(fleet2, fleets.getByName("Scout #1"));
+    // Duplicate names return the last fleet
+    fleet1.setName("Scout #1");
+    assertEquals(fleet2, fleets.getByName("Scout #1"));
+    assertEquals(1, fleets.getIndexByName("Scout #1"));
+    fleets.removeFleet(fleet2);
+    assertEquals(1, fleets.getNumberOfFleets());
+    assertEquals(fleet2, fleets.getByName("Scout #1"));
+    fleets.removeFleet(fleet2);
+    assertEquals(0, fleets.getNumberOfFleets());
+    assertEquals(null, fleets.getByName("Scout #1"));
+    // Fleet outside of the list does not affect it
+    fleet1.setName("Fleet #1");
+    assertEquals(null, fleets.getByName("Fleet #1"));
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testNameIndexAfterTrade() {
+    Ship ship = Mockito.mock(Ship.class);
+    Fleet traded = new Fleet(ship, 1, 1);
+    traded.setName("Fleet #1");
+    Fleet other = new Fleet(ship, 2, 2);
+    other.setName("Fleet #1");
+    FleetList giver = new FleetList();
+    giver.add(traded);
+    FleetList receiver = new FleetList();
+    receiver.add(other);
+    // Receiver renames traded fleet before giver removes it
+    receiver.add(traded);
+    int index = giver.getIndexByName(traded.getName());
+    assertEquals(0, index);
+    giver.remove(index);
+    assertEquals(0, giver.getNumberOfFleets());
+    traded.setName("Scout #1");
+    assertEquals(traded, receiver.getByName("Scout #1"));
+    // Trade fleet back
+    giver.add(traded);
+    index = receiver.getIndexByName("Scout #1");
+    assertEquals(1, index);
+    receiver.remove(index);
+    assertEquals(null, receiver.getByName("Scout #1"));
+    assertEquals(traded, giver.getByName("Scout #1"));
+  }
 
 }
@@ -9,8 +9,12 @@ import org.mockito.Mockito;
 import org.openRealmOfStars.AI.PathFinding.AStarSearch;
 import org.openRealmOfStars.player.PlayerInfo;
 import org.openRealmOfStars.player.SpaceRace.SpaceRace;
+import org.openRealmOfStars.player.leader.Leader;
+import org.openRealmOfStars.player.leader.Perk;
 import org.openRealmOfStars.player.ship.Ship;
+import org.openRealmOfStars.player.ship.ShipComponentFactory;
 import org.openRealmOfStars.player.ship.ShipHull;
+import org.openRealmOfStars.player.ship.ShipHullFactory;
 import org.openRealmOfStars.player.ship.ShipSize;
 import org.openRealmOfStars.player.ship.ShipStat;
 import org.openRealmOfStars.player.ship.shipdesign.ShipDesign;
@@ -634,4 +638,43 @@ public class FleetTest {
     assertEquals(3, fleet.getTotalCultureBonus());
   }
 
+  @Test
+  @Category(org.openRealmOfStars.BehaviourTest.class)
+  public void testCachedStatsWithRealShips() {
+    ShipHull hull = ShipHullFactory.createByName("Scout Mk1", SpaceRace.HUMAN);
+    ShipDesign design = new ShipDesign(hull);
+    design.addComponent(ShipComponentFactory.createByName(
+        "Fission source Mk1"));
+    design.addComponent(ShipComponentFactory.createByName(
+        "Nuclear drive Mk1"));
+    design.addComponent(ShipComponentFactory.createByName(
+        "Armor plating Mk1"));
+    design.addComponent(ShipComponentFactory.createByName("Laser Mk1"));
+    Ship ship = new Ship(design);
+    Fleet fleet = new Fleet(ship, 2, 3);
+    int power = ship.getTotalMilitaryPower();
+    assertEquals(2, fleet.getFleetSpeed());
+    assertEquals(power, fleet.getMilitaryValue());
+    assertEquals(ship, fleet.getBiggestShip());
+    Leader commander = new Leader("Commander");
+    fleet.setCommander(commander);
+    assertEquals(2, fleet.getFleetSpeed());
+    commander.getPerkList().add(Perk.EXPLORER);
+    assertEquals(3, fleet.getFleetSpeed());
+    fleet.setCommander(null);
+    Ship second = new Ship(design);
+    fleet.addShip(second);
+    assertEquals(power * 2, fleet.getMilitaryValue());
+    for (int i = 0; i < ship.getNumberOfComponents(); i++) {
+      while (ship.getHullPointForComponent(i) > 0) {
+        ship.oneDamage(i);
+      }
+    }
+    assertEquals(0, fleet.getFleetSpeed());
+    assertEquals(second, fleet.getBiggestShip());
+    fleet.removeShip(ship);
+    assertEquals(2, fleet.getFleetSpeed());
+    assertEquals(power, fleet.getMilitaryValue());
+  }
+
 }
@@ -0,0 +1,250 @@
+package org.openRealmOfStars.player.player;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.openRealmOfStars.player.PlayerInfo;
+import org.openRealmOfStars.player.VisibilityMap;
+
+/**
+*
+* Open Realm of Stars game project
+* Copyright (C) 2020 Tuomo Untinen
+*
+* This program is free software; you can redistribute it and/or
+* modify it under the terms of the GNU General Public License
+* as published by the Free Software Foundation; either version 2
+* of the License, or (at your option) any later version.
+*
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program; if not, see http://www.gnu.org/licenses/
+*
+*
+* Test for VisibilityMap
+*
+*/
+public class VisibilityMapTest {
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testVisibility() {
+    VisibilityMap map = new VisibilityMap(70, 3);
+    assertEquals(PlayerInfo.UNCHARTED, map.getVisibility(69, 2));
+    map.setVisibility(69, 2, PlayerInfo.VISIBLE);
+    map.setVisibility(68, 2, PlayerInfo.FOG_OF_WAR);
+    map.setVisibility(0, 0, PlayerInfo.VISIBLE);
+    assertEquals(PlayerInfo.VISIBLE, map.getVisibility(69, 2));
+    assertEquals(PlayerInfo.FOG_OF_WAR, map.getVisibility(68, 2));
+    assertEquals(PlayerInfo.UNCHARTED, map.getVisibility(67, 2));
+    assertEquals(PlayerInfo.VISIBLE, map.getVisibility(0, 0));
+    assertEquals(PlayerInfo.UNCHARTED, map.getVisibility(0, 1));
+    map.setVisibility(0, 0, PlayerInfo.UNCHARTED);
+    assertEquals(PlayerInfo.UNCHARTED, map.getVisibility(0, 0));
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testInvalidCoordinates() {
+    VisibilityMap map = new VisibilityMap(5, 5);
+    map.setVisibility(-1, 0, PlayerInfo.VISIBLE);
+    map.setVisibility(5, 0, PlayerInfo.VISIBLE);
+    map.setCloakDetection(0, 5, 40);
+    map.setVisibility(1, 1, (byte) 3);
+    assertEquals(PlayerInfo.UNCHARTED, map.getVisibility(-1, 0));
+    assertEquals(PlayerInfo.UNCHARTED, map.getVisibility(5, 0));
+    assertEquals(PlayerInfo.UNCHARTED, map.getVisibility(1, 1));
+    assertEquals(0, map.getCloakDetection(0, 5));
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testResetAfterTurn() {
+    VisibilityMap map = new VisibilityMap(5, 5);
+    map.setVisibility(1, 1, PlayerInfo.VISIBLE);
+    map.setVisibility(2, 2, PlayerInfo.FOG_OF_WAR);
+    map.setCloakDetection(1, 1, 40);
+    map.setCloakDetection(3, 3, 300);
+    assertEquals(40, map.getCloakDetection(1, 1));
+    assertEquals(255, map.getCloakDetection(3, 3));
+    map.resetAfterTurn();
+    assertEquals(PlayerInfo.FOG_OF_WAR, map.getVisibility(1, 1));
+    assertEquals(PlayerInfo.FOG_OF_WAR, map.getVisibility(2, 2));
+    assertEquals(0, map.getCloakDetection(1, 1));
+    assertEquals(0, map.getCloakDetection(3, 3));
+    // Setting cloaking detection must not make old sector visible again
+    map.setCloakDetection(1, 1, 20);
+    assertEquals(PlayerInfo.FOG_OF_WAR, map.getVisibility(1, 1));
+    assertEquals(20, map.getCloakDetection(1, 1));
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testResetManyTurns() {
+    VisibilityMap map = new VisibilityMap(5, 5);
+    for (int turn = 0; turn < 600; turn++) {
+      assertEquals(0, map.getCloakDetection(turn % 5, 0));
+      map.setVisibility(turn % 5, 0, PlayerInfo.VISIBLE);
+      map.setCloakDetection(turn % 5, 0, 10);
+      assertEquals(PlayerInfo.VISIBLE, map.getVisibility(turn % 5, 0));
+      map.resetAfterTurn();
+      for (int x = 0; x < 5; x++) {
+        assertTrue(map.getVisibility(x, 0) != PlayerInfo.VISIBLE);
+      }
+    }
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testPackedSave() throws IOException {
+    VisibilityMap map = new VisibilityMap(7, 3);
+    map.setVisibility(0, 0, PlayerInfo.VISIBLE);
+    map.setVisibility(6, 1, PlayerInfo.FOG_OF_WAR);
+    map.setVisibility(6, 2, PlayerInfo.VISIBLE);
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    DataOutputStream dos = new DataOutputStream(bos);
+    map.writePacked(dos);
+    dos.flush();
+    byte[] data = bos.toByteArray();
+    assertEquals(6, data.length);
+    VisibilityMap loaded = new VisibilityMap(7, 3);
+    loaded.readPacked(new DataInputStream(new ByteArrayInputStream(data)));
+    for (int y = 0; y < 3; y++) {
+      for (int x = 0; x < 7; x++) {
+        assertEquals(map.getVisibility(x, y), loaded.getVisibility(x, y));
+      }
+    }
+  }
+
+  /**
+   * Fill visibility map with pseudo random visibility.
+   * @param map Visibility map
+   * @param seed Seed for values
+   */
+  private static void fillMap(final VisibilityMap map, final int seed) {
+    for (int y = 0; y < map.getMaxY(); y++) {
+      for (int x = 0; x < map.getMaxX(); x++) {
+        int value = (x * 7 + y * 13 + seed) % 5;
+        if (value > PlayerInfo.VISIBLE) {
+          value = PlayerInfo.UNCHARTED;
+        }
+        map.setVisibility(x, y, (byte) value);
+      }
+    }
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testMapTrade() {
+    VisibilityMap receiver = new VisibilityMap(75, 4);
+    VisibilityMap giver = new VisibilityMap(75, 4);
+    fillMap(receiver, 1);
+    fillMap(giver, 3);
+    // Visible sectors from earlier turn are fog of war
+    receiver.resetAfterTurn();
+    giver.resetAfterTurn();
+    int expected = 0;
+    for (int y = 0; y < 4; y++) {
+      for (int x = 0; x < 75; x++) {
+        if (receiver.getVisibility(x, y) == PlayerInfo.UNCHARTED
+            && giver.getVisibility(x, y) != PlayerInfo.UNCHARTED) {
+          expected++;
+        }
+      }
+    }
+    assertTrue(expected > 0);
+    assertEquals(expected, receiver.countUnchartedExploredBy(giver));
+    byte[] before = new byte[75 * 4];
+    for (int y = 0; y < 4; y++) {
+      for (int x = 0; x < 75; x++) {
+        before[y * 75 + x] = receiver.getVisibility(x, y);
+      }
+    }
+    receiver.chartExploredBy(giver);
+    assertEquals(0, receiver.countUnchartedExploredBy(giver));
+    for (int y = 0; y < 4; y++) {
+      for (int x = 0; x < 75; x++) {
+        byte value = before[y * 75 + x];
+        if (value == PlayerInfo.UNCHARTED
+            && giver.getVisibility(x, y) != PlayerInfo.UNCHARTED) {
+          value = PlayerInfo.FOG_OF_WAR;
+        }
+        assertEquals(value, receiver.getVisibility(x, y));
+      }
+    }
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testMapTradeDifferentSize() {
+    VisibilityMap receiver = new VisibilityMap(5, 5);
+    VisibilityMap giver = new VisibilityMap(3, 3);
+    giver.setVisibility(2, 2, PlayerInfo.VISIBLE);
+    giver.setVisibility(0, 0, PlayerInfo.FOG_OF_WAR);
+    receiver.setVisibility(0, 0, PlayerInfo.VISIBLE);
+    assertEquals(1, receiver.countUnchartedExploredBy(giver));
+    receiver.chartExploredBy(giver);
+    assertEquals(PlayerInfo.FOG_OF_WAR, receiver.getVisibility(2, 2));
+    assertEquals(PlayerInfo.VISIBLE, receiver.getVisibility(0, 0));
+    assertEquals(PlayerInfo.UNCHARTED, receiver.getVisibility(4, 4));
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testRevealedSectors() {
+    VisibilityMap map = new VisibilityMap(10, 10);
+    map.setVisibility(1, 2, PlayerInfo.FOG_OF_WAR);
+    assertEquals(0, map.getNumberOfRevealedSectors());
+    map.setVisibility(1, 2, PlayerInfo.VISIBLE);
+    map.setVisibility(9, 9, PlayerInfo.VISIBLE);
+    map.setVisibility(1, 2, PlayerInfo.VISIBLE);
+    assertEquals(2, map.getNumberOfRevealedSectors());
+    assertEquals(1, map.getRevealedX(0));
+    assertEquals(2, map.getRevealedY(0));
+    assertEquals(9, map.getRevealedX(1));
+    assertEquals(9, map.getRevealedY(1));
+    map.resetAfterTurn();
+    assertEquals(0, map.getNumberOfRevealedSectors());
+    // Visible on last turn is revealed again
+    map.setVisibility(9, 9, PlayerInfo.VISIBLE);
+    assertEquals(1, map.getNumberOfRevealedSectors());
+    for (int i = 0; i < 100; i++) {
+      map.setVisibility(i % 10, i / 10, PlayerInfo.VISIBLE);
+    }
+    assertEquals(100, map.getNumberOfRevealedSectors());
+    map.clearRevealedSectors();
+    assertEquals(0, map.getNumberOfRevealedSectors());
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testHandledRevealedSectors() {
+    VisibilityMap map = new VisibilityMap(10, 10);
+    assertEquals(0, map.getHandledCount());
+    map.setVisibility(1, 2, PlayerInfo.VISIBLE);
+    map.setVisibility(3, 4, PlayerInfo.VISIBLE);
+    map.setHandledCount(2);
+    map.setVisibility(5, 6, PlayerInfo.VISIBLE);
+    assertEquals(2, map.getHandledCount());
+    assertEquals(3, map.getNumberOfRevealedSectors());
+    map.resetAfterTurn();
+    assertEquals(0, map.getHandledCount());
+    map.setVisibility(5, 6, PlayerInfo.VISIBLE);
+    map.setHandledCount(1);
+    map.clearRevealedSectors();
+    assertEquals(0, map.getHandledCount());
+  }
+
+}
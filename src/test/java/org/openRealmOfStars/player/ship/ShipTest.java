@@ -747,5 +747,59 @@ public class ShipTest {
     assertEquals(1, ship.getTotalResearchBonus());
   }
 
+  /**
+   * Find index of component in ship
+   * @param ship Ship
+   * @param component Component to look for
+   * @return Component index or -1 if not found
+   */
+  private static int getComponentIndex(final Ship ship,
+      final ShipComponent component) {
+    for (int i = 0; i < ship.getNumberOfComponents(); i++) {
+      if (ship.getComponent(i) == component) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.BehaviourTest.class)
+  public void testStatsAfterDamageAndRepair() {
+    ShipHull hull = ShipHullFactory.createByName("Scout Mk1", SpaceRace.HUMAN);
+    ShipDesign design = new ShipDesign(hull);
+    ShipComponent weapon = ShipComponentFactory.createByName("Laser Mk1");
+    ShipComponent engine = ShipComponentFactory.createByName("Nuclear drive Mk1");
+    ShipComponent energy = ShipComponentFactory.createByName("Fission source Mk1");
+    ShipComponent armor = ShipComponentFactory.createByName("Armor plating Mk1");
+    design.addComponent(energy);
+    design.addComponent(engine);
+    design.addComponent(armor);
+    design.addComponent(weapon);
+    Ship ship = new Ship(design);
+    int energyIndex = getComponentIndex(ship, energy);
+    int engineIndex = getComponentIndex(ship, engine);
+    int weaponIndex = getComponentIndex(ship, weapon);
+    int power = ship.getTotalMilitaryPower();
+    int version = ship.getStatsVersion();
+    assertEquals(2, ship.getSpeed());
+    assertEquals(true, ship.hasComponentEnergy(weaponIndex));
+    while (ship.getHullPointForComponent(engineIndex) > 0) {
+      ship.oneDamage(engineIndex);
+    }
+    assertNotEquals(version, ship.getStatsVersion());
+    assertEquals(0, ship.getSpeed());
+    assertEquals(true, ship.hasComponentEnergy(weaponIndex));
+    while (ship.getHullPointForComponent(energyIndex) > 0) {
+      ship.oneDamage(energyIndex);
+    }
+    assertEquals(false, ship.hasComponentEnergy(weaponIndex));
+    assertEquals(false, ship.componentIsWorking(weaponIndex));
+    assertEquals(true, ship.getTotalMilitaryPower() < power);
+    ship.fixShip(true);
+    assertEquals(2, ship.getSpeed());
+    assertEquals(true, ship.hasComponentEnergy(weaponIndex));
+    assertEquals(power, ship.getTotalMilitaryPower());
+  }
 
 }
@@ -0,0 +1,131 @@
+package org.openRealmOfStars.starMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+*
+* Open Realm of Stars game project
+* Copyright (C) 2020 Tuomo Untinen
+*
+* This program is free software; you can redistribute it and/or
+* modify it under the terms of the GNU General Public License
+* as published by the Free Software Foundation; either version 2
+* of the License, or (at your option) any later version.
+*
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program; if not, see http://www.gnu.org/licenses/
+*
+*
+* Test for CultureMap
+*
+*/
+public class CultureMapTest {
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testSectorCulture() {
+    CultureMap map = new CultureMap(10, 10, 2);
+    assertNull(map.getSectorCulture(-1, 0));
+    assertNull(map.getSectorCulture(0, 10));
+    assertEquals(-1, map.getSectorCulture(5, 5).getHighestCulture());
+    map.addSectorCulture(5, 5, 1, 10);
+    map.addSectorCulture(12, 5, 1, 10);
+    assertEquals(1, map.getSectorCulture(5, 5).getHighestCulture());
+    map.reset();
+    assertEquals(-1, map.getSectorCulture(5, 5).getHighestCulture());
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testSourceChangesOwner() {
+    CultureMap map = new CultureMap(10, 10, 2);
+    Object planet = new Object();
+    map.startUpdate();
+    map.updateSource(planet, 5, 5, 30, 0);
+    map.finishUpdate();
+    assertEquals(1, map.getNumberOfSources());
+    assertEquals(0, map.getSectorCulture(5, 5).getHighestCulture());
+    assertEquals(0, map.getSectorCulture(3, 5).getHighestCulture());
+    map.startUpdate();
+    map.updateSource(planet, 5, 5, 4, 1);
+    map.finishUpdate();
+    assertEquals(1, map.getSectorCulture(5, 5).getHighestCulture());
+    assertEquals(-1, map.getSectorCulture(3, 5).getHighestCulture());
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testSourceRemoved() {
+    CultureMap map = new CultureMap(10, 10, 2);
+    Object planet = new Object();
+    Object starbase = new Object();
+    map.startUpdate();
+    map.updateSource(planet, 2, 2, 100, 0);
+    map.updateSource(starbase, 7, 7, 100, 1);
+    map.finishUpdate();
+    assertEquals(2, map.getNumberOfSources());
+    assertEquals(0, map.getSectorCulture(2, 2).getHighestCulture());
+    assertEquals(1, map.getSectorCulture(7, 7).getHighestCulture());
+    map.startUpdate();
+    map.updateSource(planet, 2, 2, 100, 0);
+    map.finishUpdate();
+    assertEquals(1, map.getNumberOfSources());
+    assertEquals(0, map.getSectorCulture(4, 4).getHighestCulture());
+    assertEquals(-1, map.getSectorCulture(7, 7).getHighestCulture());
+    map.startUpdate();
+    map.finishUpdate();
+    assertEquals(0, map.getNumberOfSources());
+    assertEquals(-1, map.getSectorCulture(2, 2).getHighestCulture());
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testIncrementalMatchesFullCalculation() {
+    CultureMap map = new CultureMap(20, 20, 3);
+    Object[] sources = {new Object(), new Object(), new Object()};
+    int[][] values = {{5, 7, 9}, {40, 45, 80}, {300, 350, 700}};
+    for (int turn = 0; turn < values[0].length; turn++) {
+      map.startUpdate();
+      CultureMap full = new CultureMap(20, 20, 3);
+      for (int i = 0; i < sources.length; i++) {
+        int x = 4 + i * 5 + turn;
+        map.updateSource(sources[i], x, 8, values[i][turn], i);
+        full.addCulture(x, 8, values[i][turn], i);
+      }
+      map.finishUpdate();
+      for (int x = 0; x < 20; x++) {
+        for (int y = 0; y < 20; y++) {
+          assertEquals(full.getSectorCulture(x, y).getHighestCulture(),
+              map.getSectorCulture(x, y).getHighestCulture());
+        }
+      }
+    }
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testSectorOwner() {
+    CultureMap map = new CultureMap(10, 10, 3);
+    assertEquals(-1, map.getSectorOwner(10, 3));
+    assertEquals(-1, map.getSectorOwner(3, 3));
+    map.addSectorCulture(3, 3, 2, 10);
+    assertEquals(2, map.getSectorOwner(3, 3));
+    assertEquals(-1, map.getSectorOwner(4, 3));
+    map.getSectorCulture(3, 3).addCulture(1, 15);
+    assertEquals(1, map.getSectorOwner(3, 3));
+    map.addSectorCulture(3, 3, 1, -10);
+    assertEquals(2, map.getSectorOwner(3, 3));
+    assertEquals(2, map.getSectorCulture(3, 3).getHighestCulture());
+    map.getSectorCulture(3, 3).reset();
+    assertEquals(-1, map.getSectorOwner(3, 3));
+  }
+}
@@ -109,4 +109,19 @@ public class CulturePowerTest {
 
         assertEquals(DEFAULT_PLAYER_INDEX, culturePower.getHighestCulture());
     }
-}
\ No newline at end of file
+
+    @Test
+    @Category(org.openRealmOfStars.UnitTest.class)
+    public void testRemovingCultureShouldChangeHighestCulture() {
+        culturePower.addCulture(1, 10);
+        culturePower.addCulture(2, 8);
+        culturePower.addCulture(3, 8);
+        assertEquals(1, culturePower.getHighestCulture());
+        culturePower.addCulture(1, -5);
+        assertEquals(2, culturePower.getHighestCulture());
+        culturePower.addCulture(2, -8);
+        culturePower.addCulture(3, -8);
+        culturePower.addCulture(1, -5);
+        assertEquals(DEFAULT_PLAYER_INDEX, culturePower.getHighestCulture());
+    }
+}
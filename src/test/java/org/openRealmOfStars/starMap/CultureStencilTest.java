@@ -0,0 +1,131 @@
+package org.openRealmOfStars.starMap;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+*
+* Open Realm of Stars game project
+* Copyright (C) 2020 Tuomo Untinen
+*
+* This program is free software; you can redistribute it and/or
+* modify it under the terms of the GNU General Public License
+* as published by the Free Software Foundation; either version 2
+* of the License, or (at your option) any later version.
+*
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program; if not, see http://www.gnu.org/licenses/
+*
+*
+* Test for CultureStencil
+*
+*/
+public class CultureStencilTest {
+
+  /**
+   * Golden values recorded from string mask implementation of
+   * StarMap.calculateCulture. Each row is culture value, number of
+   * sectors with culture, sum of culture and hash of culture grid.
+   */
+  private static final long[][] GOLDEN = {
+      {-3, 5, -15, -196045571496134135L},
+      {1, 1, 1, 7033258316012261889L},
+      {4, 5, 20, 6410308786564696052L},
+      {5, 9, 33, -3153521685082408455L},
+      {7, 9, 47, -7837414135157893641L},
+      {9, 9, 61, 5925437488476172789L},
+      {10, 13, 90, -1767067837991136246L},
+      {13, 13, 113, 7783130624221108745L},
+      {19, 13, 167, -655807708057393649L},
+      {20, 25, 380, 1640780946954438636L},
+      {33, 25, 621, 7125619176686043621L},
+      {39, 25, 735, 2083830238659509727L},
+      {40, 41, 1152, -6115125580271849264L},
+      {77, 41, 2221, 6782024085605043069L},
+      {79, 41, 2275, -2125247709844643957L},
+      {80, 57, 3488, 8418248344700198560L},
+      {101, 57, 4397, 1688849455616596045L},
+      {159, 57, 6935, 3175572501086350167L},
+      {160, 81, 10280, -986290580112333928L},
+      {211, 81, 13551, 3006925744963334831L},
+      {319, 81, 20499, 3964595567501040915L},
+      {320, 109, 26872, -1003520021098152584L},
+      {499, 109, 41883, -1180540103298592229L},
+      {639, 109, 53659, -1269889951991408365L},
+      {640, 121, 63664, 2194365865172988912L},
+      {997, 121, 99165, 8678361185993053997L},
+      {1279, 121, 127231, -177463770847992353L},
+      {1280, 149, 153164, 7985801345280853252L},
+      {5000, 149, 598324, -3714637184458333300L},
+  };
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testGoldenCulture() {
+    int size = CultureStencil.MAX_CULTURE_RADIUS * 2 + 1;
+    for (long[] golden : GOLDEN) {
+      int value = (int) golden[0];
+      long[][] grid = new long[size][size];
+      CultureStencil stencil = CultureStencil.getStencil(value);
+      for (int i = 0; i < stencil.getNumberOfSectors(); i++) {
+        int x = CultureStencil.MAX_CULTURE_RADIUS + stencil.getOffsetX(i);
+        int y = CultureStencil.MAX_CULTURE_RADIUS + stencil.getOffsetY(i);
+        grid[x][y] = grid[x][y] + stencil.getCulture(i, value);
+      }
+      long cells = 0;
+      long sum = 0;
+      long hash = 0;
+      for (int y = 0; y < size; y++) {
+        for (int x = 0; x < size; x++) {
+          if (grid[x][y] != 0) {
+            cells++;
+          }
+          sum = sum + grid[x][y];
+          hash = hash * 31 + grid[x][y];
+        }
+      }
+      assertEquals("Sectors for " + value, golden[1], cells);
+      assertEquals("Sum for " + value, golden[2], sum);
+      assertEquals("Hash for " + value, golden[3], hash);
+    }
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testLevels() {
+    assertEquals(1, CultureStencil.getLevel(0));
+    assertEquals(0, CultureStencil.getLevel(1));
+    assertEquals(1, CultureStencil.getLevel(2));
+    assertEquals(2, CultureStencil.getLevel(5));
+    assertEquals(9, CultureStencil.getLevel(1279));
+    assertEquals(10, CultureStencil.getLevel(1280));
+    assertEquals(5, CultureStencil.getStencil(0).getNumberOfSectors());
+    assertEquals(1, CultureStencil.getStencil(1).getNumberOfSectors());
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testWeights() {
+    CultureStencil stencil = CultureStencil.getStencil(3000);
+    for (int i = 0; i < stencil.getNumberOfSectors(); i++) {
+      int weight = stencil.getWeight(i);
+      int culture = stencil.getCulture(i, 120);
+      if (weight == CultureStencil.WEIGHT_FULL) {
+        assertEquals(120, culture);
+      } else if (weight == CultureStencil.WEIGHT_HALF) {
+        assertEquals(60, culture);
+      } else if (weight == CultureStencil.WEIGHT_TWO_THIRDS) {
+        assertEquals(80, culture);
+      } else {
+        assertEquals(90, culture);
+      }
+    }
+  }
+}
@@ -0,0 +1,122 @@
+package org.openRealmOfStars.starMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.openRealmOfStars.mapTiles.FleetTileInfo;
+import org.openRealmOfStars.player.PlayerInfo;
+import org.openRealmOfStars.player.PlayerList;
+import org.openRealmOfStars.player.SpaceRace.SpaceRace;
+import org.openRealmOfStars.player.fleet.Fleet;
+import org.openRealmOfStars.player.ship.Ship;
+import org.openRealmOfStars.player.ship.generator.ShipGenerator;
+
+/**
+*
+* Open Realm of Stars game project
+* Copyright (C) 2020 Tuomo Untinen
+*
+* This program is free software; you can redistribute it and/or
+* modify it under the terms of the GNU General Public License
+* as published by the Free Software Foundation; either version 2
+* of the License, or (at your option) any later version.
+*
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program; if not, see http://www.gnu.org/licenses/
+*
+*
+* Test for FleetTileIndex
+*
+*/
+public class FleetTileIndexTest {
+
+  /**
+   * Create fleet with single scout.
+   * @param info Realm owning the fleet
+   * @param x X coordinate
+   * @param y Y coordinate
+   * @return Fleet
+   */
+  private static Fleet createScoutFleet(final PlayerInfo info, final int x,
+      final int y) {
+    Ship scout = new Ship(ShipGenerator.createScout(info));
+    Fleet fleet = new Fleet(scout, x, y);
+    info.getFleets().add(fleet);
+    return fleet;
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.BehaviourTest.class)
+  public void testMovingFleet() {
+    PlayerList players = new PlayerList();
+    PlayerInfo info = new PlayerInfo(SpaceRace.HUMAN, 2, 0);
+    players.addPlayer(info);
+    Fleet fleet = createScoutFleet(info, 2, 3);
+    PassabilityLayer layer = new PassabilityLayer(10, 10);
+    FleetTileIndex index = new FleetTileIndex(10, 10);
+    index.setPassability(layer);
+    FleetTileInfo[][] tiles = index.update(players);
+    assertNotNull(tiles[2][3]);
+    assertEquals(0, tiles[2][3].getPlayerIndex());
+    assertEquals(0, tiles[2][3].getFleetIndex());
+    assertEquals(0, layer.getFleetRealm(2, 3));
+    fleet.setPos(new Coordinate(3, 3));
+    tiles = index.update(players);
+    assertNull(tiles[2][3]);
+    assertNotNull(tiles[3][3]);
+    assertEquals(PassabilityLayer.NO_REALM, layer.getFleetRealm(2, 3));
+    assertEquals(0, layer.getFleetRealm(3, 3));
+    info.getFleets().remove(0);
+    tiles = index.update(players);
+    assertNull(tiles[3][3]);
+    assertEquals(PassabilityLayer.NO_REALM, layer.getFleetRealm(3, 3));
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.BehaviourTest.class)
+  public void testTwoRealmsInSector() {
+    PlayerList players = new PlayerList();
+    PlayerInfo info = new PlayerInfo(SpaceRace.HUMAN, 2, 0);
+    PlayerInfo info2 = new PlayerInfo(SpaceRace.SPORKS, 2, 1);
+    players.addPlayer(info);
+    players.addPlayer(info2);
+    createScoutFleet(info, 2, 3);
+    Fleet fleet = createScoutFleet(info2, 4, 4);
+    FleetTileIndex index = new FleetTileIndex(10, 10);
+    FleetTileInfo[][] tiles = index.update(players);
+    assertEquals(-1, tiles[2][3].getConflictIndex());
+    assertEquals(1, tiles[4][4].getPlayerIndex());
+    fleet.setPos(new Coordinate(2, 3));
+    tiles = index.update(players);
+    assertNull(tiles[4][4]);
+    assertEquals(0, tiles[2][3].getPlayerIndex());
+    info.getFleets().remove(0);
+    tiles = index.update(players);
+    assertEquals(1, tiles[2][3].getPlayerIndex());
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.BehaviourTest.class)
+  public void testFleetsOfSameRealmInSector() {
+    PlayerList players = new PlayerList();
+    PlayerInfo info = new PlayerInfo(SpaceRace.HUMAN, 2, 0);
+    players.addPlayer(info);
+    createScoutFleet(info, 5, 5);
+    createScoutFleet(info, 5, 5);
+    FleetTileIndex index = new FleetTileIndex(10, 10);
+    FleetTileInfo[][] tiles = index.update(players);
+    assertEquals(0, tiles[5][5].getPlayerIndex());
+    assertEquals(-1, tiles[5][5].getConflictIndex());
+    info.getFleets().remove(0);
+    tiles = index.update(players);
+    assertEquals(0, tiles[5][5].getFleetIndex());
+  }
+}
@@ -0,0 +1,77 @@
+package org.openRealmOfStars.starMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ *
+ * Open Realm of Stars game project
+ * Copyright (C) 2020  Tuomo Untinen
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see http://www.gnu.org/licenses/
+ *
+ *
+ * Test for PassabilityLayer class
+ */
+public class PassabilityLayerTest {
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testTerrain() {
+    PassabilityLayer layer = new PassabilityLayer(70, 50);
+    assertFalse(layer.isBlocked(0, 0));
+    assertFalse(layer.isDangerous(69, 49));
+    assertTrue(layer.isBlocked(-1, 0));
+    assertTrue(layer.isBlocked(70, 0));
+    assertTrue(layer.isDangerous(0, 50));
+    int version = layer.getTerrainVersion();
+    layer.setTerrain(63, 0, true, false);
+    layer.setTerrain(64, 0, false, true);
+    assertNotEquals(version, layer.getTerrainVersion());
+    assertTrue(layer.isBlocked(63, 0));
+    assertFalse(layer.isDangerous(63, 0));
+    assertFalse(layer.isBlocked(64, 0));
+    assertTrue(layer.isDangerous(64, 0));
+    assertFalse(layer.isBlocked(62, 0));
+    assertFalse(layer.isBlocked(0, 1));
+    version = layer.getTerrainVersion();
+    layer.setTerrain(63, 0, true, false);
+    assertEquals(version, layer.getTerrainVersion());
+    layer.setTerrain(63, 0, false, false);
+    assertFalse(layer.isBlocked(63, 0));
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testFleets() {
+    PassabilityLayer layer = new PassabilityLayer(10, 10);
+    assertEquals(PassabilityLayer.NO_REALM, layer.getFleetRealm(5, 5));
+    int version = layer.getFleetVersion();
+    layer.setFleetRealm(5, 5, 2);
+    assertNotEquals(version, layer.getFleetVersion());
+    assertEquals(2, layer.getFleetRealm(5, 5));
+    assertTrue(layer.isOccupiedByOtherRealm(5, 5, 1));
+    assertFalse(layer.isOccupiedByOtherRealm(5, 5, 2));
+    assertFalse(layer.isOccupiedByOtherRealm(4, 5, 1));
+    layer.clearFleets();
+    assertEquals(PassabilityLayer.NO_REALM, layer.getFleetRealm(5, 5));
+    assertEquals(PassabilityLayer.NO_REALM, layer.getFleetRealm(-1, 5));
+  }
+
+}
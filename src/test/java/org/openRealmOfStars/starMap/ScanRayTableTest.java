@@ -0,0 +1,129 @@
+package org.openRealmOfStars.starMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+*
+* Open Realm of Stars game project
+* Copyright (C) 2020 Tuomo Untinen
+*
+* This program is free software; you can redistribute it and/or
+* modify it under the terms of the GNU General Public License
+* as published by the Free Software Foundation; either version 2
+* of the License, or (at your option) any later version.
+*
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program; if not, see http://www.gnu.org/licenses/
+*
+*
+* Test for ScanRayTable
+*
+*/
+public class ScanRayTableTest {
+
+  /**
+   * Walk ray with floating point like scanner does and check that
+   * steps match the table.
+   * @param table Scan ray table
+   * @param ray Ray index
+   * @param sx Scanner X coordinate
+   * @param sy Scanner Y coordinate
+   */
+  private static void assertFloatWalk(final ScanRayTable table,
+      final int ray, final int sx, final int sy) {
+    int ex = sx + table.getEndX(ray);
+    int ey = sy + table.getEndY(ray);
+    int distance = Math.max(Math.abs(ex - sx), Math.abs(ey - sy));
+    double mx = (ex - (double) sx) / distance;
+    double my = (ey - (double) sy) / distance;
+    double x = sx;
+    double y = sy;
+    int step = table.getRayStart(ray);
+    int radius = table.getRadius();
+    for (int i = 0; i < distance; i++) {
+      x = x + mx;
+      y = y + my;
+      int nx = (int) Math.round(x) - sx;
+      int ny = (int) Math.round(y) - sy;
+      if (nx * nx + ny * ny > radius * radius) {
+        break;
+      }
+      assertEquals(nx, table.getStepX(step));
+      assertEquals(ny, table.getStepY(step));
+      step++;
+    }
+    assertEquals(table.getRayEnd(ray), step);
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testNumberOfRays() {
+    ScanRayTable table = ScanRayTable.getTable(0);
+    assertEquals(0, table.getNumberOfRays());
+    table = ScanRayTable.getTable(2);
+    assertEquals(24, table.getNumberOfRays());
+    assertEquals(2, table.getRadius());
+    assertSame(table, ScanRayTable.getTable(2));
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testStraightRays() {
+    ScanRayTable table = ScanRayTable.getTable(3);
+    // First ray goes towards top left corner which is out of radius
+    assertEquals(-3, table.getEndX(0));
+    assertEquals(-3, table.getEndY(0));
+    assertTrue(table.isExact(0));
+    assertEquals(2, table.getRayEnd(0) - table.getRayStart(0));
+    assertEquals(-2, table.getStepX(table.getRayStart(0) + 1));
+    assertEquals(-2, table.getStepY(table.getRayStart(0) + 1));
+    // Ray straight up
+    int ray = 3;
+    assertEquals(0, table.getEndX(ray));
+    assertEquals(-3, table.getEndY(ray));
+    assertTrue(table.isExact(ray));
+    assertEquals(3, table.getRayEnd(ray) - table.getRayStart(ray));
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testHalfStepRay() {
+    ScanRayTable table = ScanRayTable.getTable(2);
+    // Ray towards (-1, -2) has first step exactly between two sectors
+    int ray = 1;
+    assertEquals(-1, table.getEndX(ray));
+    assertEquals(-2, table.getEndY(ray));
+    assertFalse(table.isExact(ray));
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testExactRaysMatchFloatWalk() {
+    int[] positions = {0, 1, 7, 33, 74, 255};
+    for (int radius = 1; radius < 17; radius++) {
+      ScanRayTable table = ScanRayTable.getTable(radius);
+      for (int ray = 0; ray < table.getNumberOfRays(); ray++) {
+        if (!table.isExact(ray)) {
+          continue;
+        }
+        for (int sx : positions) {
+          for (int sy : positions) {
+            assertFloatWalk(table, ray, sx, sy);
+          }
+        }
+      }
+    }
+  }
+
+}
@@ -1,6 +1,9 @@
 package org.openRealmOfStars.starMap;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.nio.ByteBuffer;
 
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
@@ -83,4 +86,17 @@ public class SquareInfoTest {
     assertEquals("Visibility blocked!",false,square.isVisibilityBlocked());
   }
 
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testByteBufferSaveAndLoad() {
+    ByteBuffer buffer = ByteBuffer.allocate(2 * SquareInfo.SAVE_SIZE);
+    SquareInfo.EMPTY_TILE.writeSquareInfo(buffer);
+    new SquareInfo(SquareInfo.TYPE_SUN, 3).writeSquareInfo(buffer);
+    buffer.flip();
+    assertSame(SquareInfo.EMPTY_TILE, SquareInfo.readSquareInfo(buffer));
+    SquareInfo square = SquareInfo.readSquareInfo(buffer);
+    assertEquals(SquareInfo.TYPE_SUN, square.getType());
+    assertEquals(3, square.getValue());
+  }
+
 }
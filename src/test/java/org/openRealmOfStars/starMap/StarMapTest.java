@@ -9,6 +9,8 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.mockito.Mockito;
 import org.openRealmOfStars.AI.Mission.MissionList;
+import org.openRealmOfStars.mapTiles.TileNames;
+import org.openRealmOfStars.mapTiles.Tiles;
 import org.openRealmOfStars.player.PlayerInfo;
 import org.openRealmOfStars.player.PlayerList;
 import org.openRealmOfStars.player.SpaceRace.SpaceRace;
@@ -111,6 +113,62 @@ public class StarMapTest {
     assertEquals(0, map.getScoreDiplomacy());
   }
 
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testStarMapPassability() {
+    GalaxyConfig config = Mockito.mock(GalaxyConfig.class);
+    Mockito.when(config.getSizeX()).thenReturn(50);
+    Mockito.when(config.getSizeY()).thenReturn(50);
+    Mockito.when(config.getStartingPosition()).thenReturn(
+        GalaxyConfig.START_POSITION_BORDER);
+    Mockito.when(config.getScoringVictoryTurns()).thenReturn(400);
+
+    PlayerList players = Mockito.mock(PlayerList.class);
+    Mockito.when(players.getCurrentMaxPlayers()).thenReturn(2);
+    Mockito.when(players.getCurrentMaxRealms()).thenReturn(2);
+
+    StarMap map = new StarMap(config, players);
+    PassabilityLayer layer = map.getPassability();
+    assertNotNull(layer);
+    for (int x = 0; x < map.getMaxX(); x++) {
+      for (int y = 0; y < map.getMaxY(); y++) {
+        assertEquals(map.getTileInfo(x, y).isBlocked(),
+            layer.isBlocked(x, y));
+        assertEquals(map.getTile(x, y).isDangerous(),
+            layer.isDangerous(x, y));
+      }
+    }
+    map.setTile(0, 0, Tiles.getTileByName(TileNames.SPACE_ANOMALY));
+    assertEquals(true, map.isDangerous(0, 0));
+    map.setTile(0, 0, Tiles.getTileByName(TileNames.EMPTY));
+    assertEquals(false, map.isDangerous(0, 0));
+    assertEquals(true, map.isBlocked(-1, 0));
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testPlanetByNameAfterRename() {
+    GalaxyConfig config = Mockito.mock(GalaxyConfig.class);
+    Mockito.when(config.getSizeX()).thenReturn(50);
+    Mockito.when(config.getSizeY()).thenReturn(50);
+    Mockito.when(config.getStartingPosition()).thenReturn(
+        GalaxyConfig.START_POSITION_BORDER);
+    Mockito.when(config.getScoringVictoryTurns()).thenReturn(400);
+
+    PlayerList players = Mockito.mock(PlayerList.class);
+    Mockito.when(players.getCurrentMaxPlayers()).thenReturn(2);
+    Mockito.when(players.getCurrentMaxRealms()).thenReturn(2);
+
+    StarMap map = new StarMap(config, players);
+    Planet planet = map.getPlanetList().get(0);
+    String oldName = planet.getName();
+    assertEquals(planet, map.getPlanetByName(oldName));
+    planet.setName("Renamed planet");
+    assertEquals(planet, map.getPlanetByName("Renamed planet"));
+    assertEquals(null, map.getPlanetByName(oldName));
+    assertEquals(null, map.getPlanetByName(null));
+  }
+
   @Test
   @Category(org.openRealmOfStars.UnitTest.class)
   public void testStarMapCreatePirateAndKarma() {
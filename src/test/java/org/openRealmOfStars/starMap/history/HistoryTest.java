@@ -223,5 +223,32 @@ public class HistoryTest {
         tiles[3][3]);
   }
 
-
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testCultureReplayWithKeyframes() {
+    StarMap map = Mockito.mock(StarMap.class);
+    Mockito.when(map.getMaxX()).thenReturn(5);
+    Mockito.when(map.getMaxY()).thenReturn(5);
+    History history = new History();
+    for (int i = 0; i < 40; i++) {
+      history.addTurn(i);
+      history.addEvent(new CultureEvent(new Coordinate(1, 1), i % 4));
+      if (i == 20) {
+        history.addEvent(new CultureEvent(new Coordinate(2, 3), 2));
+      }
+    }
+    assertEquals(-1, history.calculateCulture(0, map)[1][1]);
+    for (int i = 1; i <= 40; i++) {
+      int[][] culture = history.calculateCulture(i, map);
+      assertEquals((i - 1) % 4, culture[1][1]);
+      if (i > 20) {
+        assertEquals(2, culture[2][3]);
+      } else {
+        assertEquals(-1, culture[2][3]);
+      }
+    }
+    history.addEvent(new CultureEvent(new Coordinate(1, 1), 3));
+    assertEquals(3, history.calculateCulture(40, map)[1][1]);
+    assertEquals(2, history.calculateCulture(39, map)[1][1]);
+  }
 }
@@ -224,6 +224,38 @@ public class PlanetTest {
     assertEquals(30, planet.getCulture());
   }
 
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testBuildingInventory() {
+    Planet planet = new Planet(new Coordinate(5, 5), "Test I", 1, false);
+    planet.setRadiationLevel(6);
+    assertEquals(false, planet.hasSpacePort());
+    assertEquals(false, planet.broadcaster());
+    planet.addBuilding(BuildingFactory.create(
+        BuildingFactory.COMPONENT_SPACE_PORT));
+    planet.addBuilding(BuildingFactory.create(
+        BuildingFactory.COMPONENT_RADIATION_WELL));
+    planet.addBuilding(BuildingFactory.create(
+        BuildingFactory.COMPONENT_RADIATION_WELL));
+    Building antenna = BuildingFactory.create(
+        BuildingFactory.COMPONENT_BROADCASTING_ANTENNA);
+    planet.addBuilding(antenna);
+    assertEquals(true, planet.hasSpacePort());
+    assertEquals(true, planet.broadcaster());
+    assertEquals(false, planet.hasTower());
+    assertEquals(2, planet.howManyBuildings("Radiation well"));
+    assertEquals(2, planet.howManyBuildings(
+        BuildingFactory.COMPONENT_RADIATION_WELL));
+    assertEquals(0, planet.howManyBuildings("Unknown building"));
+    assertEquals(4, planet.getTotalRadiationLevel());
+    planet.removeBuilding(antenna);
+    planet.removeBuilding(BuildingFactory.create(
+        BuildingFactory.COMPONENT_RADIATION_WELL));
+    assertEquals(false, planet.broadcaster());
+    assertEquals(1, planet.howManyBuildings("Radiation well"));
+    assertEquals(5, planet.getTotalRadiationLevel());
+  }
+
   @Test
   @Category(org.openRealmOfStars.UnitTest.class)
   public void testOrbitalNuke() {
@@ -0,0 +1,121 @@
+package org.openRealmOfStars.starMap.planet;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.openRealmOfStars.player.PlayerInfo;
+import org.openRealmOfStars.player.SpaceRace.SpaceRace;
+import org.openRealmOfStars.player.government.GovernmentType;
+import org.openRealmOfStars.player.leader.Leader;
+import org.openRealmOfStars.player.leader.Perk;
+import org.openRealmOfStars.starMap.Coordinate;
+import org.openRealmOfStars.starMap.planet.construction.Building;
+
+/**
+*
+* Open Realm of Stars game project
+* Copyright (C) 2020 Tuomo Untinen
+*
+* This program is free software; you can redistribute it and/or
+* modify it under the terms of the GNU General Public License
+* as published by the Free Software Foundation; either version 2
+* of the License, or (at your option) any later version.
+*
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program; if not, see http://www.gnu.org/licenses/
+*
+*
+* Test for ProductionLedger
+*
+*/
+public class ProductionLedgerTest {
+
+  /**
+   * Create planet owned by human realm with four researchers.
+   * @param info Planet owner
+   * @return Planet
+   */
+  private static Planet createPlanet(final PlayerInfo info) {
+    Planet planet = new Planet(new Coordinate(5, 5), "Test", 1, false);
+    planet.setPlanetOwner(0, info);
+    planet.setWorkers(Planet.RESEARCH_SCIENTIST, 4);
+    return planet;
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testWorkerAndBuildingChanges() {
+    PlayerInfo info = new PlayerInfo(SpaceRace.HUMAN);
+    info.setGovernment(GovernmentType.DEMOCRACY);
+    Planet planet = createPlanet(info);
+    int research = planet.getTotalProduction(Planet.PRODUCTION_RESEARCH);
+    assertEquals(4 * SpaceRace.HUMAN.getResearchSpeed() / 100, research);
+    planet.setWorkers(Planet.RESEARCH_SCIENTIST, 6);
+    assertEquals(6 * SpaceRace.HUMAN.getResearchSpeed() / 100,
+        planet.getTotalProduction(Planet.PRODUCTION_RESEARCH));
+    Building lab = BuildingFactory.createByName("Basic lab");
+    planet.addBuilding(lab);
+    assertEquals(6 * SpaceRace.HUMAN.getResearchSpeed() / 100
+        + lab.getReseBonus(),
+        planet.getTotalProduction(Planet.PRODUCTION_RESEARCH));
+    assertEquals(lab.getReseBonus(),
+        planet.getTotalProductionFromBuildings(Planet.PRODUCTION_RESEARCH));
+    planet.removeBuilding(lab);
+    assertEquals(6 * SpaceRace.HUMAN.getResearchSpeed() / 100,
+        planet.getTotalProduction(Planet.PRODUCTION_RESEARCH));
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testGovernmentAndGovernorChanges() {
+    PlayerInfo info = new PlayerInfo(SpaceRace.HUMAN);
+    info.setGovernment(GovernmentType.DEMOCRACY);
+    Planet planet = createPlanet(info);
+    int research = planet.getTotalProduction(Planet.PRODUCTION_RESEARCH);
+    info.setGovernment(GovernmentType.HEGEMONY);
+    assertEquals(research + GovernmentType.HEGEMONY.getResearchBonus(),
+        planet.getTotalProduction(Planet.PRODUCTION_RESEARCH));
+    info.setGovernment(GovernmentType.DEMOCRACY);
+    Leader governor = new Leader("Governor");
+    planet.setGovernor(governor);
+    assertEquals(research,
+        planet.getTotalProduction(Planet.PRODUCTION_RESEARCH));
+    governor.getPerkList().add(Perk.SCIENTIST);
+    assertEquals(research + 1,
+        planet.getTotalProduction(Planet.PRODUCTION_RESEARCH));
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testTaxAndOwnerChanges() {
+    PlayerInfo info = new PlayerInfo(SpaceRace.HUMAN);
+    info.setGovernment(GovernmentType.DEMOCRACY);
+    Planet planet = createPlanet(info);
+    int credits = planet.getTotalProduction(Planet.PRODUCTION_CREDITS);
+    planet.setTax(2, true);
+    assertEquals(credits + 2,
+        planet.getTotalProduction(Planet.PRODUCTION_CREDITS));
+    planet.setPlanetOwner(-1, null);
+    assertEquals(0, planet.getTotalProduction(Planet.PRODUCTION_CREDITS));
+    PlayerInfo other = new PlayerInfo(SpaceRace.SCAURIANS);
+    other.setGovernment(GovernmentType.DEMOCRACY);
+    planet.setPlanetOwner(1, other);
+    assertEquals(4 * SpaceRace.SCAURIANS.getResearchSpeed() / 100,
+        planet.getTotalProduction(Planet.PRODUCTION_RESEARCH));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testIllegalProduction() {
+    PlayerInfo info = new PlayerInfo(SpaceRace.HUMAN);
+    Planet planet = createPlanet(info);
+    planet.getTotalProduction(Planet.PRODUCTION_MATERIAL);
+  }
+
+}
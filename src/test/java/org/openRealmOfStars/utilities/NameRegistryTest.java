@@ -0,0 +1,48 @@
+package org.openRealmOfStars.utilities;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+*
+* Open Realm of Stars game project
+* Copyright (C) 2020 Tuomo Untinen
+*
+* This program is free software; you can redistribute it and/or
+* modify it under the terms of the GNU General Public License
+* as published by the Free Software Foundation; either version 2
+* of the License, or (at your option) any later version.
+*
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program; if not, see http://www.gnu.org/licenses/
+*
+*
+* Test for NameRegistry
+*
+*/
+public class NameRegistryTest {
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testLookup() {
+    NameRegistry registry = new NameRegistry(
+        new String[] {"Basic mine", null, "Space port", "SPACE PORT"});
+    assertEquals(4, registry.getSize());
+    assertEquals(0, registry.getIndex("Basic mine"));
+    assertEquals(0, registry.getIndex("basic MINE"));
+    assertEquals(2, registry.getIndex("space port"));
+    assertEquals(-1, registry.getIndex("Basic farm"));
+    assertEquals(-1, registry.getIndex(null));
+    assertEquals(0, registry.getExactIndex("Basic mine"));
+    assertEquals(-1, registry.getExactIndex("basic mine"));
+    assertEquals(-1, registry.getExactIndex(null));
+  }
+
+}
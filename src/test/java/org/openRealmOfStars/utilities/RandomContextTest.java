@@ -0,0 +1,135 @@
+package org.openRealmOfStars.utilities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+*
+* Open Realm of Stars game project
+* Copyright (C) 2020 Tuomo Untinen
+*
+* This program is free software; you can redistribute it and/or
+* modify it under the terms of the GNU General Public License
+* as published by the Free Software Foundation; either version 2
+* of the License, or (at your option) any later version.
+*
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program; if not, see http://www.gnu.org/licenses/
+*
+* Test for RandomContext and DiceGenerator
+*
+*/
+public class RandomContextTest {
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testSameSeedSameNumbers() {
+    RandomContext first = new RandomContext(12345L);
+    RandomContext second = new RandomContext(12345L);
+    assertTrue(first.isSeeded());
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(first.getRandom(100), second.getRandom(100));
+      assertEquals(first.getRandom(5, 10), second.getRandom(5, 10));
+    }
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testRandomLimits() {
+    RandomContext context = new RandomContext();
+    assertFalse(context.isSeeded());
+    for (int i = 0; i < 1000; i++) {
+      int value = context.getRandom(10);
+      assertTrue(value >= 0 && value <= 10);
+      value = context.getRandom(3, 7);
+      assertTrue(value >= 3 && value <= 7);
+    }
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testFixedValues() {
+    RandomContext context = new RandomContext();
+    context.setFixedValues(1, 5, 13);
+    assertEquals(1, context.getRandom(10));
+    assertEquals(5, context.getRandom(10));
+    assertEquals(2, context.getRandom(10));
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testDiceGeneratorContext() {
+    RandomContext context = new RandomContext(42L);
+    RandomContext reference = new RandomContext(42L);
+    DiceGenerator.setContext(context);
+    assertEquals(context, DiceGenerator.getContext());
+    for (int i = 0; i < 100; i++) {
+      assertEquals(reference.getRandom(50), DiceGenerator.getRandom(50));
+    }
+    DiceGenerator.setContext(null);
+    assertFalse(context == DiceGenerator.getContext());
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testDiceGeneratorContextPerThread() throws InterruptedException {
+    final RandomContext context = new RandomContext(7L);
+    DiceGenerator.setContext(context);
+    final RandomContext[] otherContext = new RandomContext[1];
+    Thread thread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        otherContext[0] = DiceGenerator.getContext();
+      }
+    });
+    thread.start();
+    thread.join();
+    assertFalse(context == otherContext[0]);
+    assertEquals(context, DiceGenerator.getContext());
+    DiceGenerator.setContext(null);
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testSmallSeedsDistribution() {
+    for (long seed = 0; seed < 3; seed++) {
+      RandomContext context = new RandomContext(seed);
+      int[] counts = new int[100];
+      for (int i = 0; i < 10000; i++) {
+        counts[context.getRandom(99)]++;
+      }
+      for (int i = 0; i < counts.length; i++) {
+        // Each value is expected 100 times
+        assertTrue("Seed " + seed + " value " + i + " count " + counts[i],
+            counts[i] > 50 && counts[i] < 150);
+      }
+    }
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testNearSeedsDiffer() {
+    for (long seed = 0; seed < 10; seed++) {
+      RandomContext first = new RandomContext(seed);
+      RandomContext second = new RandomContext(seed + 1);
+      int same = 0;
+      for (int i = 0; i < 1000; i++) {
+        if (first.getRandom(99) == second.getRandom(99)) {
+          same++;
+        }
+      }
+      // About 10 values are expected to be same by chance
+      assertTrue("Seed " + seed + " same " + same, same < 30);
+    }
+  }
+
+}
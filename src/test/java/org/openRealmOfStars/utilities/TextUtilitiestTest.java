@@ -141,4 +141,14 @@ public class TextUtilitiestTest {
     assertEquals(value1[0], result[0]);
   }
 
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testEscapeJson() {
+    assertEquals("Plain text", TextUtilities.escapeJson("Plain text"));
+    assertEquals("\\\"Quoted\\\"", TextUtilities.escapeJson("\"Quoted\""));
+    assertEquals("Back\\\\slash", TextUtilities.escapeJson("Back\\slash"));
+    assertEquals("Line\\nfeed", TextUtilities.escapeJson("Line\nfeed"));
+    assertEquals("\\u0001", TextUtilities.escapeJson("\u0001"));
+  }
+
 }
@@ -0,0 +1,181 @@
+package org.openRealmOfStars.utilities.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.openRealmOfStars.starMap.StarMap;
+
+/**
+*
+* Open Realm of Stars game project
+* Copyright (C) 2020 Tuomo Untinen
+*
+* This program is free software; you can redistribute it and/or
+* modify it under the terms of the GNU General Public License
+* as published by the Free Software Foundation; either version 2
+* of the License, or (at your option) any later version.
+*
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program; if not, see http://www.gnu.org/licenses/
+*
+*
+* Test for AutosaveService
+*
+*/
+public class AutosaveServiceTest {
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testAutosaveNames() {
+    assertEquals("autosave.save", AutosaveService.getAutosaveName(0));
+    assertEquals("autosave-2.save", AutosaveService.getAutosaveName(2));
+    assertTrue(AutosaveService.isAutosave("autosave.save"));
+    assertTrue(AutosaveService.isAutosave("autosave-1.save"));
+    assertFalse(AutosaveService.isAutosave("autosave.save.tmp"));
+    assertFalse(AutosaveService.isAutosave("autosaved game.save"));
+    assertFalse(AutosaveService.isAutosave(null));
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.BehaviourTest.class)
+  public void testAutosaveRotations() throws IOException {
+    GameRepository repository = new GameRepository();
+    StarMap starMap = repository.loadGame("src/test/resources/saves",
+        "testGame.save");
+    File folder = Files.createTempDirectory("autosave").toFile();
+    String folderName = folder.getPath();
+    AutosaveService service = new AutosaveService(folderName, 2, 0);
+    for (int i = 0; i < 3; i++) {
+      service.autosave(starMap);
+      assertTrue(service.waitForWrites(60000));
+    }
+    // Two autosaves and their journals
+    File[] files = folder.listFiles();
+    assertEquals(4, files.length);
+    SaveGameHeader header = repository.loadHeader(folderName,
+        "autosave.save");
+    assertEquals(128, header.getTurn());
+    StarMap loaded = repository.loadGame(folderName, "autosave-1.save");
+    assertEquals("Terran Alliance",
+        loaded.getPlayerByIndex(0).getEmpireName());
+    for (File file : files) {
+      file.delete();
+    }
+    folder.delete();
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.BehaviourTest.class)
+  public void testAutosaveRotationOrder() throws IOException {
+    GameRepository repository = new GameRepository();
+    StarMap starMap = repository.loadGame("src/test/resources/saves",
+        "testGame.save");
+    File folder = Files.createTempDirectory("autosave").toFile();
+    String folderName = folder.getPath();
+    AutosaveService service = new AutosaveService(folderName, 3, 0);
+    for (int i = 0; i < 4; i++) {
+      starMap.setTurn(128 + i);
+      service.autosave(starMap);
+      assertTrue(service.waitForWrites(60000));
+    }
+    assertEquals(131, repository.loadHeader(folderName,
+        "autosave.save").getTurn());
+    assertEquals(130, repository.loadHeader(folderName,
+        "autosave-1.save").getTurn());
+    assertEquals(129, repository.loadHeader(folderName,
+        "autosave-2.save").getTurn());
+    assertFalse(new File(folder, "autosave.save.tmp").exists());
+    for (File file : folder.listFiles()) {
+      file.delete();
+    }
+    folder.delete();
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.BehaviourTest.class)
+  public void testAutosaveJournal() throws IOException {
+    GameRepository repository = new GameRepository();
+    StarMap starMap = repository.loadGame("src/test/resources/saves",
+        "testGame.save");
+    File folder = Files.createTempDirectory("autosave").toFile();
+    String folderName = folder.getPath();
+    AutosaveService service = new AutosaveService(folderName, 2);
+    for (int i = 0; i < 3; i++) {
+      starMap.setTurn(128 + i);
+      service.autosave(starMap);
+      assertTrue(service.waitForWrites(60000));
+    }
+    // Checkpoint and journal with two records
+    File[] files = folder.listFiles();
+    assertEquals(2, files.length);
+    File save = new File(folder, "autosave.save");
+    File journal = SaveGameJournal.getJournalFile(save);
+    assertTrue(journal.length() < save.length());
+    SaveGameHeader header = repository.loadHeader(folderName,
+        "autosave.save");
+    assertEquals(130, header.getTurn());
+    StarMap loaded = repository.loadGame(folderName, "autosave.save");
+    assertEquals(130, loaded.getTurn());
+    loaded = repository.loadGame(folderName, "autosave.save", 129);
+    assertEquals(129, loaded.getTurn());
+    assertEquals("Terran Alliance",
+        loaded.getPlayerByIndex(0).getEmpireName());
+    loaded = repository.loadGame(folderName, "autosave.save", 0);
+    assertEquals(128, loaded.getTurn());
+    for (File file : files) {
+      file.delete();
+    }
+    folder.delete();
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.BehaviourTest.class)
+  public void testAutosaveCheckpointForAnotherGame() throws IOException {
+    GameRepository repository = new GameRepository();
+    StarMap starMap = repository.loadGame("src/test/resources/saves",
+        "testGame.save");
+    File folder = Files.createTempDirectory("autosave").toFile();
+    String folderName = folder.getPath();
+    AutosaveService service = new AutosaveService(folderName, 2);
+    starMap.setTurn(128);
+    service.autosave(starMap);
+    assertTrue(service.waitForWrites(60000));
+    starMap.setTurn(129);
+    service.autosave(starMap);
+    assertTrue(service.waitForWrites(60000));
+    assertEquals(128, repository.loadGame(folderName, "autosave.save",
+        0).getTurn());
+    // Game started or loaded again
+    service.startNewGame();
+    starMap.setTurn(130);
+    service.autosave(starMap);
+    assertTrue(service.waitForWrites(60000));
+    assertEquals(130, repository.loadGame(folderName, "autosave.save",
+        0).getTurn());
+    // Different empire without telling about new game
+    starMap.getPlayerByIndex(0).setEmpireName("Other Empire");
+    starMap.setTurn(131);
+    service.autosave(starMap);
+    assertTrue(service.waitForWrites(60000));
+    StarMap loaded = repository.loadGame(folderName, "autosave.save", 0);
+    assertEquals(131, loaded.getTurn());
+    assertEquals("Other Empire", loaded.getPlayerByIndex(0).getEmpireName());
+    for (File file : folder.listFiles()) {
+      file.delete();
+    }
+    folder.delete();
+  }
+
+}
@@ -1,8 +1,19 @@
 package org.openRealmOfStars.utilities.repository;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
+import org.openRealmOfStars.player.SpaceRace.SpaceRace;
 import org.openRealmOfStars.starMap.StarMap;
+import org.openRealmOfStars.utilities.IOUtilities;
 import static org.junit.Assert.*;
 
 
@@ -63,4 +74,109 @@ public class GameRepositoryTest {
     assertEquals(2, starMap.getHistory().getByIndex(40).getNumberOfEvents());
   }
 
+  @Test
+  @Category(org.openRealmOfStars.BehaviourTest.class)
+  public void testSavingSectionedGame() throws IOException {
+    GameRepository repository = new GameRepository();
+    StarMap starMap = repository.loadGame("src/test/resources/saves",
+                                          "testGame.save");
+    assertNull(repository.loadHeader("src/test/resources/saves",
+                                     "testGame.save"));
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    DataOutputStream dos = new DataOutputStream(bos);
+    starMap.saveGame(dos);
+    dos.flush();
+    byte[] data = bos.toByteArray();
+    DataInputStream dis = new DataInputStream(new ByteArrayInputStream(data));
+    assertEquals(SaveGameHeader.MAGIC_STRING, IOUtilities.readString(dis));
+    SaveGameHeader header = SaveGameHeader.readHeader(dis);
+    assertEquals(128, header.getTurn());
+    assertEquals(50, header.getMaxX());
+    assertEquals(50, header.getMaxY());
+    assertEquals(SpaceRace.HUMAN, header.getRace());
+    assertEquals("Terran Alliance", header.getEmpireName());
+    int last = SaveGameHeader.SECTION_HISTORY;
+    assertEquals(data.length, header.getSectionOffset(last)
+        + header.getSectionLength(last));
+    StarMap loaded = new StarMap(new DataInputStream(
+        new ByteArrayInputStream(data)));
+    assertEquals("Terran Alliance",
+        loaded.getPlayerByIndex(0).getEmpireName());
+    assertEquals(128, loaded.getTurn());
+    assertEquals(starMap.getPlanetList().size(),
+        loaded.getPlanetList().size());
+    assertEquals(starMap.getHistory().numberOfTurns(),
+        loaded.getHistory().numberOfTurns());
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.BehaviourTest.class)
+  public void testFailedSectionIsSavedUnchanged() throws IOException {
+    GameRepository repository = new GameRepository();
+    StarMap starMap = repository.loadGame("src/test/resources/saves",
+                                          "testGame.save");
+    byte[][] sections = starMap.saveSections();
+    byte[] history = new byte[] {0, 1};
+    sections[SaveGameHeader.SECTION_HISTORY] = history;
+    File folder = Files.createTempDirectory("failed").toFile();
+    String folderName = folder.getPath();
+    repository.saveGame(folderName, "failed.save", new StarMap(sections));
+    StarMap loaded = repository.loadGame(folderName, "failed.save");
+    assertEquals(1, loaded.getHistory().numberOfTurns());
+    // Save over the file history was read from
+    repository.saveGame(folderName, "failed.save", loaded);
+    File file = new File(folder, "failed.save");
+    assertFalse(new File(folder, "failed.save.tmp").exists());
+    try (DataInputStream dis = new DataInputStream(
+        new FileInputStream(file))) {
+      assertEquals(SaveGameHeader.MAGIC_STRING, IOUtilities.readString(dis));
+      SaveGameHeader header = SaveGameHeader.readHeader(dis);
+      assertEquals(128, header.getTurn());
+      assertArrayEquals(history,
+          header.readSections(dis)[SaveGameHeader.SECTION_HISTORY]);
+    }
+    loaded.setHistory(starMap.getHistory());
+    assertEquals(starMap.getHistory().numberOfTurns(), new StarMap(
+        loaded.saveSections()).getHistory().numberOfTurns());
+    for (File saved : folder.listFiles()) {
+      saved.delete();
+    }
+    folder.delete();
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.BehaviourTest.class)
+  public void testCorruptedJournalRecord() throws IOException {
+    GameRepository repository = new GameRepository();
+    StarMap starMap = repository.loadGame("src/test/resources/saves",
+                                          "testGame.save");
+    File folder = Files.createTempDirectory("journal").toFile();
+    String folderName = folder.getPath();
+    AutosaveService service = new AutosaveService(folderName, 1);
+    for (int i = 0; i < 2; i++) {
+      starMap.setTurn(128 + i);
+      service.autosave(starMap);
+      assertTrue(service.waitForWrites(60000));
+    }
+    // Record made against other sections than those in journal
+    byte[][] sections = starMap.saveSections();
+    byte[][] previous = new byte[sections.length][];
+    for (int i = 0; i < sections.length; i++) {
+      previous[i] = new byte[sections[i].length + 10000];
+      System.arraycopy(sections[i], 0, previous[i], 10000,
+          sections[i].length);
+    }
+    starMap.setTurn(130);
+    File journal = SaveGameJournal.getJournalFile(
+        new File(folder, "autosave.save"));
+    SaveGameJournal.append(journal, 130, System.currentTimeMillis(),
+        previous, starMap.saveSections());
+    StarMap loaded = repository.loadGame(folderName, "autosave.save");
+    assertEquals(129, loaded.getTurn());
+    for (File file : folder.listFiles()) {
+      file.delete();
+    }
+    folder.delete();
+  }
+
 }
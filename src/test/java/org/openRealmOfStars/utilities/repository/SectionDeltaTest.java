@@ -0,0 +1,97 @@
+package org.openRealmOfStars.utilities.repository;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+*
+* Open Realm of Stars game project
+* Copyright (C) 2020 Tuomo Untinen
+*
+* This program is free software; you can redistribute it and/or
+* modify it under the terms of the GNU General Public License
+* as published by the Free Software Foundation; either version 2
+* of the License, or (at your option) any later version.
+*
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program; if not, see http://www.gnu.org/licenses/
+*
+*
+* Test for SectionDelta
+*
+*/
+public class SectionDeltaTest {
+
+  /**
+   * Create test data which does not repeat itself.
+   * @param length Length of data
+   * @return Test data
+   */
+  private static byte[] createData(final int length) {
+    byte[] data = new byte[length];
+    new Random(length).nextBytes(data);
+    return data;
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testSmallChange() throws IOException {
+    byte[] base = createData(4000);
+    byte[] target = Arrays.copyOf(base, base.length);
+    target[1000] = 42;
+    target[3000] = 43;
+    byte[] delta = SectionDelta.create(base, target);
+    assertTrue(delta.length < 100);
+    assertArrayEquals(target, SectionDelta.apply(base, delta));
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testInsertedAndRemovedBytes() throws IOException {
+    byte[] base = createData(4000);
+    byte[] target = new byte[base.length + 5 - 20];
+    System.arraycopy(base, 0, target, 0, 500);
+    System.arraycopy(createData(5), 0, target, 500, 5);
+    System.arraycopy(base, 500, target, 505, 3000);
+    System.arraycopy(base, 3520, target, 3505, 480);
+    byte[] delta = SectionDelta.create(base, target);
+    assertTrue(delta.length < 100);
+    assertArrayEquals(target, SectionDelta.apply(base, delta));
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testShortAndEmptySections() throws IOException {
+    byte[] base = createData(10);
+    byte[] target = createData(20);
+    assertArrayEquals(target, SectionDelta.apply(base,
+        SectionDelta.create(base, target)));
+    assertArrayEquals(new byte[0], SectionDelta.apply(base,
+        SectionDelta.create(base, new byte[0])));
+    assertArrayEquals(target, SectionDelta.apply(new byte[0],
+        SectionDelta.create(new byte[0], target)));
+  }
+
+  @Test(expected = IOException.class)
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testDeltaForOtherBase() throws IOException {
+    byte[] base = createData(4000);
+    byte[] target = Arrays.copyOf(base, base.length);
+    target[2000] = 1;
+    byte[] delta = SectionDelta.create(base, target);
+    SectionDelta.apply(createData(100), delta);
+  }
+
+}
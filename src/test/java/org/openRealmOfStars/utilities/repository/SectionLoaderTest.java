@@ -0,0 +1,70 @@
+package org.openRealmOfStars.utilities.repository;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+*
+* Open Realm of Stars game project
+* Copyright (C) 2020 Tuomo Untinen
+*
+* This program is free software; you can redistribute it and/or
+* modify it under the terms of the GNU General Public License
+* as published by the Free Software Foundation; either version 2
+* of the License, or (at your option) any later version.
+*
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program; if not, see http://www.gnu.org/licenses/
+*
+*
+* Test for SectionLoader
+*
+*/
+public class SectionLoaderTest {
+
+  /**
+   * Section loader reading single integer.
+   */
+  private static class IntLoader extends SectionLoader<Integer> {
+    /**
+     * Create loader.
+     * @param data Section data
+     */
+    IntLoader(final byte[] data) {
+      super(data);
+    }
+
+    @Override
+    protected Integer read(final DataInputStream dis) throws IOException {
+      return Integer.valueOf(dis.readInt());
+    }
+  }
+
+  @Test
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testLoading() throws IOException {
+    SectionLoader<Integer> loader = new IntLoader(
+        new byte[] {0, 0, 1, 2}).start("Test loader");
+    assertEquals(258, loader.get().intValue());
+    assertEquals(258, loader.get().intValue());
+  }
+
+  @Test(expected = IOException.class)
+  @Category(org.openRealmOfStars.UnitTest.class)
+  public void testLoadingFails() throws IOException {
+    SectionLoader<Integer> loader = new IntLoader(
+        new byte[] {0, 1}).start("Test loader");
+    loader.get();
+  }
+
+}